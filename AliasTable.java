@@ -0,0 +1,165 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Random ;
+
+/**
+ * Walker/Vose alias table for drawing an index with probability proportional to its
+ * weight in constant time - one pseudo-random draw and no rejection loop regardless of
+ * how skewed the weights are. Building the table takes time proportional to the
+ * number of weights.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class AliasTable
+    {
+
+    // column i keeps its own index with probability probabilities[ i ], otherwise
+    // it yields aliases[ i ]
+    private final double[] probabilities ;
+    private final int[] aliases ;
+
+
+    /**
+     * @param weights
+     *     non-negative relative weights - index i is drawn with probability
+     *     {@code weights[ i ] / sum( weights )}
+     * @throws IllegalArgumentException
+     *     if a weight is negative or not finite, or every weight is 0
+     */
+    AliasTable( double[] weights )
+        {
+        int n = weights.length ;
+
+        double sum = 0.0 ;
+        for ( double aWeight : weights )
+            {
+            if ( ! ( aWeight >= 0.0 ) || Double.isInfinite( aWeight ) )
+                {
+                throw new IllegalArgumentException( "weights must be finite and non-negative" ) ;
+                }
+
+            sum += aWeight ;
+            }
+
+        if ( sum <= 0.0 )
+            {
+            throw new IllegalArgumentException( "at least one weight must be positive" ) ;
+            }
+
+        this.probabilities = new double[ n ] ;
+        this.aliases = new int[ n ] ;
+
+        // scale so the average column is exactly full, then pair each under-full
+        // column with an over-full one
+        double[] scaled = new double[ n ] ;
+        int[] small = new int[ n ] ;
+        int[] large = new int[ n ] ;
+        int smallCount = 0 ;
+        int largeCount = 0 ;
+
+        for ( int i = 0 ; i < n ; i++ )
+            {
+            scaled[ i ] = ( weights[ i ] * n ) / sum ;
+
+            if ( scaled[ i ] < 1.0 )
+                {
+                small[ smallCount++ ] = i ;
+                }
+            else
+                {
+                large[ largeCount++ ] = i ;
+                }
+            }
+
+        while ( ( smallCount > 0 ) && ( largeCount > 0 ) )
+            {
+            int under = small[ --smallCount ] ;
+            int over = large[ --largeCount ] ;
+
+            this.probabilities[ under ] = scaled[ under ] ;
+            this.aliases[ under ] = over ;
+
+            scaled[ over ] = ( scaled[ over ] + scaled[ under ] ) - 1.0 ;
+
+            if ( scaled[ over ] < 1.0 )
+                {
+                small[ smallCount++ ] = over ;
+                }
+            else
+                {
+                large[ largeCount++ ] = over ;
+                }
+            }
+
+        // whatever remains is full up to rounding error
+        while ( largeCount > 0 )
+            {
+            int full = large[ --largeCount ] ;
+            this.probabilities[ full ] = 1.0 ;
+            this.aliases[ full ] = full ;
+            }
+
+        while ( smallCount > 0 )
+            {
+            int full = small[ --smallCount ] ;
+            this.probabilities[ full ] = 1.0 ;
+            this.aliases[ full ] = full ;
+            }
+
+        }   // end constructor
+
+
+    /**
+     * Draw an index
+     * 
+     * @param pseudoRandom
+     *     the source of randomness
+     * @return an index from 0 to {@code size() - 1}
+     */
+    int sample( Random pseudoRandom )
+        {
+        double scaled = pseudoRandom.nextDouble() * this.probabilities.length ;
+        int column = Math.min( (int) scaled, this.probabilities.length - 1 ) ;
+
+        return ( scaled - column ) < this.probabilities[ column ]
+                    ? column
+                    : this.aliases[ column ] ;
+
+        }   // end sample()
+
+
+    /**
+     * @return the number of weights
+     */
+    int size()
+        {
+        return this.probabilities.length ;
+
+        }   // end size()
+
+    }   // end class AliasTable
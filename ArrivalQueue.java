@@ -0,0 +1,289 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.concurrent.atomic.AtomicInteger ;
+import java.util.concurrent.atomic.AtomicIntegerArray ;
+import java.util.concurrent.atomic.AtomicReference ;
+
+/**
+ * Lock-free, unbounded multi-producer/single-consumer queue of passenger arrivals
+ * at one station. Any number of threads may {@code offer()} arrivals - each claims
+ * an entry with a single atomic increment and never waits - while one thread drains
+ * them in the order they were claimed.
+ * <p>
+ * Arrivals are stored in linked array segments rather than one node per arrival.
+ * Segments start small, so a quiet station holds little, and double in size up to a
+ * limit as a station gets busier. A drained segment is kept as a spare for the next
+ * segment a producer needs, so once a station's traffic settles, queuing arrivals
+ * allocates nothing.
+ * <p>
+ * Each arrival carries the tick it belongs to and its position among that tick's
+ * arrivals at every station, so the consumer can drain exactly one tick and admit
+ * the passengers in the order they were drawn.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class ArrivalQueue
+    {
+
+    /** entries in a queue's first segment */
+    private static final int FIRST_SEGMENT_SIZE = 4 ;
+
+    /** the most entries in a segment */
+    private static final int MAXIMUM_SEGMENT_SIZE = 256 ;
+
+    /**
+     * A block of queued arrivals - the segment is its own atomic link to the next
+     * segment. An entry is published by setting its tick, which is never 0.
+     */
+    private static final class Segment extends AtomicReference<Segment>
+        {
+
+        private static final long serialVersionUID = 1L ;
+
+        /** entries claimed by producers - overshoots the size once the segment is full */
+        final AtomicInteger claimed ;
+
+        final AtomicIntegerArray ticks ;
+        final int[] sequences ;
+        final int[] destinationIds ;
+
+
+        /**
+         * @param size
+         *     the number of entries
+         */
+        Segment( int size )
+            {
+            this.claimed = new AtomicInteger() ;
+
+            this.ticks = new AtomicIntegerArray( size ) ;
+            this.sequences = new int[ size ] ;
+            this.destinationIds = new int[ size ] ;
+
+            }   // end constructor
+
+
+        /**
+         * @return the number of entries
+         */
+        int size()
+            {
+            return this.sequences.length ;
+
+            }   // end size()
+
+
+        /**
+         * Empty the segment for reuse - no producer may still be using it
+         */
+        void reset()
+            {
+            for ( int i = 0 ; i < this.ticks.length() ; i++ )
+                {
+                this.ticks.lazySet( i, 0 ) ;
+                }
+
+            this.claimed.lazySet( 0 ) ;
+            lazySet( null ) ;
+
+            }   // end reset()
+
+        }   // end class Segment
+
+    // the first segment, linked by the first offer
+    private final AtomicReference<Segment> first ;
+
+    // the segment producers claim entries in or null before the first offer
+    private final AtomicReference<Segment> tail ;
+
+    // a drained segment for the next producer which needs a new segment
+    private final AtomicReference<Segment> spare ;
+
+    // the consumer's position - its segment (null before the first drain) and entry
+    private Segment head ;
+    private int headIndex ;
+
+
+    /**
+     * Create an empty queue - no segment is allocated until the first offer
+     */
+    ArrivalQueue()
+        {
+        this.first = new AtomicReference<>() ;
+        this.tail = new AtomicReference<>() ;
+        this.spare = new AtomicReference<>() ;
+
+        this.head = null ;
+        this.headIndex = 0 ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Add an arrival - safe to call from any number of threads concurrently
+     * <p>
+     * NOTE: offers for a tick must not start until every offer for the previous
+     * tick has completed - that is what makes it safe to reuse drained segments
+     * 
+     * @param tick
+     *     the tick the passenger arrives - at least 1
+     * @param sequence
+     *     the passenger's position among the tick's arrivals
+     * @param destinationId
+     *     the station the passenger travels to
+     */
+    void offer( int tick, int sequence, int destinationId )
+        {
+        while ( true )
+            {
+            Segment segment = this.tail.get() ;
+
+            if ( segment == null )
+                {
+                // the first offer links the first segment
+                this.first.compareAndSet( null, new Segment( FIRST_SEGMENT_SIZE ) ) ;
+                this.tail.compareAndSet( null, this.first.get() ) ;
+                continue ;
+                }
+
+            int index = segment.claimed.getAndIncrement() ;
+            if ( index < segment.size() )
+                {
+                segment.sequences[ index ] = sequence ;
+                segment.destinationIds[ index ] = destinationId ;
+
+                // publishes the entry's fields to the consumer
+                segment.ticks.lazySet( index, tick ) ;
+
+                return ;
+                }
+
+            // the segment is full - link a successor (the first producer to try wins)
+            // and move the tail on
+            Segment next = segment.get() ;
+            if ( next == null )
+                {
+                Segment fresh = this.spare.getAndSet( null ) ;
+                if ( fresh == null )
+                    {
+                    fresh = new Segment( Math.min( segment.size() * 2, MAXIMUM_SEGMENT_SIZE ) ) ;
+                    }
+
+                if ( segment.compareAndSet( null, fresh ) )
+                    {
+                    next = fresh ;
+                    }
+                else
+                    {
+                    this.spare.lazySet( fresh ) ;
+                    next = segment.get() ;
+                    }
+                }
+
+            this.tail.compareAndSet( segment, next ) ;
+            }
+
+        }   // end offer()
+
+
+    /**
+     * Remove every arrival for a tick, placing each passenger's stations at their
+     * position among the tick's arrivals - consumer only
+     * <p>
+     * NOTE: an arrival is visible once its producer publishes it, so the caller must
+     * wait until every producer has finished offering the tick's arrivals
+     * 
+     * @param tick
+     *     the tick to drain - earlier arrivals must already have been drained
+     * @param originId
+     *     this queue's station
+     * @param fromStationIds
+     *     receives the starting station, indexed by sequence
+     * @param toStationIds
+     *     receives the ending station, indexed by sequence
+     * @return the number of arrivals removed
+     */
+    int drainTick( int tick,
+                   int originId,
+                   int[] fromStationIds,
+                   int[] toStationIds )
+        {
+        if ( this.head == null )
+            {
+            this.head = this.first.get() ;
+            if ( this.head == null )
+                {
+                return 0 ;  // nothing has been offered
+                }
+            }
+
+        int drainedCount = 0 ;
+
+        while ( true )
+            {
+            Segment segment = this.head ;
+
+            if ( this.headIndex == segment.size() )
+                {
+                // move on only for this tick's arrivals - the successor was then linked
+                // by an offer for this tick or earlier, all of which have completed, so
+                // no producer can still be using the drained segment
+                Segment next = segment.get() ;
+                if ( ( next == null ) || ( next.ticks.get( 0 ) != tick ) )
+                    {
+                    break ;
+                    }
+
+                this.head = next ;
+                this.headIndex = 0 ;
+
+                segment.reset() ;
+                this.spare.set( segment ) ;
+
+                continue ;
+                }
+
+            if ( segment.ticks.get( this.headIndex ) != tick )
+                {
+                break ;
+                }
+
+            int sequence = segment.sequences[ this.headIndex ] ;
+            fromStationIds[ sequence ] = originId ;
+            toStationIds[ sequence ] = segment.destinationIds[ this.headIndex ] ;
+
+            this.headIndex++ ;
+            drainedCount++ ;
+            }
+
+        return drainedCount ;
+
+        }   // end drainTick()
+
+
+    }   // end class ArrivalQueue
@@ -0,0 +1,465 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.IOException ;
+import java.io.UncheckedIOException ;
+import java.nio.ByteBuffer ;
+import java.nio.CharBuffer ;
+import java.nio.channels.FileChannel ;
+import java.nio.charset.CharsetEncoder ;
+import java.nio.charset.CoderResult ;
+import java.nio.charset.StandardCharsets ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.StandardOpenOption ;
+import java.util.Formatter ;
+import java.util.IllegalFormatException ;
+import java.util.concurrent.atomic.AtomicLong ;
+import java.util.concurrent.locks.LockSupport ;
+
+/**
+ * Asynchronous, batched log writer. The simulation thread appends compact records
+ * (a format string and its arguments) to a lock-free single-producer/single-consumer
+ * ring buffer and returns immediately. A background thread formats the records and
+ * writes them to a file through a large direct NIO buffer.
+ * <p>
+ * Arguments whose string form could change before the background thread formats
+ * them (e.g. a {@code Location}) are converted to strings when the record is
+ * appended; immutable values and entities whose {@code toString()} is just their id
+ * are kept as-is.
+ * <p>
+ * If the background writer fails, whatever stopped it is kept: {@code printf()}
+ * throws it (wrapped in an {@code UncheckedIOException}) as soon as the ring buffer
+ * is full, and {@code close()} throws it (wrapped in an {@code IOException}) so a
+ * lost log tail is never reported as success.
+ * <p>
+ * NOTE: {@code printf()} must only be called from one thread at a time.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class AsyncLogWriter
+    {
+
+    /**
+     * What {@code printf()} does when the ring buffer is full
+     */
+    public enum Backpressure
+        {
+        /** wait for the background writer to make room */
+        BLOCK,
+        /** discard the record */
+        DROP,
+        /** keep 1 of every <i>sample rate</i> records (waiting for room), drop the rest */
+        SAMPLE
+        }   // end enum Backpressure
+
+    /** size of the direct buffer between the formatter and the file */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20 ;
+
+    /** how long the background writer sleeps when there is nothing to do */
+    private static final long IDLE_PARK_NANOS = 1_000_000L ;
+
+    // ring buffer - a record is a format and its arguments
+    private final String[] formats ;
+    private final Object[][] arguments ;
+    private final int mask ;
+
+    private final AtomicLong published = new AtomicLong() ;   // next sequence to be written by the producer
+    private final AtomicLong consumed = new AtomicLong() ;    // next sequence to be read by the writer
+    private long producerSequence = 0 ;                        // producer's private copy of published
+
+    // backpressure
+    private final Backpressure backpressure ;
+    private final int sampleRate ;
+    private long sampleCounter = 0 ;
+    private long droppedCount = 0 ;
+
+    // output
+    private final FileChannel channel ;
+    private final Thread writerThread ;
+    private volatile boolean closed = false ;
+    private Throwable writeFailure = null ;   // written by the writer thread before it ends
+
+
+    /**
+     * Open the log file and start the background writer
+     *
+     * @param logFile
+     *     the file to write - created (with its parent folder) or truncated
+     * @param capacity
+     *     number of records the ring buffer holds (rounded up to a power of 2)
+     * @param backpressure
+     *     what to do when the ring buffer is full
+     * @param sampleRate
+     *     with SAMPLE backpressure, 1 of this many records is kept while the ring
+     *     buffer is full
+     * @throws IOException
+     *     if the file can't be created
+     */
+    public AsyncLogWriter( Path logFile,
+                           int capacity,
+                           Backpressure backpressure,
+                           int sampleRate ) throws IOException
+        {
+        int ringSize = Integer.highestOneBit( Math.max( 2, capacity - 1 ) ) << 1 ;
+
+        this.formats = new String[ ringSize ] ;
+        this.arguments = new Object[ ringSize ][] ;
+        this.mask = ringSize - 1 ;
+
+        this.backpressure = backpressure ;
+        this.sampleRate = Math.max( 1, sampleRate ) ;
+
+        if ( logFile.getParent() != null )
+            {
+            Files.createDirectories( logFile.getParent() ) ;
+            }
+        this.channel = FileChannel.open( logFile,
+                                         StandardOpenOption.CREATE,
+                                         StandardOpenOption.WRITE,
+                                         StandardOpenOption.TRUNCATE_EXISTING ) ;
+
+        this.writerThread = new Thread( this::drainLoop, "AsyncLogWriter" ) ;
+        this.writerThread.setDaemon( true ) ;
+        this.writerThread.start() ;
+
+        }   // end constructor
+
+
+    /**
+     * Append a record to be formatted and written in the background
+     *
+     * @param format
+     *     a {@code String.format()} format string
+     * @param args
+     *     the arguments referenced by the format
+     * @throws UncheckedIOException
+     *     if the ring buffer is full and the background writer has failed
+     */
+    public void printf( String format, Object... args )
+        {
+        long sequence = this.producerSequence ;
+
+        if ( ( sequence - this.consumed.get() ) > this.mask )
+            {
+            // the ring buffer is full - it stays full if the writer has stopped
+            checkWriter() ;
+
+            switch ( this.backpressure )
+                {
+                case DROP:
+                    this.droppedCount++ ;
+                    return ;
+
+                case SAMPLE:
+                    if ( ( this.sampleCounter++ % this.sampleRate ) != 0 )
+                        {
+                        this.droppedCount++ ;
+                        return ;
+                        }
+                    awaitRoom( sequence ) ;
+                    break ;
+
+                case BLOCK:
+                default:
+                    awaitRoom( sequence ) ;
+                    break ;
+                }
+            }
+
+        int slot = (int) ( sequence & this.mask ) ;
+        this.formats[ slot ] = format ;
+        this.arguments[ slot ] = capture( args ) ;
+
+        this.producerSequence = sequence + 1 ;
+        this.published.lazySet( this.producerSequence ) ;
+
+        }   // end printf()
+
+
+    /**
+     * Wait until the writer has consumed enough for a sequence to fit
+     *
+     * @param sequence
+     *     the sequence about to be written
+     */
+    private void awaitRoom( long sequence )
+        {
+        while ( ( sequence - this.consumed.get() ) > this.mask )
+            {
+            checkWriter() ;
+
+            LockSupport.unpark( this.writerThread ) ;
+            Thread.onSpinWait() ;
+            }
+
+        }   // end awaitRoom()
+
+
+    /**
+     * Make sure the background writer is still running
+     *
+     * @throws UncheckedIOException
+     *     if the background writer has stopped
+     */
+    private void checkWriter()
+        {
+        // seeing the thread end makes its writeFailure visible here
+        if ( ! this.writerThread.isAlive() )
+            {
+            throw new UncheckedIOException( writerFailure() ) ;
+            }
+
+        }   // end checkWriter()
+
+
+    /**
+     * @return whatever stopped the background writer, as an {@code IOException}
+     */
+    private IOException writerFailure()
+        {
+        if ( this.writeFailure instanceof IOException )
+            {
+            return (IOException) this.writeFailure ;
+            }
+
+        return new IOException( "log writer has stopped", this.writeFailure ) ;
+
+        }   // end writerFailure()
+
+
+    /**
+     * Make the arguments safe to format later
+     *
+     * @param args
+     *     the arguments as passed to {@code printf()}
+     * @return the same array with any mutable values replaced by their current string
+     *     form
+     */
+    private static Object[] capture( Object[] args )
+        {
+        for ( int i = 0 ; i < args.length ; i++ )
+            {
+            Object anArgument = args[ i ] ;
+
+            if ( ! ( ( anArgument == null ) ||
+                     ( anArgument instanceof String ) ||
+                     ( anArgument instanceof Number ) ||
+                     ( anArgument instanceof Boolean ) ||
+                     ( anArgument instanceof Character ) ||
+                     ( anArgument instanceof Enum<?> ) ||
+                     ( anArgument instanceof Train ) ||
+                     ( anArgument instanceof Station ) ||
+                     ( anArgument instanceof TrainRoute ) ||
+                     ( anArgument instanceof Passenger ) ) )
+                {
+                args[ i ] = anArgument.toString() ;
+                }
+            }
+
+        return args ;
+
+        }   // end capture()
+
+
+    /**
+     * @return the number of records discarded because the ring buffer was full
+     */
+    public long getDroppedCount()
+        {
+        return this.droppedCount ;
+
+        }   // end getDroppedCount()
+
+
+    /**
+     * Background writer: format every published record, write when the buffer fills
+     * or when there's nothing left to do
+     */
+    private void drainLoop()
+        {
+        StringBuilder text = new StringBuilder( 1 << 16 ) ;
+        Formatter formatter = new Formatter( text ) ;
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder() ;
+        ByteBuffer bytes = ByteBuffer.allocateDirect( WRITE_BUFFER_SIZE ) ;
+
+        long cursor = this.consumed.get() ;
+
+        try
+            {
+            while ( true )
+                {
+                long available = this.published.get() ;
+
+                if ( cursor < available )
+                    {
+                    for ( ; cursor < available ; cursor++ )
+                        {
+                        int slot = (int) ( cursor & this.mask ) ;
+
+                        try
+                            {
+                            formatter.format( this.formats[ slot ], this.arguments[ slot ] ) ;
+                            }
+                        catch ( IllegalFormatException e )
+                            {
+                            text.append( this.formats[ slot ] ) ;
+                            }
+
+                        this.formats[ slot ] = null ;
+                        this.arguments[ slot ] = null ;
+
+                        if ( text.length() >= ( WRITE_BUFFER_SIZE / 4 ) )
+                            {
+                            encode( text, encoder, bytes ) ;
+                            }
+                        }
+
+                    this.consumed.lazySet( cursor ) ;
+                    continue ;
+                    }
+
+                // caught up - write what we have
+                encode( text, encoder, bytes ) ;
+                writeBytes( bytes ) ;
+
+                if ( this.closed && ( this.published.get() == cursor ) )
+                    {
+                    break ;
+                    }
+
+                LockSupport.parkNanos( IDLE_PARK_NANOS ) ;
+                }
+            }
+        catch ( Throwable e )
+            {
+            // anything - a write, an argument's toString(), running out of memory -
+            // loses the records not yet written
+            this.writeFailure = e ;
+            }
+
+        }   // end drainLoop()
+
+
+    /**
+     * Encode formatted text into the byte buffer, writing to the file whenever the
+     * buffer fills
+     *
+     * @param text
+     *     formatted text - emptied on return
+     * @param encoder
+     *     the character encoder
+     * @param bytes
+     *     the byte buffer
+     * @throws IOException
+     *     if the file write fails
+     */
+    private void encode( StringBuilder text,
+                         CharsetEncoder encoder,
+                         ByteBuffer bytes ) throws IOException
+        {
+        CharBuffer chars = CharBuffer.wrap( text ) ;
+
+        while ( true )
+            {
+            CoderResult result = encoder.encode( chars, bytes, false ) ;
+            if ( ! result.isOverflow() )
+                {
+                break ;
+                }
+
+            writeBytes( bytes ) ;
+            }
+
+        text.setLength( 0 ) ;
+
+        }   // end encode()
+
+
+    /**
+     * Write and empty the byte buffer
+     *
+     * @param bytes
+     *     the byte buffer in fill mode
+     * @throws IOException
+     *     if the file write fails
+     */
+    private void writeBytes( ByteBuffer bytes ) throws IOException
+        {
+        bytes.flip() ;
+
+        while ( bytes.hasRemaining() )
+            {
+            this.channel.write( bytes ) ;
+            }
+
+        bytes.clear() ;
+
+        }   // end writeBytes()
+
+
+    /**
+     * Write every pending record, note any dropped records, and close the file
+     *
+     * @throws IOException
+     *     if the background writer failed - any other failure is its cause
+     */
+    public void close() throws IOException
+        {
+        this.closed = true ;
+        LockSupport.unpark( this.writerThread ) ;
+
+        try
+            {
+            this.writerThread.join() ;
+            }
+        catch ( InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+            }
+
+        try
+            {
+            if ( ( this.writeFailure == null ) && ( this.droppedCount > 0 ) )
+                {
+                this.channel.write( StandardCharsets.UTF_8.encode( String.format( "%n%,d log records dropped%n",
+                                                                                  this.droppedCount ) ) ) ;
+                }
+            }
+        finally
+            {
+            this.channel.close() ;
+            }
+
+        if ( this.writeFailure != null )
+            {
+            throw writerFailure() ;
+            }
+
+        }   // end close()
+
+    }   // end class AsyncLogWriter
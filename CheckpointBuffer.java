@@ -0,0 +1,301 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.nio.ByteBuffer ;
+import java.nio.ByteOrder ;
+
+/**
+ * Growable buffer into which a simulation's complete state is encoded for a
+ * checkpoint, and from which it's decoded on restore. Values are little-endian and
+ * arrays are copied in bulk, so capturing the state costs about as much as copying
+ * its arrays.
+ * <p>
+ * Each entity encodes its own state with a {@code saveState()} method and decodes it
+ * with a matching {@code restoreState()} method.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class CheckpointBuffer
+    {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 16 ;
+
+    private ByteBuffer bytes ;
+
+
+    /**
+     * Create an empty buffer for encoding
+     */
+    CheckpointBuffer()
+        {
+        this( ByteBuffer.allocate( DEFAULT_INITIAL_CAPACITY ) ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Wrap encoded state for decoding
+     *
+     * @param encoded
+     *     the state, positioned at its start
+     */
+    CheckpointBuffer( ByteBuffer encoded )
+        {
+        this.bytes = encoded.order( ByteOrder.LITTLE_ENDIAN ) ;
+
+        }   // end constructor
+
+
+    /**
+     * Discard the contents so the buffer can be reused for the next checkpoint
+     */
+    void clear()
+        {
+        this.bytes.clear() ;
+
+        }   // end clear()
+
+
+    /**
+     * @return the encoded state from its start to the last value put - the buffer's
+     *     contents are shared, not copied
+     */
+    ByteBuffer encoded()
+        {
+        return this.bytes.duplicate()
+                         .flip()
+                         .order( ByteOrder.LITTLE_ENDIAN ) ;
+
+        }   // end encoded()
+
+
+    /**
+     * Make room for more values, at least doubling the capacity when it grows
+     *
+     * @param byteCount
+     *     the number of bytes about to be put
+     */
+    private void ensure( int byteCount )
+        {
+        if ( this.bytes.remaining() >= byteCount )
+            {
+            return ;
+            }
+
+        int newCapacity = Math.max( this.bytes.capacity() * 2,
+                                    this.bytes.position() + byteCount ) ;
+        ByteBuffer newBytes = ByteBuffer.allocate( newCapacity )
+                                        .order( ByteOrder.LITTLE_ENDIAN ) ;
+        newBytes.put( this.bytes.flip() ) ;
+
+        this.bytes = newBytes ;
+
+        }   // end ensure()
+
+
+    /*
+     * encoding
+     */
+
+
+    /**
+     * @param value
+     *     the value to append
+     */
+    void putInt( int value )
+        {
+        ensure( Integer.BYTES ) ;
+        this.bytes.putInt( value ) ;
+
+        }   // end putInt()
+
+
+    /**
+     * @param value
+     *     the value to append
+     */
+    void putLong( long value )
+        {
+        ensure( Long.BYTES ) ;
+        this.bytes.putLong( value ) ;
+
+        }   // end putLong()
+
+
+    /**
+     * Append part of an array - the count isn't recorded
+     *
+     * @param values
+     *     the source
+     * @param offset
+     *     index of the first value to append
+     * @param count
+     *     number of values to append
+     */
+    void putInts( int[] values, int offset, int count )
+        {
+        ensure( count * Integer.BYTES ) ;
+        this.bytes.asIntBuffer().put( values, offset, count ) ;
+        this.bytes.position( this.bytes.position() + ( count * Integer.BYTES ) ) ;
+
+        }   // end putInts()
+
+
+    /**
+     * Append part of an array - the count isn't recorded
+     *
+     * @param values
+     *     the source
+     * @param offset
+     *     index of the first value to append
+     * @param count
+     *     number of values to append
+     */
+    void putLongs( long[] values, int offset, int count )
+        {
+        ensure( count * Long.BYTES ) ;
+        this.bytes.asLongBuffer().put( values, offset, count ) ;
+        this.bytes.position( this.bytes.position() + ( count * Long.BYTES ) ) ;
+
+        }   // end putLongs()
+
+
+    /**
+     * Append a count followed by the bytes
+     *
+     * @param values
+     *     the bytes to append
+     */
+    void putBytes( byte[] values )
+        {
+        putInt( values.length ) ;
+
+        ensure( values.length ) ;
+        this.bytes.put( values ) ;
+
+        }   // end putBytes()
+
+
+    /*
+     * decoding
+     */
+
+
+    /**
+     * @return the next value
+     */
+    int getInt()
+        {
+        return this.bytes.getInt() ;
+
+        }   // end getInt()
+
+
+    /**
+     * @return the next value
+     */
+    long getLong()
+        {
+        return this.bytes.getLong() ;
+
+        }   // end getLong()
+
+
+    /**
+     * Fill part of an array with the next values
+     *
+     * @param values
+     *     the destination
+     * @param offset
+     *     index of the first value to fill
+     * @param count
+     *     number of values to read
+     */
+    void getInts( int[] values, int offset, int count )
+        {
+        this.bytes.asIntBuffer().get( values, offset, count ) ;
+        this.bytes.position( this.bytes.position() + ( count * Integer.BYTES ) ) ;
+
+        }   // end getInts()
+
+
+    /**
+     * Fill part of an array with the next values
+     *
+     * @param values
+     *     the destination
+     * @param offset
+     *     index of the first value to fill
+     * @param count
+     *     number of values to read
+     */
+    void getLongs( long[] values, int offset, int count )
+        {
+        this.bytes.asLongBuffer().get( values, offset, count ) ;
+        this.bytes.position( this.bytes.position() + ( count * Long.BYTES ) ) ;
+
+        }   // end getLongs()
+
+
+    /**
+     * @return the next count-prefixed bytes
+     */
+    byte[] getBytes()
+        {
+        byte[] values = new byte[ getInt() ] ;
+        this.bytes.get( values ) ;
+
+        return values ;
+
+        }   // end getBytes()
+
+
+    /**
+     * Confirm that the next value is what the current scenario requires
+     *
+     * @param expected
+     *     the value in the current scenario
+     * @param what
+     *     description of the value for the error message
+     * @throws IllegalStateException
+     *     if the value doesn't match
+     */
+    void expectInt( int expected, String what )
+        {
+        int actual = getInt() ;
+
+        if ( actual != expected )
+            {
+            throw new IllegalStateException( String.format( "checkpoint %s is %,d but the scenario's is %,d",
+                                                            what,
+                                                            actual,
+                                                            expected ) ) ;
+            }
+
+        }   // end expectInt()
+
+    }   // end class CheckpointBuffer
@@ -0,0 +1,501 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Location ;
+
+import java.io.Closeable ;
+import java.io.IOException ;
+import java.nio.ByteBuffer ;
+import java.nio.ByteOrder ;
+import java.nio.channels.FileChannel ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.StandardCopyOption ;
+import java.nio.file.StandardOpenOption ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.ExecutorService ;
+import java.util.concurrent.Executors ;
+import java.util.concurrent.Future ;
+import java.util.zip.CRC32C ;
+
+/**
+ * Writes checkpoints of a simulation's complete state to a file on a background
+ * thread.
+ * <p>
+ * The simulation thread only encodes its state into one of two reusable
+ * {@code CheckpointBuffer}s - essentially a copy of its arrays - and carries on.
+ * The background thread writes the state to a temporary file with a header and
+ * checksum, forces it to storage and then renames it over the
+ * checkpoint file, so the file always holds a complete checkpoint even if the JVM
+ * dies part way through a write. The simulation only waits if it takes a third
+ * checkpoint before the first one's write has finished.
+ * <p>
+ * File layout (little-endian):
+ *
+ * <pre>
+ * int     MAGIC
+ * int     VERSION
+ * long    state length in bytes
+ * long    CRC-32C of the state
+ * byte[]  state
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class Checkpointer implements Closeable
+    {
+
+    /** identifies a checkpoint file - "TCKP" */
+    private static final int MAGIC = 0x54434B50 ;
+
+    /** state layout version */
+    private static final int VERSION = 1 ;
+
+    private static final int HEADER_SIZE = ( 2 * Integer.BYTES ) + ( 2 * Long.BYTES ) ;
+
+    private final Path checkpointFile ;
+    private final Path temporaryFile ;
+
+    private final ExecutorService writer ;
+    private final ByteBuffer header ;       // writer thread only
+
+    // alternate between two buffers so one can be filled while the other is written
+    private final CheckpointBuffer[] buffers ;
+    private final Future<?>[] pendingWrites ;
+    private int nextBuffer ;
+
+    /** number of checkpoints taken */
+    private int checkpointCount ;
+
+
+    /**
+     * @param checkpointFile
+     *     the file to write - parent folders are created if necessary
+     * @throws IOException
+     *     if the parent folders can't be created
+     */
+    Checkpointer( Path checkpointFile ) throws IOException
+        {
+        Path absoluteFile = checkpointFile.toAbsolutePath() ;
+        Files.createDirectories( absoluteFile.getParent() ) ;
+
+        this.checkpointFile = absoluteFile ;
+        this.temporaryFile = absoluteFile.resolveSibling( absoluteFile.getFileName() + ".tmp" ) ;
+
+        this.writer = Executors.newSingleThreadExecutor( task ->
+            {
+            Thread writerThread = new Thread( task, "Checkpointer" ) ;
+            writerThread.setDaemon( true ) ;
+
+            return writerThread ;
+            } ) ;
+
+        this.header = ByteBuffer.allocate( HEADER_SIZE ).order( ByteOrder.LITTLE_ENDIAN ) ;
+
+        this.buffers = new CheckpointBuffer[] { new CheckpointBuffer(), new CheckpointBuffer() } ;
+        this.pendingWrites = new Future<?>[ 2 ] ;
+        this.nextBuffer = 0 ;
+
+        this.checkpointCount = 0 ;
+
+        }   // end constructor
+
+
+    /**
+     * Capture a simulation's state and write it in the background
+     *
+     * @param theSimulation
+     *     the simulation to checkpoint - it must be between ticks
+     * @throws IOException
+     *     if an earlier checkpoint couldn't be written
+     */
+    void checkpoint( TrainSimulation theSimulation ) throws IOException
+        {
+        int current = this.nextBuffer ;
+        this.nextBuffer = 1 - current ;
+
+        // the buffer is free once the write which last used it has finished
+        awaitWrite( current ) ;
+
+        CheckpointBuffer state = this.buffers[ current ] ;
+        state.clear() ;
+        theSimulation.saveState( state ) ;
+
+        ByteBuffer encoded = state.encoded() ;
+        this.pendingWrites[ current ] = this.writer.submit( () ->
+            {
+            write( encoded ) ;
+
+            return null ;
+            } ) ;
+
+        this.checkpointCount++ ;
+
+        }   // end checkpoint()
+
+
+    /**
+     * Wait for a buffer's write to finish
+     *
+     * @param bufferIndex
+     *     which buffer
+     * @throws IOException
+     *     if the write failed
+     */
+    private void awaitWrite( int bufferIndex ) throws IOException
+        {
+        Future<?> pendingWrite = this.pendingWrites[ bufferIndex ] ;
+        if ( pendingWrite == null )
+            {
+            return ;
+            }
+
+        this.pendingWrites[ bufferIndex ] = null ;
+
+        try
+            {
+            pendingWrite.get() ;
+            }
+        catch ( InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+            throw new IOException( "interrupted while waiting for a checkpoint write", e ) ;
+            }
+        catch ( ExecutionException e )
+            {
+            throw e.getCause() instanceof IOException
+                        ? (IOException) e.getCause()
+                        : new IOException( e.getCause() ) ;
+            }
+
+        }   // end awaitWrite()
+
+
+    /**
+     * Background thread: write a checkpoint to the temporary file then replace the
+     * checkpoint file with it
+     *
+     * @param state
+     *     the encoded state
+     * @throws IOException
+     *     if the file can't be written or renamed
+     */
+    private void write( ByteBuffer state ) throws IOException
+        {
+        CRC32C checksum = new CRC32C() ;
+        checksum.update( state.duplicate() ) ;
+
+        this.header.clear()
+                   .putInt( MAGIC )
+                   .putInt( VERSION )
+                   .putLong( state.remaining() )
+                   .putLong( checksum.getValue() )
+                   .flip() ;
+
+        // written once per interval, so a mapping would save nothing - and a mapped
+        // file can't be renamed over or replaced on some platforms until the mapping
+        // is garbage collected
+        ByteBuffer body = state.duplicate() ;
+        ByteBuffer[] contents = { this.header, body } ;
+        try ( FileChannel channel = FileChannel.open( this.temporaryFile,
+                                                      StandardOpenOption.CREATE,
+                                                      StandardOpenOption.WRITE,
+                                                      StandardOpenOption.TRUNCATE_EXISTING ) )
+            {
+            while ( this.header.hasRemaining() || body.hasRemaining() )
+                {
+                channel.write( contents ) ;
+                }
+
+            channel.force( true ) ;
+            }
+
+        Files.move( this.temporaryFile,
+                    this.checkpointFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE ) ;
+
+        }   // end write()
+
+
+    /**
+     * Read a checkpoint file and verify its header and checksum
+     *
+     * @param checkpointFile
+     *     a file written by a {@code Checkpointer}
+     * @return the state, ready to decode
+     * @throws IOException
+     *     if the file can't be read, isn't a checkpoint or is corrupt
+     */
+    static CheckpointBuffer read( Path checkpointFile ) throws IOException
+        {
+        // read into the heap rather than mapping, so the file can be replaced by the
+        // resumed run's next checkpoint
+        ByteBuffer contents ;
+        try ( FileChannel channel = FileChannel.open( checkpointFile,
+                                                      StandardOpenOption.READ ) )
+            {
+            long size = channel.size() ;
+            if ( size > Integer.MAX_VALUE )
+                {
+                throw new IOException( String.format( "%s is too large to be a checkpoint: %,d bytes",
+                                                      checkpointFile,
+                                                      size ) ) ;
+                }
+
+            contents = ByteBuffer.allocate( (int) size ).order( ByteOrder.LITTLE_ENDIAN ) ;
+            while ( contents.hasRemaining() && ( channel.read( contents ) >= 0 ) )
+                {
+                // keep reading
+                }
+            contents.flip() ;
+            }
+
+        if ( ( contents.remaining() < HEADER_SIZE ) || ( contents.getInt() != MAGIC ) )
+            {
+            throw new IOException( String.format( "%s is not a checkpoint file",
+                                                  checkpointFile ) ) ;
+            }
+
+        int version = contents.getInt() ;
+        if ( version != VERSION )
+            {
+            throw new IOException( String.format( "%s has unsupported checkpoint version %d",
+                                                  checkpointFile,
+                                                  version ) ) ;
+            }
+
+        long length = contents.getLong() ;
+        long expectedChecksum = contents.getLong() ;
+
+        if ( length != contents.remaining() )
+            {
+            throw new IOException( String.format( "%s is truncated: %,d of %,d bytes",
+                                                  checkpointFile,
+                                                  contents.remaining(),
+                                                  length ) ) ;
+            }
+
+        ByteBuffer state = contents.slice() ;
+
+        CRC32C checksum = new CRC32C() ;
+        checksum.update( state.duplicate() ) ;
+        if ( checksum.getValue() != expectedChecksum )
+            {
+            throw new IOException( String.format( "%s is corrupt: checksum mismatch",
+                                                  checkpointFile ) ) ;
+            }
+
+        return new CheckpointBuffer( state ) ;
+
+        }   // end read()
+
+
+    /**
+     * @return the number of checkpoints taken
+     */
+    int getCheckpointCount()
+        {
+        return this.checkpointCount ;
+
+        }   // end getCheckpointCount()
+
+
+    /**
+     * @return the file checkpoints are written to
+     */
+    Path getCheckpointFile()
+        {
+        return this.checkpointFile ;
+
+        }   // end getCheckpointFile()
+
+
+    /**
+     * Wait for every pending write and stop the background thread
+     *
+     * @throws IOException
+     *     if a checkpoint couldn't be written
+     */
+    @Override
+    public void close() throws IOException
+        {
+        try
+            {
+            // oldest first
+            awaitWrite( this.nextBuffer ) ;
+            awaitWrite( 1 - this.nextBuffer ) ;
+            }
+        finally
+            {
+            this.writer.shutdown() ;
+            }
+
+        }   // end close()
+
+
+    /**
+     * Test driver - runs a scenario straight through, then runs its first half,
+     * checkpoints and resumes from the checkpoint, with each engine, and checks that
+     * the restored state encodes to the checkpoint and the resumed run ends where the
+     * straight run did - the checkpointed runs generate passengers concurrently
+     * 
+     * @param args
+     *     optional {@code stations spacing trains ticks}
+     * @throws IOException
+     *     if the checkpoint can't be written or read
+     * @throws IllegalStateException
+     *     if a restored state or resumed run differs
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 20 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 50 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 8 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 20_000 ;
+
+        Scenario wholeRun = Scenario.uniform( stations, spacing, trains, 100, 1, ticks, 2_021L ) ;
+        Scenario firstHalf = Scenario.uniform( stations, spacing, trains, 100, 1, ticks / 2, 2_021L ) ;
+
+        Path checkpointFile = Files.createTempFile( "TrainSimulation", ".checkpoint" ) ;
+        int mismatches = 0 ;
+
+        for ( SimulationOptions.Engine anEngine : SimulationOptions.Engine.values() )
+            {
+            SimulationOptions theOptions = new SimulationOptions() ;
+            theOptions.setEngine( anEngine ) ;
+
+            TrainSimulation straightThrough = new TrainSimulation( wholeRun, theOptions ) ;
+            straightThrough.run() ;
+
+            // run the first half, checkpointing at its end - passengers are drawn on a
+            // generator thread, which must leave the same state behind
+            theOptions.setConcurrentGeneration( true ) ;
+            theOptions.setCheckpointFile( checkpointFile ) ;
+            theOptions.setCheckpointInterval( ticks / 2 ) ;
+            new TrainSimulation( firstHalf, theOptions ).run() ;
+
+            // resume the whole run from the checkpoint
+            theOptions.setCheckpointRestore( true ) ;
+            TrainSimulation resumed = new TrainSimulation( wholeRun, theOptions ) ;
+            int resumedAt = resumed.getCurrentTime() ;
+
+            // the restored state must encode to exactly the checkpoint it came from
+            CheckpointBuffer restoredState = new CheckpointBuffer() ;
+            resumed.saveState( restoredState ) ;
+            byte[] checkpointContents = Files.readAllBytes( checkpointFile ) ;
+            if ( ! ByteBuffer.wrap( checkpointContents,
+                                    HEADER_SIZE,
+                                    checkpointContents.length - HEADER_SIZE )
+                             .equals( restoredState.encoded() ) )
+                {
+                mismatches++ ;
+                System.out.printf( "%-5s restored state differs from the checkpoint%n",
+                                   anEngine ) ;
+                }
+
+            resumed.run() ;
+
+            System.out.printf( "%-5s resumed at %,d of %,d: %s%n",
+                               anEngine,
+                               resumedAt,
+                               ticks,
+                               resumed.getStatistics() ) ;
+
+            mismatches += compare( straightThrough, resumed ) ;
+            }
+
+        System.out.printf( "checkpoint file: %,d bytes%n", Files.size( checkpointFile ) ) ;
+
+        Files.deleteIfExists( checkpointFile ) ;
+
+        if ( mismatches != 0 )
+            {
+            throw new IllegalStateException( String.format( "resumed runs differ: %,d mismatches",
+                                                            mismatches ) ) ;
+            }
+
+        System.out.printf( "%nresumed runs match%n" ) ;
+
+        }   // end main()
+
+
+    /**
+     * Compare two simulations' passengers, statistics and train locations
+     * 
+     * @param expected
+     *     one simulation
+     * @param actual
+     *     the other simulation
+     * @return the number of differences found
+     */
+    private static int compare( TrainSimulation expected, TrainSimulation actual )
+        {
+        PassengerStore expectedStore = expected.getPassengerStore() ;
+        PassengerStore actualStore = actual.getPassengerStore() ;
+
+        int mismatches = ( expectedStore.getSlotCount() == actualStore.getSlotCount() ) &&
+                         ( expectedStore.getCreatedCount() == actualStore.getCreatedCount() ) &&
+                         expected.getStatistics().toString().equals( actual.getStatistics().toString() )
+                                ? 0
+                                : 1 ;
+
+        for ( int slot = 1 ; ( mismatches == 0 ) && ( slot <= expectedStore.getSlotCount() ) ; slot++ )
+            {
+            if ( ( expectedStore.getSerial( slot ) != actualStore.getSerial( slot ) ) ||
+                 ( expectedStore.getDestinationId( slot ) != actualStore.getDestinationId( slot ) ) ||
+                 ( expectedStore.getTimeEntered( slot ) != actualStore.getTimeEntered( slot ) ) ||
+                 ( expectedStore.getTimeExited( slot ) != actualStore.getTimeExited( slot ) ) )
+                {
+                mismatches++ ;
+                System.out.printf( "first mismatch: slot %,d%n", slot ) ;
+                }
+            }
+
+        for ( Train aTrain : expected.getTrainRoute().getTrains() )
+            {
+            Location expectedLocation = aTrain.getLocation() ;
+            Location actualLocation = actual.getTrainRoute()
+                                            .getTrain( aTrain.getId() )
+                                            .getLocation() ;
+
+            if ( ( expectedLocation.getPosition() != actualLocation.getPosition() ) ||
+                 ( expectedLocation.getDirection() != actualLocation.getDirection() ) )
+                {
+                mismatches++ ;
+                System.out.printf( "%s ended %s vs %s%n",
+                                   aTrain,
+                                   expectedLocation,
+                                   actualLocation ) ;
+                }
+            }
+
+        return mismatches ;
+
+        }   // end compare()
+
+    }   // end class Checkpointer
@@ -0,0 +1,261 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Random ;
+
+/**
+ * Origin-destination passenger demand for one period of the day: the number of
+ * passengers expected per tick and the relative weight of each (origin, destination)
+ * station pair. A passenger's origin is drawn from an alias table over the origins'
+ * total weights, then their destination from that origin's own alias table, so each
+ * passenger costs two constant-time draws however skewed the demand.
+ * <p>
+ * Station ids run from 1 to {@code getStationCount()}; the weight of a station to
+ * itself is ignored.
+ * <p>
+ * A uniform matrix has no tables - it draws stations directly, so it takes constant
+ * space however many stations there are.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 uniform demand without tables
+ */
+public final class DemandMatrix
+    {
+
+    private final int stationCount ;
+    private final double passengersPerTick ;
+
+    /** origins indexed by station id - 1, or null if every pair is equally likely */
+    private final AliasTable origins ;
+
+    /**
+     * destinations for each origin, indexed by [ origin id ][ station id - 1 ], or
+     * null if every pair is equally likely
+     */
+    private final AliasTable[] destinations ;
+
+
+    /**
+     * @param weights
+     *     relative demand - {@code weights[ o - 1 ][ d - 1 ]} for travel from station
+     *     id {@code o} to station id {@code d}
+     * @param passengersPerTick
+     *     mean number of passengers arriving each tick
+     * @throws IllegalArgumentException
+     *     if the matrix isn't square, has fewer than 2 stations, has a negative weight
+     *     or has no demand between different stations
+     */
+    public DemandMatrix( double[][] weights, double passengersPerTick )
+        {
+        this.stationCount = weights.length ;
+        this.passengersPerTick = passengersPerTick ;
+
+        if ( this.stationCount < 2 )
+            {
+            throw new IllegalArgumentException( "demand requires at least 2 stations" ) ;
+            }
+
+        double[] originWeights = new double[ this.stationCount ] ;
+        this.destinations = new AliasTable[ this.stationCount + 1 ] ;
+
+        for ( int origin = 0 ; origin < this.stationCount ; origin++ )
+            {
+            if ( weights[ origin ].length != this.stationCount )
+                {
+                throw new IllegalArgumentException( String.format( "demand row %,d has %,d weights; expected %,d",
+                                                                   origin + 1,
+                                                                   weights[ origin ].length,
+                                                                   this.stationCount ) ) ;
+                }
+
+            double[] row = weights[ origin ].clone() ;
+            row[ origin ] = 0.0 ;   // no travel to the same station
+
+            for ( double aWeight : row )
+                {
+                originWeights[ origin ] += aWeight ;
+                }
+
+            if ( originWeights[ origin ] > 0.0 )
+                {
+                this.destinations[ origin + 1 ] = new AliasTable( row ) ;
+                }
+            }
+
+        this.origins = new AliasTable( originWeights ) ;
+
+        }   // end constructor
+
+
+    /**
+     * Build a matrix in which every pair of different stations is equally likely
+     * 
+     * @param stationCount
+     *     the number of stations
+     * @param passengersPerTick
+     *     mean number of passengers arriving each tick
+     */
+    private DemandMatrix( int stationCount, double passengersPerTick )
+        {
+        this.stationCount = stationCount ;
+        this.passengersPerTick = passengersPerTick ;
+
+        this.origins = null ;
+        this.destinations = null ;
+
+        }   // end uniform constructor
+
+
+    /**
+     * Build a matrix in which every pair of different stations is equally likely
+     * 
+     * @param stationCount
+     *     the number of stations
+     * @param passengersPerTick
+     *     mean number of passengers arriving each tick
+     * @return the matrix
+     */
+    public static DemandMatrix uniform( int stationCount, double passengersPerTick )
+        {
+        if ( stationCount < 2 )
+            {
+            throw new IllegalArgumentException( "demand requires at least 2 stations" ) ;
+            }
+
+        return new DemandMatrix( stationCount, passengersPerTick ) ;
+
+        }   // end uniform()
+
+
+    /**
+     * Draw an origin station
+     * 
+     * @param pseudoRandom
+     *     the source of randomness
+     * @return the origin's station id
+     */
+    int sampleOrigin( Random pseudoRandom )
+        {
+        if ( this.origins == null )
+            {
+            return pseudoRandom.nextInt( this.stationCount ) + 1 ;
+            }
+
+        return this.origins.sample( pseudoRandom ) + 1 ;
+
+        }   // end sampleOrigin()
+
+
+    /**
+     * Draw a destination station for a passenger starting at an origin
+     * 
+     * @param originId
+     *     a station id returned by {@code sampleOrigin()}
+     * @param pseudoRandom
+     *     the source of randomness
+     * @return the destination's station id
+     */
+    int sampleDestination( int originId, Random pseudoRandom )
+        {
+        if ( this.destinations == null )
+            {
+            // any other station
+            int destinationId = pseudoRandom.nextInt( this.stationCount - 1 ) + 1 ;
+
+            return destinationId >= originId
+                       ? destinationId + 1
+                       : destinationId ;
+            }
+
+        return this.destinations[ originId ].sample( pseudoRandom ) + 1 ;
+
+        }   // end sampleDestination()
+
+
+    /**
+     * @return the number of stations
+     */
+    public int getStationCount()
+        {
+        return this.stationCount ;
+
+        }   // end getStationCount()
+
+
+    /**
+     * @return mean number of passengers arriving each tick
+     */
+    public double getPassengersPerTick()
+        {
+        return this.passengersPerTick ;
+
+        }   // end getPassengersPerTick()
+
+
+    /**
+     * Test driver - skewed demand sampled many times should match the weights
+     * 
+     * @param args
+     *     -unused-
+     */
+    public static void main( String[] args )
+        {
+        double[][] weights = { { 0, 1, 1, 8 },
+                               { 1, 0, 0, 0 },
+                               { 2, 2, 0, 0 },
+                               { 0, 0, 0, 0 } } ;
+        DemandMatrix theMatrix = new DemandMatrix( weights, 10.0 ) ;
+
+        Random pseudoRandom = new Random( 2_021L ) ;
+        int samples = 1_000_000 ;
+        long[][] counts = new long[ 5 ][ 5 ] ;
+
+        for ( int i = 0 ; i < samples ; i++ )
+            {
+            int origin = theMatrix.sampleOrigin( pseudoRandom ) ;
+            counts[ origin ][ theMatrix.sampleDestination( origin, pseudoRandom ) ]++ ;
+            }
+
+        System.out.printf( "expected: 1->2 6.7%%, 1->3 6.7%%, 1->4 53.3%%, 2->1 6.7%%, 3->1 13.3%%, 3->2 13.3%%%n" ) ;
+        for ( int origin = 1 ; origin <= 4 ; origin++ )
+            {
+            for ( int destination = 1 ; destination <= 4 ; destination++ )
+                {
+                if ( counts[ origin ][ destination ] > 0 )
+                    {
+                    System.out.printf( "%d->%d %5.1f%%  ",
+                                       origin,
+                                       destination,
+                                       ( 100.0 * counts[ origin ][ destination ] ) / samples ) ;
+                    }
+                }
+            }
+        System.out.println() ;
+
+        }   // end main()
+
+    }   // end class DemandMatrix
@@ -0,0 +1,278 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.IOException ;
+import java.nio.charset.StandardCharsets ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.Paths ;
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.List ;
+
+/**
+ * Passenger demand which can vary by time of day: a sequence of periods, each with its
+ * own {@code DemandMatrix}, optionally repeating every day.
+ * <p>
+ * A demand file is plain text. Blank lines and anything after a {@code #} are
+ * ignored. An optional {@code day <ticks>} line makes the periods repeat. Each
+ * period starts with a {@code period <start tick> <passengers per tick>} line followed
+ * by one row of weights per origin station, separated by spaces or commas:
+ * 
+ * <pre>
+ * day 1440
+ * period 0 2.5
+ * 0 1 1
+ * 1 0 1
+ * 1 1 0
+ * period 420 12
+ * 0 6 1
+ * ...
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class DemandSchedule
+    {
+
+    /** day length when the periods don't repeat */
+    public static final int NO_REPEAT = 0 ;
+
+    private final int dayLength ;
+    private final int[] periodStarts ;
+    private final DemandMatrix[] matrices ;
+
+
+    /**
+     * @param dayLength
+     *     ticks after which the periods repeat or {@code NO_REPEAT}
+     * @param periodStarts
+     *     the tick (within the day) each period starts, in increasing order starting
+     *     at 0
+     * @param matrices
+     *     the demand during each period - all for the same number of stations
+     * @throws IllegalArgumentException
+     *     if the periods are inconsistent
+     */
+    public DemandSchedule( int dayLength, int[] periodStarts, DemandMatrix[] matrices )
+        {
+        if ( ( periodStarts.length == 0 ) ||
+             ( periodStarts.length != matrices.length ) ||
+             ( periodStarts[ 0 ] != 0 ) )
+            {
+            throw new IllegalArgumentException( "demand needs one matrix per period and a period starting at tick 0" ) ;
+            }
+
+        for ( int period = 1 ; period < periodStarts.length ; period++ )
+            {
+            if ( ( periodStarts[ period ] <= periodStarts[ period - 1 ] ) ||
+                 ( matrices[ period ].getStationCount() != matrices[ 0 ].getStationCount() ) ||
+                 ( ( dayLength != NO_REPEAT ) && ( periodStarts[ period ] >= dayLength ) ) )
+                {
+                throw new IllegalArgumentException( String.format( "demand period %,d is out of order, outside the day or for a different number of stations",
+                                                                   period + 1 ) ) ;
+                }
+            }
+
+        this.dayLength = dayLength ;
+        this.periodStarts = periodStarts.clone() ;
+        this.matrices = matrices.clone() ;
+
+        }   // end constructor
+
+
+    /**
+     * Build a schedule with the same demand all day
+     * 
+     * @param theMatrix
+     *     the demand
+     * @return the schedule
+     */
+    public static DemandSchedule constant( DemandMatrix theMatrix )
+        {
+        return new DemandSchedule( NO_REPEAT, new int[] { 0 }, new DemandMatrix[] { theMatrix } ) ;
+
+        }   // end constant()
+
+
+    /**
+     * Read a demand file
+     * 
+     * @param demandFile
+     *     the file to read
+     * @return the schedule
+     * @throws IOException
+     *     if the file can't be read
+     * @throws IllegalArgumentException
+     *     if the file isn't a valid demand file
+     */
+    public static DemandSchedule load( Path demandFile ) throws IOException
+        {
+        int dayLength = NO_REPEAT ;
+        List<Integer> starts = new ArrayList<>() ;
+        List<Double> rates = new ArrayList<>() ;
+        List<List<double[]>> periods = new ArrayList<>() ;
+
+        int lineNumber = 0 ;
+        for ( String aLine : Files.readAllLines( demandFile, StandardCharsets.UTF_8 ) )
+            {
+            lineNumber++ ;
+
+            int comment = aLine.indexOf( '#' ) ;
+            String content = ( comment >= 0
+                                    ? aLine.substring( 0, comment )
+                                    : aLine ).trim() ;
+            if ( content.isEmpty() )
+                {
+                continue ;
+                }
+
+            String[] fields = content.split( "[\\s,]+" ) ;
+
+            try
+                {
+                switch ( fields[ 0 ] )
+                    {
+                    case "day":
+                        dayLength = Integer.parseInt( fields[ 1 ] ) ;
+                        break ;
+
+                    case "period":
+                        starts.add( Integer.parseInt( fields[ 1 ] ) ) ;
+                        rates.add( Double.parseDouble( fields[ 2 ] ) ) ;
+                        periods.add( new ArrayList<>() ) ;
+                        break ;
+
+                    default:
+                        if ( periods.isEmpty() )
+                            {
+                            throw new IllegalArgumentException( "weights before the first period" ) ;
+                            }
+
+                        periods.get( periods.size() - 1 )
+                               .add( Arrays.stream( fields ).mapToDouble( Double::parseDouble ).toArray() ) ;
+                    }
+                }
+            catch ( RuntimeException e )
+                {
+                throw new IllegalArgumentException( String.format( "%s line %,d: %s",
+                                                                   demandFile,
+                                                                   lineNumber,
+                                                                   e.getMessage() ),
+                                                    e ) ;
+                }
+            }
+
+        int[] periodStarts = new int[ starts.size() ] ;
+        DemandMatrix[] matrices = new DemandMatrix[ starts.size() ] ;
+
+        for ( int period = 0 ; period < periodStarts.length ; period++ )
+            {
+            periodStarts[ period ] = starts.get( period ) ;
+            matrices[ period ] = new DemandMatrix( periods.get( period ).toArray( new double[ 0 ][] ),
+                                                   rates.get( period ) ) ;
+            }
+
+        return new DemandSchedule( dayLength, periodStarts, matrices ) ;
+
+        }   // end load()
+
+
+    /**
+     * Find the demand in effect at a time
+     * 
+     * @param time
+     *     the current tick
+     * @return the demand matrix for the period containing the tick
+     */
+    DemandMatrix matrixAt( int time )
+        {
+        int timeOfDay = this.dayLength == NO_REPEAT
+                            ? time
+                            : time % this.dayLength ;
+
+        int period = Arrays.binarySearch( this.periodStarts, timeOfDay ) ;
+        if ( period < 0 )
+            {
+            period = -period - 2 ;  // the last period starting before the tick
+            }
+
+        return this.matrices[ period ] ;
+
+        }   // end matrixAt()
+
+
+    /**
+     * @return the number of stations the demand is for
+     */
+    public int getStationCount()
+        {
+        return this.matrices[ 0 ].getStationCount() ;
+
+        }   // end getStationCount()
+
+
+    /**
+     * @return the number of periods
+     */
+    public int getPeriodCount()
+        {
+        return this.periodStarts.length ;
+
+        }   // end getPeriodCount()
+
+
+    /**
+     * Test driver
+     * 
+     * @param args
+     *     a demand file to read and describe
+     * @throws IOException
+     *     if the file can't be read
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        DemandSchedule theSchedule = load( Paths.get( args[ 0 ] ) ) ;
+
+        System.out.printf( "%,d stations, %,d period%s, day length %,d%n",
+                           theSchedule.getStationCount(),
+                           theSchedule.getPeriodCount(),
+                           ( theSchedule.getPeriodCount() == 1
+                               ? ""
+                               : "s" ),
+                           theSchedule.dayLength ) ;
+
+        for ( int period = 0 ; period < theSchedule.getPeriodCount() ; period++ )
+            {
+            System.out.printf( "from tick %,d: %,.2f passengers per tick%n",
+                               theSchedule.periodStarts[ period ],
+                               theSchedule.matrices[ period ].getPassengersPerTick() ) ;
+            }
+
+        }   // end main()
+
+    }   // end class DemandSchedule
@@ -0,0 +1,287 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Arrays ;
+import java.util.function.ObjIntConsumer ;
+
+/**
+ * A train's on-board passengers bucketed by destination station id, kept in an
+ * open-addressed hash table so a train only holds entries for the destinations its
+ * riders are actually bound for. The table never holds more than twice as many
+ * entries as there are occupied buckets, so a train's footprint depends on its
+ * capacity rather than on the number of stations along the route. Looking up,
+ * adding and detaching a bucket are O(1) and allocate nothing except when the table
+ * must grow.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class DestinationBuckets
+    {
+
+    /** marks an unused entry - station ids start at 1 */
+    private static final int EMPTY = 0 ;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 8 ;
+
+    private int[] destinationIds ;      // capacity is always a power of 2
+    private PassengerQueue[] buckets ;
+    private int shift ;                 // 32 - log2( capacity )
+    private int size ;
+
+    private int[] visitOrder ;          // scratch for forEach() or null
+
+
+    /**
+     * Create an empty table with the default initial capacity
+     */
+    DestinationBuckets()
+        {
+        allocate( DEFAULT_INITIAL_CAPACITY ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Replace the table with an empty one
+     *
+     * @param capacity
+     *     number of entries - a power of 2
+     */
+    private void allocate( int capacity )
+        {
+        this.destinationIds = new int[ capacity ] ;
+        this.buckets = new PassengerQueue[ capacity ] ;
+        this.shift = Integer.numberOfLeadingZeros( capacity ) + 1 ;
+        this.size = 0 ;
+
+        this.visitOrder = null ;
+
+        }   // end allocate()
+
+
+    /**
+     * Spread consecutive station ids across the table
+     *
+     * @param destinationId
+     *     a station id
+     * @return the entry where the search for the id starts
+     */
+    private int home( int destinationId )
+        {
+        return ( destinationId * 0x9E3779B9 ) >>> this.shift ;
+
+        }   // end home()
+
+
+    /**
+     * @param destinationId
+     *     a station id
+     * @return the bucket of passengers bound for the station or null if there is none
+     */
+    PassengerQueue get( int destinationId )
+        {
+        int mask = this.destinationIds.length - 1 ;
+
+        for ( int i = home( destinationId ) ; ; i = ( i + 1 ) & mask )
+            {
+            int key = this.destinationIds[ i ] ;
+
+            if ( key == destinationId )
+                {
+                return this.buckets[ i ] ;
+                }
+
+            if ( key == EMPTY )
+                {
+                return null ;
+                }
+            }
+
+        }   // end get()
+
+
+    /**
+     * Add or replace the bucket for a destination
+     *
+     * @param destinationId
+     *     a station id
+     * @param bucket
+     *     passengers bound for the station
+     */
+    void put( int destinationId, PassengerQueue bucket )
+        {
+        if ( ( ( this.size + 1 ) * 2 ) > this.destinationIds.length )
+            {
+            grow() ;
+            }
+
+        int mask = this.destinationIds.length - 1 ;
+        int i = home( destinationId ) ;
+
+        while ( ( this.destinationIds[ i ] != EMPTY ) &&
+                ( this.destinationIds[ i ] != destinationId ) )
+            {
+            i = ( i + 1 ) & mask ;
+            }
+
+        if ( this.destinationIds[ i ] == EMPTY )
+            {
+            this.destinationIds[ i ] = destinationId ;
+            this.size++ ;
+            }
+
+        this.buckets[ i ] = bucket ;
+
+        }   // end put()
+
+
+    /**
+     * Detach the bucket for a destination
+     *
+     * @param destinationId
+     *     a station id
+     * @return the bucket that was removed or null if there was none
+     */
+    PassengerQueue remove( int destinationId )
+        {
+        int mask = this.destinationIds.length - 1 ;
+        int i = home( destinationId ) ;
+
+        while ( this.destinationIds[ i ] != destinationId )
+            {
+            if ( this.destinationIds[ i ] == EMPTY )
+                {
+                return null ;
+                }
+
+            i = ( i + 1 ) & mask ;
+            }
+
+        PassengerQueue removed = this.buckets[ i ] ;
+
+        // shift later entries of the run back into the hole so no search stops short
+        int hole = i ;
+        for ( int j = ( i + 1 ) & mask ;
+              this.destinationIds[ j ] != EMPTY ;
+              j = ( j + 1 ) & mask )
+            {
+            // the entry may fill the hole unless its home lies between the hole and it
+            int distanceFromHome = ( j - home( this.destinationIds[ j ] ) ) & mask ;
+            if ( distanceFromHome >= ( ( j - hole ) & mask ) )
+                {
+                this.destinationIds[ hole ] = this.destinationIds[ j ] ;
+                this.buckets[ hole ] = this.buckets[ j ] ;
+                hole = j ;
+                }
+            }
+
+        this.destinationIds[ hole ] = EMPTY ;
+        this.buckets[ hole ] = null ;
+        this.size-- ;
+
+        return removed ;
+
+        }   // end remove()
+
+
+    /**
+     * Double the table's capacity and re-insert its entries
+     */
+    private void grow()
+        {
+        int[] oldDestinationIds = this.destinationIds ;
+        PassengerQueue[] oldBuckets = this.buckets ;
+
+        allocate( oldDestinationIds.length * 2 ) ;
+
+        for ( int i = 0 ; i < oldDestinationIds.length ; i++ )
+            {
+            if ( oldDestinationIds[ i ] != EMPTY )
+                {
+                put( oldDestinationIds[ i ], oldBuckets[ i ] ) ;
+                }
+            }
+
+        }   // end grow()
+
+
+    /**
+     * Remove every bucket
+     */
+    void clear()
+        {
+        Arrays.fill( this.destinationIds, EMPTY ) ;
+        Arrays.fill( this.buckets, null ) ;
+        this.size = 0 ;
+
+        }   // end clear()
+
+
+    /**
+     * @return the number of destinations with a bucket
+     */
+    int size()
+        {
+        return this.size ;
+
+        }   // end size()
+
+
+    /**
+     * Visit every bucket in ascending destination order, so anything built from the
+     * visit doesn't depend on the order destinations were added - the table must not
+     * be changed during the visit
+     *
+     * @param bucketConsumer
+     *     receives each bucket and its destination station id
+     */
+    void forEach( ObjIntConsumer<PassengerQueue> bucketConsumer )
+        {
+        if ( this.visitOrder == null )
+            {
+            this.visitOrder = new int[ this.destinationIds.length ] ;
+            }
+
+        int count = 0 ;
+        for ( int destinationId : this.destinationIds )
+            {
+            if ( destinationId != EMPTY )
+                {
+                this.visitOrder[ count++ ] = destinationId ;
+                }
+            }
+
+        Arrays.sort( this.visitOrder, 0, count ) ;
+
+        for ( int i = 0 ; i < count ; i++ )
+            {
+            bucketConsumer.accept( get( this.visitOrder[ i ] ), this.visitOrder[ i ] ) ;
+            }
+
+        }   // end forEach()
+
+    }   // end class DestinationBuckets
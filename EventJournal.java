@@ -0,0 +1,408 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.Closeable ;
+import java.io.IOException ;
+import java.io.UncheckedIOException ;
+import java.nio.ByteOrder ;
+import java.nio.MappedByteBuffer ;
+import java.nio.channels.FileChannel ;
+import java.nio.file.DirectoryStream ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.StandardOpenOption ;
+
+/**
+ * Append-only binary journal of passenger and train events. Each event is a
+ * fixed-width record written directly into a memory-mapped segment file, so
+ * appending an event allocates nothing and costs a handful of stores. When a
+ * segment fills, the next one is created and mapped. {@code JournalReader} iterates
+ * the events in order.
+ * <p>
+ * Segment files are named {@code journal-NNNNNN.seg}, numbered from 0. Each starts
+ * with a 24 byte header - int {@code MAGIC}, int {@code VERSION}, int
+ * {@code RECORD_SIZE}, int segment number, long number of events - followed by
+ * records (little-endian):
+ *
+ * <pre>
+ * int     time
+ * short   event code (see {@code JournalEvent}) - 0 marks unused space
+ * short   reserved
+ * long    passenger id, or 0 for a train event
+ * int     station id
+ * int     train id, or 0 if no train was involved
+ * int     the passenger's destination station id, or the number of passengers on
+ *         board for a train event
+ * </pre>
+ *
+ * A segment's number of events is recorded in its header when it is complete - when
+ * the next segment is started or the journal is closed - rather than truncating the
+ * file, which can't be done on some platforms while it is still mapped. Until then
+ * the header holds {@code UNFINISHED}. If the JVM dies first, the records already
+ * appended are still in the file - the operating system writes mapped pages back -
+ * and its unused space reads as zeros.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class EventJournal implements Closeable
+    {
+
+    /** identifies a journal segment - "TJNL" */
+    static final int MAGIC = 0x544A4E4C ;
+
+    /** record layout version */
+    static final int VERSION = 1 ;
+
+    /** size of a segment's header in bytes */
+    static final int HEADER_SIZE = ( 4 * Integer.BYTES ) + Long.BYTES ;
+
+    /** where a segment's header holds its number of events */
+    static final int EVENT_COUNT_OFFSET = 4 * Integer.BYTES ;
+
+    /** event count of a segment still being appended to */
+    static final long UNFINISHED = -1 ;
+
+    /** size of an event record in bytes */
+    static final int RECORD_SIZE = 28 ;
+
+    /** segment file names */
+    static final String SEGMENT_GLOB = "journal-*.seg" ;
+    private static final String SEGMENT_FORMAT = "journal-%06d.seg" ;
+
+    private final Path directory ;
+    private final int segmentSize ;
+
+    // the segment being appended to
+    private MappedByteBuffer segment ;
+    private Path segmentFile ;
+    private int segmentNumber ;
+    private int offset ;
+
+    private long eventCount ;
+
+
+    /**
+     * Start a new journal - any segments already in the directory are deleted
+     *
+     * @param journalDirectory
+     *     the folder for the segment files - it is created if necessary
+     * @param maximumSegmentSize
+     *     the largest a segment file may be in bytes
+     * @throws IOException
+     *     if the folder or the first segment can't be created
+     */
+    public EventJournal( Path journalDirectory, int maximumSegmentSize ) throws IOException
+        {
+        if ( maximumSegmentSize < ( HEADER_SIZE + RECORD_SIZE ) )
+            {
+            throw new IllegalArgumentException( String.format( "journal segments must hold at least one event: %,d bytes",
+                                                               maximumSegmentSize ) ) ;
+            }
+
+        this.directory = journalDirectory ;
+        this.segmentSize = HEADER_SIZE +
+                           ( ( ( maximumSegmentSize - HEADER_SIZE ) / RECORD_SIZE ) * RECORD_SIZE ) ;
+
+        Files.createDirectories( journalDirectory ) ;
+        try ( DirectoryStream<Path> oldSegments = Files.newDirectoryStream( journalDirectory,
+                                                                            SEGMENT_GLOB ) )
+            {
+            for ( Path oldSegment : oldSegments )
+                {
+                Files.delete( oldSegment ) ;
+                }
+            }
+
+        this.segmentNumber = -1 ;
+        this.eventCount = 0 ;
+
+        startSegment() ;
+
+        }   // end constructor
+
+
+    /**
+     * Append an event
+     *
+     * @param time
+     *     the simulation time
+     * @param event
+     *     what happened
+     * @param passengerId
+     *     the passenger's id (serial number) or 0 for a train event
+     * @param stationId
+     *     the station where it happened
+     * @param trainId
+     *     the train involved or 0
+     * @param detail
+     *     the passenger's destination station id or, for a train event, the number
+     *     of passengers on board
+     * @throws UncheckedIOException
+     *     if the segment is full and the next one can't be created
+     */
+    public void append( int time,
+                        JournalEvent event,
+                        long passengerId,
+                        int stationId,
+                        int trainId,
+                        int detail )
+        {
+        if ( this.offset == this.segmentSize )
+            {
+            try
+                {
+                startSegment() ;
+                }
+            catch ( IOException e )
+                {
+                throw new UncheckedIOException( e ) ;
+                }
+            }
+
+        MappedByteBuffer records = this.segment ;
+        int at = this.offset ;
+
+        records.putInt( at, time ) ;
+        records.putShort( at + 4, event.code() ) ;
+        records.putShort( at + 6, (short) 0 ) ;
+        records.putLong( at + 8, passengerId ) ;
+        records.putInt( at + 16, stationId ) ;
+        records.putInt( at + 20, trainId ) ;
+        records.putInt( at + 24, detail ) ;
+
+        this.offset = at + RECORD_SIZE ;
+        this.eventCount++ ;
+
+        }   // end append()
+
+
+    /**
+     * Create and map the next segment file
+     *
+     * @throws IOException
+     *     if the file can't be created or mapped
+     */
+    private void startSegment() throws IOException
+        {
+        if ( this.segment != null )
+            {
+            finishSegment() ;
+            }
+
+        this.segmentNumber++ ;
+        this.segmentFile = segmentFile( this.directory, this.segmentNumber ) ;
+
+        // the mapping remains valid after the channel is closed
+        try ( FileChannel channel = FileChannel.open( this.segmentFile,
+                                                      StandardOpenOption.CREATE,
+                                                      StandardOpenOption.READ,
+                                                      StandardOpenOption.WRITE,
+                                                      StandardOpenOption.TRUNCATE_EXISTING ) )
+            {
+            this.segment = channel.map( FileChannel.MapMode.READ_WRITE, 0, this.segmentSize ) ;
+            }
+
+        this.segment.order( ByteOrder.LITTLE_ENDIAN )
+                    .putInt( 0, MAGIC )
+                    .putInt( 4, VERSION )
+                    .putInt( 8, RECORD_SIZE )
+                    .putInt( 12, this.segmentNumber )
+                    .putLong( EVENT_COUNT_OFFSET, UNFINISHED ) ;
+
+        this.offset = HEADER_SIZE ;
+
+        }   // end startSegment()
+
+
+    /**
+     * Record the number of events in the segment being appended to
+     */
+    private void finishSegment()
+        {
+        this.segment.putLong( EVENT_COUNT_OFFSET,
+                              ( this.offset - HEADER_SIZE ) / RECORD_SIZE ) ;
+
+        }   // end finishSegment()
+
+
+    /**
+     * @param journalDirectory
+     *     the journal's folder
+     * @param segmentNumber
+     *     a segment number
+     * @return the segment's file
+     */
+    static Path segmentFile( Path journalDirectory, int segmentNumber )
+        {
+        return journalDirectory.resolve( String.format( SEGMENT_FORMAT, segmentNumber ) ) ;
+
+        }   // end segmentFile()
+
+
+    /**
+     * @return the number of events appended
+     */
+    public long getEventCount()
+        {
+        return this.eventCount ;
+
+        }   // end getEventCount()
+
+
+    /**
+     * @return the number of segment files written
+     */
+    public int getSegmentCount()
+        {
+        return this.segmentNumber + 1 ;
+
+        }   // end getSegmentCount()
+
+
+    /**
+     * Record the last segment's number of events and write it to storage
+     *
+     * @throws IOException
+     *     if the segment can't be written
+     */
+    @Override
+    public void close() throws IOException
+        {
+        if ( this.segment == null )
+            {
+            return ;
+            }
+
+        finishSegment() ;
+
+        this.segment.force() ;
+        this.segment = null ;
+
+        }   // end close()
+
+
+    /**
+     * Test driver - journals a simulation in small segments, reads the journal back
+     * and checks that every event was recorded
+     * 
+     * @param args
+     *     optional {@code stations spacing trains ticks}
+     * @throws IOException
+     *     if the journal can't be written or read
+     * @throws IllegalStateException
+     *     if the journal read back doesn't match the simulation
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 20 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 50 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 8 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 20_000 ;
+
+        Scenario theScenario = Scenario.uniform( stations, spacing, trains, 100, 1, ticks, 2_021L ) ;
+
+        Path journalDirectory = Files.createTempDirectory( "TrainSimulation-journal" ) ;
+
+        SimulationOptions theOptions = new SimulationOptions() ;
+        theOptions.setJournalDirectory( journalDirectory ) ;
+        theOptions.setJournalSegmentSize( 1 << 20 ) ;
+
+        long startTime = System.nanoTime() ;
+        TrainSimulation theSimulation = new TrainSimulation( theScenario, theOptions ) ;
+        theSimulation.run() ;
+        long elapsedNanos = System.nanoTime() - startTime ;
+
+        theSimulation.closeJournal() ;
+
+        System.out.printf( "%s%n", ReplicationResult.summarize( theScenario.getSeed(),
+                                                                  theSimulation,
+                                                                  elapsedNanos ) ) ;
+
+        // read it back
+        long[] counts = new long[ JournalEvent.values().length ] ;
+        long eventCount = 0 ;
+        int segmentCount = 0 ;
+        int previousTime = 0 ;
+        int outOfOrder = 0 ;
+
+        try ( JournalReader events = new JournalReader( journalDirectory ) )
+            {
+            while ( events.next() )
+                {
+                counts[ events.getEvent().ordinal() ]++ ;
+                eventCount++ ;
+
+                if ( events.getTime() < previousTime )
+                    {
+                    outOfOrder++ ;
+                    }
+                previousTime = events.getTime() ;
+                }
+            }
+
+        try ( DirectoryStream<Path> segments = Files.newDirectoryStream( journalDirectory,
+                                                                         SEGMENT_GLOB ) )
+            {
+            for ( Path aSegment : segments )
+                {
+                segmentCount++ ;
+                Files.delete( aSegment ) ;
+                }
+            }
+        Files.delete( journalDirectory ) ;
+
+        long passengerEvents = counts[ JournalEvent.ENTER.ordinal() ] +
+                               counts[ JournalEvent.BOARD.ordinal() ] +
+                               counts[ JournalEvent.DISEMBARK.ordinal() ] +
+                               counts[ JournalEvent.EXIT.ordinal() ] ;
+
+        System.out.printf( "%,d events in %,d segments%n", eventCount, segmentCount ) ;
+        for ( JournalEvent anEvent : JournalEvent.values() )
+            {
+            System.out.printf( "    %-12s %,15d%n", anEvent, counts[ anEvent.ordinal() ] ) ;
+            }
+
+        boolean complete =
+                        ( passengerEvents == theSimulation.getPassengerEventCount() ) &&
+                        ( counts[ JournalEvent.ENTER.ordinal() ] ==
+                                        theSimulation.getPassengerStore().getCreatedCount() ) &&
+                        ( counts[ JournalEvent.EXIT.ordinal() ] ==
+                                        theSimulation.getStatistics().getTotal().getCount() ) &&
+                        ( counts[ JournalEvent.TRAIN_ARRIVE.ordinal() ] ==
+                                        counts[ JournalEvent.TRAIN_DEPART.ordinal() ] ) &&
+                        ( outOfOrder == 0 ) ;
+
+        if ( ! complete )
+            {
+            throw new IllegalStateException( "journal incomplete" ) ;
+            }
+
+        System.out.printf( "%njournal complete%n" ) ;
+
+        }   // end main()
+
+    }   // end class EventJournal
@@ -0,0 +1,498 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.Location ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+
+import java.util.Arrays ;
+
+/**
+ * Discrete-event engine for a simulation. Instead of moving every train one position
+ * every tick, each train's next arrival at a station is scheduled in a priority queue
+ * and the clock jumps straight from one arrival to the next.
+ * <p>
+ * The results are identical to the tick loop's:
+ * <ul>
+ * <li>passengers for every tick - including the ticks skipped between arrivals - are
+ * generated in tick order before any arrival at a later time, so the pseudo-random
+ * sequence and every timestamp are the same</li>
+ * <li>arrivals at the same time are handled in train id order, just as the tick loop
+ * moves the trains</li>
+ * <li>at the end of the run every train is moved to where the tick loop would have
+ * left it</li>
+ * </ul>
+ * Trains between stations don't interact with passengers, so nothing else depends on
+ * the skipped ticks. The positions a train passes through aren't recorded in the
+ * track occupancy index or the movement log, though.
+ * <p>
+ * The number of ticks from a (position, direction) to the next station - and where
+ * the train is when it gets there - only depends on the route, so each leg is
+ * computed once and then reused - by stepping a scratch {@code Location} on LINEAR
+ * routes, from the route's station gap tables on CIRCULAR routes.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 CIRCULAR routes
+ */
+final class EventScheduler
+    {
+
+    /** leg length from a position where no station is ever reached */
+    private static final int NEVER = -1 ;
+
+    /** leg length for a leg which hasn't been computed yet */
+    private static final int UNKNOWN = 0 ;
+
+    /** lowest position in the leg table - the range the track occupancy index covers */
+    private static final int MINIMUM_POSITION = -1 ;
+
+    private final TrainSimulation simulation ;
+    private final TrainRoute route ;
+
+    // leg table indexed by [ track ][ position - MINIMUM_POSITION ]
+    private final int[][] legTicks ;
+    private final int[][] legEndPositions ;
+    private final Direction[][] legEndDirections ;
+
+    // where the most recently resolved leg ends
+    private int resolvedPosition ;
+    private Direction resolvedDirection ;
+
+    /** pending arrivals as ( time << 32 ) | train id in a binary min-heap */
+    private long[] events ;
+    private int eventCount ;
+
+    // per train, indexed by id: when it last moved and where its pending arrival is
+    private final int[] departureTimes ;
+    private final int[] arrivalPositions ;
+    private final Direction[] arrivalDirections ;
+
+
+    /**
+     * @param theSimulation
+     *     the fully set up simulation to run
+     */
+    EventScheduler( TrainSimulation theSimulation )
+        {
+        this.simulation = theSimulation ;
+        this.route = theSimulation.getTrainRoute() ;
+
+        int span = this.route.getLength() + 3 ;
+
+        this.legTicks = new int[ 2 ][ span ] ;
+        this.legEndPositions = new int[ 2 ][ span ] ;
+        this.legEndDirections = new Direction[ 2 ][ span ] ;
+
+        int trainCount = this.route.getTrainCount() ;
+
+        this.events = new long[ Math.max( trainCount, 1 ) ] ;
+        this.eventCount = 0 ;
+
+        this.departureTimes = new int[ trainCount + 1 ] ;
+        this.arrivalPositions = new int[ trainCount + 1 ] ;
+        this.arrivalDirections = new Direction[ trainCount + 1 ] ;
+
+        }   // end constructor
+
+
+    /**
+     * Run the simulation up to and including a tick
+     * 
+     * @param lastTick
+     *     the final tick to simulate
+     */
+    void run( int lastTick )
+        {
+        int trainCount = this.route.getTrainCount() ;
+
+        // schedule every train's first arrival
+        for ( int trainId = 1 ; trainId <= trainCount ; trainId++ )
+            {
+            schedule( this.route.getTrain( trainId ), this.simulation.getCurrentTime() ) ;
+            }
+
+        // service arrivals in time then train id order
+        while ( ( this.eventCount > 0 ) && ( eventTime( this.events[ 0 ] ) <= lastTick ) )
+            {
+            long nextEvent = removeFirst() ;
+            int arrivalTime = eventTime( nextEvent ) ;
+            int trainId = (int) nextEvent ;
+
+            generatePassengersThrough( arrivalTime ) ;
+
+            Train aTrain = this.route.getTrain( trainId ) ;
+            Station aStation = aTrain.advanceTo( this.arrivalPositions[ trainId ],
+                                                 this.arrivalDirections[ trainId ] ) ;
+            aTrain.atStation( aStation ) ;
+
+            schedule( aTrain, arrivalTime ) ;
+            }
+
+        generatePassengersThrough( lastTick ) ;
+
+        // leave every train part way along its current leg
+        for ( int trainId = 1 ; trainId <= trainCount ; trainId++ )
+            {
+            int remainingTicks = lastTick - this.departureTimes[ trainId ] ;
+
+            if ( remainingTicks > 0 )
+                {
+                Train aTrain = this.route.getTrain( trainId ) ;
+                Location scratch = copyOf( aTrain.getLocation() ) ;
+
+                for ( int tick = 1 ; tick <= remainingTicks ; tick++ )
+                    {
+                    this.route.advance( scratch ) ;
+                    }
+
+                aTrain.advanceTo( scratch.getPosition(), scratch.getDirection() ) ;
+                }
+            }
+
+        }   // end run()
+
+
+    /**
+     * Generate the passengers for every tick up to and including a time
+     * 
+     * @param throughTime
+     *     the last tick to generate passengers for
+     */
+    private void generatePassengersThrough( int throughTime )
+        {
+        for ( int aTime = this.simulation.getCurrentTime() + 1 ;
+              aTime <= throughTime ;
+              aTime++ )
+            {
+            this.simulation.setCurrentTime( aTime ) ;
+            this.simulation.generateTickPassengers() ;
+            }
+
+        }   // end generatePassengersThrough()
+
+
+    /**
+     * Schedule a train's arrival at the next station it reaches
+     * 
+     * @param aTrain
+     *     the train which is leaving its current location
+     * @param departureTime
+     *     the current time
+     */
+    private void schedule( Train aTrain, int departureTime )
+        {
+        int trainId = aTrain.getId() ;
+        this.departureTimes[ trainId ] = departureTime ;
+
+        Location from = aTrain.getLocation() ;
+        int ticks = resolveLeg( from.getPosition(), from.getDirection() ) ;
+
+        if ( ticks == NEVER )
+            {
+            return ;
+            }
+
+        this.arrivalPositions[ trainId ] = this.resolvedPosition ;
+        this.arrivalDirections[ trainId ] = this.resolvedDirection ;
+
+        add( ( (long) ( departureTime + ticks ) << 32 ) | trainId ) ;
+
+        }   // end schedule()
+
+
+    /**
+     * Determine how long it takes to reach the next station from a position - sets
+     * {@code resolvedPosition} and {@code resolvedDirection} to where the train will
+     * be when it arrives
+     * 
+     * @param position
+     *     the starting position
+     * @param direction
+     *     the starting direction
+     * @return the number of ticks to the next station or {@code NEVER}
+     */
+    private int resolveLeg( int position, Direction direction )
+        {
+        int track = RouteTopology.trackIndex( direction ) ;
+        int slot = position - MINIMUM_POSITION ;
+
+        boolean cacheable = ( track >= 0 ) &&
+                            ( slot >= 0 ) &&
+                            ( slot < this.legTicks[ 0 ].length ) ;
+
+        if ( cacheable && ( this.legTicks[ track ][ slot ] != UNKNOWN ) )
+            {
+            this.resolvedPosition = this.legEndPositions[ track ][ slot ] ;
+            this.resolvedDirection = this.legEndDirections[ track ][ slot ] ;
+
+            return this.legTicks[ track ][ slot ] ;
+            }
+
+        int ticks = NEVER ;
+
+        if ( this.route.getStyle() == RouteStyle.CIRCULAR )
+            {
+            // trains never turn around - the next station is a modular distance ahead
+            RouteTopology topology = this.route.getTopology() ;
+            int distance = topology.distanceToNextStation( position, direction ) ;
+
+            if ( distance > 0 )
+                {
+                ticks = distance ;
+                }
+
+            this.resolvedPosition = topology.wrap( RouteTopology.isIncreasing( direction )
+                                                       ? position + distance
+                                                       : position - distance ) ;
+            this.resolvedDirection = direction ;
+            }
+        else
+            {
+            // step a scratch location until it reaches a station - on any route with
+            // a station every position is reached within two trips end to end
+            Location scratch = new Location( this.route, position, direction ) ;
+            int limit = 2 * ( this.route.getLength() + 2 ) ;
+
+            for ( int tick = 1 ; tick <= limit ; tick++ )
+                {
+                this.route.advance( scratch ) ;
+
+                if ( this.route.getStationAt( scratch ) != null )
+                    {
+                    ticks = tick ;
+                    break ;
+                    }
+                }
+
+            this.resolvedPosition = scratch.getPosition() ;
+            this.resolvedDirection = scratch.getDirection() ;
+            }
+
+        if ( cacheable )
+            {
+            this.legTicks[ track ][ slot ] = ticks ;
+            this.legEndPositions[ track ][ slot ] = this.resolvedPosition ;
+            this.legEndDirections[ track ][ slot ] = this.resolvedDirection ;
+            }
+
+        return ticks ;
+
+        }   // end resolveLeg()
+
+
+    /**
+     * @param aLocation
+     *     a location
+     * @return an independent copy of the location
+     */
+    private static Location copyOf( Location aLocation )
+        {
+        return new Location( aLocation.getRoute(),
+                             aLocation.getPosition(),
+                             aLocation.getDirection() ) ;
+
+        }   // end copyOf()
+
+
+    /*
+     * event queue
+     */
+
+
+    /**
+     * @param anEvent
+     *     an encoded event
+     * @return the event's time
+     */
+    private static int eventTime( long anEvent )
+        {
+        return (int) ( anEvent >>> 32 ) ;
+
+        }   // end eventTime()
+
+
+    /**
+     * Add an event to the heap
+     * 
+     * @param anEvent
+     *     the encoded event
+     */
+    private void add( long anEvent )
+        {
+        if ( this.eventCount == this.events.length )
+            {
+            this.events = Arrays.copyOf( this.events, this.events.length * 2 ) ;
+            }
+
+        // sift up
+        int child = this.eventCount++ ;
+        while ( child > 0 )
+            {
+            int parent = ( child - 1 ) >>> 1 ;
+            if ( this.events[ parent ] <= anEvent )
+                {
+                break ;
+                }
+
+            this.events[ child ] = this.events[ parent ] ;
+            child = parent ;
+            }
+
+        this.events[ child ] = anEvent ;
+
+        }   // end add()
+
+
+    /**
+     * Remove the earliest event from the heap
+     * 
+     * @return the encoded event
+     */
+    private long removeFirst()
+        {
+        long first = this.events[ 0 ] ;
+        long last = this.events[ --this.eventCount ] ;
+
+        // sift down
+        int parent = 0 ;
+        int half = this.eventCount >>> 1 ;
+        while ( parent < half )
+            {
+            int child = ( 2 * parent ) + 1 ;
+            if ( ( ( child + 1 ) < this.eventCount ) &&
+                 ( this.events[ child + 1 ] < this.events[ child ] ) )
+                {
+                child++ ;
+                }
+
+            if ( last <= this.events[ child ] )
+                {
+                break ;
+                }
+
+            this.events[ parent ] = this.events[ child ] ;
+            parent = child ;
+            }
+
+        if ( this.eventCount > 0 )
+            {
+            this.events[ parent ] = last ;
+            }
+
+        return first ;
+
+        }   // end removeFirst()
+
+
+    /**
+     * Test driver - runs a sparse route with both engines and compares the results
+     * 
+     * @param args
+     *     optional {@code stations spacing trains ticks}
+     * @throws IllegalStateException
+     *     if the engines' results differ
+     */
+    public static void main( String[] args )
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 20 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 500 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 8 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 200_000 ;
+
+        Scenario theScenario = Scenario.uniform( stations, spacing, trains, 100, 1, ticks, 2_021L ) ;
+
+        TrainSimulation[] simulations = new TrainSimulation[ 2 ] ;
+        SimulationOptions.Engine[] engines = { SimulationOptions.Engine.TICK,
+                                               SimulationOptions.Engine.EVENT } ;
+
+        for ( int i = 0 ; i < engines.length ; i++ )
+            {
+            SimulationOptions theOptions = new SimulationOptions() ;
+            theOptions.setEngine( engines[ i ] ) ;
+
+            long startTime = System.nanoTime() ;
+            simulations[ i ] = new TrainSimulation( theScenario, theOptions ) ;
+            simulations[ i ].run() ;
+            long elapsedNanos = System.nanoTime() - startTime ;
+
+            System.out.printf( "%-5s %s%n",
+                               engines[ i ],
+                               ReplicationResult.summarize( theScenario.getSeed(),
+                                                            simulations[ i ],
+                                                            elapsedNanos ) ) ;
+            }
+
+        // every slot's passenger, stations and timestamps must match
+        PassengerStore tickStore = simulations[ 0 ].getPassengerStore() ;
+        PassengerStore eventStore = simulations[ 1 ].getPassengerStore() ;
+
+        int mismatches = ( tickStore.getSlotCount() == eventStore.getSlotCount() ) &&
+                         ( tickStore.getCreatedCount() == eventStore.getCreatedCount() )
+                                ? 0
+                                : 1 ;
+        for ( int id = 1 ; ( mismatches == 0 ) && ( id <= tickStore.getSlotCount() ) ; id++ )
+            {
+            if ( ( tickStore.getSerial( id ) != eventStore.getSerial( id ) ) ||
+                 ( tickStore.getOriginId( id ) != eventStore.getOriginId( id ) ) ||
+                 ( tickStore.getDestinationId( id ) != eventStore.getDestinationId( id ) ) ||
+                 ( tickStore.getTimeEntered( id ) != eventStore.getTimeEntered( id ) ) ||
+                 ( tickStore.getTimeBoarded( id ) != eventStore.getTimeBoarded( id ) ) ||
+                 ( tickStore.getTimeDisembarked( id ) != eventStore.getTimeDisembarked( id ) ) ||
+                 ( tickStore.getTimeExited( id ) != eventStore.getTimeExited( id ) ) )
+                {
+                mismatches++ ;
+                System.out.printf( "first mismatch: slot %,d%n", id ) ;
+                }
+            }
+
+        for ( int trainId = 1 ; trainId <= trains ; trainId++ )
+            {
+            Location tickLocation = simulations[ 0 ].getTrainRoute().getTrain( trainId ).getLocation() ;
+            Location eventLocation = simulations[ 1 ].getTrainRoute().getTrain( trainId ).getLocation() ;
+
+            if ( ( tickLocation.getPosition() != eventLocation.getPosition() ) ||
+                 ( tickLocation.getDirection() != eventLocation.getDirection() ) )
+                {
+                mismatches++ ;
+                System.out.printf( "train %,d ended at %s vs %s%n",
+                                   trainId,
+                                   tickLocation,
+                                   eventLocation ) ;
+                }
+            }
+
+        if ( mismatches != 0 )
+            {
+            throw new IllegalStateException( String.format( "engines disagree: %,d mismatches",
+                                                            mismatches ) ) ;
+            }
+
+        System.out.printf( "%nengines agree%n" ) ;
+
+        }   // end main()
+
+    }   // end class EventScheduler
@@ -0,0 +1,77 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Kind of event recorded in an {@code EventJournal}. Passenger events identify the
+ * passenger, the station where it happened and the passenger's destination; train
+ * events identify the train and station and the number of passengers on board.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public enum JournalEvent
+    {
+    /** a passenger entered their origin station */
+    ENTER,
+    /** a passenger boarded a train at their origin station */
+    BOARD,
+    /** a passenger got off a train at their destination station */
+    DISEMBARK,
+    /** a passenger left the simulation at their destination station */
+    EXIT,
+    /** a train arrived at a station */
+    TRAIN_ARRIVE,
+    /** a train is leaving a station */
+    TRAIN_DEPART ;
+
+    private static final JournalEvent[] EVENTS = values() ;
+
+
+    /**
+     * @return the event's code in a journal record - never 0, which marks unused
+     *     space
+     */
+    short code()
+        {
+        return (short) ( ordinal() + 1 ) ;
+
+        }   // end code()
+
+
+    /**
+     * @param code
+     *     an event code read from a journal record
+     * @return the event or {@code null} if the code doesn't identify one
+     */
+    static JournalEvent fromCode( int code )
+        {
+        return ( code >= 1 ) && ( code <= EVENTS.length )
+                    ? EVENTS[ code - 1 ]
+                    : null ;
+
+        }   // end fromCode()
+
+    }   // end enum JournalEvent
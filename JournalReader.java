@@ -0,0 +1,342 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.Closeable ;
+import java.io.IOException ;
+import java.nio.ByteBuffer ;
+import java.nio.ByteOrder ;
+import java.nio.channels.FileChannel ;
+import java.nio.file.DirectoryStream ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.Paths ;
+import java.nio.file.StandardOpenOption ;
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.List ;
+
+/**
+ * Iterates the events in an {@code EventJournal} in the order they were appended.
+ * The reader is a cursor: {@code next()} advances to the next event and the getters
+ * return its fields, so reading allocates nothing per event. Segments are mapped one
+ * at a time.
+ * <p>
+ * Typical use:
+ *
+ * <pre>
+ * try ( JournalReader events = new JournalReader( journalDirectory ) )
+ *     {
+ *     while ( events.next() )
+ *         {
+ *         ... events.getEvent(), events.getPassengerId() ...
+ *         }
+ *     }
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class JournalReader implements Closeable
+    {
+
+    private final List<Path> segmentFiles ;
+    private int nextSegment ;
+
+    // the segment being read
+    private ByteBuffer segment ;
+    private int recordOffset ;
+
+    // the current event
+    private int time ;
+    private JournalEvent event ;
+    private long passengerId ;
+    private int stationId ;
+    private int trainId ;
+    private int detail ;
+
+
+    /**
+     * @param journalDirectory
+     *     the folder an {@code EventJournal} wrote its segments to
+     * @throws IOException
+     *     if the folder can't be listed
+     */
+    public JournalReader( Path journalDirectory ) throws IOException
+        {
+        this.segmentFiles = new ArrayList<>() ;
+        try ( DirectoryStream<Path> segments = Files.newDirectoryStream( journalDirectory,
+                                                                         EventJournal.SEGMENT_GLOB ) )
+            {
+            for ( Path aSegment : segments )
+                {
+                this.segmentFiles.add( aSegment ) ;
+                }
+            }
+
+        // the numbers are zero-padded so name order is append order
+        Collections.sort( this.segmentFiles ) ;
+
+        this.nextSegment = 0 ;
+        this.segment = null ;
+
+        }   // end constructor
+
+
+    /**
+     * Advance to the next event
+     *
+     * @return true if there is another event, false at the end of the journal
+     * @throws IOException
+     *     if a segment can't be read or is malformed
+     */
+    public boolean next() throws IOException
+        {
+        while ( true )
+            {
+            if ( this.segment != null )
+                {
+                int at = this.recordOffset ;
+
+                if ( ( at + EventJournal.RECORD_SIZE ) <= this.segment.limit() )
+                    {
+                    short code = this.segment.getShort( at + 4 ) ;
+
+                    // unused space left by a run which didn't close its journal
+                    if ( code != 0 )
+                        {
+                        this.time = this.segment.getInt( at ) ;
+                        this.event = JournalEvent.fromCode( code ) ;
+                        this.passengerId = this.segment.getLong( at + 8 ) ;
+                        this.stationId = this.segment.getInt( at + 16 ) ;
+                        this.trainId = this.segment.getInt( at + 20 ) ;
+                        this.detail = this.segment.getInt( at + 24 ) ;
+
+                        if ( this.event == null )
+                            {
+                            throw new IOException( String.format( "unknown event code %,d at offset %,d",
+                                                                  code,
+                                                                  at ) ) ;
+                            }
+
+                        this.recordOffset = at + EventJournal.RECORD_SIZE ;
+
+                        return true ;
+                        }
+                    }
+
+                this.segment = null ;
+                }
+
+            if ( this.nextSegment == this.segmentFiles.size() )
+                {
+                return false ;
+                }
+
+            openSegment( this.segmentFiles.get( this.nextSegment++ ) ) ;
+            }
+
+        }   // end next()
+
+
+    /**
+     * Map a segment and check its header
+     *
+     * @param segmentFile
+     *     the segment's file
+     * @throws IOException
+     *     if the file can't be mapped or isn't a journal segment
+     */
+    private void openSegment( Path segmentFile ) throws IOException
+        {
+        try ( FileChannel channel = FileChannel.open( segmentFile, StandardOpenOption.READ ) )
+            {
+            this.segment = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() )
+                                  .order( ByteOrder.LITTLE_ENDIAN ) ;
+            }
+
+        if ( ( this.segment.limit() < EventJournal.HEADER_SIZE ) ||
+             ( this.segment.getInt( 0 ) != EventJournal.MAGIC ) ||
+             ( this.segment.getInt( 4 ) != EventJournal.VERSION ) ||
+             ( this.segment.getInt( 8 ) != EventJournal.RECORD_SIZE ) )
+            {
+            throw new IOException( String.format( "%s is not a version %d journal segment",
+                                                  segmentFile,
+                                                  EventJournal.VERSION ) ) ;
+            }
+
+        // a finished segment's header says how many events it holds - otherwise the
+        // journal wasn't closed and its unused space is skipped in next()
+        long eventCount = this.segment.getLong( EventJournal.EVENT_COUNT_OFFSET ) ;
+        if ( eventCount != EventJournal.UNFINISHED )
+            {
+            long end = EventJournal.HEADER_SIZE + ( eventCount * EventJournal.RECORD_SIZE ) ;
+            if ( ( eventCount < 0 ) || ( end > this.segment.limit() ) )
+                {
+                throw new IOException( String.format( "%s is truncated: %,d events in %,d bytes",
+                                                      segmentFile,
+                                                      eventCount,
+                                                      this.segment.limit() ) ) ;
+                }
+
+            this.segment.limit( (int) end ) ;
+            }
+
+        this.recordOffset = EventJournal.HEADER_SIZE ;
+
+        }   // end openSegment()
+
+
+    /*
+     * the current event
+     */
+
+
+    /**
+     * @return the simulation time of the event
+     */
+    public int getTime()
+        {
+        return this.time ;
+
+        }   // end getTime()
+
+
+    /**
+     * @return what happened
+     */
+    public JournalEvent getEvent()
+        {
+        return this.event ;
+
+        }   // end getEvent()
+
+
+    /**
+     * @return the passenger's id (serial number) or 0 for a train event
+     */
+    public long getPassengerId()
+        {
+        return this.passengerId ;
+
+        }   // end getPassengerId()
+
+
+    /**
+     * @return the station where the event happened
+     */
+    public int getStationId()
+        {
+        return this.stationId ;
+
+        }   // end getStationId()
+
+
+    /**
+     * @return the train involved or 0
+     */
+    public int getTrainId()
+        {
+        return this.trainId ;
+
+        }   // end getTrainId()
+
+
+    /**
+     * @return the passenger's destination station id or, for a train event, the
+     *     number of passengers on board
+     */
+    public int getDetail()
+        {
+        return this.detail ;
+
+        }   // end getDetail()
+
+
+    /**
+     * Release the current segment - mappings are released when they're garbage
+     * collected
+     */
+    @Override
+    public void close()
+        {
+        this.segment = null ;
+        this.nextSegment = this.segmentFiles.size() ;
+
+        }   // end close()
+
+
+    /**
+     * Summarize a journal: the number of each kind of event and the time span
+     *
+     * @param args
+     *     the journal's folder
+     * @throws IOException
+     *     if the journal can't be read
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        if ( args.length != 1 )
+            {
+            System.err.printf( "usage: %s journal-directory%n",
+                               JournalReader.class.getSimpleName() ) ;
+            return ;
+            }
+
+        long[] counts = new long[ JournalEvent.values().length ] ;
+        long eventCount = 0 ;
+        int firstTime = 0 ;
+        int lastTime = 0 ;
+
+        try ( JournalReader events = new JournalReader( Paths.get( args[ 0 ] ) ) )
+            {
+            while ( events.next() )
+                {
+                if ( eventCount == 0 )
+                    {
+                    firstTime = events.getTime() ;
+                    }
+                lastTime = events.getTime() ;
+
+                counts[ events.getEvent().ordinal() ]++ ;
+                eventCount++ ;
+                }
+            }
+
+        System.out.printf( "%,d events from time %,d through %,d%n",
+                           eventCount,
+                           firstTime,
+                           lastTime ) ;
+
+        for ( JournalEvent anEvent : JournalEvent.values() )
+            {
+            System.out.printf( "    %-12s %,15d%n",
+                               anEvent,
+                               counts[ anEvent.ordinal() ] ) ;
+            }
+
+        }   // end main()
+
+    }   // end class JournalReader
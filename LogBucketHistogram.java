@@ -0,0 +1,367 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Arrays ;
+
+/**
+ * Fixed-size histogram of non-negative int values (times in ticks) with
+ * logarithmically sized buckets. Values below {@code 2^SUB_BUCKET_BITS} are counted
+ * exactly; above that each power-of-2 range is split into {@code 2^SUB_BUCKET_BITS}
+ * equal buckets so every value is recorded within about 6% of its actual value.
+ * <p>
+ * Memory is the same however many values are recorded. The count, sum, minimum and
+ * maximum are kept exactly; percentiles are estimated from the buckets.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 checkpoint save and restore
+ */
+public final class LogBucketHistogram
+    {
+
+    /** log2 of the number of buckets each power-of-2 range is split into */
+    private static final int SUB_BUCKET_BITS = 4 ;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS ;
+
+    /** enough buckets for every non-negative int */
+    private static final int BUCKET_COUNT = ( ( 31 - SUB_BUCKET_BITS ) + 1 ) * SUB_BUCKET_COUNT ;
+
+    private final long[] counts = new long[ BUCKET_COUNT ] ;
+
+    private long count ;
+    private long sum ;
+    private int minimum = Integer.MAX_VALUE ;
+    private int maximum = Integer.MIN_VALUE ;
+
+
+    /**
+     * Record a value
+     * 
+     * @param value
+     *     the value - negative values are ignored
+     */
+    public void record( int value )
+        {
+        if ( value < 0 )
+            {
+            return ;
+            }
+
+        this.counts[ bucketOf( value ) ]++ ;
+
+        this.count++ ;
+        this.sum += value ;
+        this.minimum = Math.min( this.minimum, value ) ;
+        this.maximum = Math.max( this.maximum, value ) ;
+
+        }   // end record()
+
+
+    /**
+     * Add all of another histogram's values to this one
+     * 
+     * @param other
+     *     the histogram to merge in
+     */
+    public void add( LogBucketHistogram other )
+        {
+        for ( int bucket = 0 ; bucket < BUCKET_COUNT ; bucket++ )
+            {
+            this.counts[ bucket ] += other.counts[ bucket ] ;
+            }
+
+        this.count += other.count ;
+        this.sum += other.sum ;
+        this.minimum = Math.min( this.minimum, other.minimum ) ;
+        this.maximum = Math.max( this.maximum, other.maximum ) ;
+
+        }   // end add()
+
+
+    /**
+     * Forget every recorded value
+     */
+    public void clear()
+        {
+        Arrays.fill( this.counts, 0 ) ;
+
+        this.count = 0 ;
+        this.sum = 0 ;
+        this.minimum = Integer.MAX_VALUE ;
+        this.maximum = Integer.MIN_VALUE ;
+
+        }   // end clear()
+
+
+    /**
+     * Append the histogram to a checkpoint - only the buckets from the first to the
+     * last non-zero count are saved
+     *
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        int firstBucket = 0 ;
+        while ( ( firstBucket < BUCKET_COUNT ) && ( this.counts[ firstBucket ] == 0 ) )
+            {
+            firstBucket++ ;
+            }
+
+        int endBucket = BUCKET_COUNT ;
+        while ( ( endBucket > firstBucket ) && ( this.counts[ endBucket - 1 ] == 0 ) )
+            {
+            endBucket-- ;
+            }
+
+        state.putLong( this.count ) ;
+        state.putLong( this.sum ) ;
+        state.putInt( this.minimum ) ;
+        state.putInt( this.maximum ) ;
+
+        state.putInt( firstBucket ) ;
+        state.putInt( endBucket ) ;
+        state.putLongs( this.counts, firstBucket, endBucket - firstBucket ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the histogram's contents with those saved by {@code saveState()}
+     *
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        clear() ;
+
+        this.count = state.getLong() ;
+        this.sum = state.getLong() ;
+        this.minimum = state.getInt() ;
+        this.maximum = state.getInt() ;
+
+        int firstBucket = state.getInt() ;
+        int endBucket = state.getInt() ;
+        state.getLongs( this.counts, firstBucket, endBucket - firstBucket ) ;
+
+        }   // end restoreState()
+
+
+    /**
+     * @param value
+     *     a non-negative value
+     * @return the index of the bucket which counts the value
+     */
+    static int bucketOf( int value )
+        {
+        if ( value < SUB_BUCKET_COUNT )
+            {
+            return value ;
+            }
+
+        int exponent = 31 - Integer.numberOfLeadingZeros( value ) ;
+        int shift = exponent - SUB_BUCKET_BITS ;
+
+        return ( ( shift + 1 ) << SUB_BUCKET_BITS ) +
+               ( ( value >>> shift ) & ( SUB_BUCKET_COUNT - 1 ) ) ;
+
+        }   // end bucketOf()
+
+
+    /**
+     * @param bucket
+     *     a bucket index
+     * @return the smallest value counted by the bucket
+     */
+    static int lowestValueIn( int bucket )
+        {
+        if ( bucket < SUB_BUCKET_COUNT )
+            {
+            return bucket ;
+            }
+
+        int shift = ( bucket >>> SUB_BUCKET_BITS ) - 1 ;
+
+        return ( SUB_BUCKET_COUNT + ( bucket & ( SUB_BUCKET_COUNT - 1 ) ) ) << shift ;
+
+        }   // end lowestValueIn()
+
+
+    /**
+     * @param bucket
+     *     a bucket index
+     * @return the largest value counted by the bucket
+     */
+    static int highestValueIn( int bucket )
+        {
+        if ( bucket < SUB_BUCKET_COUNT )
+            {
+            return bucket ;
+            }
+
+        int shift = ( bucket >>> SUB_BUCKET_BITS ) - 1 ;
+
+        return (int) ( lowestValueIn( bucket ) + ( 1L << shift ) - 1 ) ;
+
+        }   // end highestValueIn()
+
+
+    /*
+     * summary measures
+     */
+
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount()
+        {
+        return this.count ;
+
+        }   // end getCount()
+
+
+    /**
+     * @return the mean of the values recorded or 0 if there are none
+     */
+    public double getMean()
+        {
+        return this.count == 0
+                    ? 0.0
+                    : (double) this.sum / this.count ;
+
+        }   // end getMean()
+
+
+    /**
+     * @return the smallest value recorded or 0 if there are none
+     */
+    public int getMinimum()
+        {
+        return this.count == 0
+                    ? 0
+                    : this.minimum ;
+
+        }   // end getMinimum()
+
+
+    /**
+     * @return the largest value recorded or 0 if there are none
+     */
+    public int getMaximum()
+        {
+        return this.count == 0
+                    ? 0
+                    : this.maximum ;
+
+        }   // end getMaximum()
+
+
+    /**
+     * Estimate a percentile - the upper end of the bucket holding the value at that
+     * rank, limited to the range of recorded values
+     * 
+     * @param percentile
+     *     the percentile, from 0 to 100 (e.g. 99.9)
+     * @return the estimated value or 0 if there are none
+     */
+    public int getPercentile( double percentile )
+        {
+        if ( this.count == 0 )
+            {
+            return 0 ;
+            }
+
+        long rank = Math.max( 1, (long) Math.ceil( ( percentile / 100.0 ) * this.count ) ) ;
+
+        long seen = 0 ;
+        for ( int bucket = 0 ; bucket < BUCKET_COUNT ; bucket++ )
+            {
+            seen += this.counts[ bucket ] ;
+
+            if ( seen >= rank )
+                {
+                return Math.max( this.minimum,
+                                 Math.min( this.maximum, highestValueIn( bucket ) ) ) ;
+                }
+            }
+
+        return this.maximum ;
+
+        }   // end getPercentile()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+        {
+        return String.format( "count %,d, mean %,.2f, min %,d, p50 %,d, p90 %,d, p99 %,d, p99.9 %,d, max %,d",
+                              this.count,
+                              getMean(),
+                              getMinimum(),
+                              getPercentile( 50.0 ),
+                              getPercentile( 90.0 ),
+                              getPercentile( 99.0 ),
+                              getPercentile( 99.9 ),
+                              getMaximum() ) ;
+
+        }   // end toString()
+
+
+    /**
+     * Test driver
+     * 
+     * @param args
+     *     -unused-
+     */
+    public static void main( String[] args )
+        {
+        // every bucket's range must start right after the previous one's
+        for ( int bucket = 1 ; bucket < BUCKET_COUNT ; bucket++ )
+            {
+            if ( lowestValueIn( bucket ) != ( highestValueIn( bucket - 1 ) + 1 ) )
+                {
+                System.out.printf( "gap before bucket %,d%n", bucket ) ;
+                }
+            }
+        System.out.printf( "highest bucket ends at %,d%n", highestValueIn( BUCKET_COUNT - 1 ) ) ;
+
+        LogBucketHistogram aHistogram = new LogBucketHistogram() ;
+        for ( int value = 1 ; value <= 100_000 ; value++ )
+            {
+            aHistogram.record( value ) ;
+            }
+
+        System.out.printf( "1..100,000: %s%n", aHistogram ) ;
+
+        }   // end main()
+
+    }   // end class LogBucketHistogram
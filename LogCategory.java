@@ -0,0 +1,52 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Subject area of a log message. Each category has its own {@code LogLevel}
+ * threshold so, for example, per-tick train movement can be disabled while station
+ * arrivals are still logged.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public enum LogCategory
+    {
+    /** building the route, stations and trains */
+    SETUP,
+    /** creating passengers */
+    GENERATION,
+    /** trains moving along the route */
+    MOVEMENT,
+    /** passengers entering, waiting on platforms, and leaving stations */
+    BOARDING,
+    /** trains arriving at stations */
+    ARRIVALS,
+    /** full simulation state dumps */
+    SNAPSHOTS,
+    /** summary results */
+    STATISTICS
+
+    }   // end enum LogCategory
@@ -0,0 +1,47 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Severity of a log message. A message is written only if its level is at or above
+ * the threshold configured for its {@code LogCategory}.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public enum LogLevel
+    {
+    /** finest detail */
+    TRACE,
+    /** per-entity, per-tick detail such as train movement */
+    DEBUG,
+    /** progress and summary information */
+    INFO,
+    /** something unexpected which doesn't stop the simulation */
+    WARNING,
+    /** threshold which disables a category entirely */
+    OFF
+
+    }   // end enum LogLevel
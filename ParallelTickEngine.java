@@ -0,0 +1,504 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.IOException ;
+import java.nio.file.DirectoryStream ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.util.concurrent.ForkJoinPool ;
+import java.util.concurrent.RecursiveAction ;
+import java.util.function.IntConsumer ;
+
+/**
+ * Tick engine which moves and services trains concurrently on a fork-join pool.
+ * Each tick is split into phases:
+ * <ol>
+ * <li>passengers are generated - sequentially, so the pseudo-random sequence is
+ * unchanged</li>
+ * <li>every train's location advances - concurrently, since a train's location is
+ * its own</li>
+ * <li>the moves are committed to the track occupancy index in train id order, and
+ * the trains stopping at stations are grouped by the platform they board from</li>
+ * <li>each platform's trains exchange passengers in train id order - platforms
+ * concurrently, since a train only touches its own passengers, their timestamps and
+ * the platform it boards from</li>
+ * <li>in train id order, each train's move is logged and its stop, if any, is
+ * completed - logging, journaling, statistics and the release of exiting
+ * passengers' slots</li>
+ * </ol>
+ * Everything shared is therefore touched in the same order as the sequential tick
+ * loop, so the results - including logs, journal, statistics and slot reuse - are
+ * identical to it regardless of the number of threads. Trains don't draw
+ * pseudo-random numbers, so no per-train streams are needed.
+ * <p>
+ * An engine owns its pool and runs once.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 flight recorder tick events
+ */
+final class ParallelTickEngine
+    {
+
+    /** trains moved by each task */
+    private static final int MOVE_GRAIN = 512 ;
+
+    /** platforms serviced by each task */
+    private static final int STOP_GRAIN = 4 ;
+
+    /** marks the end of a platform's group of stops */
+    private static final int NONE = -1 ;
+
+    private final TrainSimulation simulation ;
+    private final ForkJoinPool pool ;
+
+    /** every train in id order */
+    private final Train[] trains ;
+
+    // trains stopping at a station this tick, in id order
+    private final Train[] stoppingTrains ;
+    private final Station[] stoppingStations ;
+    private int stopCount ;
+
+    // the stops grouped by platform: each group's first stop and each stop's successor
+    private final int[] groupFirstStops ;
+    private final int[] nextStops ;
+    private int groupCount ;
+
+    // indexed by platform ( station id * 2 + track ): the tick it was last stopped at
+    // and the last stop there
+    private final int[] platformTimes ;
+    private final int[] platformLastStops ;
+
+    // phase bodies - created once so the ticks don't allocate them
+    private final IntConsumer moveTrain ;
+    private final IntConsumer servicePlatform ;
+
+
+    /**
+     * @param theSimulation
+     *     the fully set up simulation to run
+     * @param parallelism
+     *     the number of threads
+     */
+    ParallelTickEngine( TrainSimulation theSimulation, int parallelism )
+        {
+        this.simulation = theSimulation ;
+        this.pool = new ForkJoinPool( Math.max( 1, parallelism ) ) ;
+
+        TrainRoute theRoute = theSimulation.getTrainRoute() ;
+        this.trains = theRoute.getTrains() ;
+
+        int trainCount = this.trains.length ;
+        this.stoppingTrains = new Train[ trainCount ] ;
+        this.stoppingStations = new Station[ trainCount ] ;
+        this.groupFirstStops = new int[ trainCount ] ;
+        this.nextStops = new int[ trainCount ] ;
+
+        int platformCount = ( theRoute.getStationCount() + 1 ) * 2 ;
+        this.platformTimes = new int[ platformCount ] ;
+        this.platformLastStops = new int[ platformCount ] ;
+
+        this.moveTrain = trainIndex -> this.trains[ trainIndex ].moveLocation() ;
+        this.servicePlatform = this::servicePlatform ;
+
+        }   // end constructor
+
+
+    /**
+     * Run the simulation up to and including a tick, then shut down the pool
+     * 
+     * @param lastTick
+     *     the final tick to simulate
+     */
+    void run( int lastTick )
+        {
+        try
+            {
+            while ( this.simulation.getCurrentTime() < lastTick )
+                {
+                tick() ;
+                }
+            }
+        finally
+            {
+            this.pool.shutdown() ;
+            }
+
+        }   // end run()
+
+
+    /**
+     * Advance the simulation by one tick
+     */
+    private void tick()
+        {
+        SimulationEvents.TickEvent tickEvent = null ;
+        if ( SimulationEvents.isRecording() )
+            {
+            tickEvent = new SimulationEvents.TickEvent() ;
+            tickEvent.begin() ;
+            }
+
+        int currentTime = this.simulation.getCurrentTime() + 1 ;
+        this.simulation.setCurrentTime( currentTime ) ;
+
+        this.simulation.generateTickPassengers() ;
+
+        forEach( this.trains.length, MOVE_GRAIN, this.moveTrain ) ;
+
+        this.stopCount = 0 ;
+        this.groupCount = 0 ;
+        for ( Train aTrain : this.trains )
+            {
+            Station aStation = aTrain.commitMove() ;
+            if ( aStation != null )
+                {
+                addStop( aTrain, aStation, currentTime ) ;
+                }
+            }
+
+        forEach( this.groupCount, STOP_GRAIN, this.servicePlatform ) ;
+
+        // the stops are in train id order too
+        int stop = 0 ;
+        for ( Train aTrain : this.trains )
+            {
+            aTrain.logMove() ;
+
+            if ( ( stop < this.stopCount ) && ( this.stoppingTrains[ stop ] == aTrain ) )
+                {
+                aTrain.completeStop() ;
+                stop++ ;
+                }
+            }
+
+        if ( ( tickEvent != null ) && tickEvent.shouldCommit() )
+            {
+            tickEvent.tick = currentTime ;
+            tickEvent.engine = SimulationOptions.Engine.PARALLEL.name() ;
+            tickEvent.commit() ;
+            }
+
+        }   // end tick()
+
+
+    /**
+     * Add a train to the stops this tick, grouped with any earlier stop at the same
+     * platform
+     * 
+     * @param aTrain
+     *     the stopping train
+     * @param aStation
+     *     the station it's at
+     * @param currentTime
+     *     the current tick
+     */
+    private void addStop( Train aTrain, Station aStation, int currentTime )
+        {
+        int stop = this.stopCount++ ;
+        this.stoppingTrains[ stop ] = aTrain ;
+        this.stoppingStations[ stop ] = aStation ;
+        this.nextStops[ stop ] = NONE ;
+
+        int track = RouteTopology.trackIndex( aTrain.getLocation().getDirection() ) ;
+        int platform = ( aStation.getId() * 2 ) + Math.max( track, 0 ) ;
+
+        if ( this.platformTimes[ platform ] == currentTime )
+            {
+            this.nextStops[ this.platformLastStops[ platform ] ] = stop ;
+            }
+        else
+            {
+            this.platformTimes[ platform ] = currentTime ;
+            this.groupFirstStops[ this.groupCount++ ] = stop ;
+            }
+
+        this.platformLastStops[ platform ] = stop ;
+
+        }   // end addStop()
+
+
+    /**
+     * Exchange passengers for every train stopped at one platform, in train id order
+     * 
+     * @param group
+     *     the platform's group number
+     */
+    private void servicePlatform( int group )
+        {
+        for ( int stop = this.groupFirstStops[ group ] ;
+              stop != NONE ;
+              stop = this.nextStops[ stop ] )
+            {
+            this.stoppingTrains[ stop ].serviceStation( this.stoppingStations[ stop ] ) ;
+            }
+
+        }   // end servicePlatform()
+
+
+    /**
+     * Apply a body to every index in a range, on the pool if the range is large
+     * enough to be worth splitting
+     * 
+     * @param count
+     *     the indices are 0 through {@code count - 1}
+     * @param grain
+     *     the most indices a task handles without splitting
+     * @param body
+     *     the work for one index
+     */
+    private void forEach( int count, int grain, IntConsumer body )
+        {
+        if ( count <= grain )
+            {
+            for ( int index = 0 ; index < count ; index++ )
+                {
+                body.accept( index ) ;
+                }
+
+            return ;
+            }
+
+        this.pool.invoke( new RangeTask( 0, count, grain, body ) ) ;
+
+        }   // end forEach()
+
+
+    /**
+     * Fork-join task which splits a range of indices in half until each part is no
+     * larger than the grain
+     */
+    private static final class RangeTask extends RecursiveAction
+        {
+
+        private static final long serialVersionUID = 1L ;
+
+        private final int from ;
+        private final int to ;
+        private final int grain ;
+        private final transient IntConsumer body ;
+
+
+        /**
+         * @param from
+         *     the first index
+         * @param to
+         *     one past the last index
+         * @param grain
+         *     the most indices handled without splitting
+         * @param body
+         *     the work for one index
+         */
+        RangeTask( int from, int to, int grain, IntConsumer body )
+            {
+            this.from = from ;
+            this.to = to ;
+            this.grain = grain ;
+            this.body = body ;
+
+            }   // end constructor
+
+
+        @Override
+        protected void compute()
+            {
+            if ( ( this.to - this.from ) <= this.grain )
+                {
+                for ( int index = this.from ; index < this.to ; index++ )
+                    {
+                    this.body.accept( index ) ;
+                    }
+
+                return ;
+                }
+
+            int middle = ( this.from + this.to ) >>> 1 ;
+            invokeAll( new RangeTask( this.from, middle, this.grain, this.body ),
+                       new RangeTask( middle, this.to, this.grain, this.body ) ) ;
+
+            }   // end compute()
+
+        }   // end class RangeTask
+
+
+    /**
+     * Test driver - journals a large fleet's run with the sequential tick loop and
+     * with the parallel engine at several thread counts, and checks that every
+     * parallel journal matches the sequential one record for record - the journal
+     * holds every passenger and train event in the order its bookkeeping was done
+     * 
+     * @param args
+     *     optional {@code stations spacing trains ticks}
+     * @throws IOException
+     *     if a journal can't be written or read
+     * @throws IllegalStateException
+     *     if a parallel run's journal differs from the sequential run's
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1_000 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 10 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 4_000 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 2_000 ;
+
+        Scenario theScenario = Scenario.uniform( stations, spacing, trains, 100, 50, ticks, 2_021L ) ;
+
+        int[] threadCounts = { 0, 1, 2, 4, Math.max( 8, Runtime.getRuntime().availableProcessors() ) } ;
+        Path[] journals = new Path[ threadCounts.length ] ;
+        String difference = null ;
+
+        for ( int i = 0 ; i < threadCounts.length ; i++ )
+            {
+            String engineName = threadCounts[ i ] == 0
+                                    ? "TICK"
+                                    : String.format( "PARALLEL x%d", threadCounts[ i ] ) ;
+
+            SimulationOptions theOptions = new SimulationOptions() ;
+            if ( threadCounts[ i ] > 0 )
+                {
+                theOptions.setEngine( SimulationOptions.Engine.PARALLEL ) ;
+                theOptions.setParallelism( threadCounts[ i ] ) ;
+                }
+            journals[ i ] = Files.createTempDirectory( "TrainSimulation-journal" ) ;
+            theOptions.setJournalDirectory( journals[ i ] ) ;
+
+            long startTime = System.nanoTime() ;
+            TrainSimulation theSimulation = new TrainSimulation( theScenario, theOptions ) ;
+            theSimulation.run() ;
+            long elapsedNanos = System.nanoTime() - startTime ;
+
+            theSimulation.closeJournal() ;
+
+            System.out.printf( "%-14s %s%n",
+                               engineName,
+                               ReplicationResult.summarize( theScenario.getSeed(),
+                                                            theSimulation,
+                                                            elapsedNanos ) ) ;
+
+            if ( ( i > 0 ) && ( difference == null ) )
+                {
+                difference = compareJournals( journals[ 0 ], journals[ i ] ) ;
+                if ( difference != null )
+                    {
+                    difference = String.format( "%s journal differs at %s", engineName, difference ) ;
+                    }
+                }
+            }
+
+        for ( Path aJournal : journals )
+            {
+            deleteJournal( aJournal ) ;
+            }
+
+        if ( difference != null )
+            {
+            throw new IllegalStateException( difference ) ;
+            }
+
+        System.out.printf( "%njournals identical%n" ) ;
+
+        }   // end main()
+
+
+    /**
+     * Compare two journals record for record
+     * 
+     * @param expectedJournal
+     *     the folder holding one journal
+     * @param actualJournal
+     *     the folder holding the other journal
+     * @return a description of the first difference or {@code null} if the journals
+     *     are the same
+     * @throws IOException
+     *     if a journal can't be read
+     */
+    private static String compareJournals( Path expectedJournal,
+                                           Path actualJournal ) throws IOException
+        {
+        try ( JournalReader expected = new JournalReader( expectedJournal ) ;
+              JournalReader actual = new JournalReader( actualJournal ) )
+            {
+            long record = 0 ;
+
+            while ( true )
+                {
+                record++ ;
+
+                boolean expectedNext = expected.next() ;
+                if ( expectedNext != actual.next() )
+                    {
+                    return String.format( "record %,d: one journal ends there", record ) ;
+                    }
+
+                if ( ! expectedNext )
+                    {
+                    return null ;
+                    }
+
+                if ( ( expected.getTime() != actual.getTime() ) ||
+                     ( expected.getEvent() != actual.getEvent() ) ||
+                     ( expected.getPassengerId() != actual.getPassengerId() ) ||
+                     ( expected.getStationId() != actual.getStationId() ) ||
+                     ( expected.getTrainId() != actual.getTrainId() ) ||
+                     ( expected.getDetail() != actual.getDetail() ) )
+                    {
+                    return String.format( "record %,d: tick %,d %s vs tick %,d %s",
+                                          record,
+                                          expected.getTime(),
+                                          expected.getEvent(),
+                                          actual.getTime(),
+                                          actual.getEvent() ) ;
+                    }
+                }
+            }
+
+        }   // end compareJournals()
+
+
+    /**
+     * Delete a journal's segments and its folder
+     * 
+     * @param journalDirectory
+     *     the folder holding the journal
+     * @throws IOException
+     *     if a file can't be deleted
+     */
+    static void deleteJournal( Path journalDirectory ) throws IOException
+        {
+        try ( DirectoryStream<Path> segments = Files.newDirectoryStream( journalDirectory ) )
+            {
+            for ( Path aSegment : segments )
+                {
+                Files.delete( aSegment ) ;
+                }
+            }
+
+        Files.delete( journalDirectory ) ;
+
+        }   // end deleteJournal()
+
+    }   // end class ParallelTickEngine
@@ -50,36 +50,29 @@ import java.util.Random ;               // for testing
  *     <li>major restructuring</li>
  *     <li>clean up</li>
  *     </ul>
+ * 
+ * @author Your Name
+ * @version 2.1.0 2026-10-18 lightweight handle onto a row of the simulation's
+ *     {@code PassengerStore}; all per-passenger state lives in the store's columns
+ * @version 2.2.0 2026-10-18 bound to its own simulation so simulations can run
+ *     concurrently
+ * @version 2.3.0 2026-10-18 handle is a store slot plus serial number so slots can be
+ *     recycled; detects use after exit
+ * @version 2.4.0 2026-10-18 passenger events recorded in the event journal
  */
 public final class Passenger
     {
     /** indicates that the time has no meaningful value */
-    public static int UNSPECIFIED = -1 ;
+    public static int UNSPECIFIED = PassengerStore.UNSPECIFIED ;
 
-    // class-wide/shared information
-    private static int nextId = 1 ; // enables automatic id assignment
-    
-    private static TrainSimulation simulationCallback ;   // provides access to simulation state
-
-    
     // per-instance fields
-    private final int id ;      // unique id for this passenger
-
-    private Station origin ;    // starting point for journey
-    private Station destination ;   // end point for journey
-
-    private int timeEntered ;   // time the passenger entered the origin station
-    private int timeBoarded ;   // time the passenger got onto the train
-    private int timeDisembarked ;   // time the passenger got off the train
-    private int timeExited ;    // time the passenger exited the destination station
-    
-    private int timeWaiting ;   // time waiting on the platform at the origin station
-    private int timeRiding ;    // time traveling on train
-    private int totalTime ;     // total time for journey (in simulation)
+    private final TrainSimulation simulation ;  // the simulation whose store holds this passenger
+    private final int slot ;    // this passenger's row in the store while they're in the simulation
+    private final long id ;     // unique id for this passenger - the store's serial number
 
     
     /*
-     * constructor
+     * constructors
      */
     
     /**
@@ -91,26 +84,120 @@ public final class Passenger
     public Passenger( Station initialOrigin,
                       Station initialDestination )
         {
-        this.id = Passenger.nextId++ ;  // assign the next unique id
+        this.simulation = initialOrigin.getSimulation() ;
+        this.slot = Passenger.arrive( initialOrigin, initialDestination ) ;
+        this.id = this.simulation.getPassengerStore().getSerial( this.slot ) ;
+
+        }   // end constructor
+
+
+    /**
+     * Create a handle for a passenger currently in the simulation
+     * 
+     * @param inSimulation
+     *     the simulation whose store holds the passenger
+     * @param existingSlot
+     *     the passenger's slot in the store
+     */
+    Passenger( TrainSimulation inSimulation, int existingSlot )
+        {
+        this.simulation = inSimulation ;
+        this.slot = existingSlot ;
+        this.id = inSimulation.getPassengerStore().getSerial( existingSlot ) ;
+
+        }   // end handle constructor
+
+
+    /**
+     * Add a new passenger to the store and send them into their origin station
+     * without creating a Passenger instance
+     * 
+     * @param initialOrigin
+     *     station where the passenger starts their journey
+     * @param initialDestination
+     *     station where the passenger ends their journey
+     * @return the new passenger's slot
+     */
+    static int arrive( Station initialOrigin,
+                       Station initialDestination )
+        {
+        TrainSimulation theSimulation = initialOrigin.getSimulation() ;
+        PassengerStore theStore = theSimulation.getPassengerStore() ;
+
+        // allocate a slot in the store - all timestamps start unspecified
+        int newSlot = theStore.add( initialOrigin.getId(), initialDestination.getId() ) ;
+
+        theStore.setTimeEntered( newSlot, theSimulation.getCurrentTime() ) ;
+        theSimulation.recordPassengerEvent( JournalEvent.ENTER,
+                                            newSlot,
+                                            initialOrigin.getId(),
+                                            0 ) ;
+
+        initialOrigin.enter( newSlot ) ;    // enter the origin station
+
+        return newSlot ;
+
+        }   // end arrive()
+
+
+    /**
+     * Retrieves the passenger id
+     * 
+     * @return the id was assigned when the passenger was instantiated
+     */
+    public long getId()
+        {
+        return this.id ;
+        
+        }   // end getId()
 
-        // store location parameters
-        this.origin = initialOrigin ;
-        this.destination = initialDestination ;
 
-        // initialize timestamps and timers
-        // sentinel value indicates time is not set/no time has passed
-        this.timeEntered = UNSPECIFIED ;
-        this.timeBoarded = UNSPECIFIED ;
-        this.timeDisembarked = UNSPECIFIED ;
-        this.timeExited = UNSPECIFIED ;
+    /**
+     * Retrieves the passenger's slot in the store
+     * 
+     * @return the slot platforms and trains hold for this passenger
+     */
+    int getSlot()
+        {
+        return this.slot ;
         
-        this.timeRiding = UNSPECIFIED ;
-        this.timeWaiting = UNSPECIFIED ;
-        this.totalTime = UNSPECIFIED ;
+        }   // end getSlot()
+
+
+    /**
+     * Utility method to access the store holding this passenger's state
+     * 
+     * @return this passenger's simulation's passenger store
+     * @throws IllegalStateException
+     *     if the passenger has exited and their slot was released
+     */
+    private PassengerStore store()
+        {
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+
+        if ( theStore.getSerial( this.slot ) != this.id )
+            {
+            throw new IllegalStateException( String.format( "%s has exited the simulation",
+                                                            this ) ) ;
+            }
+
+        return theStore ;
         
-        enterStation() ;
+        }   // end store()
 
-        }   // end constructor
+
+    /**
+     * Utility method to look up a station by id
+     * 
+     * @param stationId
+     *     the station's id
+     * @return the station
+     */
+    private Station station( int stationId )
+        {
+        return this.simulation.getTrainRoute().getStation( stationId ) ;
+        
+        }   // end station()
 
 
     /*
@@ -124,7 +211,7 @@ public final class Passenger
      */
     public Station getOrigin()
         {
-        return this.origin ;
+        return station( store().getOriginId( this.slot ) ) ;
         
         }   // end getOrigin()
 
@@ -141,8 +228,8 @@ public final class Passenger
      */
     Station setOrigin( Station newOrigin )
         {
-        Station savedOrigin = this.origin ;
-        this.origin = newOrigin ;
+        Station savedOrigin = getOrigin() ;
+        store().setOriginId( this.slot, newOrigin.getId() ) ;
         
         return savedOrigin ;
         
@@ -156,7 +243,7 @@ public final class Passenger
      */
     public Station getDestination()
         {
-        return this.destination ;
+        return station( store().getDestinationId( this.slot ) ) ;
         
         }   // end getDestination()
 
@@ -173,8 +260,8 @@ public final class Passenger
      */
     Station setDestination( Station newDestination )
         {
-        Station savedDestination = this.destination ;
-        this.destination = newDestination ;
+        Station savedDestination = getDestination() ;
+        store().setDestinationId( this.slot, newDestination.getId() ) ;
         
         return savedDestination ;
         
@@ -193,7 +280,7 @@ public final class Passenger
      */
     public int getTimeEntered()
         {
-        return this.timeEntered ;
+        return store().getTimeEntered( this.slot ) ;
         
         }   // end getTimeEntered()
 
@@ -212,8 +299,8 @@ public final class Passenger
      */
     int setTimeEntered( int newTimeEntered )
         {
-        int savedTimeEntered = this.timeEntered ;
-        this.timeEntered = newTimeEntered ;
+        int savedTimeEntered = getTimeEntered() ;
+        store().setTimeEntered( this.slot, newTimeEntered ) ;
         
         return savedTimeEntered ;
         
@@ -227,11 +314,9 @@ public final class Passenger
      */
     public int getTimeBoarded()
         {
-        return this.timeBoarded ;
+        return store().getTimeBoarded( this.slot ) ;
         
         }   // end getTimeBoarded()
-    
-    
 
     
     /**
@@ -248,8 +333,8 @@ public final class Passenger
      */
     int setTimeBoarded( int newTimeBoarded )
         {
-        int savedTimeBoarded = this.timeBoarded ;
-        this.timeBoarded = newTimeBoarded ;
+        int savedTimeBoarded = getTimeBoarded() ;
+        store().setTimeBoarded( this.slot, newTimeBoarded ) ;
         
         return savedTimeBoarded ;
         
@@ -263,11 +348,9 @@ public final class Passenger
      */
     public int getTimeDisembarked()
         {
-        return this.timeDisembarked ;
+        return store().getTimeDisembarked( this.slot ) ;
         
         }   // end getTimeDisembarked()
-    
-    
 
     
     /**
@@ -284,8 +367,8 @@ public final class Passenger
      */
     int setTimeDisembarked( int newTimeDisembarked )
         {
-        int savedTimeDisembarked = this.timeDisembarked ;
-        this.timeDisembarked = newTimeDisembarked ;
+        int savedTimeDisembarked = getTimeDisembarked() ;
+        store().setTimeDisembarked( this.slot, newTimeDisembarked ) ;
         
         return savedTimeDisembarked ;
         
@@ -299,7 +382,7 @@ public final class Passenger
      */
     public int getTimeExited()
         {
-        return this.timeExited ;
+        return store().getTimeExited( this.slot ) ;
         
         }   // end getTimeExited()
 
@@ -318,8 +401,8 @@ public final class Passenger
      */
     int setTimeExited( int newTimeExited )
         {
-        int savedTimeExited = this.timeExited ;
-        this.timeExited = newTimeExited ;
+        int savedTimeExited = getTimeExited() ;
+        store().setTimeExited( this.slot, newTimeExited ) ;
         
         return savedTimeExited ;
         
@@ -327,27 +410,9 @@ public final class Passenger
 
     
     /*
-     * time calculations
+     * time calculations - derived from the timestamps by the store
      */
     
-    
-    /**
-     * calculate the time waited on the platform
-     */
-    private void calculateTimeWaited()
-        {
-        if ( ( this.timeEntered != UNSPECIFIED ) &&
-             ( this.timeBoarded != UNSPECIFIED ) )
-            {
-            this.timeWaiting = this.timeBoarded - this.timeEntered ;
-            }
-        else
-            {
-            this.timeWaiting = UNSPECIFIED ;  // reset if necessary
-            }
-        
-        }   // end calculateTimeWaited()
-    
 
     /**
      * Retrieves the amount of time the passenger was waiting on the platform
@@ -356,28 +421,10 @@ public final class Passenger
      */
     public int getTimeWaiting()
         {
-        return this.timeWaiting ;
+        return store().getTimeWaiting( this.slot ) ;
         
         }   // end getTimeWaiting()
     
-    
-    /**
-     * calculate the time riding on the train
-     */
-    private void calculateTimeRiding()
-        {
-        if ( ( this.timeBoarded != UNSPECIFIED ) &&
-             ( this.timeDisembarked != UNSPECIFIED ) )
-            {
-            this.timeRiding = this.timeDisembarked - this.timeBoarded ;
-            }
-        else
-            {
-            this.timeRiding = UNSPECIFIED ;  // reset if necessary
-            }
-        
-        }   // end calculateTimeRiding()
-    
 
     /**
      * Retrieves the amount of time the passenger was riding a train
@@ -386,27 +433,9 @@ public final class Passenger
      */
     public int getTimeRiding()
         {
-        return this.timeRiding ;
+        return store().getTimeRiding( this.slot ) ;
         
         }   // end getTimeRiding()
-
-    
-    /**
-     * calculate the total time for the journey
-     */
-    private void calculateTotalTime()
-        {
-        if ( ( this.timeEntered != UNSPECIFIED ) &&
-             ( this.timeExited != UNSPECIFIED ) )
-            {
-            this.totalTime = this.timeExited - this.timeEntered ;
-            }
-        else
-            {
-            this.totalTime = UNSPECIFIED ;  // reset if necessary
-            }
-        
-        }   // end calculateTotalTime()
     
 
     /**
@@ -416,7 +445,7 @@ public final class Passenger
      */
     public int getTotalTime()
         {
-        return this.totalTime ;
+        return store().getTotalTime( this.slot ) ;
         
         }   // end getTotalTime()
     
@@ -431,39 +460,49 @@ public final class Passenger
      */
     public void enterStation()
         {
-        this.timeEntered = Passenger.simulationCallback.getCurrentTime() ;
+        store().setTimeEntered( this.slot, this.simulation.getCurrentTime() ) ;
+        this.simulation.recordPassengerEvent( JournalEvent.ENTER,
+                                              this.slot,
+                                              store().getOriginId( this.slot ),
+                                              0 ) ;
         
-        this.origin.enter( this ) ; // enter the origin station
+        getOrigin().enter( this.slot ) ;    // enter the origin station
         
         }   // end enterStation()
-    
-    
 
 
     /**
      * board a train
+     * 
+     * @param aTrain
+     *     the train the passenger is boarding
      */
-    public void boardTrain()
+    public void boardTrain( Train aTrain )
         {
-        this.timeBoarded = Passenger.simulationCallback.getCurrentTime() ;
-        
-        calculateTimeWaited() ;
+        store().setTimeBoarded( this.slot, this.simulation.getCurrentTime() ) ;
+        this.simulation.recordPassengerEvent( JournalEvent.BOARD,
+                                              this.slot,
+                                              store().getOriginId( this.slot ),
+                                              aTrain.getId() ) ;
         
         }   // end boardTrain()
 
 
     /**
      * disembark a train
+     * 
+     * @param aTrain
+     *     the train the passenger is getting off
      */
-    public void disembarkTrain()
+    public void disembarkTrain( Train aTrain )
         {
-        this.timeDisembarked = Passenger.simulationCallback.getCurrentTime() ;
-        
-        calculateTimeRiding() ;
+        store().setTimeDisembarked( this.slot, this.simulation.getCurrentTime() ) ;
+        this.simulation.recordPassengerEvent( JournalEvent.DISEMBARK,
+                                              this.slot,
+                                              store().getDestinationId( this.slot ),
+                                              aTrain.getId() ) ;
         
         }   // end disembarkTrain()
-    
-    
 
     
     /**
@@ -471,9 +510,11 @@ public final class Passenger
      */
     public void exitStation()
         {
-        this.timeExited = Passenger.simulationCallback.getCurrentTime() ;
-        
-        calculateTotalTime() ;
+        store().setTimeExited( this.slot, this.simulation.getCurrentTime() ) ;
+        this.simulation.recordPassengerEvent( JournalEvent.EXIT,
+                                              this.slot,
+                                              store().getDestinationId( this.slot ),
+                                              0 ) ;
         
         }   // end exitStation()
 
@@ -484,15 +525,50 @@ public final class Passenger
     
     
     /**
-     * Retrieve the number of Passengers instantiated
+     * Retrieve the number of Passengers instantiated in this passenger's simulation
      *
      * @return the number of Passenger instances
      */
-    public static int getPassengerCount()
+    public long getPassengerCount()
         {
-        return Passenger.nextId - 1 ;
+        return store().getCreatedCount() ;
         
         }   // end getPassengerCount()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode()
+        {
+        return Long.hashCode( this.id ) ;
+
+        }   // end hashCode()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals( Object obj )
+        {
+        if ( this == obj )
+            {
+            return true ;
+            }
+
+        if ( ( obj == null ) || ! ( obj instanceof Passenger ) )
+            {
+            return false ;
+            }
+
+        Passenger other = (Passenger) obj ;
+        return this.id == other.id ;
+
+        }   // end equals()
     
 
     /*
@@ -514,62 +590,38 @@ public final class Passenger
      */
     public String describe()
         {
+        PassengerStore theStore = store() ;
+
         return String.format( "%s: %s to %s; times: start: %s, board: %s, disembark: %s, end: %s, waited: %s, rode: %s, total: %s%n",
                               toString(),
-                              this.origin,
-                              this.destination,
-                              this.timeEntered == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeEntered ),
-                              this.timeBoarded == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeBoarded ),
-                              this.timeDisembarked == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeDisembarked ),
-                              this.timeExited == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeExited ),
-                              this.timeWaiting == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeWaiting ),
-                              this.timeRiding == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.timeRiding ),
-                              this.totalTime == UNSPECIFIED
-                                  ? "n/a"
-                                  : String.format( "%,d", this.totalTime )
-                              ) ;
+                              getOrigin(),
+                              getDestination(),
+                              formatTime( theStore.getTimeEntered( this.slot ) ),
+                              formatTime( theStore.getTimeBoarded( this.slot ) ),
+                              formatTime( theStore.getTimeDisembarked( this.slot ) ),
+                              formatTime( theStore.getTimeExited( this.slot ) ),
+                              formatTime( theStore.getTimeWaiting( this.slot ) ),
+                              formatTime( theStore.getTimeRiding( this.slot ) ),
+                              formatTime( theStore.getTotalTime( this.slot ) ) ) ;
         
         }   // end describe()
-    
-    
-    /*
-     * semi-public utility methods
-     */
-    
-    
+
+
     /**
-     * Enable callback to the simulation to access:
-     * <ul>
-     * <li>configuration</li>
-     * <li>current time</li>
-     * <li>random number generator instance</li>
-     * <li>logger</li>
-     * <li>train route</li>
-     * </ul>
-     * <p>
-     * This setup is done once at the start of the simulation for this entire class
-     *
-     * @param currentSimulation
-     *     instance providing callback functionality
+     * Format a time for {@code describe()}
+     * 
+     * @param aTime
+     *     the time to format
+     * @return the formatted time or "n/a" if unspecified
      */
-    static void setSimulationCallback( TrainSimulation currentSimulation )
+    private static String formatTime( int aTime )
         {
-        Passenger.simulationCallback = currentSimulation ;
+        return aTime == UNSPECIFIED
+                    ? "n/a"
+                    : String.format( "%,d", aTime ) ;
         
-        }   // end setSimulationCallback()
-
+        }   // end formatTime()
+    
     
     /*
      * for testing
@@ -588,13 +640,12 @@ public final class Passenger
      */
     public static void main( String[] args ) throws FileNotFoundException, IOException
         {
-        @SuppressWarnings( "unused" )
-        TrainSimulation testSimulation = new TrainSimulation() ;    // used via callback
+        TrainSimulation testSimulation = new TrainSimulation() ;
 
-        Configuration theConfiguration = Passenger.simulationCallback.getConfiguration() ;
-        TrainRoute theRoute = Passenger.simulationCallback.getTrainRoute() ;
-        Random pseudoRandom = Passenger.simulationCallback.getPseudoRandom() ;
-        int stationCount = Passenger.simulationCallback.getTrainRoute().getStationCount() ;
+        Configuration theConfiguration = testSimulation.getConfiguration() ;
+        TrainRoute theRoute = testSimulation.getTrainRoute() ;
+        Random pseudoRandom = testSimulation.getPseudoRandom() ;
+        int stationCount = theRoute.getStationCount() ;
 
         int[] theStationSpecifications = theConfiguration.getStations() ;
         PairedLimit[] thePassengerSpecifications = theConfiguration.getPassengers() ;
@@ -652,7 +703,7 @@ public final class Passenger
         int simulationLoops = theConfiguration.getTicks() ;
         for ( int currentTime = 1 ; currentTime <= simulationLoops ; currentTime++ )
             {
-            Passenger.simulationCallback.setCurrentTime( currentTime ) ;
+            testSimulation.setCurrentTime( currentTime ) ;
 
             newPassengerCount = minimumPassengers == maximumPassengers
                                             ? minimumPassengers
@@ -692,7 +743,8 @@ public final class Passenger
 
             }   // end for()
         
-        System.out.printf( "%nTotal Passengers instantiated: %,d%n", getPassengerCount() ) ;
+        System.out.printf( "%nTotal Passengers instantiated: %,d%n",
+                           testSimulation.getPassengerStore().getCreatedCount() ) ;
 
         }   // end main()
 
@@ -0,0 +1,425 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Arrays ;
+import java.util.concurrent.atomic.AtomicInteger ;
+import java.util.concurrent.locks.LockSupport ;
+
+/**
+ * Draws arriving passengers on a generator thread, ahead of the simulation. For
+ * each tick the generator draws the number of arrivals and each passenger's
+ * stations - all of the pseudo-random number draws - and offers them to the
+ * starting station's lock-free {@link ArrivalQueue}, then publishes the tick as
+ * complete along with the list of stations that got arrivals.
+ * <p>
+ * The simulation thread fences at each tick boundary: it waits until the tick is
+ * complete, drains that tick's arrivals from the stations that got any - so
+ * admitting a tick costs its number of arrivals, whatever the number of stations -
+ * and admits them in the
+ * order they were drawn - store slots, serial numbers, timestamps, logs and the
+ * journal all match generating them in line. The generator owns the pseudo-random
+ * number generator while it runs, and stops after the last tick, leaving it exactly
+ * where the single-threaded run would.
+ * <p>
+ * The generator stays at most a lookahead's worth of ticks ahead of the simulation,
+ * which bounds the memory held by queued arrivals.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class PassengerFeed
+    {
+
+    /** how long the generator sleeps when it is too far ahead */
+    private static final long IDLE_PARK_NANOS = 100_000L ;
+
+    private final TrainSimulation simulation ;
+
+    // arrivals waiting to be admitted, indexed by starting station id
+    private final ArrivalQueue[] stationQueues ;
+
+    // ticks this feed generates
+    private final int firstTick ;
+    private final int lastTick ;
+
+    // number of arrivals in each tick ahead of the simulation and the stations they
+    // start from, indexed by tick & mask
+    private final int[] tickCounts ;
+    private final int[][] tickStationIds ;
+    private final int[] tickStationCounts ;
+    private final int mask ;
+
+    // the last tick each station got an arrival - generator thread only
+    private final int[] stationLastTicks ;
+
+    private final AtomicInteger generatedThrough ;  // last tick whose arrivals are all queued
+    private final AtomicInteger admittedThrough ;   // last tick the simulation has drained
+
+    // the current tick's arrivals in the order they were drawn - simulation thread only
+    private int[] fromStationIds = new int[ 256 ] ;
+    private int[] toStationIds = new int[ 256 ] ;
+
+    private final Thread generatorThread ;
+    private volatile boolean closed = false ;
+    private volatile RuntimeException generateFailure = null ;
+
+
+    /**
+     * Start drawing passengers for every tick after the current time
+     * 
+     * @param theSimulation
+     *     the simulation - its pseudo-random number generator must not be used by
+     *     any other thread until the feed is closed
+     * @param lastTick
+     *     the final tick to draw passengers for
+     * @param lookahead
+     *     the most ticks to draw ahead of the simulation (rounded up to a power of
+     *     2)
+     */
+    PassengerFeed( TrainSimulation theSimulation,
+                   int lastTick,
+                   int lookahead )
+        {
+        this.simulation = theSimulation ;
+
+        int stationCount = theSimulation.getTrainRoute().getStationCount() ;
+        this.stationQueues = new ArrivalQueue[ stationCount + 1 ] ;
+        for ( int stationId = 1 ; stationId <= stationCount ; stationId++ )
+            {
+            this.stationQueues[ stationId ] = new ArrivalQueue() ;
+            }
+
+        this.firstTick = theSimulation.getCurrentTime() + 1 ;
+        this.lastTick = lastTick ;
+
+        int windowSize = Integer.highestOneBit( Math.max( 2, lookahead - 1 ) ) << 1 ;
+        this.tickCounts = new int[ windowSize ] ;
+        this.tickStationIds = new int[ windowSize ][ 16 ] ;
+        this.tickStationCounts = new int[ windowSize ] ;
+        this.mask = windowSize - 1 ;
+
+        this.stationLastTicks = new int[ stationCount + 1 ] ;
+
+        this.generatedThrough = new AtomicInteger( this.firstTick - 1 ) ;
+        this.admittedThrough = new AtomicInteger( this.firstTick - 1 ) ;
+
+        this.generatorThread = new Thread( this::generateLoop, "PassengerFeed" ) ;
+        this.generatorThread.setDaemon( true ) ;
+        this.generatorThread.start() ;
+
+        }   // end constructor
+
+
+    /**
+     * Generator thread: draw each tick's arrivals and queue them at their starting
+     * stations
+     */
+    private void generateLoop()
+        {
+        try
+            {
+            for ( int tick = this.firstTick ; tick <= this.lastTick ; tick++ )
+                {
+                // stay within the lookahead window
+                while ( ( tick - this.admittedThrough.get() ) > this.mask )
+                    {
+                    if ( this.closed )
+                        {
+                        return ;
+                        }
+
+                    LockSupport.parkNanos( IDLE_PARK_NANOS ) ;
+                    }
+
+                int arrivalCount = this.simulation.drawTickPassengerCount( tick ) ;
+                DemandMatrix theDemand = this.simulation.demandAt( tick ) ;
+
+                int[] stationIds = this.tickStationIds[ tick & this.mask ] ;
+                int stationCount = 0 ;
+
+                for ( int sequence = 0 ; sequence < arrivalCount ; sequence++ )
+                    {
+                    int fromStationId = this.simulation.sampleOrigin( theDemand ) ;
+                    int toStationId = this.simulation.sampleDestination( theDemand,
+                                                                         fromStationId ) ;
+
+                    this.stationQueues[ fromStationId ].offer( tick, sequence, toStationId ) ;
+
+                    // note the station the first time it gets an arrival this tick
+                    if ( this.stationLastTicks[ fromStationId ] != tick )
+                        {
+                        this.stationLastTicks[ fromStationId ] = tick ;
+
+                        if ( stationCount == stationIds.length )
+                            {
+                            stationIds = Arrays.copyOf( stationIds, stationCount * 2 ) ;
+                            this.tickStationIds[ tick & this.mask ] = stationIds ;
+                            }
+                        stationIds[ stationCount++ ] = fromStationId ;
+                        }
+                    }
+
+                // publish the tick - orders the counts, the station list and the queued
+                // arrivals before it
+                this.tickCounts[ tick & this.mask ] = arrivalCount ;
+                this.tickStationCounts[ tick & this.mask ] = stationCount ;
+                this.generatedThrough.lazySet( tick ) ;
+                }
+            }
+        catch ( RuntimeException e )
+            {
+            this.generateFailure = e ;
+            }
+
+        }   // end generateLoop()
+
+
+    /**
+     * Simulation thread: wait for a tick's arrivals, then admit them to their
+     * starting stations in the order they were drawn
+     * 
+     * @param tick
+     *     the current tick - ticks must be admitted in order
+     * @throws IllegalStateException
+     *     if the tick is outside this feed's range or the generator failed
+     */
+    void admit( int tick )
+        {
+        if ( ( tick != ( this.admittedThrough.get() + 1 ) ) || ( tick > this.lastTick ) )
+            {
+            throw new IllegalStateException( String.format( "passengers for tick %,d can't be admitted after tick %,d",
+                                                            tick,
+                                                            this.admittedThrough.get() ) ) ;
+            }
+
+        awaitGenerated( tick ) ;
+
+        int arrivalCount = this.tickCounts[ tick & this.mask ] ;
+        if ( arrivalCount > this.fromStationIds.length )
+            {
+            int newCapacity = Integer.highestOneBit( arrivalCount - 1 ) << 1 ;
+            this.fromStationIds = Arrays.copyOf( this.fromStationIds, newCapacity ) ;
+            this.toStationIds = Arrays.copyOf( this.toStationIds, newCapacity ) ;
+            }
+
+        int[] stationIds = this.tickStationIds[ tick & this.mask ] ;
+        int stationCount = this.tickStationCounts[ tick & this.mask ] ;
+
+        int drainedCount = 0 ;
+        for ( int i = 0 ; i < stationCount ; i++ )
+            {
+            int stationId = stationIds[ i ] ;
+            drainedCount += this.stationQueues[ stationId ].drainTick( tick,
+                                                                       stationId,
+                                                                       this.fromStationIds,
+                                                                       this.toStationIds ) ;
+            }
+
+        if ( drainedCount != arrivalCount )
+            {
+            throw new IllegalStateException( String.format( "tick %,d: %,d of %,d arrivals queued",
+                                                            tick,
+                                                            drainedCount,
+                                                            arrivalCount ) ) ;
+            }
+
+        // the generator may reuse the tick's window slot
+        this.admittedThrough.lazySet( tick ) ;
+
+        this.simulation.admitPassengers( arrivalCount,
+                                         this.fromStationIds,
+                                         this.toStationIds ) ;
+
+        }   // end admit()
+
+
+    /**
+     * Wait until every arrival for a tick is queued
+     * 
+     * @param tick
+     *     the tick
+     * @throws IllegalStateException
+     *     if the generator failed
+     */
+    private void awaitGenerated( int tick )
+        {
+        while ( this.generatedThrough.get() < tick )
+            {
+            if ( ! this.generatorThread.isAlive() && ( this.generatedThrough.get() < tick ) )
+                {
+                throw new IllegalStateException( "passenger generator has stopped",
+                                                 this.generateFailure ) ;
+                }
+
+            Thread.onSpinWait() ;
+            }
+
+        }   // end awaitGenerated()
+
+
+    /**
+     * Stop the generator - any arrivals not yet admitted are discarded
+     */
+    void close()
+        {
+        this.closed = true ;
+        LockSupport.unpark( this.generatorThread ) ;
+
+        try
+            {
+            this.generatorThread.join() ;
+            }
+        catch ( InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+            }
+
+        }   // end close()
+
+
+    /**
+     * Test driver - runs each engine with passengers generated in line and on a
+     * generator thread, and checks that the generator thread admitted exactly the
+     * same arrivals: every passenger's serial number, stations and arrival tick
+     * 
+     * @param args
+     *     optional {@code stations spacing trains passengersPerTick ticks}
+     * @throws IllegalStateException
+     *     if the generator thread's arrivals differ from those generated in line
+     */
+    public static void main( String[] args )
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 200 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 10 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 400 ;
+        int passengersPerTick = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 200 ;
+        int ticks = args.length > 4 ? Integer.parseInt( args[ 4 ] ) : 5_000 ;
+
+        Scenario theScenario = Scenario.uniform( stations,
+                                                 spacing,
+                                                 trains,
+                                                 100,
+                                                 passengersPerTick,
+                                                 ticks,
+                                                 2_021L ) ;
+
+        String difference = null ;
+
+        for ( SimulationOptions.Engine anEngine : SimulationOptions.Engine.values() )
+            {
+            TrainSimulation inLine = null ;
+
+            for ( boolean concurrent : new boolean[] { false, true } )
+                {
+                SimulationOptions theOptions = new SimulationOptions() ;
+                theOptions.setEngine( anEngine ) ;
+                theOptions.setConcurrentGeneration( concurrent ) ;
+
+                long startTime = System.nanoTime() ;
+                TrainSimulation theSimulation = new TrainSimulation( theScenario, theOptions ) ;
+                theSimulation.run() ;
+                long elapsedNanos = System.nanoTime() - startTime ;
+
+                System.out.printf( "%-8s %-10s %s%n",
+                                   anEngine,
+                                   concurrent
+                                       ? "concurrent"
+                                       : "in line",
+                                   ReplicationResult.summarize( theScenario.getSeed(),
+                                                                theSimulation,
+                                                                elapsedNanos ) ) ;
+
+                if ( ! concurrent )
+                    {
+                    inLine = theSimulation ;
+                    }
+                else if ( difference == null )
+                    {
+                    difference = compareArrivals( inLine, theSimulation ) ;
+                    if ( difference != null )
+                        {
+                        difference = String.format( "%s: %s", anEngine, difference ) ;
+                        }
+                    }
+                }
+            }
+
+        if ( difference != null )
+            {
+            throw new IllegalStateException( difference ) ;
+            }
+
+        System.out.printf( "%narrivals identical%n" ) ;
+
+        }   // end main()
+
+
+    /**
+     * Compare the passengers two simulations admitted
+     * 
+     * @param expected
+     *     one simulation, which has run
+     * @param actual
+     *     the other simulation, which has run
+     * @return a description of the first difference or {@code null} if every slot
+     *     holds the same passenger, who arrived at the same station for the same
+     *     destination at the same tick
+     */
+    private static String compareArrivals( TrainSimulation expected,
+                                           TrainSimulation actual )
+        {
+        PassengerStore expectedStore = expected.getPassengerStore() ;
+        PassengerStore actualStore = actual.getPassengerStore() ;
+
+        if ( ( expectedStore.getCreatedCount() != actualStore.getCreatedCount() ) ||
+             ( expectedStore.getSlotCount() != actualStore.getSlotCount() ) )
+            {
+            return String.format( "%,d passengers in %,d slots vs %,d in %,d",
+                                  expectedStore.getCreatedCount(),
+                                  expectedStore.getSlotCount(),
+                                  actualStore.getCreatedCount(),
+                                  actualStore.getSlotCount() ) ;
+            }
+
+        for ( int slot = 1 ; slot <= expectedStore.getSlotCount() ; slot++ )
+            {
+            if ( ( expectedStore.getSerial( slot ) != actualStore.getSerial( slot ) ) ||
+                 ( expectedStore.getOriginId( slot ) != actualStore.getOriginId( slot ) ) ||
+                 ( expectedStore.getDestinationId( slot ) != actualStore.getDestinationId( slot ) ) ||
+                 ( expectedStore.getTimeEntered( slot ) != actualStore.getTimeEntered( slot ) ) )
+                {
+                return String.format( "slot %,d holds passenger %,d vs %,d",
+                                      slot,
+                                      expectedStore.getSerial( slot ),
+                                      actualStore.getSerial( slot ) ) ;
+                }
+            }
+
+        return null ;
+
+        }   // end compareArrivals()
+
+    }   // end class PassengerFeed
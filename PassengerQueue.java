@@ -0,0 +1,329 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Arrays ;
+
+/**
+ * First-in, first-out queue of passenger ids backed by a growable circular array.
+ * Adding and removing never allocates except when the array must grow, and ids are
+ * held as primitive ints rather than one node object per waiting passenger.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 {@code describe()} shows passenger ids rather than slots
+ * @version 1.2.0 2026-10-18 checkpoint save and restore
+ */
+final class PassengerQueue
+    {
+
+    /** returned by {@code poll()} and {@code peek()} when the queue is empty */
+    static final int NONE = 0 ;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16 ;
+
+    private int[] ids ;     // capacity is always a power of 2
+    private int head ;      // index of the first id
+    private int size ;
+
+
+    /**
+     * Create an empty queue with the default initial capacity
+     */
+    PassengerQueue()
+        {
+        this( DEFAULT_INITIAL_CAPACITY ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * @param initialCapacity
+     *     number of ids to allocate room for initially
+     */
+    PassengerQueue( int initialCapacity )
+        {
+        this.ids = new int[ Integer.highestOneBit( Math.max( 2, initialCapacity - 1 ) ) << 1 ] ;
+        this.head = 0 ;
+        this.size = 0 ;
+
+        }   // end constructor
+
+
+    /**
+     * Add a passenger id to the back of the queue
+     *
+     * @param passengerId
+     *     the id to add
+     */
+    void add( int passengerId )
+        {
+        if ( this.size == this.ids.length )
+            {
+            grow() ;
+            }
+
+        this.ids[ ( this.head + this.size ) & ( this.ids.length - 1 ) ] = passengerId ;
+        this.size++ ;
+
+        }   // end add()
+
+
+    /**
+     * Remove the passenger id at the front of the queue
+     *
+     * @return the id or {@code NONE} if the queue is empty
+     */
+    int poll()
+        {
+        if ( this.size == 0 )
+            {
+            return NONE ;
+            }
+
+        int passengerId = this.ids[ this.head ] ;
+        this.head = ( this.head + 1 ) & ( this.ids.length - 1 ) ;
+        this.size-- ;
+
+        return passengerId ;
+
+        }   // end poll()
+
+
+    /**
+     * Retrieve the passenger id at the front of the queue without removing it
+     *
+     * @return the id or {@code NONE} if the queue is empty
+     */
+    int peek()
+        {
+        return this.size == 0
+                    ? NONE
+                    : this.ids[ this.head ] ;
+
+        }   // end peek()
+
+
+    /**
+     * Retrieve the passenger id at a position in the queue without removing it
+     *
+     * @param index
+     *     0-based position from the front of the queue
+     * @return the id
+     * @throws IndexOutOfBoundsException
+     *     if there is no such position
+     */
+    int get( int index )
+        {
+        if ( ( index < 0 ) || ( index >= this.size ) )
+            {
+            throw new IndexOutOfBoundsException( index ) ;
+            }
+
+        return this.ids[ ( this.head + index ) & ( this.ids.length - 1 ) ] ;
+
+        }   // end get()
+
+
+    /**
+     * @return the number of ids in the queue
+     */
+    int size()
+        {
+        return this.size ;
+
+        }   // end size()
+
+
+    /**
+     * @return true if the queue holds no ids
+     */
+    boolean isEmpty()
+        {
+        return this.size == 0 ;
+
+        }   // end isEmpty()
+
+
+    /**
+     * Remove every id - the backing array is retained for reuse
+     */
+    void clear()
+        {
+        this.head = 0 ;
+        this.size = 0 ;
+
+        }   // end clear()
+
+
+    /**
+     * Double the capacity, unwrapping the contents to the start of the new array
+     */
+    private void grow()
+        {
+        int[] newIds = new int[ this.ids.length * 2 ] ;
+
+        int firstPart = Math.min( this.size, this.ids.length - this.head ) ;
+        System.arraycopy( this.ids, this.head, newIds, 0, firstPart ) ;
+        System.arraycopy( this.ids, 0, newIds, firstPart, this.size - firstPart ) ;
+
+        this.ids = newIds ;
+        this.head = 0 ;
+
+        }   // end grow()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+        {
+        StringBuilder description = new StringBuilder( "[" ) ;
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+            if ( i > 0 )
+                {
+                description.append( ", " ) ;
+                }
+
+            description.append( String.format( "%s %,d",
+                                               Passenger.class.getSimpleName(),
+                                               get( i ) ) ) ;
+            }
+
+        return description.append( ']' ).toString() ;
+
+        }   // end toString()
+
+
+    /**
+     * Format the queue with each passenger's id (serial number) rather than their
+     * slot
+     * 
+     * @param theStore
+     *     the store the slots refer to
+     * @return the passengers formatted for human consumption
+     */
+    String describe( PassengerStore theStore )
+        {
+        StringBuilder description = new StringBuilder( "[" ) ;
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+            if ( i > 0 )
+                {
+                description.append( ", " ) ;
+                }
+
+            description.append( String.format( "%s %,d",
+                                               Passenger.class.getSimpleName(),
+                                               theStore.getSerial( get( i ) ) ) ) ;
+            }
+
+        return description.append( ']' ).toString() ;
+
+        }   // end describe()
+
+
+    /**
+     * Append the queue's contents, front first, to a checkpoint
+     *
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        int firstPart = Math.min( this.size, this.ids.length - this.head ) ;
+
+        state.putInt( this.size ) ;
+        state.putInts( this.ids, this.head, firstPart ) ;
+        state.putInts( this.ids, 0, this.size - firstPart ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the queue's contents with those saved by {@code saveState()}
+     *
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        int savedSize = state.getInt() ;
+
+        if ( savedSize > this.ids.length )
+            {
+            this.ids = new int[ Integer.highestOneBit( savedSize - 1 ) << 1 ] ;
+            }
+
+        state.getInts( this.ids, 0, savedSize ) ;
+        this.head = 0 ;
+        this.size = savedSize ;
+
+        }   // end restoreState()
+
+
+    /**
+     * Test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( String[] args )
+        {
+        PassengerQueue testQueue = new PassengerQueue( 2 ) ;
+
+        for ( int i = 1 ; i <= 5 ; i++ )
+            {
+            testQueue.add( i ) ;
+            }
+        System.out.printf( "after adding 1..5: %s%n", testQueue ) ;
+
+        System.out.printf( "poll: %d, poll: %d%n", testQueue.poll(), testQueue.poll() ) ;
+
+        for ( int i = 6 ; i <= 12 ; i++ )
+            {
+            testQueue.add( i ) ;
+            }
+        System.out.printf( "after adding 6..12: %s (size %d)%n",
+                           testQueue,
+                           testQueue.size() ) ;
+
+        int[] drained = new int[ testQueue.size() ] ;
+        for ( int i = 0 ; i < drained.length ; i++ )
+            {
+            drained[ i ] = testQueue.poll() ;
+            }
+        System.out.printf( "drained: %s; empty: %b%n",
+                           Arrays.toString( drained ),
+                           testQueue.isEmpty() ) ;
+
+        }   // end main()
+
+    }   // end class PassengerQueue
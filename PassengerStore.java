@@ -0,0 +1,526 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Arrays ;
+
+/**
+ * Columnar (struct-of-arrays) storage for every Passenger in a simulation. Each
+ * passenger's origin and destination station ids and journey timestamps are held in
+ * primitive int arrays indexed by slot rather than in a heap object per passenger.
+ * The waiting, riding and total times are derived from the timestamps on demand.
+ * <p>
+ * A slot (numbered from 1) identifies a passenger while they're in the simulation -
+ * platforms and trains hold slots. Once a passenger exits, {@code release()} returns
+ * their slot to a free list and the next passenger added reuses it, so the store
+ * stops growing once arrivals and exits balance. Each passenger also gets a serial
+ * number which is never reused; it's their id. A {@code Passenger} instance is a
+ * lightweight handle (slot and serial number) which detects when its slot has been
+ * released.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 recycle the slots of passengers who have exited; unique
+ *     serial numbers
+ * @version 1.2.0 2026-10-18 checkpoint save and restore
+ */
+public final class PassengerStore
+    {
+
+    /** indicates that a time has no meaningful value */
+    public static final int UNSPECIFIED = -1 ;
+
+    /** serial number of a slot which doesn't hold a passenger */
+    public static final long FREE = 0 ;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1_024 ;
+
+    // columns - row i holds slot i + 1
+    private long[] serials ;
+    private int[] originIds ;
+    private int[] destinationIds ;
+    private int[] timesEntered ;
+    private int[] timesBoarded ;
+    private int[] timesDisembarked ;
+    private int[] timesExited ;
+
+    /** number of slots ever used - the high water mark */
+    private int slotCount ;
+
+    /** released slots available for reuse, used last-in first-out */
+    private int[] freeSlots ;
+    private int freeCount ;
+
+    /** the most recently assigned serial number */
+    private long lastSerial ;
+
+
+    /**
+     * Create an empty store with the default initial capacity
+     */
+    public PassengerStore()
+        {
+        this( DEFAULT_INITIAL_CAPACITY ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * @param initialCapacity
+     *     number of passengers to allocate room for initially
+     */
+    public PassengerStore( int initialCapacity )
+        {
+        int capacity = Math.max( 1, initialCapacity ) ;
+
+        this.serials = new long[ capacity ] ;
+        this.originIds = new int[ capacity ] ;
+        this.destinationIds = new int[ capacity ] ;
+        this.timesEntered = new int[ capacity ] ;
+        this.timesBoarded = new int[ capacity ] ;
+        this.timesDisembarked = new int[ capacity ] ;
+        this.timesExited = new int[ capacity ] ;
+
+        this.slotCount = 0 ;
+
+        this.freeSlots = new int[ capacity ] ;
+        this.freeCount = 0 ;
+
+        this.lastSerial = 0 ;
+
+        }   // end constructor
+
+
+    /**
+     * Add a passenger with all timestamps unspecified - a released slot is reused if
+     * there is one
+     *
+     * @param originId
+     *     id of the station where the journey starts
+     * @param destinationId
+     *     id of the station where the journey ends
+     * @return the new passenger's slot
+     */
+    int add( int originId, int destinationId )
+        {
+        int row ;
+
+        if ( this.freeCount > 0 )
+            {
+            row = this.freeSlots[ --this.freeCount ] - 1 ;
+            }
+        else
+            {
+            if ( this.slotCount == this.originIds.length )
+                {
+                grow() ;
+                }
+
+            row = this.slotCount++ ;
+            }
+
+        this.serials[ row ] = ++this.lastSerial ;
+        this.originIds[ row ] = originId ;
+        this.destinationIds[ row ] = destinationId ;
+        this.timesEntered[ row ] = UNSPECIFIED ;
+        this.timesBoarded[ row ] = UNSPECIFIED ;
+        this.timesDisembarked[ row ] = UNSPECIFIED ;
+        this.timesExited[ row ] = UNSPECIFIED ;
+
+        return row + 1 ;
+
+        }   // end add()
+
+
+    /**
+     * Return a passenger's slot for reuse - the passenger must no longer be on a
+     * platform or a train
+     *
+     * @param slot
+     *     the slot of a passenger who has exited
+     */
+    void release( int slot )
+        {
+        this.serials[ slot - 1 ] = FREE ;
+
+        if ( this.freeCount == this.freeSlots.length )
+            {
+            this.freeSlots = Arrays.copyOf( this.freeSlots, this.freeSlots.length * 2 ) ;
+            }
+
+        this.freeSlots[ this.freeCount++ ] = slot ;
+
+        }   // end release()
+
+
+    /**
+     * Double the capacity of every column
+     */
+    private void grow()
+        {
+        int newCapacity = this.originIds.length * 2 ;
+
+        this.serials = Arrays.copyOf( this.serials, newCapacity ) ;
+        this.originIds = Arrays.copyOf( this.originIds, newCapacity ) ;
+        this.destinationIds = Arrays.copyOf( this.destinationIds, newCapacity ) ;
+        this.timesEntered = Arrays.copyOf( this.timesEntered, newCapacity ) ;
+        this.timesBoarded = Arrays.copyOf( this.timesBoarded, newCapacity ) ;
+        this.timesDisembarked = Arrays.copyOf( this.timesDisembarked, newCapacity ) ;
+        this.timesExited = Arrays.copyOf( this.timesExited, newCapacity ) ;
+
+        }   // end grow()
+
+
+    /**
+     * @return the number of passengers currently in the simulation
+     */
+    public int size()
+        {
+        return this.slotCount - this.freeCount ;
+
+        }   // end size()
+
+
+    /**
+     * @return the number of passengers ever added
+     */
+    public long getCreatedCount()
+        {
+        return this.lastSerial ;
+
+        }   // end getCreatedCount()
+
+
+    /**
+     * @return the number of slots ever used - slot numbers run from 1 to this
+     */
+    public int getSlotCount()
+        {
+        return this.slotCount ;
+
+        }   // end getSlotCount()
+
+
+    /**
+     * @param slot
+     *     a slot
+     * @return the serial number of the passenger in the slot or {@code FREE}
+     */
+    public long getSerial( int slot )
+        {
+        return this.serials[ slot - 1 ] ;
+
+        }   // end getSerial()
+
+
+    /*
+     * checkpoints
+     */
+
+
+    /**
+     * Append every used slot, the free list and the serial number counter to a
+     * checkpoint
+     *
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        state.putInt( this.slotCount ) ;
+        state.putInt( this.freeCount ) ;
+        state.putLong( this.lastSerial ) ;
+
+        state.putLongs( this.serials, 0, this.slotCount ) ;
+        state.putInts( this.originIds, 0, this.slotCount ) ;
+        state.putInts( this.destinationIds, 0, this.slotCount ) ;
+        state.putInts( this.timesEntered, 0, this.slotCount ) ;
+        state.putInts( this.timesBoarded, 0, this.slotCount ) ;
+        state.putInts( this.timesDisembarked, 0, this.slotCount ) ;
+        state.putInts( this.timesExited, 0, this.slotCount ) ;
+
+        state.putInts( this.freeSlots, 0, this.freeCount ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the store's contents with those saved by {@code saveState()} - slots
+     * keep their numbers so platforms and trains can be restored as-is
+     *
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        this.slotCount = state.getInt() ;
+        this.freeCount = state.getInt() ;
+        this.lastSerial = state.getLong() ;
+
+        while ( this.originIds.length < this.slotCount )
+            {
+            grow() ;
+            }
+
+        state.getLongs( this.serials, 0, this.slotCount ) ;
+        state.getInts( this.originIds, 0, this.slotCount ) ;
+        state.getInts( this.destinationIds, 0, this.slotCount ) ;
+        state.getInts( this.timesEntered, 0, this.slotCount ) ;
+        state.getInts( this.timesBoarded, 0, this.slotCount ) ;
+        state.getInts( this.timesDisembarked, 0, this.slotCount ) ;
+        state.getInts( this.timesExited, 0, this.slotCount ) ;
+
+        if ( this.freeSlots.length < this.freeCount )
+            {
+            this.freeSlots = new int[ this.freeCount ] ;
+            }
+        state.getInts( this.freeSlots, 0, this.freeCount ) ;
+
+        }   // end restoreState()
+
+
+    /*
+     * location columns
+     */
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the id of the passenger's origin station
+     */
+    public int getOriginId( int slot )
+        {
+        return this.originIds[ slot - 1 ] ;
+
+        }   // end getOriginId()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param newOriginId
+     *     the id of the passenger's new origin station
+     */
+    void setOriginId( int slot, int newOriginId )
+        {
+        this.originIds[ slot - 1 ] = newOriginId ;
+
+        }   // end setOriginId()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the id of the passenger's destination station
+     */
+    public int getDestinationId( int slot )
+        {
+        return this.destinationIds[ slot - 1 ] ;
+
+        }   // end getDestinationId()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param newDestinationId
+     *     the id of the passenger's new destination station
+     */
+    void setDestinationId( int slot, int newDestinationId )
+        {
+        this.destinationIds[ slot - 1 ] = newDestinationId ;
+
+        }   // end setDestinationId()
+
+
+    /*
+     * timestamp columns
+     */
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time the passenger entered the origin station
+     */
+    public int getTimeEntered( int slot )
+        {
+        return this.timesEntered[ slot - 1 ] ;
+
+        }   // end getTimeEntered()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param time
+     *     the time the passenger entered the origin station
+     */
+    void setTimeEntered( int slot, int time )
+        {
+        this.timesEntered[ slot - 1 ] = time ;
+
+        }   // end setTimeEntered()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time the passenger boarded a train
+     */
+    public int getTimeBoarded( int slot )
+        {
+        return this.timesBoarded[ slot - 1 ] ;
+
+        }   // end getTimeBoarded()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param time
+     *     the time the passenger boarded a train
+     */
+    void setTimeBoarded( int slot, int time )
+        {
+        this.timesBoarded[ slot - 1 ] = time ;
+
+        }   // end setTimeBoarded()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time the passenger disembarked the train
+     */
+    public int getTimeDisembarked( int slot )
+        {
+        return this.timesDisembarked[ slot - 1 ] ;
+
+        }   // end getTimeDisembarked()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param time
+     *     the time the passenger disembarked the train
+     */
+    void setTimeDisembarked( int slot, int time )
+        {
+        this.timesDisembarked[ slot - 1 ] = time ;
+
+        }   // end setTimeDisembarked()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time the passenger exited the destination station
+     */
+    public int getTimeExited( int slot )
+        {
+        return this.timesExited[ slot - 1 ] ;
+
+        }   // end getTimeExited()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @param time
+     *     the time the passenger exited the destination station
+     */
+    void setTimeExited( int slot, int time )
+        {
+        this.timesExited[ slot - 1 ] = time ;
+
+        }   // end setTimeExited()
+
+
+    /*
+     * derived times
+     */
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time spent waiting on the platform or {@code UNSPECIFIED} if the
+     *     passenger hasn't boarded
+     */
+    public int getTimeWaiting( int slot )
+        {
+        return elapsed( this.timesEntered[ slot - 1 ],
+                        this.timesBoarded[ slot - 1 ] ) ;
+
+        }   // end getTimeWaiting()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the time spent riding a train or {@code UNSPECIFIED} if the passenger
+     *     hasn't disembarked
+     */
+    public int getTimeRiding( int slot )
+        {
+        return elapsed( this.timesBoarded[ slot - 1 ],
+                        this.timesDisembarked[ slot - 1 ] ) ;
+
+        }   // end getTimeRiding()
+
+
+    /**
+     * @param slot
+     *     the passenger's slot
+     * @return the total journey time or {@code UNSPECIFIED} if the passenger hasn't
+     *     exited
+     */
+    public int getTotalTime( int slot )
+        {
+        return elapsed( this.timesEntered[ slot - 1 ],
+                        this.timesExited[ slot - 1 ] ) ;
+
+        }   // end getTotalTime()
+
+
+    /**
+     * @param startTime
+     *     the start timestamp
+     * @param endTime
+     *     the end timestamp
+     * @return the time between the two or {@code UNSPECIFIED} if either is unspecified
+     */
+    private static int elapsed( int startTime, int endTime )
+        {
+        return ( startTime != UNSPECIFIED ) && ( endTime != UNSPECIFIED )
+                    ? endTime - startTime
+                    : UNSPECIFIED ;
+
+        }   // end elapsed()
+
+    }   // end class PassengerStore
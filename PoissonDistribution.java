@@ -0,0 +1,244 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.util.Random ;
+
+/**
+ * Draws Poisson distributed counts - e.g. the number of passengers arriving in a
+ * tick - in expected constant time for any mean. Small means use Knuth's
+ * multiplication method; larger means use Hormann's transformed rejection with
+ * squeeze (PTRS), which needs about 2 uniform draws whatever the mean.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class PoissonDistribution
+    {
+
+    /** means below this use the multiplication method */
+    private static final double PTRS_THRESHOLD = 10.0 ;
+
+    /** log( k! ) for small k */
+    private static final double[] LOG_FACTORIALS = new double[ 64 ] ;
+
+    static
+        {
+        for ( int k = 1 ; k < LOG_FACTORIALS.length ; k++ )
+            {
+            LOG_FACTORIALS[ k ] = LOG_FACTORIALS[ k - 1 ] + Math.log( k ) ;
+            }
+        }
+
+
+    /**
+     * Prevent instantiation - static methods only
+     */
+    private PoissonDistribution()
+        {
+        // nothing to do
+
+        }   // end constructor
+
+
+    /**
+     * Draw a count
+     * 
+     * @param pseudoRandom
+     *     the source of randomness
+     * @param mean
+     *     the expected count - 0 or less always yields 0
+     * @return the count
+     */
+    static int sample( Random pseudoRandom, double mean )
+        {
+        if ( mean <= 0.0 )
+            {
+            return 0 ;
+            }
+
+        if ( mean < PTRS_THRESHOLD )
+            {
+            return multiplication( pseudoRandom, mean ) ;
+            }
+
+        return transformedRejection( pseudoRandom, mean ) ;
+
+        }   // end sample()
+
+
+    /**
+     * Knuth's method - multiply uniform draws until the product drops below
+     * {@code e^-mean}
+     * 
+     * @param pseudoRandom
+     *     the source of randomness
+     * @param mean
+     *     the expected count
+     * @return the count
+     */
+    private static int multiplication( Random pseudoRandom, double mean )
+        {
+        double limit = Math.exp( -mean ) ;
+        double product = pseudoRandom.nextDouble() ;
+
+        int count = 0 ;
+        while ( product > limit )
+            {
+            count++ ;
+            product *= pseudoRandom.nextDouble() ;
+            }
+
+        return count ;
+
+        }   // end multiplication()
+
+
+    /**
+     * Hormann's PTRS algorithm (W. Hormann, "The transformed rejection method for
+     * generating Poisson random variables", 1993)
+     * 
+     * @param pseudoRandom
+     *     the source of randomness
+     * @param mean
+     *     the expected count - at least {@code PTRS_THRESHOLD}
+     * @return the count
+     */
+    private static int transformedRejection( Random pseudoRandom, double mean )
+        {
+        double logMean = Math.log( mean ) ;
+        double b = 0.931 + ( 2.53 * Math.sqrt( mean ) ) ;
+        double a = -0.059 + ( 0.02483 * b ) ;
+        double inverseAlpha = 1.1239 + ( 1.1328 / ( b - 3.4 ) ) ;
+        double vr = 0.9277 - ( 3.6224 / ( b - 2 ) ) ;
+
+        while ( true )
+            {
+            double u = pseudoRandom.nextDouble() - 0.5 ;
+            double v = pseudoRandom.nextDouble() ;
+            double us = 0.5 - Math.abs( u ) ;
+            long k = (long) Math.floor( ( ( ( ( 2 * a ) / us ) + b ) * u ) + mean + 0.43 ) ;
+
+            // quick acceptance
+            if ( ( us >= 0.07 ) && ( v <= vr ) )
+                {
+                return (int) k ;
+                }
+
+            // quick rejection
+            if ( ( k < 0 ) || ( ( us < 0.013 ) && ( v > us ) ) )
+                {
+                continue ;
+                }
+
+            if ( ( Math.log( v ) + Math.log( inverseAlpha ) - Math.log( ( a / ( us * us ) ) + b ) ) <=
+                 ( ( -mean + ( k * logMean ) ) - logFactorial( k ) ) )
+                {
+                return (int) k ;
+                }
+            }
+
+        }   // end transformedRejection()
+
+
+    /**
+     * @param k
+     *     a non-negative integer
+     * @return log( k! )
+     */
+    static double logFactorial( long k )
+        {
+        if ( k < LOG_FACTORIALS.length )
+            {
+            return LOG_FACTORIALS[ (int) k ] ;
+            }
+
+        // Stirling's series for log( gamma( k + 1 ) )
+        double x = k + 1.0 ;
+        double inverseX = 1.0 / x ;
+        double inverseX2 = inverseX * inverseX ;
+
+        return ( ( x - 0.5 ) * Math.log( x ) ) - x + ( 0.5 * Math.log( 2 * Math.PI ) ) +
+               ( inverseX * ( ( 1.0 / 12 ) -
+                              ( inverseX2 * ( ( 1.0 / 360 ) - ( inverseX2 / 1260 ) ) ) ) ) ;
+
+        }   // end logFactorial()
+
+
+    /**
+     * Test driver - the sample mean and variance should both be close to the mean
+     * 
+     * @param args
+     *     -unused-
+     */
+    public static void main( String[] args )
+        {
+        Random pseudoRandom = new Random( 2_021L ) ;
+        int samples = 1_000_000 ;
+
+        for ( double mean : new double[] { 0.5, 3.0, 9.9, 10.0, 50.0, 1_000.0, 100_000.0 } )
+            {
+            double sum = 0.0 ;
+            double sumOfSquares = 0.0 ;
+
+            for ( int i = 0 ; i < samples ; i++ )
+                {
+                int count = sample( pseudoRandom, mean ) ;
+                sum += count ;
+                sumOfSquares += (double) count * count ;
+                }
+
+            double sampleMean = sum / samples ;
+            System.out.printf( "mean %,12.1f: sample mean %,14.3f, variance %,14.3f%n",
+                               mean,
+                               sampleMean,
+                               ( sumOfSquares / samples ) - ( sampleMean * sampleMean ) ) ;
+            }
+
+        System.out.printf( "log( 100! ): %.6f via Stirling, %.6f summed%n",
+                           logFactorial( 100 ),
+                           sumOfLogs( 100 ) ) ;
+
+        }   // end main()
+
+
+    /**
+     * @param k
+     *     a non-negative integer
+     * @return log( k! ) computed directly
+     */
+    private static double sumOfLogs( int k )
+        {
+        double sum = 0.0 ;
+        for ( int i = 2 ; i <= k ; i++ )
+            {
+            sum += Math.log( i ) ;
+            }
+
+        return sum ;
+
+        }   // end sumOfLogs()
+
+    }   // end class PoissonDistribution
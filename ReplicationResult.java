@@ -0,0 +1,210 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Summary of one completed simulation run (replication). The passenger measures come
+ * from the simulation's travel time statistics and cover only the passengers who
+ * reached their destination.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 summarize from the streaming statistics
+ */
+public final class ReplicationResult
+    {
+
+    private final long seed ;
+
+    private final long passengersCreated ;
+    private final long passengersCompleted ;
+
+    private final double meanTimeWaiting ;
+    private final double meanTimeRiding ;
+    private final double meanTotalTime ;
+
+    private final long elapsedNanos ;
+
+
+    /**
+     * @param seed
+     *     the seed the replication ran with
+     * @param passengersCreated
+     *     number of passengers who entered the simulation
+     * @param passengersCompleted
+     *     number of passengers who reached their destination
+     * @param meanTimeWaiting
+     *     mean ticks a completed passenger waited for a train
+     * @param meanTimeRiding
+     *     mean ticks a completed passenger rode a train
+     * @param meanTotalTime
+     *     mean ticks from entering to exiting for a completed passenger
+     * @param elapsedNanos
+     *     wall-clock time to build and run the replication
+     */
+    public ReplicationResult( long seed,
+                              long passengersCreated,
+                              long passengersCompleted,
+                              double meanTimeWaiting,
+                              double meanTimeRiding,
+                              double meanTotalTime,
+                              long elapsedNanos )
+        {
+        this.seed = seed ;
+
+        this.passengersCreated = passengersCreated ;
+        this.passengersCompleted = passengersCompleted ;
+
+        this.meanTimeWaiting = meanTimeWaiting ;
+        this.meanTimeRiding = meanTimeRiding ;
+        this.meanTotalTime = meanTotalTime ;
+
+        this.elapsedNanos = elapsedNanos ;
+
+        }   // end constructor
+
+
+    /**
+     * Summarize a finished simulation
+     *
+     * @param seed
+     *     the seed the simulation ran with
+     * @param theSimulation
+     *     the finished simulation
+     * @param elapsedNanos
+     *     wall-clock time to build and run the simulation
+     * @return the summary
+     */
+    static ReplicationResult summarize( long seed,
+                                        TrainSimulation theSimulation,
+                                        long elapsedNanos )
+        {
+        TravelStatistics theStatistics = theSimulation.getStatistics() ;
+
+        return new ReplicationResult( seed,
+                                      theSimulation.getPassengerStore().getCreatedCount(),
+                                      theStatistics.getTotal().getCount(),
+                                      theStatistics.getWaiting().getMean(),
+                                      theStatistics.getRiding().getMean(),
+                                      theStatistics.getTotal().getMean(),
+                                      elapsedNanos ) ;
+
+        }   // end summarize()
+
+
+    /*
+     * getters
+     */
+
+
+    /**
+     * @return the seed the replication ran with
+     */
+    public long getSeed()
+        {
+        return this.seed ;
+
+        }   // end getSeed()
+
+
+    /**
+     * @return number of passengers who entered the simulation
+     */
+    public long getPassengersCreated()
+        {
+        return this.passengersCreated ;
+
+        }   // end getPassengersCreated()
+
+
+    /**
+     * @return number of passengers who reached their destination
+     */
+    public long getPassengersCompleted()
+        {
+        return this.passengersCompleted ;
+
+        }   // end getPassengersCompleted()
+
+
+    /**
+     * @return mean ticks a completed passenger waited for a train
+     */
+    public double getMeanTimeWaiting()
+        {
+        return this.meanTimeWaiting ;
+
+        }   // end getMeanTimeWaiting()
+
+
+    /**
+     * @return mean ticks a completed passenger rode a train
+     */
+    public double getMeanTimeRiding()
+        {
+        return this.meanTimeRiding ;
+
+        }   // end getMeanTimeRiding()
+
+
+    /**
+     * @return mean ticks from entering to exiting for a completed passenger
+     */
+    public double getMeanTotalTime()
+        {
+        return this.meanTotalTime ;
+
+        }   // end getMeanTotalTime()
+
+
+    /**
+     * @return wall-clock time to build and run the replication
+     */
+    public long getElapsedNanos()
+        {
+        return this.elapsedNanos ;
+
+        }   // end getElapsedNanos()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+        {
+        return String.format( "seed %,d: %,d passengers, %,d completed, waited %,.2f, rode %,.2f, total %,.2f ticks (%,.1f ms)",
+                              this.seed,
+                              this.passengersCreated,
+                              this.passengersCompleted,
+                              this.meanTimeWaiting,
+                              this.meanTimeRiding,
+                              this.meanTotalTime,
+                              this.elapsedNanos / 1_000_000.0 ) ;
+
+        }   // end toString()
+
+    }   // end class ReplicationResult
@@ -0,0 +1,383 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Configuration ;
+
+import java.io.FileNotFoundException ;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.Random ;
+import java.util.concurrent.Callable ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.ExecutorService ;
+import java.util.concurrent.Executors ;
+import java.util.concurrent.Future ;
+
+/**
+ * Runs independent replications of a scenario in parallel and merges their results
+ * into confidence intervals. Each replication is a headless simulation with its own
+ * seed, route, passenger store and random number generator so replications share no
+ * mutable state; one replication runs per worker thread at a time.
+ * <p>
+ * Replication seeds are derived from a single base seed so the whole set of runs is
+ * repeatable. Results are reported in replication order regardless of which worker
+ * finishes first.
+ * <p>
+ * Usage: {@code ReplicationRunner [replications=32] [threads=<available processors>]}
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class ReplicationRunner
+    {
+
+    /** default number of replications */
+    private static final int DEFAULT_REPLICATIONS = 32 ;
+
+    /**
+     * two-sided 95% Student-t critical values indexed by degrees of freedom - index 0
+     * is unused
+     */
+    private static final double[] T_CRITICAL_95 = { Double.NaN,
+                                                    12.706, 4.303, 3.182, 2.776, 2.571,
+                                                    2.447, 2.365, 2.306, 2.262, 2.228,
+                                                    2.201, 2.179, 2.160, 2.145, 2.131,
+                                                    2.120, 2.110, 2.101, 2.093, 2.086,
+                                                    2.080, 2.074, 2.069, 2.064, 2.060,
+                                                    2.056, 2.052, 2.048, 2.045, 2.042 } ;
+
+    private final Scenario baseScenario ;
+    private final long[] seeds ;
+    private final int threadCount ;
+
+
+    /**
+     * @param baseScenario
+     *     the scenario to replicate - its seed is replaced for each replication
+     * @param replications
+     *     the number of replications to run
+     * @param threadCount
+     *     the number of worker threads
+     * @param baseSeed
+     *     the seed from which the replication seeds are derived
+     * @throws IllegalArgumentException
+     *     if replications or threadCount is less than 1
+     */
+    public ReplicationRunner( Scenario baseScenario,
+                              int replications,
+                              int threadCount,
+                              long baseSeed )
+        {
+        if ( ( replications < 1 ) || ( threadCount < 1 ) )
+            {
+            throw new IllegalArgumentException( "replications and threads must be at least 1" ) ;
+            }
+
+        this.baseScenario = baseScenario ;
+        this.seeds = deriveSeeds( baseSeed, replications ) ;
+        this.threadCount = threadCount ;
+
+        }   // end constructor
+
+
+    /**
+     * Derive a repeatable sequence of replication seeds
+     *
+     * @param baseSeed
+     *     the seed for the seed generator
+     * @param count
+     *     the number of seeds
+     * @return the seeds - none has a special meaning to the simulation
+     */
+    static long[] deriveSeeds( long baseSeed, int count )
+        {
+        Random seedGenerator = new Random( baseSeed ) ;
+        long[] derivedSeeds = new long[ count ] ;
+
+        for ( int i = 0 ; i < count ; i++ )
+            {
+            long aSeed ;
+            do  // 0 and -1 mean unseeded and time-seeded
+                {
+                aSeed = seedGenerator.nextLong() ;
+                }
+            while ( ( aSeed == 0 ) || ( aSeed == -1 ) ) ;
+
+            derivedSeeds[ i ] = aSeed ;
+            }
+
+        return derivedSeeds ;
+
+        }   // end deriveSeeds()
+
+
+    /**
+     * Run every replication
+     *
+     * @return the results in replication order
+     * @throws InterruptedException
+     *     if interrupted while waiting for the workers
+     * @throws ExecutionException
+     *     if a replication failed
+     */
+    public List<ReplicationResult> run() throws InterruptedException, ExecutionException
+        {
+        List<Callable<ReplicationResult>> replications = new ArrayList<>( this.seeds.length ) ;
+
+        for ( long aSeed : this.seeds )
+            {
+            Scenario aScenario = this.baseScenario.withSeed( aSeed ) ;
+            replications.add( () -> runReplication( aScenario ) ) ;
+            }
+
+        ExecutorService workers = Executors.newFixedThreadPool( this.threadCount ) ;
+        try
+            {
+            List<ReplicationResult> results = new ArrayList<>( this.seeds.length ) ;
+
+            for ( Future<ReplicationResult> aResult : workers.invokeAll( replications ) )
+                {
+                results.add( aResult.get() ) ;
+                }
+
+            return results ;
+            }
+        finally
+            {
+            workers.shutdownNow() ;
+            }
+
+        }   // end run()
+
+
+    /**
+     * Build, run and summarize one headless simulation
+     *
+     * @param aScenario
+     *     the seeded scenario
+     * @return the replication's summary
+     */
+    private static ReplicationResult runReplication( Scenario aScenario )
+        {
+        long startTime = System.nanoTime() ;
+
+        TrainSimulation theSimulation = new TrainSimulation( aScenario ) ;
+        theSimulation.run() ;
+
+        return ReplicationResult.summarize( aScenario.getSeed(),
+                                            theSimulation,
+                                            System.nanoTime() - startTime ) ;
+
+        }   // end runReplication()
+
+
+    /**
+     * Compute the mean and the half-width of its 95% confidence interval
+     *
+     * @param samples
+     *     one value per replication
+     * @return { mean, half-width } - the half-width is 0 for a single sample
+     */
+    static double[] confidenceInterval( double[] samples )
+        {
+        int n = samples.length ;
+
+        double sum = 0.0 ;
+        for ( double aSample : samples )
+            {
+            sum += aSample ;
+            }
+        double mean = sum / n ;
+
+        if ( n < 2 )
+            {
+            return new double[] { mean, 0.0 } ;
+            }
+
+        double sumOfSquares = 0.0 ;
+        for ( double aSample : samples )
+            {
+            sumOfSquares += ( aSample - mean ) * ( aSample - mean ) ;
+            }
+        double standardError = Math.sqrt( sumOfSquares / ( n - 1 ) / n ) ;
+
+        return new double[] { mean, tCritical( n - 1 ) * standardError } ;
+
+        }   // end confidenceInterval()
+
+
+    /**
+     * @param degreesOfFreedom
+     *     sample size less one
+     * @return the two-sided 95% critical value
+     */
+    private static double tCritical( int degreesOfFreedom )
+        {
+        if ( degreesOfFreedom < T_CRITICAL_95.length )
+            {
+            return T_CRITICAL_95[ degreesOfFreedom ] ;
+            }
+
+        if ( degreesOfFreedom <= 40 )
+            {
+            return 2.021 ;
+            }
+
+        if ( degreesOfFreedom <= 60 )
+            {
+            return 2.000 ;
+            }
+
+        if ( degreesOfFreedom <= 120 )
+            {
+            return 1.980 ;
+            }
+
+        return 1.960 ;
+
+        }   // end tCritical()
+
+
+    /**
+     * Print one measure's confidence interval
+     *
+     * @param label
+     *     the measure's name
+     * @param samples
+     *     one value per replication
+     */
+    private static void report( String label, double[] samples )
+        {
+        double[] interval = confidenceInterval( samples ) ;
+
+        System.out.printf( "%-22s %,12.3f +/- %,10.3f%n",
+                           label,
+                           interval[ 0 ],
+                           interval[ 1 ] ) ;
+
+        }   // end report()
+
+
+    /**
+     * Replication driver - replicates the configured scenario
+     *
+     * @param args
+     *     optional {@code replications=n} and {@code threads=n} settings
+     * @throws FileNotFoundException
+     *     if the configuration file doesn't exist or can't be opened for read access
+     * @throws InterruptedException
+     *     if interrupted while waiting for the workers
+     * @throws ExecutionException
+     *     if a replication failed
+     */
+    public static void main( String[] args ) throws FileNotFoundException,
+                                                    InterruptedException,
+                                                    ExecutionException
+        {
+        int replications = DEFAULT_REPLICATIONS ;
+        int threads = Runtime.getRuntime().availableProcessors() ;
+
+        for ( String anArgument : args )
+            {
+            int separator = anArgument.indexOf( '=' ) ;
+            if ( separator < 0 )
+                {
+                throw new IllegalArgumentException( "expected name=value: " + anArgument ) ;
+                }
+
+            String name = anArgument.substring( 0, separator ) ;
+            int value = Integer.parseInt( anArgument.substring( separator + 1 ) ) ;
+
+            switch ( name )
+                {
+                case "replications":
+                    replications = value ;
+                    break ;
+
+                case "threads":
+                    threads = value ;
+                    break ;
+
+                default:
+                    throw new IllegalArgumentException( "unknown setting: " + name ) ;
+                }
+            }
+
+        Scenario theScenario = Scenario.fromConfiguration( new Configuration() ) ;
+
+        // same meaning as the simulation's seed: -1 or 0 picks a fresh base seed
+        long baseSeed = theScenario.getSeed() ;
+        if ( ( baseSeed == -1 ) || ( baseSeed == 0 ) )
+            {
+            baseSeed = new Date().getTime() ;
+            }
+
+        System.out.printf( "Running %,d replications on %,d thread%s (base seed %,d)%n%n",
+                           replications,
+                           threads,
+                           ( threads == 1
+                               ? ""
+                               : "s" ),
+                           baseSeed ) ;
+
+        long startTime = System.nanoTime() ;
+        List<ReplicationResult> results =
+                        new ReplicationRunner( theScenario, replications, threads, baseSeed ).run() ;
+        long wallNanos = System.nanoTime() - startTime ;
+
+        double[] waiting = new double[ results.size() ] ;
+        double[] riding = new double[ results.size() ] ;
+        double[] total = new double[ results.size() ] ;
+        double[] completed = new double[ results.size() ] ;
+        long busyNanos = 0 ;
+
+        for ( int i = 0 ; i < results.size() ; i++ )
+            {
+            ReplicationResult aResult = results.get( i ) ;
+            System.out.printf( "%4d  %s%n", i + 1, aResult ) ;
+
+            waiting[ i ] = aResult.getMeanTimeWaiting() ;
+            riding[ i ] = aResult.getMeanTimeRiding() ;
+            total[ i ] = aResult.getMeanTotalTime() ;
+            completed[ i ] = aResult.getPassengersCompleted() ;
+            busyNanos += aResult.getElapsedNanos() ;
+            }
+
+        System.out.printf( "%n95%% confidence intervals over %,d replications:%n", results.size() ) ;
+        report( "mean ticks waiting", waiting ) ;
+        report( "mean ticks riding", riding ) ;
+        report( "mean total ticks", total ) ;
+        report( "passengers completed", completed ) ;
+
+        System.out.printf( "%nwall time %,.1f ms, replication time %,.1f ms, speedup %.2fx%n",
+                           wallNanos / 1_000_000.0,
+                           busyNanos / 1_000_000.0,
+                           (double) busyNanos / wallNanos ) ;
+
+        }   // end main()
+
+    }   // end class ReplicationRunner
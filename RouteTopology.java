@@ -0,0 +1,586 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+
+import java.util.Arrays ;
+
+/**
+ * Compiled, read-only view of the Stations on a TrainRoute which answers position
+ * queries without scanning the station list:
+ * <ul>
+ * <li>station at a position - O(1) via a direct position-indexed table if the
+ * stations are dense enough along the route, otherwise O(log n) via binary search of
+ * the sorted station positions</li>
+ * <li>next station ahead in a direction - O(log n) via binary search of the sorted
+ * station positions</li>
+ * <li>direction of travel between two stations - O(1): a comparison of the stations'
+ * positions (indexed by station id) on LINEAR routes; a station x station table of
+ * the shorter way around on CIRCULAR routes, or the same computed with modular
+ * arithmetic if there are too many stations for the table</li>
+ * <li>distance between two stations - O(1): the difference of their positions,
+ * modulo the route length on CIRCULAR routes</li>
+ * <li>ticks to the next station ahead - O(1) from a station on CIRCULAR routes via
+ * per-station clockwise and counter-clockwise gap tables</li>
+ * </ul>
+ * A TrainRoute compiles a new topology whenever its set of Stations changes.
+ * <p>
+ * Positions increase in the OUTBOUND (and CLOCKWISE) direction and decrease in the
+ * INBOUND (and counter-clockwise) direction. CIRCULAR routes run from position 1 to
+ * their length and then wrap around to 1 again.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 station-pair direction lookup
+ * @version 1.2.0 2026-10-18 modular distances and wraparound for CIRCULAR routes
+ */
+final class RouteTopology
+    {
+
+    /**
+     * most direct index entries per station - on a sparser route, station at a
+     * position falls back to binary search
+     */
+    private static final int MAXIMUM_DIRECT_INDEX_ENTRIES_PER_STATION = 64 ;
+
+    /** position range we will always index directly, however few the stations */
+    private static final int MINIMUM_DIRECT_INDEX_SIZE = 1 << 10 ;
+
+    /** largest array the JVM reliably allocates */
+    private static final int MAXIMUM_ARRAY_SIZE = Integer.MAX_VALUE - 8 ;
+
+    /**
+     * most stations on a CIRCULAR route for which the station x station direction
+     * table is built (1 byte per pair)
+     */
+    private static final int MAXIMUM_DIRECTION_TABLE_STATIONS = 1 << 11 ;
+
+    // direction codes - indexes into travelDirections
+    private static final byte INCREASING = 0 ;
+    private static final byte DECREASING = 1 ;
+    private static final byte SAME_STATION = 2 ;
+
+    private final RouteStyle style ;
+    private final int length ;
+
+    /** station positions in ascending order */
+    private final int[] sortedPositions ;
+
+    /** stations in the same order as {@code sortedPositions} */
+    private final Station[] stationsInPositionOrder ;
+
+    /** stations indexed by {@code position - directIndexBase} or null if too large */
+    private final Station[] stationByPosition ;
+    private final int directIndexBase ;
+
+    /** station positions indexed by station id */
+    private final int[] positionById ;
+
+    /** the direction for each direction code on this route's style */
+    private final Direction[] travelDirections ;
+
+    /**
+     * CIRCULAR only: direction code from station id i to station id j at
+     * {@code i * directionTableStride + j}, or null if there are too many stations
+     */
+    private final byte[] directionTable ;
+    private final int directionTableStride ;
+
+    /**
+     * CIRCULAR only: distance from each station to the next one clockwise and
+     * counter-clockwise, indexed by station id, or null on LINEAR routes
+     */
+    private final int[] clockwiseGaps ;
+    private final int[] counterclockwiseGaps ;
+
+
+    /**
+     * @param style
+     *     the route style
+     * @param length
+     *     the route length
+     * @param stations
+     *     the stations on the route in any order
+     */
+    RouteTopology( RouteStyle style, int length, Station[] stations )
+        {
+        this.style = style ;
+        this.length = length ;
+
+        // order the stations by position
+        this.stationsInPositionOrder = stations.clone() ;
+        Arrays.sort( this.stationsInPositionOrder,
+                     ( first, second ) -> Integer.compare( first.getLocation()
+                                                                .getPosition(),
+                                                           second.getLocation()
+                                                                 .getPosition() ) ) ;
+
+        this.sortedPositions = new int[ this.stationsInPositionOrder.length ] ;
+        for ( int i = 0 ; i < this.sortedPositions.length ; i++ )
+            {
+            this.sortedPositions[ i ] = this.stationsInPositionOrder[ i ].getLocation()
+                                                                        .getPosition() ;
+            }
+
+        // build the direct index over the whole route (and any stray stations)
+        int lowest = 0 ;
+        int highest = length ;
+        if ( this.sortedPositions.length > 0 )
+            {
+            lowest = Math.min( lowest, this.sortedPositions[ 0 ] ) ;
+            highest = Math.max( highest,
+                                this.sortedPositions[ this.sortedPositions.length - 1 ] ) ;
+            }
+
+        long span = ( (long) highest - lowest ) + 1 ;
+        long directIndexLimit = Math.max( MINIMUM_DIRECT_INDEX_SIZE,
+                                          (long) MAXIMUM_DIRECT_INDEX_ENTRIES_PER_STATION *
+                                                 this.sortedPositions.length ) ;
+        if ( ( span <= directIndexLimit ) && ( span <= MAXIMUM_ARRAY_SIZE ) )
+            {
+            this.directIndexBase = lowest ;
+            this.stationByPosition = new Station[ (int) span ] ;
+
+            for ( Station aStation : this.stationsInPositionOrder )
+                {
+                this.stationByPosition[ aStation.getLocation().getPosition() -
+                                        this.directIndexBase ] = aStation ;
+                }
+            }
+        else
+            {
+            this.directIndexBase = 0 ;
+            this.stationByPosition = null ;
+            }
+
+        // index positions by station id for direction lookups
+        int highestId = 0 ;
+        for ( Station aStation : stations )
+            {
+            highestId = Math.max( highestId, aStation.getId() ) ;
+            }
+
+        this.positionById = new int[ highestId + 1 ] ;
+        for ( Station aStation : stations )
+            {
+            this.positionById[ aStation.getId() ] = aStation.getLocation().getPosition() ;
+            }
+
+        this.travelDirections = style == RouteStyle.CIRCULAR
+                                    ? new Direction[] { Direction.CLOCKWISE,
+                                                        Direction.CLOCKWISE.reverse(),
+                                                        Direction.STATIONARY }
+                                    : new Direction[] { Direction.OUTBOUND,
+                                                        Direction.INBOUND,
+                                                        Direction.STATIONARY } ;
+
+        // precompute the shorter way around between every pair of stations
+        if ( ( style == RouteStyle.CIRCULAR ) && ( highestId < MAXIMUM_DIRECTION_TABLE_STATIONS ) )
+            {
+            this.directionTableStride = highestId + 1 ;
+            this.directionTable = new byte[ this.directionTableStride * this.directionTableStride ] ;
+
+            for ( int fromId = 1 ; fromId <= highestId ; fromId++ )
+                {
+                for ( int toId = 1 ; toId <= highestId ; toId++ )
+                    {
+                    this.directionTable[ ( fromId * this.directionTableStride ) + toId ] =
+                                    circularDirection( this.positionById[ fromId ],
+                                                       this.positionById[ toId ] ) ;
+                    }
+                }
+            }
+        else
+            {
+            this.directionTableStride = 0 ;
+            this.directionTable = null ;
+            }
+
+        // distance to the neighboring stations either way around
+        if ( ( style == RouteStyle.CIRCULAR ) && ( this.sortedPositions.length > 0 ) )
+            {
+            this.clockwiseGaps = new int[ highestId + 1 ] ;
+            this.counterclockwiseGaps = new int[ highestId + 1 ] ;
+
+            int stationCount = this.sortedPositions.length ;
+            for ( int i = 0 ; i < stationCount ; i++ )
+                {
+                int next = ( i + 1 ) % stationCount ;
+
+                // a lone station is a full trip around from itself
+                int gap = Math.floorMod( this.sortedPositions[ next ] - this.sortedPositions[ i ],
+                                         length ) ;
+                if ( gap == 0 )
+                    {
+                    gap = length ;
+                    }
+
+                this.clockwiseGaps[ this.stationsInPositionOrder[ i ].getId() ] = gap ;
+                this.counterclockwiseGaps[ this.stationsInPositionOrder[ next ].getId() ] = gap ;
+                }
+            }
+        else
+            {
+            this.clockwiseGaps = null ;
+            this.counterclockwiseGaps = null ;
+            }
+
+        }   // end constructor
+
+
+    /**
+     * Retrieve the station at a position
+     *
+     * @param position
+     *     the position along the route
+     * @return the station at the position or {@code null} if none
+     */
+    Station stationAt( int position )
+        {
+        if ( this.stationByPosition != null )
+            {
+            int index = position - this.directIndexBase ;
+
+            return ( index >= 0 ) && ( index < this.stationByPosition.length )
+                        ? this.stationByPosition[ index ]
+                        : null ;
+            }
+
+        int index = Arrays.binarySearch( this.sortedPositions, position ) ;
+
+        return index >= 0
+                    ? this.stationsInPositionOrder[ index ]
+                    : null ;
+
+        }   // end stationAt()
+
+
+    /**
+     * Retrieve the first station strictly beyond a position when traveling in a
+     * direction. On CIRCULAR routes the search wraps around the end of the route.
+     *
+     * @param position
+     *     the starting position
+     * @param travelingDirection
+     *     the direction of travel
+     * @return the next station ahead or {@code null} if there isn't one
+     */
+    Station nextStationAhead( int position, Direction travelingDirection )
+        {
+        int stationCount = this.sortedPositions.length ;
+        if ( stationCount == 0 )
+            {
+            return null ;
+            }
+
+        int index = Arrays.binarySearch( this.sortedPositions, position ) ;
+
+        if ( isIncreasing( travelingDirection ) )
+            {
+            // first position > position
+            int next = index >= 0
+                            ? index + 1
+                            : -index - 1 ;
+
+            if ( next < stationCount )
+                {
+                return this.stationsInPositionOrder[ next ] ;
+                }
+
+            return this.style == RouteStyle.CIRCULAR
+                        ? this.stationsInPositionOrder[ 0 ]
+                        : null ;
+            }
+
+        if ( isDecreasing( travelingDirection ) )
+            {
+            // last position < position
+            int previous = index >= 0
+                                ? index - 1
+                                : -index - 2 ;
+
+            if ( previous >= 0 )
+                {
+                return this.stationsInPositionOrder[ previous ] ;
+                }
+
+            return this.style == RouteStyle.CIRCULAR
+                        ? this.stationsInPositionOrder[ stationCount - 1 ]
+                        : null ;
+            }
+
+        return null ;   // stationary or unspecified
+
+        }   // end nextStationAhead()
+
+
+    /**
+     * Determine the direction to travel from one station to another
+     *
+     * @param fromStationId
+     *     the id of the station at the start of travel
+     * @param toStationId
+     *     the id of the station at the destination
+     * @return the direction - the shorter way around on a CIRCULAR route (CLOCKWISE
+     *     if both ways are the same), STATIONARY for the same position, or
+     *     NOT_APPLICABLE if either station isn't on the route
+     */
+    Direction directionBetween( int fromStationId, int toStationId )
+        {
+        if ( ( fromStationId <= 0 ) || ( fromStationId >= this.positionById.length ) ||
+             ( toStationId <= 0 ) || ( toStationId >= this.positionById.length ) )
+            {
+            return Direction.NOT_APPLICABLE ;
+            }
+
+        if ( this.directionTable != null )
+            {
+            return this.travelDirections[ this.directionTable[ ( fromStationId *
+                                                                 this.directionTableStride ) +
+                                                               toStationId ] ] ;
+            }
+
+        return directionBetweenPositions( this.positionById[ fromStationId ],
+                                          this.positionById[ toStationId ] ) ;
+
+        }   // end directionBetween()
+
+
+    /**
+     * Determine the direction to travel from one position to another
+     *
+     * @param fromPosition
+     *     the starting position
+     * @param toPosition
+     *     the destination position
+     * @return the direction - the shorter way around on a CIRCULAR route (CLOCKWISE
+     *     if both ways are the same) or STATIONARY for the same position
+     */
+    Direction directionBetweenPositions( int fromPosition, int toPosition )
+        {
+        if ( this.style == RouteStyle.CIRCULAR )
+            {
+            return this.travelDirections[ circularDirection( wrap( fromPosition ),
+                                                             wrap( toPosition ) ) ] ;
+            }
+
+        return fromPosition < toPosition
+                    ? this.travelDirections[ INCREASING ]
+                    : fromPosition > toPosition
+                        ? this.travelDirections[ DECREASING ]
+                        : this.travelDirections[ SAME_STATION ] ;
+
+        }   // end directionBetweenPositions()
+
+
+    /**
+     * Determine how far apart two stations are - the shorter way around on a
+     * CIRCULAR route
+     *
+     * @param fromStationId
+     *     the id of the station at the start of travel
+     * @param toStationId
+     *     the id of the station at the destination
+     * @return the distance or -1 if either station isn't on the route
+     */
+    int distanceBetween( int fromStationId, int toStationId )
+        {
+        if ( ( fromStationId <= 0 ) || ( fromStationId >= this.positionById.length ) ||
+             ( toStationId <= 0 ) || ( toStationId >= this.positionById.length ) )
+            {
+            return -1 ;
+            }
+
+        int fromPosition = this.positionById[ fromStationId ] ;
+        int toPosition = this.positionById[ toStationId ] ;
+
+        if ( this.style == RouteStyle.CIRCULAR )
+            {
+            int clockwiseDistance = Math.floorMod( toPosition - fromPosition, this.length ) ;
+
+            return Math.min( clockwiseDistance, this.length - clockwiseDistance ) ;
+            }
+
+        return Math.abs( toPosition - fromPosition ) ;
+
+        }   // end distanceBetween()
+
+
+    /**
+     * Determine how far a train travels from a position until it reaches a station on
+     * a CIRCULAR route - O(1) from a station via the gap tables, O(log n) elsewhere
+     *
+     * @param position
+     *     the starting position
+     * @param travelingDirection
+     *     the direction of travel
+     * @return the number of positions to the next station strictly ahead (a full trip
+     *     around if the only station is at the starting position) or -1 if there are
+     *     no stations, the route isn't CIRCULAR or the direction doesn't select a
+     *     track
+     */
+    int distanceToNextStation( int position, Direction travelingDirection )
+        {
+        if ( this.clockwiseGaps == null )
+            {
+            return -1 ;
+            }
+
+        int from = wrap( position ) ;
+        Station here = stationAt( from ) ;
+
+        if ( isIncreasing( travelingDirection ) )
+            {
+            if ( here != null )
+                {
+                return this.clockwiseGaps[ here.getId() ] ;
+                }
+
+            return Math.floorMod( nextStationAhead( from, travelingDirection ).getLocation()
+                                                                             .getPosition() -
+                                  from,
+                                  this.length ) ;
+            }
+
+        if ( isDecreasing( travelingDirection ) )
+            {
+            if ( here != null )
+                {
+                return this.counterclockwiseGaps[ here.getId() ] ;
+                }
+
+            return Math.floorMod( from -
+                                  nextStationAhead( from, travelingDirection ).getLocation()
+                                                                             .getPosition(),
+                                  this.length ) ;
+            }
+
+        return -1 ;   // stationary or unspecified
+
+        }   // end distanceToNextStation()
+
+
+    /**
+     * Bring a position back onto a CIRCULAR route after it passes either end
+     *
+     * @param position
+     *     a position, possibly beyond the end of the route
+     * @return the equivalent position from 1 through the route length on a CIRCULAR
+     *     route, the position unchanged on a LINEAR route
+     */
+    int wrap( int position )
+        {
+        return this.style == RouteStyle.CIRCULAR
+                    ? Math.floorMod( position - 1, this.length ) + 1
+                    : position ;
+
+        }   // end wrap()
+
+
+    /**
+     * Determine the shorter way around a CIRCULAR route
+     *
+     * @param fromPosition
+     *     the starting position
+     * @param toPosition
+     *     the destination position
+     * @return the direction code - increasing position if both ways are the same
+     */
+    private byte circularDirection( int fromPosition, int toPosition )
+        {
+        if ( fromPosition == toPosition )
+            {
+            return SAME_STATION ;
+            }
+
+        int increasingDistance = Math.floorMod( toPosition - fromPosition, this.length ) ;
+
+        return increasingDistance <= ( this.length - increasingDistance )
+                    ? INCREASING
+                    : DECREASING ;
+
+        }   // end circularDirection()
+
+
+    /**
+     * @return the number of stations in this topology
+     */
+    int getStationCount()
+        {
+        return this.sortedPositions.length ;
+
+        }   // end getStationCount()
+
+
+    /**
+     * Map a direction of travel onto one of the route's pair of tracks
+     *
+     * @param travelingDirection
+     *     a direction of travel
+     * @return 0 for the increasing-position track, 1 for the decreasing-position
+     *     track, or -1 if the direction doesn't select a track
+     */
+    static int trackIndex( Direction travelingDirection )
+        {
+        if ( isIncreasing( travelingDirection ) )
+            {
+            return 0 ;
+            }
+
+        return isDecreasing( travelingDirection )
+                    ? 1
+                    : -1 ;
+
+        }   // end trackIndex()
+
+
+    /**
+     * @param travelingDirection
+     *     a direction of travel
+     * @return true if traveling in this direction increases position
+     */
+    static boolean isIncreasing( Direction travelingDirection )
+        {
+        return ( travelingDirection == Direction.OUTBOUND ) ||
+               ( travelingDirection == Direction.CLOCKWISE ) ;
+
+        }   // end isIncreasing()
+
+
+    /**
+     * @param travelingDirection
+     *     a direction of travel
+     * @return true if traveling in this direction decreases position
+     */
+    static boolean isDecreasing( Direction travelingDirection )
+        {
+        return ( travelingDirection == Direction.INBOUND ) ||
+               ( travelingDirection == Direction.CLOCKWISE.reverse() ) ;
+
+        }   // end isDecreasing()
+
+    }   // end class RouteTopology
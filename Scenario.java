@@ -0,0 +1,587 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Configuration ;
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.PairedLimit ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteSpecification ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+import edu.wit.scds.comp2000.queue.app.utilities.TrainSpecification ;
+
+import java.util.Arrays ;
+
+/**
+ * Immutable description of everything needed to build and run one simulation: the
+ * route, the station positions, the trains, the passenger generation limits, the
+ * number of ticks and the seed - and optionally an origin-destination demand
+ * schedule which replaces the uniform choice of stations.
+ * <p>
+ * A Scenario is usually derived from the {@code Configuration} file but may also be
+ * constructed directly, which enables building simulations of arbitrary size
+ * without editing the configuration file (e.g. for benchmarking).
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 optional demand schedule
+ */
+public final class Scenario
+    {
+
+    private final RouteStyle style ;
+    private final int length ;
+
+    private final int[] stationPositions ;
+
+    private final int[] trainPositions ;
+    private final Direction[] trainDirections ;
+    private final int[] trainCapacities ;
+
+    private final int initialPassengersMinimum ;
+    private final int initialPassengersMaximum ;
+    private final int perTickPassengersMinimum ;
+    private final int perTickPassengersMaximum ;
+
+    private final int ticks ;
+    private final long seed ;
+
+    /** origin-destination demand or {@code null} for uniform demand */
+    private final DemandSchedule demand ;
+
+
+    /**
+     * @param style
+     *     the route style
+     * @param length
+     *     the route length
+     * @param stationPositions
+     *     the position of each station along the route, in station id order
+     * @param trainPositions
+     *     the starting position of each train, in train id order
+     * @param trainDirections
+     *     the starting direction of each train, in train id order
+     * @param trainCapacities
+     *     the capacity of each train, in train id order
+     * @param initialPassengers
+     *     minimum and maximum number of passengers created during setup
+     * @param perTickPassengers
+     *     minimum and maximum number of passengers created each tick
+     * @param ticks
+     *     the number of ticks to run
+     * @param seed
+     *     the pseudo-random number generator seed with the same meaning as
+     *     {@code Configuration.getSeed()}
+     * @throws IllegalArgumentException
+     *     if the train arrays are not all the same length or the passenger limits
+     *     are not pairs
+     */
+    public Scenario( RouteStyle style,
+                     int length,
+                     int[] stationPositions,
+                     int[] trainPositions,
+                     Direction[] trainDirections,
+                     int[] trainCapacities,
+                     int[] initialPassengers,
+                     int[] perTickPassengers,
+                     int ticks,
+                     long seed )
+        {
+        this( style,
+              length,
+              stationPositions,
+              trainPositions,
+              trainDirections,
+              trainCapacities,
+              initialPassengers,
+              perTickPassengers,
+              ticks,
+              seed,
+              null ) ;
+
+        }   // end constructor
+
+
+    /**
+     * @param style
+     *     the route style
+     * @param length
+     *     the route length
+     * @param stationPositions
+     *     the position of each station along the route, in station id order
+     * @param trainPositions
+     *     the starting position of each train, in train id order
+     * @param trainDirections
+     *     the starting direction of each train, in train id order
+     * @param trainCapacities
+     *     the capacity of each train, in train id order
+     * @param initialPassengers
+     *     minimum and maximum number of passengers created during setup
+     * @param perTickPassengers
+     *     minimum and maximum number of passengers created each tick - unused if
+     *     there is a demand schedule
+     * @param ticks
+     *     the number of ticks to run
+     * @param seed
+     *     the pseudo-random number generator seed with the same meaning as
+     *     {@code Configuration.getSeed()}
+     * @param demand
+     *     origin-destination demand or {@code null} for uniform demand
+     * @throws IllegalArgumentException
+     *     if the train arrays are not all the same length, the passenger limits
+     *     are not pairs or the demand is for a different number of stations
+     */
+    private Scenario( RouteStyle style,
+                      int length,
+                      int[] stationPositions,
+                      int[] trainPositions,
+                      Direction[] trainDirections,
+                      int[] trainCapacities,
+                      int[] initialPassengers,
+                      int[] perTickPassengers,
+                      int ticks,
+                      long seed,
+                      DemandSchedule demand )
+        {
+        if ( ( trainPositions.length != trainDirections.length ) ||
+             ( trainPositions.length != trainCapacities.length ) )
+            {
+            throw new IllegalArgumentException( "train positions, directions and capacities must all be the same length" ) ;
+            }
+
+        if ( ( initialPassengers.length != 2 ) || ( perTickPassengers.length != 2 ) )
+            {
+            throw new IllegalArgumentException( "passenger limits must be { minimum, maximum } pairs" ) ;
+            }
+
+        this.style = style ;
+        this.length = length ;
+
+        this.stationPositions = stationPositions.clone() ;
+
+        this.trainPositions = trainPositions.clone() ;
+        this.trainDirections = trainDirections.clone() ;
+        this.trainCapacities = trainCapacities.clone() ;
+
+        this.initialPassengersMinimum = initialPassengers[ 0 ] ;
+        this.initialPassengersMaximum = initialPassengers[ 1 ] ;
+        this.perTickPassengersMinimum = perTickPassengers[ 0 ] ;
+        this.perTickPassengersMaximum = perTickPassengers[ 1 ] ;
+
+        if ( ( demand != null ) && ( demand.getStationCount() != stationPositions.length ) )
+            {
+            throw new IllegalArgumentException( String.format( "demand is for %,d stations; the route has %,d",
+                                                               demand.getStationCount(),
+                                                               stationPositions.length ) ) ;
+            }
+
+        this.ticks = ticks ;
+        this.seed = seed ;
+        this.demand = demand ;
+
+        }   // end constructor
+
+
+    /**
+     * Build a scenario which matches a configuration file
+     *
+     * @param theConfiguration
+     *     the loaded configuration
+     * @return the equivalent scenario
+     */
+    public static Scenario fromConfiguration( Configuration theConfiguration )
+        {
+        RouteSpecification routeSpecification = theConfiguration.getRoute() ;
+        TrainSpecification[] trainSpecifications = theConfiguration.getTrains() ;
+        PairedLimit[] passengerLimits = theConfiguration.getPassengers() ;
+
+        int[] trainPositions = new int[ trainSpecifications.length ] ;
+        Direction[] trainDirections = new Direction[ trainSpecifications.length ] ;
+        int[] trainCapacities = new int[ trainSpecifications.length ] ;
+
+        for ( int i = 0 ; i < trainSpecifications.length ; i++ )
+            {
+            trainPositions[ i ] = trainSpecifications[ i ].location ;
+            trainDirections[ i ] = trainSpecifications[ i ].direction ;
+            trainCapacities[ i ] = trainSpecifications[ i ].capacity ;
+            }
+
+        PairedLimit initial = passengerLimits[ Configuration.PASSENGERS_INITIAL ] ;
+        PairedLimit perTick = passengerLimits[ Configuration.PASSENGERS_PER_TICK ] ;
+
+        return new Scenario( routeSpecification.style,
+                             routeSpecification.length,
+                             theConfiguration.getStations(),
+                             trainPositions,
+                             trainDirections,
+                             trainCapacities,
+                             new int[] { initial.minimum, initial.maximum },
+                             new int[] { perTick.minimum, perTick.maximum },
+                             theConfiguration.getTicks(),
+                             theConfiguration.getSeed() ) ;
+
+        }   // end fromConfiguration()
+
+
+    /**
+     * Build a LINEAR scenario with evenly spaced stations and trains spread evenly
+     * across both tracks so no two trains share a position on the same track
+     *
+     * @param stationCount
+     *     number of stations
+     * @param stationSpacing
+     *     distance between adjacent stations
+     * @param trainCount
+     *     number of trains
+     * @param trainCapacity
+     *     capacity of every train
+     * @param passengersPerTick
+     *     exact number of passengers generated each tick (and during setup)
+     * @param ticks
+     *     the number of ticks to run
+     * @param seed
+     *     the pseudo-random number generator seed
+     * @return the generated scenario
+     * @throws IllegalArgumentException
+     *     if the trains don't fit on the route
+     */
+    public static Scenario uniform( int stationCount,
+                                    int stationSpacing,
+                                    int trainCount,
+                                    int trainCapacity,
+                                    int passengersPerTick,
+                                    int ticks,
+                                    long seed )
+        {
+        int routeLength = ( ( stationCount - 1 ) * stationSpacing ) + 1 ;
+
+        if ( ( stationCount < 2 ) || ( trainCount > ( 2 * routeLength ) ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't place %,d trains on %,d stations",
+                                                               trainCount,
+                                                               stationCount ) ) ;
+            }
+
+        int[] stationPositions = new int[ stationCount ] ;
+        for ( int i = 0 ; i < stationCount ; i++ )
+            {
+            stationPositions[ i ] = 1 + ( i * stationSpacing ) ;
+            }
+
+        // alternate tracks and spread each track's trains evenly along the route
+        int[] trainPositions = new int[ trainCount ] ;
+        Direction[] trainDirections = new Direction[ trainCount ] ;
+        int[] trainCapacities = new int[ trainCount ] ;
+
+        int perTrack = ( trainCount + 1 ) / 2 ;
+        for ( int i = 0 ; i < trainCount ; i++ )
+            {
+            int slot = i / 2 ;
+            trainPositions[ i ] = 1 + (int) ( ( (long) slot * routeLength ) / perTrack ) ;
+            trainDirections[ i ] = ( i % 2 ) == 0
+                                       ? Direction.OUTBOUND
+                                       : Direction.INBOUND ;
+            trainCapacities[ i ] = trainCapacity ;
+            }
+
+        return new Scenario( RouteStyle.LINEAR,
+                             routeLength,
+                             stationPositions,
+                             trainPositions,
+                             trainDirections,
+                             trainCapacities,
+                             new int[] { passengersPerTick, passengersPerTick },
+                             new int[] { passengersPerTick, passengersPerTick },
+                             ticks,
+                             seed ) ;
+
+        }   // end uniform()
+
+
+    /**
+     * Build a copy of this scenario which uses a different seed - everything else is
+     * shared
+     *
+     * @param newSeed
+     *     the pseudo-random number generator seed for the copy
+     * @return the reseeded scenario
+     */
+    public Scenario withSeed( long newSeed )
+        {
+        return new Scenario( this.style,
+                             this.length,
+                             this.stationPositions,
+                             this.trainPositions,
+                             this.trainDirections,
+                             this.trainCapacities,
+                             new int[] { this.initialPassengersMinimum,
+                                         this.initialPassengersMaximum },
+                             new int[] { this.perTickPassengersMinimum,
+                                         this.perTickPassengersMaximum },
+                             this.ticks,
+                             newSeed,
+                             this.demand ) ;
+
+        }   // end withSeed()
+
+
+    /**
+     * Build a copy of this scenario which draws passengers from an origin-destination
+     * demand schedule - everything else is shared
+     *
+     * @param newDemand
+     *     the demand or {@code null} for uniform demand
+     * @return the copy
+     * @throws IllegalArgumentException
+     *     if the demand is for a different number of stations
+     */
+    public Scenario withDemand( DemandSchedule newDemand )
+        {
+        return new Scenario( this.style,
+                             this.length,
+                             this.stationPositions,
+                             this.trainPositions,
+                             this.trainDirections,
+                             this.trainCapacities,
+                             new int[] { this.initialPassengersMinimum,
+                                         this.initialPassengersMaximum },
+                             new int[] { this.perTickPassengersMinimum,
+                                         this.perTickPassengersMaximum },
+                             this.ticks,
+                             this.seed,
+                             newDemand ) ;
+
+        }   // end withDemand()
+
+
+    /*
+     * getters
+     */
+
+
+    /**
+     * @return the route style
+     */
+    public RouteStyle getStyle()
+        {
+        return this.style ;
+
+        }   // end getStyle()
+
+
+    /**
+     * @return the route length
+     */
+    public int getLength()
+        {
+        return this.length ;
+
+        }   // end getLength()
+
+
+    /**
+     * @return a copy of the station positions in station id order
+     */
+    public int[] getStationPositions()
+        {
+        return this.stationPositions.clone() ;
+
+        }   // end getStationPositions()
+
+
+    /**
+     * @return the number of stations
+     */
+    public int getStationCount()
+        {
+        return this.stationPositions.length ;
+
+        }   // end getStationCount()
+
+
+    /**
+     * @return the number of trains
+     */
+    public int getTrainCount()
+        {
+        return this.trainPositions.length ;
+
+        }   // end getTrainCount()
+
+
+    /**
+     * @param trainIndex
+     *     0-based index of the train
+     * @return the train's starting position
+     */
+    public int getTrainPosition( int trainIndex )
+        {
+        return this.trainPositions[ trainIndex ] ;
+
+        }   // end getTrainPosition()
+
+
+    /**
+     * @param trainIndex
+     *     0-based index of the train
+     * @return the train's starting direction
+     */
+    public Direction getTrainDirection( int trainIndex )
+        {
+        return this.trainDirections[ trainIndex ] ;
+
+        }   // end getTrainDirection()
+
+
+    /**
+     * @param trainIndex
+     *     0-based index of the train
+     * @return the train's capacity
+     */
+    public int getTrainCapacity( int trainIndex )
+        {
+        return this.trainCapacities[ trainIndex ] ;
+
+        }   // end getTrainCapacity()
+
+
+    /**
+     * @return the minimum number of passengers created during setup
+     */
+    public int getInitialPassengersMinimum()
+        {
+        return this.initialPassengersMinimum ;
+
+        }   // end getInitialPassengersMinimum()
+
+
+    /**
+     * @return the maximum number of passengers created during setup
+     */
+    public int getInitialPassengersMaximum()
+        {
+        return this.initialPassengersMaximum ;
+
+        }   // end getInitialPassengersMaximum()
+
+
+    /**
+     * @return the minimum number of passengers created each tick
+     */
+    public int getPerTickPassengersMinimum()
+        {
+        return this.perTickPassengersMinimum ;
+
+        }   // end getPerTickPassengersMinimum()
+
+
+    /**
+     * @return the maximum number of passengers created each tick
+     */
+    public int getPerTickPassengersMaximum()
+        {
+        return this.perTickPassengersMaximum ;
+
+        }   // end getPerTickPassengersMaximum()
+
+
+    /**
+     * @return the number of ticks to run
+     */
+    public int getTicks()
+        {
+        return this.ticks ;
+
+        }   // end getTicks()
+
+
+    /**
+     * @return the pseudo-random number generator seed
+     */
+    public long getSeed()
+        {
+        return this.seed ;
+
+        }   // end getSeed()
+
+
+    /**
+     * @return the origin-destination demand or {@code null} for uniform demand
+     */
+    public DemandSchedule getDemand()
+        {
+        return this.demand ;
+
+        }   // end getDemand()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+        {
+        return String.format( "%s: %s; length: %,d; stations: %,d; trains: %,d; passengers: %,d-%,d initial, %,d-%,d per tick; ticks: %,d; seed: %,d",
+                              getClass().getSimpleName(),
+                              this.style,
+                              this.length,
+                              this.stationPositions.length,
+                              this.trainPositions.length,
+                              this.initialPassengersMinimum,
+                              this.initialPassengersMaximum,
+                              this.perTickPassengersMinimum,
+                              this.perTickPassengersMaximum,
+                              this.ticks,
+                              this.seed ) ;
+
+        }   // end toString()
+
+
+    /**
+     * Test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( String[] args )
+        {
+        Scenario aScenario = Scenario.uniform( 5, 4, 3, 10, 2, 100, 42 ) ;
+
+        System.out.printf( "%s%n\tstations: %s%n",
+                           aScenario,
+                           Arrays.toString( aScenario.getStationPositions() ) ) ;
+
+        for ( int i = 0 ; i < aScenario.getTrainCount() ; i++ )
+            {
+            System.out.printf( "\ttrain %d: %,d %s capacity %,d%n",
+                               i + 1,
+                               aScenario.getTrainPosition( i ),
+                               aScenario.getTrainDirection( i ),
+                               aScenario.getTrainCapacity( i ) ) ;
+            }
+
+        }   // end main()
+
+    }   // end class Scenario
@@ -0,0 +1,390 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Configuration ;
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+
+import java.io.IOException ;
+import java.nio.BufferUnderflowException ;
+import java.nio.ByteBuffer ;
+import java.nio.ByteOrder ;
+import java.nio.file.Files ;
+import java.nio.file.NoSuchFileException ;
+import java.nio.file.Path ;
+import java.nio.file.Paths ;
+import java.nio.file.StandardCopyOption ;
+import java.security.MessageDigest ;
+import java.security.NoSuchAlgorithmException ;
+import java.util.Arrays ;
+
+/**
+ * Cache of compiled configurations. The first time a configuration file's content
+ * is seen it is parsed by {@code Configuration} and the resulting
+ * {@link Scenario} is written to a small binary file named after the SHA-256 hash
+ * of the content; later runs with the same content decode that file instead of
+ * parsing the text. Editing the configuration changes the hash, so a stale entry is
+ * never used.
+ * <p>
+ * A demand schedule is not part of the configuration file and isn't cached.
+ * <p>
+ * File layout (little-endian):
+ *
+ * <pre>
+ * int     MAGIC
+ * int     VERSION
+ * byte[]  SHA-256 of the configuration file (32 bytes)
+ * int     route style ordinal
+ * int     route length
+ * int     station count, then each station's position
+ * int     train count, then each train's position, direction ordinal and capacity
+ * int     initial passengers minimum and maximum
+ * int     per tick passengers minimum and maximum
+ * int     ticks
+ * long    seed
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class ScenarioCache
+    {
+
+    /** identifies a compiled configuration file - "TSCC" */
+    private static final int MAGIC = 0x54534343 ;
+
+    /** compiled configuration format version */
+    private static final int VERSION = 1 ;
+
+    /** length of a content hash */
+    private static final int HASH_SIZE = 32 ;
+
+    /** file name extension for compiled configurations */
+    private static final String EXTENSION = ".scenario" ;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray() ;
+
+    private static final RouteStyle[] ROUTE_STYLES = RouteStyle.values() ;
+    private static final Direction[] DIRECTIONS = Direction.values() ;
+
+
+    /**
+     * Utility class - not instantiable
+     */
+    private ScenarioCache()
+        {
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Load the scenario for a configuration file, compiling and caching it if its
+     * content hasn't been seen before
+     * 
+     * @param configurationFile
+     *     the text configuration file {@code Configuration} reads
+     * @param cacheDirectory
+     *     the folder holding compiled configurations - created if necessary
+     * @return the scenario the configuration describes
+     * @throws IOException
+     *     if the configuration file can't be read or the compiled configuration
+     *     can't be written
+     */
+    static Scenario load( Path configurationFile,
+                          Path cacheDirectory ) throws IOException
+        {
+        byte[] contentHash = hash( Files.readAllBytes( configurationFile ) ) ;
+        Path compiledFile = compiledFile( cacheDirectory, contentHash ) ;
+
+        try
+            {
+            Scenario cachedScenario = decode( ByteBuffer.wrap( Files.readAllBytes( compiledFile ) ),
+                                              contentHash ) ;
+            if ( cachedScenario != null )
+                {
+                return cachedScenario ;
+                }
+            }
+        catch ( NoSuchFileException e )
+            {
+            // not compiled yet
+            }
+
+        // not cached or unreadable - parse the text and replace the entry
+        Scenario parsedScenario = Scenario.fromConfiguration( new Configuration() ) ;
+
+        Files.createDirectories( cacheDirectory ) ;
+        Path temporaryFile = compiledFile.resolveSibling( compiledFile.getFileName() + ".tmp" ) ;
+        Files.write( temporaryFile, encode( parsedScenario, contentHash ) ) ;
+        Files.move( temporaryFile,
+                    compiledFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE ) ;
+
+        return parsedScenario ;
+
+        }   // end load()
+
+
+    /**
+     * @param cacheDirectory
+     *     the folder holding compiled configurations
+     * @param contentHash
+     *     the configuration file's hash
+     * @return the compiled configuration's file
+     */
+    static Path compiledFile( Path cacheDirectory,
+                              byte[] contentHash )
+        {
+        StringBuilder fileName = new StringBuilder( ( contentHash.length * 2 ) +
+                                                    EXTENSION.length() ) ;
+        for ( byte aByte : contentHash )
+            {
+            fileName.append( HEX_DIGITS[ ( aByte >> 4 ) & 0xF ] )
+                    .append( HEX_DIGITS[ aByte & 0xF ] ) ;
+            }
+
+        return cacheDirectory.resolve( fileName.append( EXTENSION ).toString() ) ;
+
+        }   // end compiledFile()
+
+
+    /**
+     * @param content
+     *     a configuration file's content
+     * @return its SHA-256 hash
+     */
+    static byte[] hash( byte[] content )
+        {
+        try
+            {
+            return MessageDigest.getInstance( "SHA-256" ).digest( content ) ;
+            }
+        catch ( NoSuchAlgorithmException e )
+            {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException( e ) ;
+            }
+
+        }   // end hash()
+
+
+    /**
+     * Encode a scenario
+     * 
+     * @param aScenario
+     *     the scenario - its demand schedule, if any, isn't encoded
+     * @param contentHash
+     *     the hash of the configuration it came from
+     * @return the compiled configuration
+     */
+    static byte[] encode( Scenario aScenario,
+                          byte[] contentHash )
+        {
+        int stationCount = aScenario.getStationCount() ;
+        int trainCount = aScenario.getTrainCount() ;
+
+        ByteBuffer compiled = ByteBuffer.allocate( ( 2 * Integer.BYTES ) +
+                                                   HASH_SIZE +
+                                                   ( ( 3 + stationCount ) * Integer.BYTES ) +
+                                                   ( ( 1 + ( 3 * trainCount ) ) * Integer.BYTES ) +
+                                                   ( 5 * Integer.BYTES ) +
+                                                   Long.BYTES )
+                                        .order( ByteOrder.LITTLE_ENDIAN ) ;
+
+        compiled.putInt( MAGIC )
+                .putInt( VERSION )
+                .put( contentHash, 0, HASH_SIZE )
+                .putInt( aScenario.getStyle().ordinal() )
+                .putInt( aScenario.getLength() ) ;
+
+        compiled.putInt( stationCount ) ;
+        for ( int stationPosition : aScenario.getStationPositions() )
+            {
+            compiled.putInt( stationPosition ) ;
+            }
+
+        compiled.putInt( trainCount ) ;
+        for ( int trainIndex = 0 ; trainIndex < trainCount ; trainIndex++ )
+            {
+            compiled.putInt( aScenario.getTrainPosition( trainIndex ) )
+                    .putInt( aScenario.getTrainDirection( trainIndex ).ordinal() )
+                    .putInt( aScenario.getTrainCapacity( trainIndex ) ) ;
+            }
+
+        compiled.putInt( aScenario.getInitialPassengersMinimum() )
+                .putInt( aScenario.getInitialPassengersMaximum() )
+                .putInt( aScenario.getPerTickPassengersMinimum() )
+                .putInt( aScenario.getPerTickPassengersMaximum() )
+                .putInt( aScenario.getTicks() )
+                .putLong( aScenario.getSeed() ) ;
+
+        return compiled.array() ;
+
+        }   // end encode()
+
+
+    /**
+     * Decode a compiled configuration
+     * 
+     * @param compiled
+     *     the file's content
+     * @param contentHash
+     *     the hash of the configuration file it must have come from
+     * @return the scenario or {@code null} if the content is for another
+     *     configuration, another format version or is damaged
+     */
+    static Scenario decode( ByteBuffer compiled,
+                            byte[] contentHash )
+        {
+        compiled.order( ByteOrder.LITTLE_ENDIAN ) ;
+
+        try
+            {
+            if ( ( compiled.getInt() != MAGIC ) || ( compiled.getInt() != VERSION ) )
+                {
+                return null ;
+                }
+
+            byte[] compiledHash = new byte[ HASH_SIZE ] ;
+            compiled.get( compiledHash ) ;
+            if ( ! Arrays.equals( compiledHash, contentHash ) )
+                {
+                return null ;
+                }
+
+            RouteStyle style = ROUTE_STYLES[ compiled.getInt() ] ;
+            int length = compiled.getInt() ;
+
+            int[] stationPositions = new int[ compiled.getInt() ] ;
+            compiled.asIntBuffer().get( stationPositions ) ;
+            compiled.position( compiled.position() + ( stationPositions.length * Integer.BYTES ) ) ;
+
+            int trainCount = compiled.getInt() ;
+            int[] trainPositions = new int[ trainCount ] ;
+            Direction[] trainDirections = new Direction[ trainCount ] ;
+            int[] trainCapacities = new int[ trainCount ] ;
+            for ( int trainIndex = 0 ; trainIndex < trainCount ; trainIndex++ )
+                {
+                trainPositions[ trainIndex ] = compiled.getInt() ;
+                trainDirections[ trainIndex ] = DIRECTIONS[ compiled.getInt() ] ;
+                trainCapacities[ trainIndex ] = compiled.getInt() ;
+                }
+
+            int[] initialPassengers = { compiled.getInt(), compiled.getInt() } ;
+            int[] perTickPassengers = { compiled.getInt(), compiled.getInt() } ;
+            int ticks = compiled.getInt() ;
+            long seed = compiled.getLong() ;
+
+            if ( compiled.hasRemaining() )
+                {
+                return null ;
+                }
+
+            return new Scenario( style,
+                                 length,
+                                 stationPositions,
+                                 trainPositions,
+                                 trainDirections,
+                                 trainCapacities,
+                                 initialPassengers,
+                                 perTickPassengers,
+                                 ticks,
+                                 seed ) ;
+            }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e )
+            {
+            return null ;
+            }
+
+        }   // end decode()
+
+
+    /**
+     * Test driver - times parsing a configuration against loading it from the cache
+     * and checks they produce the same scenario
+     * 
+     * @param args
+     *     {@code configurationFile [cacheDirectory [loads]]} - the configuration file
+     *     must be the one {@code Configuration} reads
+     * @throws IOException
+     *     if the configuration can't be read or the cache can't be written
+     * @throws IllegalStateException
+     *     if the cached scenario differs from the parsed one
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        if ( args.length == 0 )
+            {
+            System.out.println( "usage: ScenarioCache configurationFile [cacheDirectory [loads]]" ) ;
+            return ;
+            }
+
+        Path configurationFile = Paths.get( args[ 0 ] ) ;
+        Path cacheDirectory = Paths.get( args.length > 1 ? args[ 1 ] : "cache" ) ;
+        int loads = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 10_000 ;
+
+        // start cold so the first load compiles
+        byte[] contentHash = hash( Files.readAllBytes( configurationFile ) ) ;
+        Files.deleteIfExists( compiledFile( cacheDirectory, contentHash ) ) ;
+
+        Scenario compiledScenario = load( configurationFile, cacheDirectory ) ;
+        Scenario parsedScenario = null ;
+        Scenario cachedScenario = null ;
+
+        long startTime = System.nanoTime() ;
+        for ( int i = 0 ; i < loads ; i++ )
+            {
+            parsedScenario = Scenario.fromConfiguration( new Configuration() ) ;
+            }
+        long parseNanos = System.nanoTime() - startTime ;
+
+        startTime = System.nanoTime() ;
+        for ( int i = 0 ; i < loads ; i++ )
+            {
+            cachedScenario = load( configurationFile, cacheDirectory ) ;
+            }
+        long cachedNanos = System.nanoTime() - startTime ;
+
+        System.out.printf( "%s%n%ncompiled to %s (%,d bytes)%n",
+                           compiledScenario,
+                           compiledFile( cacheDirectory, contentHash ),
+                           Files.size( compiledFile( cacheDirectory, contentHash ) ) ) ;
+        System.out.printf( "parse:  %,10.1f us/load%n", parseNanos / 1e3 / loads ) ;
+        System.out.printf( "cached: %,10.1f us/load%n%n", cachedNanos / 1e3 / loads ) ;
+
+        if ( ! Arrays.equals( encode( parsedScenario, contentHash ),
+                              encode( cachedScenario, contentHash ) ) )
+            {
+            throw new IllegalStateException( "cached scenario differs from the parsed one" ) ;
+            }
+
+        System.out.println( "cached scenario matches" ) ;
+
+        }   // end main()
+
+    }   // end class ScenarioCache
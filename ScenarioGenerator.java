@@ -0,0 +1,444 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+
+import java.util.Arrays ;
+import java.util.Random ;
+
+/**
+ * Generates large, valid scenarios for scaling tests: from a hundred to millions of
+ * stations, up to tens of thousands of trains, and passenger arrival rates set
+ * relative to what the trains can carry so queues are either stable or deliberately
+ * overloaded.
+ * <p>
+ * Stations are spaced a fixed distance apart, optionally jittered. On a LINEAR route
+ * there's a spare position beyond the first and the last station so trains serve the
+ * end stations in both directions wherever they turn around, and the trains are
+ * spread evenly around the loop - out along the OUTBOUND track and back along the
+ * INBOUND track. On a CIRCULAR route the last gap leads back to the first station and
+ * the trains are split between the tracks, spread evenly around each. Either way no
+ * two trains share a position on a track and, since every train moves one position
+ * per tick, they keep their spacing for the whole run.
+ * <p>
+ * Passengers arrive as a Poisson process with every pair of different stations
+ * equally likely. With that demand a quarter of all passengers on a LINEAR route
+ * cross its middle in each direction, and each train passes a point in each
+ * direction once per trip around the loop of {@code 2 * ( length - 1 )} ticks, so the
+ * busiest segment saturates at the critical rate of
+ * {@code 2 * trains * capacity / ( length - 1 )} passengers per tick. On a CIRCULAR
+ * route passengers take the shorter way around, a quarter of its length on average,
+ * which loads every segment equally and gives a critical rate of
+ * {@code 4 * trains * capacity / length}. A utilization below 1 keeps the queues
+ * stable; above 1 they grow without bound.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 CIRCULAR routes
+ */
+public final class ScenarioGenerator
+    {
+
+    /**
+     * Utility class - not instantiable
+     */
+    private ScenarioGenerator()
+        {
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Build a LINEAR scenario
+     *
+     * @param stationCount
+     *     number of stations
+     * @param stationSpacing
+     *     mean distance between adjacent stations
+     * @param spacingJitter
+     *     how far each gap may differ from the mean, as a fraction of it - 0 spaces
+     *     the stations evenly
+     * @param trainCount
+     *     number of trains
+     * @param trainCapacity
+     *     capacity of every train
+     * @param utilization
+     *     the passenger arrival rate as a fraction of the critical rate
+     * @param ticks
+     *     the number of ticks to run
+     * @param seed
+     *     seeds both the station jitter and the simulation's pseudo-random number
+     *     generator
+     * @return the generated scenario
+     * @throws IllegalArgumentException
+     *     if a parameter is out of range or the trains don't fit on the route
+     */
+    public static Scenario generate( int stationCount,
+                                     int stationSpacing,
+                                     double spacingJitter,
+                                     int trainCount,
+                                     int trainCapacity,
+                                     double utilization,
+                                     int ticks,
+                                     long seed )
+        {
+        return generate( RouteStyle.LINEAR,
+                         stationCount,
+                         stationSpacing,
+                         spacingJitter,
+                         trainCount,
+                         trainCapacity,
+                         utilization,
+                         ticks,
+                         seed ) ;
+
+        }   // end generate() LINEAR
+
+
+    /**
+     * Build a scenario
+     *
+     * @param style
+     *     the route style
+     * @param stationCount
+     *     number of stations
+     * @param stationSpacing
+     *     mean distance between adjacent stations
+     * @param spacingJitter
+     *     how far each gap may differ from the mean, as a fraction of it - 0 spaces
+     *     the stations evenly
+     * @param trainCount
+     *     number of trains
+     * @param trainCapacity
+     *     capacity of every train
+     * @param utilization
+     *     the passenger arrival rate as a fraction of the critical rate
+     * @param ticks
+     *     the number of ticks to run
+     * @param seed
+     *     seeds both the station jitter and the simulation's pseudo-random number
+     *     generator
+     * @return the generated scenario
+     * @throws IllegalArgumentException
+     *     if a parameter is out of range or the trains don't fit on the route
+     */
+    public static Scenario generate( RouteStyle style,
+                                     int stationCount,
+                                     int stationSpacing,
+                                     double spacingJitter,
+                                     int trainCount,
+                                     int trainCapacity,
+                                     double utilization,
+                                     int ticks,
+                                     long seed )
+        {
+        if ( ( stationCount < 2 ) || ( stationSpacing < 1 ) ||
+             ( spacingJitter < 0.0 ) || ( spacingJitter >= 1.0 ) ||
+             ( trainCount < 1 ) || ( trainCapacity < 1 ) || ( utilization < 0.0 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't generate %,d stations %,d (+/-%.0f%%) apart with %,d trains of capacity %,d at %.2f utilization",
+                                                               stationCount,
+                                                               stationSpacing,
+                                                               spacingJitter * 100.0,
+                                                               trainCount,
+                                                               trainCapacity,
+                                                               utilization ) ) ;
+            }
+
+        boolean circular = style == RouteStyle.CIRCULAR ;
+
+        // stations - a LINEAR route extends one position beyond the first and the
+        // last, a CIRCULAR route has one more gap back to the first
+        Random layoutRandom = new Random( seed ) ;
+        int[] stationPositions = new int[ stationCount ] ;
+        stationPositions[ 0 ] = circular ? 1 : 2 ;
+
+        for ( int i = 1 ; i < stationCount ; i++ )
+            {
+            stationPositions[ i ] = stationPositions[ i - 1 ] +
+                                    drawGap( layoutRandom, stationSpacing, spacingJitter ) ;
+            }
+
+        int routeLength = stationPositions[ stationCount - 1 ] +
+                          ( circular
+                                ? drawGap( layoutRandom, stationSpacing, spacingJitter ) - 1
+                                : 1 ) ;
+
+        // trains - evenly around the loop, one position per track at most
+        long loopLength = circular
+                              ? 2L * routeLength
+                              : 2L * ( routeLength - 1 ) ;
+        if ( trainCount > loopLength )
+            {
+            throw new IllegalArgumentException( String.format( "can't place %,d trains on a route of length %,d - at most %,d fit",
+                                                               trainCount,
+                                                               routeLength,
+                                                               loopLength ) ) ;
+            }
+
+        int[] trainPositions = new int[ trainCount ] ;
+        Direction[] trainDirections = new Direction[ trainCount ] ;
+        int[] trainCapacities = new int[ trainCount ] ;
+        Arrays.fill( trainCapacities, trainCapacity ) ;
+
+        int clockwiseCount = ( trainCount + 1 ) / 2 ;
+
+        for ( int i = 0 ; i < trainCount ; i++ )
+            {
+            if ( circular )
+                {
+                // alternate tracks, spread evenly around each
+                boolean clockwise = i < clockwiseCount ;
+                int onTrack = clockwise ? i : i - clockwiseCount ;
+                int trackCount = clockwise ? clockwiseCount : trainCount - clockwiseCount ;
+
+                trainPositions[ i ] = 1 + (int) ( ( (long) onTrack * routeLength ) / trackCount ) ;
+                trainDirections[ i ] = clockwise
+                                           ? Direction.CLOCKWISE
+                                           : Direction.CLOCKWISE.reverse() ;
+                continue ;
+                }
+
+            long offset = ( i * loopLength ) / trainCount ;
+
+            if ( offset < ( routeLength - 1 ) )
+                {
+                trainPositions[ i ] = 1 + (int) offset ;
+                trainDirections[ i ] = Direction.OUTBOUND ;
+                }
+            else
+                {
+                trainPositions[ i ] = routeLength - (int) ( offset - ( routeLength - 1 ) ) ;
+                trainDirections[ i ] = Direction.INBOUND ;
+                }
+            }
+
+        // passengers - Poisson arrivals at the requested fraction of the critical
+        // rate, with the same number waiting at the start
+        double passengersPerTick = utilization *
+                                   criticalRate( style, routeLength, trainCount, trainCapacity ) ;
+        int initialPassengers = (int) Math.round( passengersPerTick ) ;
+
+        Scenario theScenario = new Scenario( style,
+                                             routeLength,
+                                             stationPositions,
+                                             trainPositions,
+                                             trainDirections,
+                                             trainCapacities,
+                                             new int[] { initialPassengers, initialPassengers },
+                                             new int[] { initialPassengers, initialPassengers },
+                                             ticks,
+                                             seed ) ;
+
+        return theScenario.withDemand( DemandSchedule.constant( DemandMatrix.uniform( stationCount,
+                                                                                      passengersPerTick ) ) ) ;
+
+        }   // end generate()
+
+
+    /**
+     * Draw the distance between adjacent stations
+     *
+     * @param layoutRandom
+     *     the source of jitter
+     * @param stationSpacing
+     *     mean distance between adjacent stations
+     * @param spacingJitter
+     *     how far the gap may differ from the mean, as a fraction of it
+     * @return the gap - at least 1
+     */
+    private static int drawGap( Random layoutRandom,
+                                int stationSpacing,
+                                double spacingJitter )
+        {
+        int gap = stationSpacing ;
+        if ( spacingJitter > 0.0 )
+            {
+            gap += (int) Math.round( ( ( layoutRandom.nextDouble() * 2.0 ) - 1.0 ) *
+                                     spacingJitter *
+                                     stationSpacing ) ;
+            }
+
+        return Math.max( 1, gap ) ;
+
+        }   // end drawGap()
+
+
+    /**
+     * Determine the arrival rate at which the busiest segment of a route is saturated
+     * under uniform demand
+     *
+     * @param style
+     *     the route style
+     * @param routeLength
+     *     the route length
+     * @param trainCount
+     *     number of trains
+     * @param trainCapacity
+     *     capacity of every train
+     * @return passengers per tick
+     */
+    public static double criticalRate( RouteStyle style,
+                                       int routeLength,
+                                       int trainCount,
+                                       int trainCapacity )
+        {
+        if ( style == RouteStyle.CIRCULAR )
+            {
+            return ( 4.0 * trainCount * trainCapacity ) / Math.max( 1, routeLength ) ;
+            }
+
+        return ( 2.0 * trainCount * trainCapacity ) / Math.max( 1, routeLength - 1 ) ;
+
+        }   // end criticalRate()
+
+
+    /**
+     * Scaling driver - generates and runs every combination of sizes and
+     * utilizations, reporting setup time, tick rate, cost per train move and the
+     * number of passengers in the system half way through and at the end (steady
+     * when stable, growing when overloaded - though only once the run spans a couple
+     * of trips around the loop)
+     *
+     * @param args
+     *     optional {@code stations trains utilizations ticks style}, the first three
+     *     as comma separated lists
+     */
+    public static void main( String[] args )
+        {
+        int[] stationCounts = args.length > 0
+                                  ? parseInts( args[ 0 ] )
+                                  : new int[] { 100, 1_000, 10_000, 100_000 } ;
+        int[] trainCounts = args.length > 1
+                                ? parseInts( args[ 1 ] )
+                                : new int[] { 10, 100, 1_000, 10_000 } ;
+        double[] utilizations = args.length > 2
+                                    ? Arrays.stream( args[ 2 ].split( "," ) )
+                                            .mapToDouble( Double::parseDouble )
+                                            .toArray()
+                                    : new double[] { 0.8, 1.5 } ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 1_000 ;
+        RouteStyle style = args.length > 4
+                               ? RouteStyle.valueOf( args[ 4 ] )
+                               : RouteStyle.LINEAR ;
+
+        System.out.printf( "%9s %7s %5s %10s | %10s %12s %12s | %12s %12s%n",
+                           "stations",
+                           "trains",
+                           "util",
+                           "rate",
+                           "setup ms",
+                           "ticks/sec",
+                           "ns/move",
+                           "in system/2",
+                           "in system" ) ;
+
+        for ( int stationCount : stationCounts )
+            {
+            for ( int trainCount : trainCounts )
+                {
+                for ( double utilization : utilizations )
+                    {
+                    Scenario theScenario ;
+                    try
+                        {
+                        theScenario = generate( style, stationCount, 10, 0.5, trainCount, 200, utilization, ticks, 2_021L ) ;
+                        }
+                    catch ( IllegalArgumentException e )
+                        {
+                        System.out.printf( "%,9d %,7d %5.2f | skipped: %s%n",
+                                           stationCount,
+                                           trainCount,
+                                           utilization,
+                                           e.getMessage() ) ;
+                        continue ;
+                        }
+
+                    // the passenger store grows with demand - report where memory runs
+                    // out and carry on
+                    TrainSimulation theSimulation ;
+                    long setupNanos ;
+                    long runNanos ;
+                    int halfwayCount = 0 ;
+                    try
+                        {
+                        long startTime = System.nanoTime() ;
+                        theSimulation = new TrainSimulation( theScenario ) ;
+                        setupNanos = System.nanoTime() - startTime ;
+
+                        startTime = System.nanoTime() ;
+                        for ( int tick = 1 ; tick <= ticks ; tick++ )
+                            {
+                            theSimulation.tick() ;
+                            if ( tick == ( ticks / 2 ) )
+                                {
+                                halfwayCount = theSimulation.getPassengerStore().size() ;
+                                }
+                            }
+                        runNanos = System.nanoTime() - startTime ;
+                        }
+                    catch ( OutOfMemoryError e )
+                        {
+                        System.out.printf( "%,9d %,7d %5.2f | out of memory%n",
+                                           stationCount,
+                                           trainCount,
+                                           utilization ) ;
+                        continue ;
+                        }
+
+                    System.out.printf( "%,9d %,7d %5.2f %,10.3f | %,10.1f %,12.0f %,12.1f | %,12d %,12d%n",
+                                       stationCount,
+                                       trainCount,
+                                       utilization,
+                                       theScenario.getDemand().matrixAt( 0 ).getPassengersPerTick(),
+                                       setupNanos / 1e6,
+                                       ( ticks * 1e9 ) / runNanos,
+                                       (double) runNanos / ( (long) ticks * trainCount ),
+                                       halfwayCount,
+                                       theSimulation.getPassengerStore().size() ) ;
+                    }
+                }
+            }
+
+        }   // end main()
+
+
+    /**
+     * @param list
+     *     comma separated integers
+     * @return the integers
+     */
+    private static int[] parseInts( String list )
+        {
+        return Arrays.stream( list.split( "," ) )
+                     .mapToInt( Integer::parseInt )
+                     .toArray() ;
+
+        }   // end parseInts()
+
+    }   // end class ScenarioGenerator
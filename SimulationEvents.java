@@ -0,0 +1,464 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.io.IOException ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.util.Map ;
+import java.util.TreeMap ;
+
+import jdk.jfr.Category ;
+import jdk.jfr.DataAmount ;
+import jdk.jfr.Description ;
+import jdk.jfr.Enabled ;
+import jdk.jfr.Event ;
+import jdk.jfr.EventType ;
+import jdk.jfr.FlightRecorder ;
+import jdk.jfr.Label ;
+import jdk.jfr.Name ;
+import jdk.jfr.Recording ;
+import jdk.jfr.StackTrace ;
+import jdk.jfr.Timespan ;
+import jdk.jfr.consumer.RecordedEvent ;
+import jdk.jfr.consumer.RecordingFile ;
+
+/**
+ * Java Flight Recorder events for the phases of a simulation, so slow ticks can be
+ * lined up with garbage collection pauses and with the stations and trains involved
+ * using standard JDK tooling - {@code jcmd <pid> JFR.start}, {@code -XX:StartFlightRecording},
+ * JDK Mission Control or {@code jfr print}.
+ * <p>
+ * Every event is listed under the "Train Simulation" category and can be enabled,
+ * disabled or given a threshold in a JFR settings file by its name, e.g.
+ * {@code edu.wit.scds.comp2000.queue.app.StationStop#threshold=1 ms}. Station
+ * entries happen once per passenger so they are disabled unless a recording enables
+ * them.
+ * <p>
+ * Loading the first event class starts JFR's own machinery - a few hundred
+ * milliseconds - even if nothing is ever recorded, so every call site first asks
+ * {@link #isRecording()} and leaves the event classes unloaded until a recording
+ * has been started. After that, the events created once per stop or per passenger
+ * are only created if their type is enabled - {@link #isStationStopEnabled()} and
+ * {@link #isStationEnterEnabled()} - so a disabled one costs its call site a check
+ * and allocates nothing. The other events are created once per tick or less and
+ * check {@code shouldCommit()} themselves.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class SimulationEvents
+    {
+
+    /** category every simulation event is listed under */
+    private static final String CATEGORY = "Train Simulation" ;
+
+    /** prefix for every event name */
+    private static final String NAME_PREFIX = "edu.wit.scds.comp2000.queue.app." ;
+
+
+    /**
+     * Utility class - not instantiable
+     */
+    private SimulationEvents()
+        {
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Determine whether the flight recorder is running in this JVM - it starts with
+     * the first recording, whether from {@code -XX:StartFlightRecording},
+     * {@code jcmd} or the {@code jdk.jfr} API, and stays up afterward
+     *
+     * @return true if events should be created and offered to the recorder
+     */
+    static boolean isRecording()
+        {
+        return FlightRecorder.isInitialized() ;
+
+        }   // end isRecording()
+
+
+    /**
+     * Determine whether station stops are being recorded
+     *
+     * @return true if a {@code StationStopEvent} should be created
+     */
+    static boolean isStationStopEnabled()
+        {
+        return isRecording() && FrequentEventTypes.STATION_STOP.isEnabled() ;
+
+        }   // end isStationStopEnabled()
+
+
+    /**
+     * Determine whether passengers entering stations are being recorded
+     *
+     * @return true if a {@code StationEnterEvent} should be created
+     */
+    static boolean isStationEnterEnabled()
+        {
+        return isRecording() && FrequentEventTypes.STATION_ENTER.isEnabled() ;
+
+        }   // end isStationEnterEnabled()
+
+
+    /**
+     * Types of the events created once per stop or per passenger - looked up, which
+     * loads the event classes, the first time one is checked while recording
+     */
+    private static final class FrequentEventTypes
+        {
+
+        static final EventType STATION_STOP = EventType.getEventType( StationStopEvent.class ) ;
+
+        static final EventType STATION_ENTER = EventType.getEventType( StationEnterEvent.class ) ;
+
+        }   // end class FrequentEventTypes
+
+
+    /**
+     * One tick of a tick loop - passenger generation, train moves and station stops.
+     * The event-driven engine doesn't simulate ticks one at a time, so it records
+     * only station stops and generation batches.
+     */
+    @Name( NAME_PREFIX + "Tick" )
+    @Label( "Tick" )
+    @Category( CATEGORY )
+    @Description( "One tick: passenger generation, train moves and station stops" )
+    @StackTrace( false )
+    static final class TickEvent extends Event
+        {
+
+        @Label( "Tick" )
+        int tick ;
+
+        @Label( "Engine" )
+        String engine ;
+
+        }   // end class TickEvent
+
+
+    /**
+     * A train's stop at a station, from the start of offloading to the end of the
+     * stop's bookkeeping. With the parallel engine the stop is serviced on a worker
+     * thread and completed on the simulation thread, so the event's duration also
+     * includes waiting for the other platforms; the offload and board durations
+     * don't.
+     */
+    @Name( NAME_PREFIX + "StationStop" )
+    @Label( "Station Stop" )
+    @Category( CATEGORY )
+    @Description( "A train's stop at a station: passengers offloaded and boarded" )
+    @StackTrace( false )
+    static final class StationStopEvent extends Event
+        {
+
+        @Label( "Tick" )
+        int tick ;
+
+        @Label( "Train" )
+        int trainId ;
+
+        @Label( "Station" )
+        int stationId ;
+
+        @Label( "Offloaded" )
+        int offloaded ;
+
+        @Label( "Boarded" )
+        int boarded ;
+
+        @Label( "On Board" )
+        @Description( "Passengers on board as the train leaves" )
+        int onBoard ;
+
+        @Label( "Offload Duration" )
+        @Timespan( Timespan.NANOSECONDS )
+        long offloadDuration ;
+
+        @Label( "Board Duration" )
+        @Timespan( Timespan.NANOSECONDS )
+        long boardDuration ;
+
+        }   // end class StationStopEvent
+
+
+    /**
+     * A passenger arriving at a station and joining a platform's queue - disabled
+     * unless a recording enables it
+     */
+    @Name( NAME_PREFIX + "StationEnter" )
+    @Label( "Station Enter" )
+    @Category( CATEGORY )
+    @Description( "A passenger joining a platform's queue" )
+    @StackTrace( false )
+    @Enabled( false )
+    static final class StationEnterEvent extends Event
+        {
+
+        @Label( "Tick" )
+        int tick ;
+
+        @Label( "Station" )
+        int stationId ;
+
+        @Label( "Destination" )
+        int destinationId ;
+
+        @Label( "Passenger" )
+        long passenger ;
+
+        @Label( "Platform Depth" )
+        @Description( "Passengers on the platform, including this one" )
+        int platformDepth ;
+
+        }   // end class StationEnterEvent
+
+
+    /**
+     * One tick's arriving passengers created and sent to their stations
+     */
+    @Name( NAME_PREFIX + "PassengerGeneration" )
+    @Label( "Passenger Generation" )
+    @Category( CATEGORY )
+    @Description( "One tick's arriving passengers created and sent to their stations" )
+    @StackTrace( false )
+    static final class PassengerGenerationEvent extends Event
+        {
+
+        @Label( "Tick" )
+        int tick ;
+
+        @Label( "Passengers" )
+        int passengers ;
+
+        @Label( "Drawn Ahead" )
+        @Description( "Stations were drawn ahead of time by the generator thread" )
+        boolean drawnAhead ;
+
+        }   // end class PassengerGenerationEvent
+
+
+    /**
+     * A binary snapshot of the route written to the snapshot file's buffer
+     */
+    @Name( NAME_PREFIX + "SnapshotWrite" )
+    @Label( "Snapshot Write" )
+    @Category( CATEGORY )
+    @Description( "A binary snapshot of the route's stations and trains" )
+    @StackTrace( false )
+    static final class SnapshotWriteEvent extends Event
+        {
+
+        @Label( "Tick" )
+        int tick ;
+
+        @Label( "Label" )
+        String label ;
+
+        @Label( "Bytes" )
+        @DataAmount
+        long bytes ;
+
+        @Label( "Stations" )
+        int stations ;
+
+        @Label( "Trains" )
+        int trains ;
+
+        }   // end class SnapshotWriteEvent
+
+
+    /**
+     * Test driver - records a journaled run with every simulation event enabled and
+     * checks the event counts against the journal read back, then records a run
+     * with station stops and entries disabled and checks none are recorded;
+     * recording mustn't change the results
+     * 
+     * @param args
+     *     optional {@code stations trains utilization ticks}
+     * @throws IOException
+     *     if the recording or the journal can't be written or read
+     * @throws IllegalStateException
+     *     if a count is wrong or recording changed the results
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 50 ;
+        int trains = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 20 ;
+        double utilization = args.length > 2 ? Double.parseDouble( args[ 2 ] ) : 0.8 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 2_000 ;
+
+        Scenario theScenario = ScenarioGenerator.generate( stations,
+                                                           10,
+                                                           0.5,
+                                                           trains,
+                                                           100,
+                                                           utilization,
+                                                           ticks,
+                                                           2_021L ) ;
+
+        TrainSimulation referenceSimulation = new TrainSimulation( theScenario ) ;
+        referenceSimulation.run() ;
+        String referenceStatistics = referenceSimulation.getStatistics().toString() ;
+
+        Path recordingFile = Files.createTempFile( "TrainSimulation", ".jfr" ) ;
+        String problem = null ;
+
+        for ( SimulationOptions.Engine anEngine : SimulationOptions.Engine.values() )
+            {
+            for ( boolean stopsAndEntries : new boolean[] { true, false } )
+                {
+                Path journalDirectory = Files.createTempDirectory( "TrainSimulation-journal" ) ;
+
+                SimulationOptions theOptions = new SimulationOptions() ;
+                theOptions.setEngine( anEngine ) ;
+                theOptions.setJournalDirectory( journalDirectory ) ;
+
+                TrainSimulation recordedSimulation ;
+                try ( Recording theRecording = new Recording() )
+                    {
+                    for ( String anEvent : new String[] { "Tick",
+                                                          "StationStop",
+                                                          "StationEnter",
+                                                          "PassengerGeneration",
+                                                          "SnapshotWrite" } )
+                        {
+                        theRecording.enable( NAME_PREFIX + anEvent ) ;
+                        }
+                    if ( ! stopsAndEntries )
+                        {
+                        theRecording.disable( NAME_PREFIX + "StationStop" ) ;
+                        theRecording.disable( NAME_PREFIX + "StationEnter" ) ;
+                        }
+                    theRecording.start() ;
+
+                    recordedSimulation = new TrainSimulation( theScenario, theOptions ) ;
+                    recordedSimulation.run() ;
+                    recordedSimulation.closeJournal() ;
+
+                    // a snapshot straight to a scratch file
+                    Path snapshotFile = Files.createTempFile( "TrainSimulation", ".snapshot" ) ;
+                    try ( SnapshotWriter theWriter = new SnapshotWriter( snapshotFile ) )
+                        {
+                        theWriter.write( "concluding state",
+                                         recordedSimulation.getCurrentTime(),
+                                         recordedSimulation.getTrainRoute(),
+                                         recordedSimulation.getPassengerStore() ) ;
+                        }
+                    Files.delete( snapshotFile ) ;
+
+                    theRecording.stop() ;
+                    theRecording.dump( recordingFile ) ;
+                    }
+
+                Map<String, Long> counts = new TreeMap<>() ;
+                for ( RecordedEvent anEvent : RecordingFile.readAllEvents( recordingFile ) )
+                    {
+                    counts.merge( anEvent.getEventType().getName().substring( NAME_PREFIX.length() ),
+                                  1L,
+                                  Long::sum ) ;
+                    }
+
+                long[] journaled = new long[ JournalEvent.values().length ] ;
+                try ( JournalReader events = new JournalReader( journalDirectory ) )
+                    {
+                    while ( events.next() )
+                        {
+                        journaled[ events.getEvent().ordinal() ]++ ;
+                        }
+                    }
+                ParallelTickEngine.deleteJournal( journalDirectory ) ;
+
+                // every stop opens the doors and every passenger enters once
+                Map<String, Long> expected = new TreeMap<>() ;
+                expected.put( "StationStop",
+                              stopsAndEntries
+                                  ? journaled[ JournalEvent.TRAIN_ARRIVE.ordinal() ]
+                                  : 0L ) ;
+                expected.put( "StationEnter",
+                              stopsAndEntries
+                                  ? journaled[ JournalEvent.ENTER.ordinal() ]
+                                  : 0L ) ;
+                expected.put( "Tick",
+                              anEngine == SimulationOptions.Engine.EVENT
+                                  ? 0L
+                                  : (long) ticks ) ;
+                expected.put( "SnapshotWrite", 1L ) ;
+
+                System.out.printf( "%-8s %-21s recorded %s%n",
+                                   anEngine,
+                                   stopsAndEntries
+                                       ? "all events"
+                                       : "no stops or entries",
+                                   counts ) ;
+
+                for ( Map.Entry<String, Long> anExpectation : expected.entrySet() )
+                    {
+                    long recorded = counts.getOrDefault( anExpectation.getKey(), 0L ) ;
+                    if ( ( problem == null ) && ( recorded != anExpectation.getValue() ) )
+                        {
+                        problem = String.format( "%s: %,d %s events recorded, %,d expected",
+                                                 anEngine,
+                                                 recorded,
+                                                 anExpectation.getKey(),
+                                                 anExpectation.getValue() ) ;
+                        }
+                    }
+
+                if ( ( problem == null ) &&
+                     ( journaled[ JournalEvent.ENTER.ordinal() ] !=
+                                     recordedSimulation.getPassengerStore().getCreatedCount() ) )
+                    {
+                    problem = String.format( "%s: %,d entries journaled for %,d passengers",
+                                             anEngine,
+                                             journaled[ JournalEvent.ENTER.ordinal() ],
+                                             recordedSimulation.getPassengerStore()
+                                                               .getCreatedCount() ) ;
+                    }
+
+                if ( ( problem == null ) &&
+                     ! recordedSimulation.getStatistics().toString().equals( referenceStatistics ) )
+                    {
+                    problem = String.format( "%s: recording changed the results", anEngine ) ;
+                    }
+                }
+            }
+
+        Files.delete( recordingFile ) ;
+
+        if ( problem != null )
+            {
+            throw new IllegalStateException( problem ) ;
+            }
+
+        System.out.printf( "%nevent counts match%n" ) ;
+
+        }   // end main()
+
+    }   // end class SimulationEvents
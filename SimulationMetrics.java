@@ -0,0 +1,647 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.lang.management.ManagementFactory ;
+import java.util.concurrent.atomic.AtomicInteger ;
+
+import javax.management.JMException ;
+import javax.management.JMX ;
+import javax.management.MBeanServer ;
+import javax.management.ObjectName ;
+import javax.management.StandardMBean ;
+
+/**
+ * Publishes a running simulation's gauges as a JMX MXBean named
+ * {@code edu.wit.scds.comp2000.queue.app:type=TrainSimulation,name=simulation-<n>} so
+ * tools such as JConsole or VisualVM can watch it.
+ * <p>
+ * Nothing is counted while the simulation runs except each completed journey's
+ * waiting time, one histogram increment on the simulation thread. At every tick
+ * boundary the simulation thread raises each station's peak platform depth - one
+ * pass over the platform sizes - and checks the clock; at most once per publishing
+ * interval it reads the passenger counts from the passenger store, walks the
+ * stations and trains, and replaces the published gauges with a new immutable set
+ * through a single volatile write. JMX threads only ever read a complete set, so
+ * they never contend with the simulation and never see one tick's counts mixed
+ * with another's.
+ * <p>
+ * Every count is updated by the simulation thread alone - journeys are completed
+ * there in every engine - so there is no contention for striped counters
+ * ({@code LongAdder}) to spread; the published snapshot is what keeps the JMX reads
+ * off the simulation's data.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class SimulationMetrics implements SimulationMetricsMXBean
+    {
+
+    /** JMX domain the gauges are registered under */
+    static final String DOMAIN = "edu.wit.scds.comp2000.queue.app" ;
+
+    /** numbers the MXBean names of simulations in this JVM */
+    private static final AtomicInteger nextInstance = new AtomicInteger( 1 ) ;
+
+    private final TrainSimulation simulation ;
+    private final long intervalNanos ;
+    private final ObjectName name ;
+
+    // simulation thread only - the route's stations don't change once it runs
+    private final Station[] stations ;
+    private final int[] stationPeakDepths ;     // indexed by station id - 1
+    private final LogBucketHistogram waitingTimes = new LogBucketHistogram() ;
+    private long lastPublishNanos ;
+    private int lastPublishTick ;
+
+    /** the most recently published gauges */
+    private volatile Gauges published ;
+
+
+    /**
+     * Publish a simulation's gauges and register them with the platform MBean server
+     * 
+     * @param theSimulation
+     *     the simulation to watch
+     * @param intervalMillis
+     *     the least time between publications
+     * @throws IllegalStateException
+     *     if the MXBean can't be registered
+     */
+    SimulationMetrics( TrainSimulation theSimulation, int intervalMillis )
+        {
+        this.simulation = theSimulation ;
+        this.intervalNanos = intervalMillis * 1_000_000L ;
+
+        this.stations = theSimulation.getTrainRoute().getStations() ;
+        this.stationPeakDepths = new int[ this.stations.length ] ;
+        raisePeakDepths() ;
+
+        this.lastPublishNanos = System.nanoTime() ;
+        this.lastPublishTick = theSimulation.getCurrentTime() ;
+        this.published = gather( this.lastPublishTick, 0.0 ) ;
+
+        try
+            {
+            this.name = new ObjectName( String.format( "%s:type=TrainSimulation,name=simulation-%d",
+                                                       DOMAIN,
+                                                       nextInstance.getAndIncrement() ) ) ;
+
+            // this class isn't public so JMX can't introspect it directly
+            ManagementFactory.getPlatformMBeanServer()
+                             .registerMBean( new StandardMBean( this,
+                                                                SimulationMetricsMXBean.class,
+                                                                true ),
+                                             this.name ) ;
+            }
+        catch ( JMException e )
+            {
+            throw new IllegalStateException( "can't register the simulation metrics MXBean", e ) ;
+            }
+
+        }   // end constructor
+
+
+    /**
+     * @return the name the MXBean is registered under
+     */
+    ObjectName getName()
+        {
+        return this.name ;
+
+        }   // end getName()
+
+
+    /**
+     * Record a completed journey's waiting time - simulation thread only
+     * 
+     * @param timeWaiting
+     *     the time the passenger waited for a train
+     */
+    void recordWaiting( int timeWaiting )
+        {
+        this.waitingTimes.record( timeWaiting ) ;
+
+        }   // end recordWaiting()
+
+
+    /**
+     * Raise the stations' peak platform depths and publish the gauges if the
+     * publishing interval has passed - simulation thread only, between ticks
+     * 
+     * @param completedTick
+     *     the last tick completed
+     */
+    void tickBoundary( int completedTick )
+        {
+        raisePeakDepths() ;
+
+        long now = System.nanoTime() ;
+
+        if ( ( now - this.lastPublishNanos ) >= this.intervalNanos )
+            {
+            publish( completedTick, now ) ;
+            }
+
+        }   // end tickBoundary()
+
+
+    /**
+     * Raise each station's peak platform depth to its busier platform's current depth
+     */
+    private void raisePeakDepths()
+        {
+        for ( Station aStation : this.stations )
+            {
+            int depth = Math.max( aStation.getPlatform( 0 ).size(),
+                                  aStation.getPlatform( 1 ).size() ) ;
+            int index = aStation.getId() - 1 ;
+
+            if ( depth > this.stationPeakDepths[ index ] )
+                {
+                this.stationPeakDepths[ index ] = depth ;
+                }
+            }
+
+        }   // end raisePeakDepths()
+
+
+    /**
+     * Publish the final gauges and unregister the MXBean
+     */
+    void close()
+        {
+        raisePeakDepths() ;
+        publish( this.simulation.getCurrentTime(), System.nanoTime() ) ;
+
+        try
+            {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean( this.name ) ;
+            }
+        catch ( JMException e )
+            {
+            // already gone - nothing to do
+            }
+
+        }   // end close()
+
+
+    /**
+     * Replace the published gauges
+     * 
+     * @param completedTick
+     *     the last tick completed
+     * @param now
+     *     the current {@code System.nanoTime()}
+     */
+    private void publish( int completedTick, long now )
+        {
+        double ticksPerSecond = now > this.lastPublishNanos
+                                    ? ( ( completedTick - this.lastPublishTick ) * 1e9 ) /
+                                      ( now - this.lastPublishNanos )
+                                    : 0.0 ;
+
+        this.published = gather( completedTick, ticksPerSecond ) ;
+
+        this.lastPublishNanos = now ;
+        this.lastPublishTick = completedTick ;
+
+        }   // end publish()
+
+
+    /**
+     * Read the gauges from the simulation
+     * 
+     * @param completedTick
+     *     the last tick completed
+     * @param ticksPerSecond
+     *     the tick rate since the last publication
+     * @return the gauges
+     */
+    private Gauges gather( int completedTick, double ticksPerSecond )
+        {
+        TrainRoute theRoute = this.simulation.getTrainRoute() ;
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+
+        int[] stationDepths = new int[ this.stations.length ] ;
+        long totalDepth = 0 ;
+        int maximumDepth = 0 ;
+
+        for ( Station aStation : this.stations )
+            {
+            int outboundDepth = aStation.getPlatform( 0 ).size() ;
+            int inboundDepth = aStation.getPlatform( 1 ).size() ;
+
+            stationDepths[ aStation.getId() - 1 ] = outboundDepth + inboundDepth ;
+
+            totalDepth += outboundDepth + inboundDepth ;
+            maximumDepth = Math.max( maximumDepth, Math.max( outboundDepth, inboundDepth ) ) ;
+            }
+
+        Train[] trains = theRoute.getTrains() ;
+        double[] trainLoadFactors = new double[ trains.length ] ;
+
+        for ( Train aTrain : trains )
+            {
+            trainLoadFactors[ aTrain.getId() - 1 ] = (double) aTrain.getPassengerCount() /
+                                                     aTrain.getCapacity() ;
+            }
+
+        return new Gauges( completedTick,
+                           ticksPerSecond,
+                           theStore.getCreatedCount(),
+                           theStore.size(),
+                           totalDepth,
+                           maximumDepth,
+                           stationDepths,
+                           this.stationPeakDepths.clone(),
+                           trainLoadFactors,
+                           this.waitingTimes ) ;
+
+        }   // end gather()
+
+
+    /*
+     * MXBean attributes - read by JMX threads from the published gauges
+     */
+
+
+    @Override
+    public int getCurrentTick()
+        {
+        return this.published.currentTick ;
+
+        }   // end getCurrentTick()
+
+
+    @Override
+    public double getTicksPerSecond()
+        {
+        return this.published.ticksPerSecond ;
+
+        }   // end getTicksPerSecond()
+
+
+    @Override
+    public long getPassengersCreated()
+        {
+        return this.published.passengersCreated ;
+
+        }   // end getPassengersCreated()
+
+
+    @Override
+    public int getPassengersInFlight()
+        {
+        return this.published.passengersInFlight ;
+
+        }   // end getPassengersInFlight()
+
+
+    @Override
+    public long getPassengersCompleted()
+        {
+        Gauges theGauges = this.published ;
+
+        return theGauges.passengersCreated - theGauges.passengersInFlight ;
+
+        }   // end getPassengersCompleted()
+
+
+    @Override
+    public long getTotalPlatformDepth()
+        {
+        return this.published.totalPlatformDepth ;
+
+        }   // end getTotalPlatformDepth()
+
+
+    @Override
+    public int getMaximumPlatformDepth()
+        {
+        return this.published.maximumPlatformDepth ;
+
+        }   // end getMaximumPlatformDepth()
+
+
+    @Override
+    public int[] getStationPlatformDepths()
+        {
+        return this.published.stationPlatformDepths.clone() ;
+
+        }   // end getStationPlatformDepths()
+
+
+    @Override
+    public int[] getStationMaximumPlatformDepths()
+        {
+        return this.published.stationMaximumPlatformDepths.clone() ;
+
+        }   // end getStationMaximumPlatformDepths()
+
+
+    @Override
+    public double[] getTrainLoadFactors()
+        {
+        return this.published.trainLoadFactors.clone() ;
+
+        }   // end getTrainLoadFactors()
+
+
+    @Override
+    public long getWaitingCount()
+        {
+        return this.published.waitingCount ;
+
+        }   // end getWaitingCount()
+
+
+    @Override
+    public double getWaitingMean()
+        {
+        return this.published.waitingMean ;
+
+        }   // end getWaitingMean()
+
+
+    @Override
+    public int getWaitingMedian()
+        {
+        return this.published.waitingMedian ;
+
+        }   // end getWaitingMedian()
+
+
+    @Override
+    public int getWaiting90thPercentile()
+        {
+        return this.published.waiting90thPercentile ;
+
+        }   // end getWaiting90thPercentile()
+
+
+    @Override
+    public int getWaiting99thPercentile()
+        {
+        return this.published.waiting99thPercentile ;
+
+        }   // end getWaiting99thPercentile()
+
+
+    @Override
+    public int getWaitingMaximum()
+        {
+        return this.published.waitingMaximum ;
+
+        }   // end getWaitingMaximum()
+
+
+    /**
+     * One tick boundary's gauges - never changed once published
+     */
+    private static final class Gauges
+        {
+
+        final int currentTick ;
+        final double ticksPerSecond ;
+
+        final long passengersCreated ;
+        final int passengersInFlight ;
+
+        final long totalPlatformDepth ;
+        final int maximumPlatformDepth ;
+        final int[] stationPlatformDepths ;
+        final int[] stationMaximumPlatformDepths ;
+
+        final double[] trainLoadFactors ;
+
+        final long waitingCount ;
+        final double waitingMean ;
+        final int waitingMedian ;
+        final int waiting90thPercentile ;
+        final int waiting99thPercentile ;
+        final int waitingMaximum ;
+
+
+        /**
+         * Capture a set of gauges - the waiting times are summarized immediately
+         */
+        Gauges( int currentTick,
+                double ticksPerSecond,
+                long passengersCreated,
+                int passengersInFlight,
+                long totalPlatformDepth,
+                int maximumPlatformDepth,
+                int[] stationPlatformDepths,
+                int[] stationMaximumPlatformDepths,
+                double[] trainLoadFactors,
+                LogBucketHistogram waitingTimes )
+            {
+            this.currentTick = currentTick ;
+            this.ticksPerSecond = ticksPerSecond ;
+
+            this.passengersCreated = passengersCreated ;
+            this.passengersInFlight = passengersInFlight ;
+
+            this.totalPlatformDepth = totalPlatformDepth ;
+            this.maximumPlatformDepth = maximumPlatformDepth ;
+            this.stationPlatformDepths = stationPlatformDepths ;
+            this.stationMaximumPlatformDepths = stationMaximumPlatformDepths ;
+
+            this.trainLoadFactors = trainLoadFactors ;
+
+            this.waitingCount = waitingTimes.getCount() ;
+            this.waitingMean = waitingTimes.getMean() ;
+            this.waitingMedian = waitingTimes.getPercentile( 50.0 ) ;
+            this.waiting90thPercentile = waitingTimes.getPercentile( 90.0 ) ;
+            this.waiting99thPercentile = waitingTimes.getPercentile( 99.0 ) ;
+            this.waitingMaximum = waitingTimes.getMaximum() ;
+
+            }   // end constructor
+
+        }   // end class Gauges
+
+
+    /**
+     * Test driver - runs a simulation with its gauges published and watches them
+     * through a JMX proxy as it runs, checking that the clock, the passenger count
+     * and every station's peak platform depth never go backward and that each peak
+     * covers the busiest platform; then checks that publishing didn't change the
+     * results
+     * 
+     * @param args
+     *     optional {@code stations trains utilization ticks}
+     * @throws InterruptedException
+     *     if interrupted while watching
+     * @throws JMException
+     *     if the MBean server can't be queried
+     * @throws IllegalStateException
+     *     if the gauges are inconsistent or publishing changed the results
+     */
+    public static void main( String[] args ) throws InterruptedException, JMException
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 200 ;
+        int trains = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 100 ;
+        double utilization = args.length > 2 ? Double.parseDouble( args[ 2 ] ) : 0.8 ;
+        int ticks = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 100_000 ;
+
+        Scenario theScenario = ScenarioGenerator.generate( stations,
+                                                           10,
+                                                           0.5,
+                                                           trains,
+                                                           100,
+                                                           utilization,
+                                                           ticks,
+                                                           2_021L ) ;
+
+        // reference run
+        long startTime = System.nanoTime() ;
+        TrainSimulation referenceSimulation = new TrainSimulation( theScenario ) ;
+        referenceSimulation.run() ;
+        long referenceNanos = System.nanoTime() - startTime ;
+
+        // watched run
+        SimulationOptions theOptions = new SimulationOptions() ;
+        theOptions.setMetricsPublished( true ) ;
+        theOptions.setMetricsInterval( 100 ) ;
+
+        TrainSimulation watchedSimulation = new TrainSimulation( theScenario, theOptions ) ;
+        long[] watchedNanos = new long[ 1 ] ;
+        Thread runner = new Thread( () ->
+            {
+            long runStart = System.nanoTime() ;
+            watchedSimulation.run() ;
+            watchedNanos[ 0 ] = System.nanoTime() - runStart ;
+            }, "TrainSimulation" ) ;
+        runner.start() ;
+
+        MBeanServer theServer = ManagementFactory.getPlatformMBeanServer() ;
+        ObjectName everySimulation = new ObjectName( DOMAIN + ":type=TrainSimulation,*" ) ;
+
+        // only the watched simulation publishes gauges
+        String problem = null ;
+        int samples = 0 ;
+        int lastTick = 0 ;
+        long lastCreated = 0 ;
+        int[] lastPeaks = new int[ 0 ] ;
+
+        while ( runner.isAlive() )
+            {
+            for ( ObjectName aName : theServer.queryNames( everySimulation, null ) )
+                {
+                SimulationMetricsMXBean theGauges = JMX.newMXBeanProxy( theServer,
+                                                                        aName,
+                                                                        SimulationMetricsMXBean.class ) ;
+                try
+                    {
+                    // each attribute is read from the latest publication, so read the
+                    // busiest platform before the peaks which can only have grown since
+                    int tick = theGauges.getCurrentTick() ;
+                    long created = theGauges.getPassengersCreated() ;
+                    int busiest = theGauges.getMaximumPlatformDepth() ;
+                    int[] peaks = theGauges.getStationMaximumPlatformDepths() ;
+
+                    int highestPeak = 0 ;
+                    for ( int i = 0 ; i < peaks.length ; i++ )
+                        {
+                        highestPeak = Math.max( highestPeak, peaks[ i ] ) ;
+                        if ( ( problem == null ) && ( i < lastPeaks.length ) && ( peaks[ i ] < lastPeaks[ i ] ) )
+                            {
+                            problem = String.format( "station %,d's peak fell from %,d to %,d",
+                                                     i + 1,
+                                                     lastPeaks[ i ],
+                                                     peaks[ i ] ) ;
+                            }
+                        }
+
+                    if ( ( problem == null ) && ( ( tick < lastTick ) || ( created < lastCreated ) ) )
+                        {
+                        problem = String.format( "gauges went backward: tick %,d to %,d, created %,d to %,d",
+                                                 lastTick,
+                                                 tick,
+                                                 lastCreated,
+                                                 created ) ;
+                        }
+                    if ( ( problem == null ) && ( busiest > highestPeak ) )
+                        {
+                        problem = String.format( "busiest platform %,d exceeds every peak (highest %,d)",
+                                                 busiest,
+                                                 highestPeak ) ;
+                        }
+
+                    samples++ ;
+                    lastTick = tick ;
+                    lastCreated = created ;
+                    lastPeaks = peaks ;
+
+                    System.out.printf( "%s: tick %,d at %,.0f/sec; %,d created, %,d in flight, %,d completed; %,d waiting (busiest platform %,d); waited p50 %,d p99 %,d%n",
+                                       aName.getKeyProperty( "name" ),
+                                       theGauges.getCurrentTick(),
+                                       theGauges.getTicksPerSecond(),
+                                       theGauges.getPassengersCreated(),
+                                       theGauges.getPassengersInFlight(),
+                                       theGauges.getPassengersCompleted(),
+                                       theGauges.getTotalPlatformDepth(),
+                                       theGauges.getMaximumPlatformDepth(),
+                                       theGauges.getWaitingMedian(),
+                                       theGauges.getWaiting99thPercentile() ) ;
+                    }
+                catch ( RuntimeException e )
+                    {
+                    // unregistered as the run finished
+                    }
+                }
+
+            runner.join( 250 ) ;
+            }
+
+        System.out.printf( "%nunpublished %,.1f ms, published %,.1f ms%n",
+                           referenceNanos / 1e6,
+                           watchedNanos[ 0 ] / 1e6 ) ;
+
+        if ( ( problem == null ) && ( samples == 0 ) )
+            {
+            problem = "the run ended before its gauges were read" ;
+            }
+        if ( ( problem == null ) &&
+             ( ( watchedSimulation.getPassengerStore().getCreatedCount() !=
+                                 referenceSimulation.getPassengerStore().getCreatedCount() ) ||
+               ! watchedSimulation.getStatistics()
+                                  .toString()
+                                  .equals( referenceSimulation.getStatistics().toString() ) ) )
+            {
+            problem = "publishing changed the results" ;
+            }
+
+        if ( problem != null )
+            {
+            throw new IllegalStateException( problem ) ;
+            }
+
+        System.out.printf( "%,d readings consistent; results unchanged%n", samples ) ;
+
+        }   // end main()
+
+    }   // end class SimulationMetrics
@@ -0,0 +1,137 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Live gauges for a running simulation, published through JMX (see
+ * {@code SimulationMetrics}). Every value comes from the same tick boundary, so they
+ * are consistent with each other, and is at most one publishing interval old.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public interface SimulationMetricsMXBean
+    {
+
+    /**
+     * @return the last tick completed when the gauges were published
+     */
+    int getCurrentTick() ;
+
+
+    /**
+     * @return ticks simulated per second of elapsed time since the previous
+     *     publication
+     */
+    double getTicksPerSecond() ;
+
+
+    /**
+     * @return the number of passengers created so far
+     */
+    long getPassengersCreated() ;
+
+
+    /**
+     * @return the number of passengers waiting at a station or on board a train
+     */
+    int getPassengersInFlight() ;
+
+
+    /**
+     * @return the number of passengers who have completed their journeys
+     */
+    long getPassengersCompleted() ;
+
+
+    /**
+     * @return the number of passengers waiting on every platform at every station
+     */
+    long getTotalPlatformDepth() ;
+
+
+    /**
+     * @return the number of passengers waiting on the busiest platform
+     */
+    int getMaximumPlatformDepth() ;
+
+
+    /**
+     * @return the number of passengers waiting at each station, both platforms
+     *     together, indexed by station id - 1
+     */
+    int[] getStationPlatformDepths() ;
+
+
+    /**
+     * @return the most passengers seen waiting on each station's busier platform at
+     *     any tick boundary so far, indexed by station id - 1
+     */
+    int[] getStationMaximumPlatformDepths() ;
+
+
+    /**
+     * @return each train's passenger count as a fraction of its capacity, indexed by
+     *     train id - 1
+     */
+    double[] getTrainLoadFactors() ;
+
+
+    /**
+     * @return the number of completed journeys the waiting time gauges cover
+     */
+    long getWaitingCount() ;
+
+
+    /**
+     * @return the mean time passengers waited for a train
+     */
+    double getWaitingMean() ;
+
+
+    /**
+     * @return the median time passengers waited for a train
+     */
+    int getWaitingMedian() ;
+
+
+    /**
+     * @return the 90th percentile of the time passengers waited for a train
+     */
+    int getWaiting90thPercentile() ;
+
+
+    /**
+     * @return the 99th percentile of the time passengers waited for a train
+     */
+    int getWaiting99thPercentile() ;
+
+
+    /**
+     * @return the longest time a passenger waited for a train
+     */
+    int getWaitingMaximum() ;
+
+    }   // end interface SimulationMetricsMXBean
@@ -0,0 +1,917 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import java.nio.file.Path ;
+import java.nio.file.Paths ;
+import java.util.Arrays ;
+import java.util.Locale ;
+
+/**
+ * Run-time options which select how a simulation executes, as opposed to the
+ * {@code Scenario} which determines what is simulated. Options never change the
+ * results of a run.
+ * <p>
+ * Each option can be set from a {@code trainsimulation.*} system property (e.g.
+ * {@code -Dtrainsimulation.log.async=true}).
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation - asynchronous logging
+ * @version 1.1.0 2026-10-18 per-category log levels
+ * @version 1.2.0 2026-10-18 engine selection
+ * @version 1.3.0 2026-10-18 origin-destination demand file
+ * @version 1.4.0 2026-10-18 binary snapshot file
+ * @version 1.5.0 2026-10-18 checkpointing
+ * @version 1.6.0 2026-10-18 binary event journal
+ * @version 1.7.0 2026-10-18 parallel tick engine
+ * @version 1.8.0 2026-10-18 concurrent passenger generation
+ * @version 1.9.0 2026-10-18 concurrent travel statistics and the pipeline preset
+ * @version 1.10.0 2026-10-18 compiled configuration cache and quiet setup
+ * @version 1.11.0 2026-10-18 JMX metrics
+ */
+public final class SimulationOptions
+    {
+
+    /** how simulated time advances */
+    public enum Engine
+        {
+        /** every train moves one position per tick */
+        TICK,
+        /** the clock jumps from one train arrival at a station to the next */
+        EVENT,
+        /** every train moves one position per tick, trains moved and serviced in parallel */
+        PARALLEL
+        }   // end enum Engine
+
+    /** prefix for all system property names */
+    static final String PROPERTY_PREFIX = "trainsimulation." ;
+
+    // startup - a null configuration file disables the compiled configuration cache
+    private Path configurationFile = null ;
+    private Path configurationCache = Paths.get( "cache" ) ;
+    private boolean setupDescribed = true ;
+
+    // origin-destination demand - null keeps uniform demand
+    private Path demandFile = null ;
+
+    // execution
+    private Engine engine = Engine.TICK ;
+    private int parallelism = Runtime.getRuntime().availableProcessors() ;
+
+    // passenger generation - on the simulation thread unless concurrent
+    private boolean concurrentGeneration = false ;
+    private int generationLookahead = 64 ;
+
+    // travel statistics - on the simulation thread unless concurrent
+    private boolean concurrentStatistics = false ;
+
+    // asynchronous logging
+    private boolean asyncLogging = false ;
+    private Path asyncLogFile = Paths.get( "logs", "TrainSimulation-async.log" ) ;
+    private int asyncLogCapacity = 1 << 16 ;
+    private AsyncLogWriter.Backpressure asyncLogBackpressure = AsyncLogWriter.Backpressure.BLOCK ;
+    private int asyncLogSampleRate = 100 ;
+
+    // binary snapshots - null writes snapshots to the log as text
+    private Path snapshotFile = null ;
+
+    // checkpoints - an interval of 0 disables them
+    private Path checkpointFile = Paths.get( "checkpoints", "TrainSimulation.checkpoint" ) ;
+    private int checkpointInterval = 0 ;
+    private boolean checkpointRestore = false ;
+
+    // binary event journal - null disables it
+    private Path journalDirectory = null ;
+    private int journalSegmentSize = 1 << 26 ;
+
+    // JMX metrics - published at tick boundaries at most once per interval (ms)
+    private boolean metricsPublished = false ;
+    private int metricsInterval = 1_000 ;
+
+    // log level threshold for each category, indexed by LogCategory ordinal
+    private final LogLevel[] logLevels = defaultLogLevels() ;
+
+
+    /**
+     * Create a set of options with every option at its default
+     */
+    public SimulationOptions()
+        {
+        // defaults are set by the field initializers
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Create a set of options which runs each stage of a replication on its own
+     * thread: passenger generation, the simulation itself, travel statistics and
+     * log formatting and writing, connected by bounded queues
+     *
+     * @return the options
+     */
+    public static SimulationOptions pipeline()
+        {
+        SimulationOptions theOptions = new SimulationOptions() ;
+
+        theOptions.concurrentGeneration = true ;
+        theOptions.concurrentStatistics = true ;
+        theOptions.asyncLogging = true ;
+
+        return theOptions ;
+
+        }   // end pipeline()
+
+
+    /**
+     * Create a set of options from {@code trainsimulation.*} system properties - any
+     * property not set leaves the option at its default, or at its
+     * {@link #pipeline()} setting if {@code trainsimulation.pipeline} is true
+     *
+     * @return the options
+     * @throws IllegalArgumentException
+     *     if a property value can't be parsed
+     */
+    public static SimulationOptions fromSystemProperties()
+        {
+        SimulationOptions theOptions = Boolean.parseBoolean( property( "pipeline", "false" ) )
+                                            ? pipeline()
+                                            : new SimulationOptions() ;
+
+        String configurationPath = property( "config.file", null ) ;
+        theOptions.configurationFile = configurationPath == null
+                                            ? null
+                                            : Paths.get( configurationPath ) ;
+        theOptions.configurationCache = Paths.get( property( "config.cache",
+                                                             theOptions.configurationCache.toString() ) ) ;
+        theOptions.setupDescribed = Boolean.parseBoolean( property( "setup.describe",
+                                                                    Boolean.toString( theOptions.setupDescribed ) ) ) ;
+
+        String demandPath = property( "demand", null ) ;
+        theOptions.demandFile = demandPath == null
+                                    ? null
+                                    : Paths.get( demandPath ) ;
+
+        theOptions.engine = Engine.valueOf( property( "engine",
+                                                      theOptions.engine.name() ).toUpperCase( Locale.ROOT ) ) ;
+        theOptions.parallelism = Integer.parseInt( property( "parallelism",
+                                                             Integer.toString( theOptions.parallelism ) ) ) ;
+
+        theOptions.concurrentGeneration = Boolean.parseBoolean( property( "generation.concurrent",
+                                                                          Boolean.toString( theOptions.concurrentGeneration ) ) ) ;
+        theOptions.generationLookahead = Integer.parseInt( property( "generation.lookahead",
+                                                                     Integer.toString( theOptions.generationLookahead ) ) ) ;
+
+        theOptions.concurrentStatistics = Boolean.parseBoolean( property( "statistics.concurrent",
+                                                                          Boolean.toString( theOptions.concurrentStatistics ) ) ) ;
+
+        theOptions.asyncLogging = Boolean.parseBoolean( property( "log.async",
+                                                                  Boolean.toString( theOptions.asyncLogging ) ) ) ;
+        theOptions.asyncLogFile = Paths.get( property( "log.file",
+                                                       theOptions.asyncLogFile.toString() ) ) ;
+        theOptions.asyncLogCapacity = Integer.parseInt( property( "log.capacity",
+                                                                  Integer.toString( theOptions.asyncLogCapacity ) ) ) ;
+        theOptions.asyncLogBackpressure =
+                        AsyncLogWriter.Backpressure.valueOf( property( "log.backpressure",
+                                                                       theOptions.asyncLogBackpressure.name() ).toUpperCase() ) ;
+        theOptions.asyncLogSampleRate = Integer.parseInt( property( "log.sample",
+                                                                    Integer.toString( theOptions.asyncLogSampleRate ) ) ) ;
+
+        String snapshotPath = property( "snapshot.file", null ) ;
+        theOptions.snapshotFile = snapshotPath == null
+                                        ? null
+                                        : Paths.get( snapshotPath ) ;
+
+        theOptions.checkpointFile = Paths.get( property( "checkpoint.file",
+                                                         theOptions.checkpointFile.toString() ) ) ;
+        theOptions.checkpointInterval = Integer.parseInt( property( "checkpoint.interval",
+                                                                    Integer.toString( theOptions.checkpointInterval ) ) ) ;
+        theOptions.checkpointRestore = Boolean.parseBoolean( property( "checkpoint.restore",
+                                                                       Boolean.toString( theOptions.checkpointRestore ) ) ) ;
+
+        String journalPath = property( "journal.directory", null ) ;
+        theOptions.journalDirectory = journalPath == null
+                                            ? null
+                                            : Paths.get( journalPath ) ;
+        theOptions.journalSegmentSize = Integer.parseInt( property( "journal.segment",
+                                                                    Integer.toString( theOptions.journalSegmentSize ) ) ) ;
+
+        theOptions.metricsPublished = Boolean.parseBoolean( property( "metrics",
+                                                                      Boolean.toString( theOptions.metricsPublished ) ) ) ;
+        theOptions.metricsInterval = Integer.parseInt( property( "metrics.interval",
+                                                                 Integer.toString( theOptions.metricsInterval ) ) ) ;
+
+        // log levels: trainsimulation.log.level sets every category,
+        // trainsimulation.log.level.<category> overrides one
+        String allLevels = property( "log.level", null ) ;
+        for ( LogCategory aCategory : LogCategory.values() )
+            {
+            String level = property( "log.level." + aCategory.name().toLowerCase( Locale.ROOT ),
+                                     allLevels ) ;
+            if ( level != null )
+                {
+                theOptions.setLogLevel( aCategory,
+                                        LogLevel.valueOf( level.toUpperCase( Locale.ROOT ) ) ) ;
+                }
+            }
+
+        return theOptions ;
+
+        }   // end fromSystemProperties()
+
+
+    /**
+     * @return the threshold for each category when none is configured - everything
+     *     is logged
+     */
+    private static LogLevel[] defaultLogLevels()
+        {
+        LogLevel[] defaults = new LogLevel[ LogCategory.values().length ] ;
+        Arrays.fill( defaults, LogLevel.DEBUG ) ;
+
+        return defaults ;
+
+        }   // end defaultLogLevels()
+
+
+    /**
+     * @param name
+     *     property name without the prefix
+     * @param defaultValue
+     *     value to use if the property isn't set
+     * @return the property's value or the default
+     */
+    static String property( String name, String defaultValue )
+        {
+        return System.getProperty( PROPERTY_PREFIX + name, defaultValue ) ;
+
+        }   // end property()
+
+
+    /*
+     * startup
+     */
+
+    /**
+     * @return the text configuration file {@code Configuration} reads, or null if
+     *     the configuration isn't cached
+     */
+    public Path getConfigurationFile()
+        {
+        return this.configurationFile ;
+
+        }   // end getConfigurationFile()
+
+
+    /**
+     * @param newConfigurationFile
+     *     the text configuration file {@code Configuration} reads - naming it
+     *     enables the compiled configuration cache, which is keyed by its content
+     * @return the previous setting
+     */
+    public Path setConfigurationFile( Path newConfigurationFile )
+        {
+        Path savedConfigurationFile = this.configurationFile ;
+        this.configurationFile = newConfigurationFile ;
+
+        return savedConfigurationFile ;
+
+        }   // end setConfigurationFile()
+
+
+    /**
+     * @return the folder holding compiled configurations
+     */
+    public Path getConfigurationCache()
+        {
+        return this.configurationCache ;
+
+        }   // end getConfigurationCache()
+
+
+    /**
+     * @param newConfigurationCache
+     *     the folder holding compiled configurations
+     * @return the previous setting
+     */
+    public Path setConfigurationCache( Path newConfigurationCache )
+        {
+        Path savedConfigurationCache = this.configurationCache ;
+        this.configurationCache = newConfigurationCache ;
+
+        return savedConfigurationCache ;
+
+        }   // end setConfigurationCache()
+
+
+    /**
+     * @return true if setup prints the configuration and describes every station
+     *     and train it creates
+     */
+    public boolean isSetupDescribed()
+        {
+        return this.setupDescribed ;
+
+        }   // end isSetupDescribed()
+
+
+    /**
+     * @param newSetupDescribed
+     *     true to print the configuration and describe every station and train
+     *     during setup, false to only log the counts
+     * @return the previous setting
+     */
+    public boolean setSetupDescribed( boolean newSetupDescribed )
+        {
+        boolean savedSetupDescribed = this.setupDescribed ;
+        this.setupDescribed = newSetupDescribed ;
+
+        return savedSetupDescribed ;
+
+        }   // end setSetupDescribed()
+
+
+    /*
+     * origin-destination demand
+     */
+
+
+    /**
+     * @return the origin-destination demand file {@code DemandSchedule} reads, or
+     *     null for uniform demand
+     */
+    public Path getDemandFile()
+        {
+        return this.demandFile ;
+
+        }   // end getDemandFile()
+
+
+    /**
+     * @param newDemandFile
+     *     the origin-destination demand file {@code DemandSchedule} reads - it
+     *     replaces the configuration's uniform demand - or null for uniform demand
+     * @return the previous setting
+     */
+    public Path setDemandFile( Path newDemandFile )
+        {
+        Path savedDemandFile = this.demandFile ;
+        this.demandFile = newDemandFile ;
+
+        return savedDemandFile ;
+
+        }   // end setDemandFile()
+
+
+    /*
+     * execution
+     */
+
+
+    /**
+     * @return how simulated time advances
+     */
+    public Engine getEngine()
+        {
+        return this.engine ;
+
+        }   // end getEngine()
+
+
+    /**
+     * @param newEngine
+     *     how simulated time advances - every engine produces the same results
+     * @return the previous setting
+     */
+    public Engine setEngine( Engine newEngine )
+        {
+        Engine savedEngine = this.engine ;
+        this.engine = newEngine ;
+
+        return savedEngine ;
+
+        }   // end setEngine()
+
+
+    /**
+     * @return the number of threads the parallel engine uses
+     */
+    public int getParallelism()
+        {
+        return this.parallelism ;
+
+        }   // end getParallelism()
+
+
+    /**
+     * @param newParallelism
+     *     the number of threads the parallel engine uses - defaults to the number of
+     *     processors
+     * @return the previous setting
+     */
+    public int setParallelism( int newParallelism )
+        {
+        int savedParallelism = this.parallelism ;
+        this.parallelism = newParallelism ;
+
+        return savedParallelism ;
+
+        }   // end setParallelism()
+
+
+    /*
+     * passenger generation
+     */
+
+    /**
+     * @return true if arriving passengers are drawn on a separate generator thread
+     */
+    public boolean isConcurrentGeneration()
+        {
+        return this.concurrentGeneration ;
+
+        }   // end isConcurrentGeneration()
+
+
+    /**
+     * @param newConcurrentGeneration
+     *     true to draw arriving passengers on a separate generator thread - the
+     *     results are the same either way
+     * @return the previous setting
+     */
+    public boolean setConcurrentGeneration( boolean newConcurrentGeneration )
+        {
+        boolean savedConcurrentGeneration = this.concurrentGeneration ;
+        this.concurrentGeneration = newConcurrentGeneration ;
+
+        return savedConcurrentGeneration ;
+
+        }   // end setConcurrentGeneration()
+
+
+    /**
+     * @return the most ticks the generator thread draws ahead of the simulation
+     */
+    public int getGenerationLookahead()
+        {
+        return this.generationLookahead ;
+
+        }   // end getGenerationLookahead()
+
+
+    /**
+     * @param newGenerationLookahead
+     *     the most ticks the generator thread draws ahead of the simulation
+     * @return the previous setting
+     */
+    public int setGenerationLookahead( int newGenerationLookahead )
+        {
+        int savedGenerationLookahead = this.generationLookahead ;
+        this.generationLookahead = newGenerationLookahead ;
+
+        return savedGenerationLookahead ;
+
+        }   // end setGenerationLookahead()
+
+
+    /*
+     * travel statistics
+     */
+
+    /**
+     * @return true if completed journeys are recorded on a separate thread
+     */
+    public boolean isConcurrentStatistics()
+        {
+        return this.concurrentStatistics ;
+
+        }   // end isConcurrentStatistics()
+
+
+    /**
+     * @param newConcurrentStatistics
+     *     true to record completed journeys on a separate thread - the statistics
+     *     are the same either way
+     * @return the previous setting
+     */
+    public boolean setConcurrentStatistics( boolean newConcurrentStatistics )
+        {
+        boolean savedConcurrentStatistics = this.concurrentStatistics ;
+        this.concurrentStatistics = newConcurrentStatistics ;
+
+        return savedConcurrentStatistics ;
+
+        }   // end setConcurrentStatistics()
+
+
+    /*
+     * snapshots
+     */
+
+
+    /**
+     * @return the file binary snapshots are written to or null if snapshots are
+     *     written to the log as text
+     */
+    public Path getSnapshotFile()
+        {
+        return this.snapshotFile ;
+
+        }   // end getSnapshotFile()
+
+
+    /**
+     * @param newSnapshotFile
+     *     the file to write binary snapshots to or null to write snapshots to the log
+     *     as text
+     * @return the previous setting
+     */
+    public Path setSnapshotFile( Path newSnapshotFile )
+        {
+        Path savedSnapshotFile = this.snapshotFile ;
+        this.snapshotFile = newSnapshotFile ;
+
+        return savedSnapshotFile ;
+
+        }   // end setSnapshotFile()
+
+
+    /*
+     * checkpoints
+     */
+
+
+    /**
+     * @return the file checkpoints are written to and restored from
+     */
+    public Path getCheckpointFile()
+        {
+        return this.checkpointFile ;
+
+        }   // end getCheckpointFile()
+
+
+    /**
+     * @param newCheckpointFile
+     *     the file to write checkpoints to and restore them from
+     * @return the previous setting
+     */
+    public Path setCheckpointFile( Path newCheckpointFile )
+        {
+        Path savedCheckpointFile = this.checkpointFile ;
+        this.checkpointFile = newCheckpointFile ;
+
+        return savedCheckpointFile ;
+
+        }   // end setCheckpointFile()
+
+
+    /**
+     * @return the number of ticks between checkpoints or 0 if checkpoints aren't
+     *     taken
+     */
+    public int getCheckpointInterval()
+        {
+        return this.checkpointInterval ;
+
+        }   // end getCheckpointInterval()
+
+
+    /**
+     * @param newCheckpointInterval
+     *     the number of ticks between checkpoints or 0 to take none
+     * @return the previous setting
+     */
+    public int setCheckpointInterval( int newCheckpointInterval )
+        {
+        int savedCheckpointInterval = this.checkpointInterval ;
+        this.checkpointInterval = newCheckpointInterval ;
+
+        return savedCheckpointInterval ;
+
+        }   // end setCheckpointInterval()
+
+
+    /**
+     * @return true if the simulation resumes from the checkpoint file when it exists
+     */
+    public boolean isCheckpointRestore()
+        {
+        return this.checkpointRestore ;
+
+        }   // end isCheckpointRestore()
+
+
+    /**
+     * @param newCheckpointRestore
+     *     true to resume from the checkpoint file when it exists
+     * @return the previous setting
+     */
+    public boolean setCheckpointRestore( boolean newCheckpointRestore )
+        {
+        boolean savedCheckpointRestore = this.checkpointRestore ;
+        this.checkpointRestore = newCheckpointRestore ;
+
+        return savedCheckpointRestore ;
+
+        }   // end setCheckpointRestore()
+
+
+    /*
+     * event journal
+     */
+
+
+    /**
+     * @return the folder the binary event journal is written to or null if no
+     *     journal is kept
+     */
+    public Path getJournalDirectory()
+        {
+        return this.journalDirectory ;
+
+        }   // end getJournalDirectory()
+
+
+    /**
+     * @param newJournalDirectory
+     *     the folder to write the binary event journal to or null to keep no journal
+     * @return the previous setting
+     */
+    public Path setJournalDirectory( Path newJournalDirectory )
+        {
+        Path savedJournalDirectory = this.journalDirectory ;
+        this.journalDirectory = newJournalDirectory ;
+
+        return savedJournalDirectory ;
+
+        }   // end setJournalDirectory()
+
+
+    /**
+     * @return the largest a journal segment file may be in bytes
+     */
+    public int getJournalSegmentSize()
+        {
+        return this.journalSegmentSize ;
+
+        }   // end getJournalSegmentSize()
+
+
+    /**
+     * @param newJournalSegmentSize
+     *     the largest a journal segment file may be in bytes
+     * @return the previous setting
+     */
+    public int setJournalSegmentSize( int newJournalSegmentSize )
+        {
+        int savedJournalSegmentSize = this.journalSegmentSize ;
+        this.journalSegmentSize = newJournalSegmentSize ;
+
+        return savedJournalSegmentSize ;
+
+        }   // end setJournalSegmentSize()
+
+
+    /*
+     * metrics
+     */
+
+    /**
+     * @return true if the simulation's gauges are published as a JMX MXBean
+     */
+    public boolean isMetricsPublished()
+        {
+        return this.metricsPublished ;
+
+        }   // end isMetricsPublished()
+
+
+    /**
+     * @param newMetricsPublished
+     *     true to publish the simulation's gauges as a JMX MXBean while it runs
+     * @return the previous setting
+     */
+    public boolean setMetricsPublished( boolean newMetricsPublished )
+        {
+        boolean savedMetricsPublished = this.metricsPublished ;
+        this.metricsPublished = newMetricsPublished ;
+
+        return savedMetricsPublished ;
+
+        }   // end setMetricsPublished()
+
+
+    /**
+     * @return the least time between publications of the gauges in milliseconds
+     */
+    public int getMetricsInterval()
+        {
+        return this.metricsInterval ;
+
+        }   // end getMetricsInterval()
+
+
+    /**
+     * @param newMetricsInterval
+     *     the least time between publications of the gauges in milliseconds
+     * @return the previous setting
+     */
+    public int setMetricsInterval( int newMetricsInterval )
+        {
+        int savedMetricsInterval = this.metricsInterval ;
+        this.metricsInterval = newMetricsInterval ;
+
+        return savedMetricsInterval ;
+
+        }   // end setMetricsInterval()
+
+
+    /*
+     * log levels
+     */
+
+
+    /**
+     * @param aCategory
+     *     a log category
+     * @return the lowest level logged for the category
+     */
+    public LogLevel getLogLevel( LogCategory aCategory )
+        {
+        return this.logLevels[ aCategory.ordinal() ] ;
+
+        }   // end getLogLevel()
+
+
+    /**
+     * @param aCategory
+     *     a log category
+     * @param newLogLevel
+     *     the lowest level to log for the category ({@code OFF} disables it)
+     * @return the previous setting
+     */
+    public LogLevel setLogLevel( LogCategory aCategory, LogLevel newLogLevel )
+        {
+        LogLevel savedLogLevel = this.logLevels[ aCategory.ordinal() ] ;
+        this.logLevels[ aCategory.ordinal() ] = newLogLevel ;
+
+        return savedLogLevel ;
+
+        }   // end setLogLevel()
+
+
+    /*
+     * asynchronous logging
+     */
+
+
+    /**
+     * @return true if log records are formatted and written on a background thread
+     */
+    public boolean isAsyncLogging()
+        {
+        return this.asyncLogging ;
+
+        }   // end isAsyncLogging()
+
+
+    /**
+     * @param newAsyncLogging
+     *     true to format and write log records on a background thread
+     * @return the previous setting
+     */
+    public boolean setAsyncLogging( boolean newAsyncLogging )
+        {
+        boolean savedAsyncLogging = this.asyncLogging ;
+        this.asyncLogging = newAsyncLogging ;
+
+        return savedAsyncLogging ;
+
+        }   // end setAsyncLogging()
+
+
+    /**
+     * @return the file the background writer writes to
+     */
+    public Path getAsyncLogFile()
+        {
+        return this.asyncLogFile ;
+
+        }   // end getAsyncLogFile()
+
+
+    /**
+     * @param newAsyncLogFile
+     *     the file the background writer writes to
+     * @return the previous setting
+     */
+    public Path setAsyncLogFile( Path newAsyncLogFile )
+        {
+        Path savedAsyncLogFile = this.asyncLogFile ;
+        this.asyncLogFile = newAsyncLogFile ;
+
+        return savedAsyncLogFile ;
+
+        }   // end setAsyncLogFile()
+
+
+    /**
+     * @return the number of log records the ring buffer holds
+     */
+    public int getAsyncLogCapacity()
+        {
+        return this.asyncLogCapacity ;
+
+        }   // end getAsyncLogCapacity()
+
+
+    /**
+     * @param newAsyncLogCapacity
+     *     the number of log records the ring buffer holds (rounded up to a power of
+     *     2)
+     * @return the previous setting
+     */
+    public int setAsyncLogCapacity( int newAsyncLogCapacity )
+        {
+        int savedAsyncLogCapacity = this.asyncLogCapacity ;
+        this.asyncLogCapacity = newAsyncLogCapacity ;
+
+        return savedAsyncLogCapacity ;
+
+        }   // end setAsyncLogCapacity()
+
+
+    /**
+     * @return what the simulation thread does when the ring buffer is full
+     */
+    public AsyncLogWriter.Backpressure getAsyncLogBackpressure()
+        {
+        return this.asyncLogBackpressure ;
+
+        }   // end getAsyncLogBackpressure()
+
+
+    /**
+     * @param newAsyncLogBackpressure
+     *     what the simulation thread does when the ring buffer is full
+     * @return the previous setting
+     */
+    public AsyncLogWriter.Backpressure setAsyncLogBackpressure( AsyncLogWriter.Backpressure newAsyncLogBackpressure )
+        {
+        AsyncLogWriter.Backpressure savedAsyncLogBackpressure = this.asyncLogBackpressure ;
+        this.asyncLogBackpressure = newAsyncLogBackpressure ;
+
+        return savedAsyncLogBackpressure ;
+
+        }   // end setAsyncLogBackpressure()
+
+
+    /**
+     * @return with SAMPLE backpressure, 1 of this many records is kept while the
+     *     ring buffer is full
+     */
+    public int getAsyncLogSampleRate()
+        {
+        return this.asyncLogSampleRate ;
+
+        }   // end getAsyncLogSampleRate()
+
+
+    /**
+     * @param newAsyncLogSampleRate
+     *     with SAMPLE backpressure, keep 1 of this many records while the ring buffer
+     *     is full
+     * @return the previous setting
+     */
+    public int setAsyncLogSampleRate( int newAsyncLogSampleRate )
+        {
+        int savedAsyncLogSampleRate = this.asyncLogSampleRate ;
+        this.asyncLogSampleRate = newAsyncLogSampleRate ;
+
+        return savedAsyncLogSampleRate ;
+
+        }   // end setAsyncLogSampleRate()
+
+    }   // end class SimulationOptions
@@ -0,0 +1,263 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
+
+import java.io.BufferedInputStream ;
+import java.io.DataInputStream ;
+import java.io.EOFException ;
+import java.io.IOException ;
+import java.io.PrintStream ;
+import java.nio.charset.StandardCharsets ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.Paths ;
+
+/**
+ * Formats the binary snapshots written by {@code SnapshotWriter} for human
+ * consumption, in the same layout as {@code TrainRoute.describe()}. Snapshots are
+ * read and printed one at a time so files of any size can be examined.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+public final class SnapshotPrinter
+    {
+
+    private static final Direction[] DIRECTIONS = Direction.values() ;
+    private static final RouteStyle[] STYLES = RouteStyle.values() ;
+
+
+    /**
+     * prevent instantiation
+     */
+    private SnapshotPrinter()
+        {
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /**
+     * Print every snapshot in a file
+     *
+     * @param snapshotFile
+     *     a file written by {@code SnapshotWriter}
+     * @param out
+     *     where to print
+     * @return the number of snapshots printed
+     * @throws IOException
+     *     if the file can't be read or isn't a snapshot file
+     */
+    public static int print( Path snapshotFile, PrintStream out ) throws IOException
+        {
+        int snapshotCount = 0 ;
+
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( Files.newInputStream( snapshotFile ),
+                                                                                 1 << 16 ) ) )
+            {
+            while ( printSnapshot( in, out ) )
+                {
+                snapshotCount++ ;
+                }
+            }
+
+        return snapshotCount ;
+
+        }   // end print()
+
+
+    /**
+     * Print the next snapshot
+     *
+     * @param in
+     *     positioned at the start of a snapshot record or the end of the file
+     * @param out
+     *     where to print
+     * @return true if a snapshot was printed, false at the end of the file
+     * @throws IOException
+     *     if the record can't be read or is malformed
+     */
+    private static boolean printSnapshot( DataInputStream in, PrintStream out ) throws IOException
+        {
+        int magic ;
+        try
+            {
+            magic = in.readInt() ;
+            }
+        catch ( EOFException e )
+            {
+            return false ;
+            }
+
+        if ( magic != SnapshotWriter.MAGIC )
+            {
+            throw new IOException( String.format( "not a snapshot record: magic 0x%08X",
+                                                  magic ) ) ;
+            }
+
+        short version = in.readShort() ;
+        if ( version != SnapshotWriter.VERSION )
+            {
+            throw new IOException( String.format( "unsupported snapshot version %d",
+                                                  version ) ) ;
+            }
+
+        int time = in.readInt() ;
+        byte[] label = new byte[ in.readShort() ] ;
+        in.readFully( label ) ;
+
+        out.print( new String( label, StandardCharsets.UTF_8 ) ) ;
+        out.printf( "(time %,d)%n", time ) ;
+
+        // route
+        int routeId = in.readInt() ;
+        RouteStyle style = STYLES[ in.readByte() ] ;
+        int length = in.readInt() ;
+
+        out.printf( "%s %,d: %s; length: %,d%n",
+                    TrainRoute.class.getSimpleName(),
+                    routeId,
+                    style,
+                    length ) ;
+
+        // stations
+        int stationCount = in.readInt() ;
+        out.printf( "%n%,d station%s:%n",
+                    stationCount,
+                    ( stationCount == 1
+                        ? ""
+                        : "s" ) ) ;
+
+        for ( int i = 0 ; i < stationCount ; i++ )
+            {
+            int stationId = in.readInt() ;
+            int position = in.readInt() ;
+
+            out.printf( "\t%s %,d is at position %,d%n",
+                        Station.class.getSimpleName(),
+                        stationId,
+                        position ) ;
+
+            for ( int track = 0 ; track < 2 ; track++ )
+                {
+                Direction platformDirection = DIRECTIONS[ in.readByte() ] ;
+
+                out.printf( "\t\t%s: ", platformDirection ) ;
+                printPassengers( in, out ) ;
+                }
+            }
+
+        // trains
+        int trainCount = in.readInt() ;
+        out.printf( "%,d train%s:%n",
+                    trainCount,
+                    ( trainCount == 1
+                        ? ""
+                        : "s" ) ) ;
+
+        for ( int i = 0 ; i < trainCount ; i++ )
+            {
+            int trainId = in.readInt() ;
+            int position = in.readInt() ;
+            Direction direction = DIRECTIONS[ in.readByte() ] ;
+            int capacity = in.readInt() ;
+
+            out.printf( "\t%s %,d is at position %,d %s; capacity: %,d; ",
+                        Train.class.getSimpleName(),
+                        trainId,
+                        position,
+                        direction,
+                        capacity ) ;
+            out.print( "on-board: " ) ;
+            printPassengers( in, out ) ;
+            }
+
+        out.println() ;
+
+        return true ;
+
+        }   // end printSnapshot()
+
+
+    /**
+     * Print a count-prefixed list of passenger ids
+     *
+     * @param in
+     *     positioned at the count
+     * @param out
+     *     where to print
+     * @throws IOException
+     *     if the list can't be read
+     */
+    private static void printPassengers( DataInputStream in, PrintStream out ) throws IOException
+        {
+        int passengerCount = in.readInt() ;
+
+        out.printf( "%,d [", passengerCount ) ;
+        for ( int i = 0 ; i < passengerCount ; i++ )
+            {
+            out.printf( "%s%s %,d",
+                        ( i == 0
+                            ? ""
+                            : ", " ),
+                        Passenger.class.getSimpleName(),
+                        in.readLong() ) ;
+            }
+        out.printf( "]%n" ) ;
+
+        }   // end printPassengers()
+
+
+    /**
+     * Print a snapshot file
+     *
+     * @param args
+     *     the snapshot file's path
+     * @throws IOException
+     *     if the file can't be read or isn't a snapshot file
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        if ( args.length != 1 )
+            {
+            System.err.printf( "usage: %s snapshot-file%n",
+                               SnapshotPrinter.class.getSimpleName() ) ;
+            return ;
+            }
+
+        int snapshotCount = print( Paths.get( args[ 0 ] ), System.out ) ;
+
+        System.out.printf( "%,d snapshot%s%n",
+                           snapshotCount,
+                           ( snapshotCount == 1
+                               ? ""
+                               : "s" ) ) ;
+
+        }   // end main()
+
+    }   // end class SnapshotPrinter
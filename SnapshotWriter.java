@@ -0,0 +1,358 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+
+import java.io.Closeable ;
+import java.io.IOException ;
+import java.io.UncheckedIOException ;
+import java.nio.ByteBuffer ;
+import java.nio.channels.FileChannel ;
+import java.nio.charset.StandardCharsets ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.nio.file.StandardOpenOption ;
+
+/**
+ * Writes compact binary snapshots of a route's state - each station's platform
+ * queues and each train's position and on-board passengers - to a file. Values are
+ * encoded directly into a reusable direct buffer which is written to a
+ * {@code FileChannel} whenever it fills, so no text is built regardless of the
+ * number of passengers. Any number of snapshots can be appended to one file;
+ * {@code SnapshotPrinter} formats them for human consumption.
+ * <p>
+ * Each snapshot is a record of big-endian values:
+ *
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * int     simulation time
+ * short   label length, then the label in UTF-8
+ * int     route id
+ * byte    route style ordinal
+ * int     route length
+ * int     station count, then for each station
+ *             int id, int position
+ *             for each of the 2 platforms:
+ *                 byte direction ordinal, int passenger count, long passenger id...
+ * int     train count, then for each train
+ *             int id, int position, byte direction ordinal, int capacity,
+ *             int passenger count, long passenger id...
+ * </pre>
+ *
+ * Passenger ids are their serial numbers, not their store slots.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 flight recorder snapshot write events
+ */
+public final class SnapshotWriter implements Closeable
+    {
+
+    /** identifies the start of a snapshot record - "TSNP" */
+    static final int MAGIC = 0x54534E50 ;
+
+    /** record layout version */
+    static final short VERSION = 1 ;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20 ;
+
+    private final FileChannel channel ;
+    private final ByteBuffer buffer ;
+
+    /** number of snapshots written */
+    private int snapshotCount ;
+
+
+    /**
+     * Create or truncate a snapshot file
+     *
+     * @param snapshotFile
+     *     the file to write - parent folders are created if necessary
+     * @throws IOException
+     *     if the file can't be created
+     */
+    public SnapshotWriter( Path snapshotFile ) throws IOException
+        {
+        if ( snapshotFile.getParent() != null )
+            {
+            Files.createDirectories( snapshotFile.getParent() ) ;
+            }
+        this.channel = FileChannel.open( snapshotFile,
+                                         StandardOpenOption.CREATE,
+                                         StandardOpenOption.WRITE,
+                                         StandardOpenOption.TRUNCATE_EXISTING ) ;
+
+        this.buffer = ByteBuffer.allocateDirect( WRITE_BUFFER_SIZE ) ;
+        this.snapshotCount = 0 ;
+
+        }   // end constructor
+
+
+    /**
+     * Append a snapshot of a route's current state
+     *
+     * @param label
+     *     brief description of the snapshot
+     * @param time
+     *     the simulation time
+     * @param theRoute
+     *     the route to capture
+     * @param theStore
+     *     the store the route's passenger slots refer to
+     * @throws IOException
+     *     if the buffer can't be written
+     */
+    public void write( String label,
+                       int time,
+                       TrainRoute theRoute,
+                       PassengerStore theStore ) throws IOException
+        {
+        SimulationEvents.SnapshotWriteEvent writeEvent = null ;
+        long startSize = 0 ;
+        if ( SimulationEvents.isRecording() )
+            {
+            writeEvent = new SimulationEvents.SnapshotWriteEvent() ;
+            if ( writeEvent.isEnabled() )
+                {
+                startSize = size() ;
+                }
+            writeEvent.begin() ;
+            }
+
+        byte[] labelBytes = label.getBytes( StandardCharsets.UTF_8 ) ;
+        int labelLength = Math.min( labelBytes.length, Short.MAX_VALUE ) ;
+
+        ensure( Integer.BYTES + Short.BYTES + Integer.BYTES + Short.BYTES ) ;
+        this.buffer.putInt( MAGIC )
+                   .putShort( VERSION )
+                   .putInt( time )
+                   .putShort( (short) labelLength ) ;
+        putBytes( labelBytes, labelLength ) ;
+
+        ensure( Integer.BYTES + Byte.BYTES + Integer.BYTES ) ;
+        this.buffer.putInt( theRoute.getId() )
+                   .put( (byte) theRoute.getStyle().ordinal() )
+                   .putInt( theRoute.getLength() ) ;
+
+        // stations
+        Station[] stations = theRoute.getStations() ;
+
+        ensure( Integer.BYTES ) ;
+        this.buffer.putInt( stations.length ) ;
+
+        for ( Station aStation : stations )
+            {
+            ensure( 2 * Integer.BYTES ) ;
+            this.buffer.putInt( aStation.getId() )
+                       .putInt( aStation.getLocation().getPosition() ) ;
+
+            Direction[] directions = aStation.getPlatformDirections() ;
+            for ( int track = 0 ; track < directions.length ; track++ )
+                {
+                PassengerQueue platform = aStation.getPlatform( track ) ;
+
+                ensure( Byte.BYTES + Integer.BYTES ) ;
+                this.buffer.put( (byte) directions[ track ].ordinal() )
+                           .putInt( platform.size() ) ;
+
+                for ( int i = 0 ; i < platform.size() ; i++ )
+                    {
+                    putSerial( theStore, platform.get( i ) ) ;
+                    }
+                }
+            }
+
+        // trains
+        Train[] trains = theRoute.getTrains() ;
+
+        ensure( Integer.BYTES ) ;
+        this.buffer.putInt( trains.length ) ;
+
+        for ( Train aTrain : trains )
+            {
+            ensure( 4 * Integer.BYTES + Byte.BYTES ) ;
+            this.buffer.putInt( aTrain.getId() )
+                       .putInt( aTrain.getLocation().getPosition() )
+                       .put( (byte) aTrain.getLocation().getDirection().ordinal() )
+                       .putInt( aTrain.getCapacity() )
+                       .putInt( aTrain.getPassengerCount() ) ;
+
+            try
+                {
+                aTrain.forEachPassenger( passengerSlot -> putSerial( theStore, passengerSlot ) ) ;
+                }
+            catch ( UncheckedIOException e )
+                {
+                throw e.getCause() ;
+                }
+            }
+
+        this.snapshotCount++ ;
+
+        if ( ( writeEvent != null ) && writeEvent.shouldCommit() )
+            {
+            writeEvent.tick = time ;
+            writeEvent.label = label ;
+            writeEvent.bytes = size() - startSize ;
+            writeEvent.stations = stations.length ;
+            writeEvent.trains = trains.length ;
+            writeEvent.commit() ;
+            }
+
+        }   // end write()
+
+
+    /**
+     * Append a passenger's id
+     *
+     * @param theStore
+     *     the store the slot refers to
+     * @param passengerSlot
+     *     the passenger's slot
+     * @throws UncheckedIOException
+     *     if the buffer was full and couldn't be written
+     */
+    private void putSerial( PassengerStore theStore, int passengerSlot )
+        {
+        try
+            {
+            ensure( Long.BYTES ) ;
+            }
+        catch ( IOException e )
+            {
+            throw new UncheckedIOException( e ) ;
+            }
+
+        this.buffer.putLong( theStore.getSerial( passengerSlot ) ) ;
+
+        }   // end putSerial()
+
+
+    /**
+     * Append bytes, writing the buffer as often as necessary
+     *
+     * @param bytes
+     *     the source
+     * @param length
+     *     number of bytes from the start of the source to append
+     * @throws IOException
+     *     if the buffer can't be written
+     */
+    private void putBytes( byte[] bytes, int length ) throws IOException
+        {
+        int offset = 0 ;
+        while ( offset < length )
+            {
+            ensure( 1 ) ;
+
+            int chunk = Math.min( length - offset, this.buffer.remaining() ) ;
+            this.buffer.put( bytes, offset, chunk ) ;
+            offset += chunk ;
+            }
+
+        }   // end putBytes()
+
+
+    /**
+     * Make room in the buffer
+     *
+     * @param byteCount
+     *     number of bytes about to be appended - never more than the buffer holds
+     * @throws IOException
+     *     if the buffer can't be written
+     */
+    private void ensure( int byteCount ) throws IOException
+        {
+        if ( this.buffer.remaining() < byteCount )
+            {
+            flush() ;
+            }
+
+        }   // end ensure()
+
+
+    /**
+     * Write everything buffered so far to the file
+     *
+     * @throws IOException
+     *     if the buffer can't be written
+     */
+    public void flush() throws IOException
+        {
+        this.buffer.flip() ;
+        while ( this.buffer.hasRemaining() )
+            {
+            this.channel.write( this.buffer ) ;
+            }
+        this.buffer.clear() ;
+
+        }   // end flush()
+
+
+    /**
+     * @return the number of snapshots written
+     */
+    public int getSnapshotCount()
+        {
+        return this.snapshotCount ;
+
+        }   // end getSnapshotCount()
+
+
+    /**
+     * @return the number of bytes written to the file plus those still buffered
+     * @throws IOException
+     *     if the file's position can't be determined
+     */
+    public long size() throws IOException
+        {
+        return this.channel.position() + this.buffer.position() ;
+
+        }   // end size()
+
+
+    /**
+     * Write anything buffered and close the file
+     *
+     * @throws IOException
+     *     if the buffer can't be written or the file can't be closed
+     */
+    @Override
+    public void close() throws IOException
+        {
+        try
+            {
+            flush() ;
+            }
+        finally
+            {
+            this.channel.close() ;
+            }
+
+        }   // end close()
+
+    }   // end class SnapshotWriter
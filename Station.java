@@ -31,9 +31,6 @@ import edu.wit.scds.comp2000.queue.app.utilities.RouteStyle ;
 
 import java.io.FileNotFoundException ;
 import java.util.Arrays ;
-import java.util.HashMap ;
-import java.util.LinkedList ;
-import java.util.Queue ;
 
 /**
  * Representation of a station on a train route. A Station has two platforms (queues)
@@ -59,22 +56,37 @@ import java.util.Queue ;
  * 
  * @author Your Name
  * @version 2.1.0 2021-11-01 finish implementation
+ * @version 2.2.0 2026-10-18 platforms are ring buffers of passenger ids indexed by
+ *     track; bulk {@code drainTo()} for boarding
+ * @version 2.3.0 2026-10-18 per-instance simulation reference instead of a static
+ *     callback
+ * @version 2.4.0 2026-10-18 record travel times as passengers exit
+ * @version 2.5.0 2026-10-18 release passengers' store slots as they exit
+ * @version 2.6.0 2026-10-18 platform selection by the route's station-pair direction
+ *     table
+ * @version 2.7.0 2026-10-18 platform access for binary snapshots
+ * @version 2.8.0 2026-10-18 checkpoint save and restore
+ * @version 2.9.0 2026-10-18 passenger events recorded in the event journal
+ * @version 2.10.0 2026-10-18 disembarking split into passenger updates and bookkeeping
+ *     so trains at different platforms can be serviced concurrently
+ * @version 2.11.0 2026-10-18 completed journeys recorded through the simulation
+ * @version 2.12.0 2026-10-18 flight recorder station entry events
  */
 public final class Station
     {
 
-    // class-wide/shared information
-    private static int nextId = 1 ; // enables automatic id assignment
-
-    private static TrainSimulation simulationCallback ;   // provides access to simulation state
-
     // per-instance fields
 
     /** the unique identifier for this Station */
     public final int id ;           // unique id for this station
 
+    private final TrainSimulation simulation ;  // provides access to simulation state
+
     private final Location location ;
-    private HashMap<Direction, Queue<Passenger>> platforms ;
+
+    // the pair of platforms and the direction each serves, indexed by track
+    private final PassengerQueue[] platforms ;
+    private final Direction[] platformDirections ;
 
     /**
      * @param onRoute
@@ -84,18 +96,25 @@ public final class Station
      */
     public Station( TrainRoute onRoute, int positionOnRoute )
         {
-        this.id = Station.nextId++ ;    // assign the next unique id
+        this.id = onRoute.assignStationId() ;   // assign the next unique id
+        this.simulation = onRoute.getSimulation() ;
 
         // create a collection of platforms, determine the directions based on the
         // route style,
-        // and create a pair of platforms indexable by the direction they service
-        this.platforms = new HashMap<>() ;
+        // and create a pair of platforms indexable by the track they service
+        this.platforms = new PassengerQueue[ 2 ] ;
+        this.platformDirections = new Direction[ 2 ] ;
 
         Direction oneDirection = onRoute.getStyle() == RouteStyle.LINEAR
                                         ? Direction.OUTBOUND
                                         : Direction.CLOCKWISE ;
-        this.platforms.put( oneDirection, new LinkedList<Passenger>() ) ;
-        this.platforms.put( oneDirection.reverse(), new LinkedList<Passenger>() ) ;
+        for ( Direction platformDirection : new Direction[] { oneDirection,
+                                                              oneDirection.reverse() } )
+            {
+            int track = RouteTopology.trackIndex( platformDirection ) ;
+            this.platforms[ track ] = new PassengerQueue() ;
+            this.platformDirections[ track ] = platformDirection ;
+            }
 
         // save the position along the route
         this.location = new Location( onRoute,
@@ -117,6 +136,80 @@ public final class Station
         }   // end getId()
 
 
+    /**
+     * Retrieves the simulation this station belongs to
+     * 
+     * @return the simulation or {@code null} if the station was built outside one
+     */
+    TrainSimulation getSimulation()
+        {
+        return this.simulation ;
+
+        }   // end getSimulation()
+
+
+    /**
+     * Retrieves the directions this station's platforms serve
+     * 
+     * @return the platform directions
+     */
+    public Direction[] getPlatformDirections()
+        {
+        return this.platformDirections.clone() ;
+
+        }   // end getPlatformDirections()
+
+
+    /**
+     * Retrieves the passengers waiting on one platform
+     * 
+     * @param track
+     *     the track the platform serves
+     * @return the platform's queue of passenger slots
+     */
+    PassengerQueue getPlatform( int track )
+        {
+        return this.platforms[ track ] ;
+
+        }   // end getPlatform()
+
+
+    /**
+     * Append both platforms' queues to a checkpoint
+     * 
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        state.putInt( this.id ) ;
+
+        for ( PassengerQueue platform : this.platforms )
+            {
+            platform.saveState( state ) ;
+            }
+
+        }   // end saveState()
+
+
+    /**
+     * Replace both platforms' queues with those saved by {@code saveState()}
+     * 
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        state.expectInt( this.id, "station id" ) ;
+
+        for ( PassengerQueue platform : this.platforms )
+            {
+            platform.restoreState( state ) ;
+            }
+
+        }   // end restoreState()
+
+
     /**
      * Retrieves the location for this station
      * 
@@ -189,11 +282,16 @@ public final class Station
                                                toString(),
                                                this.location ) ) ;
 
-        for ( Direction platformSelector : this.platforms.keySet() )
+        for ( int track = 0 ; track < this.platforms.length ; track++ )
             {
+            // show passenger ids when the slots can be looked up
+            String waiting = this.simulation == null
+                                ? this.platforms[ track ].toString()
+                                : this.platforms[ track ].describe( this.simulation.getPassengerStore() ) ;
+
             fullDescription.append( String.format( "\t%s: %s%n",
-                                                   platformSelector,
-                                                   this.platforms.get( platformSelector ) ) ) ;
+                                                   this.platformDirections[ track ],
+                                                   waiting ) ) ;
             }
 
         return fullDescription.toString() ;
@@ -209,11 +307,15 @@ public final class Station
      */
     public void trainArrived( Train aTrain )
         {
-        Station.simulationCallback.getLogger()
-                        .printf( "%n%s arrived at %s's %s platform%n",
+        if ( this.simulation.isLogging( LogCategory.ARRIVALS, LogLevel.DEBUG ) )
+            {
+            this.simulation.log( LogCategory.ARRIVALS,
+                                 LogLevel.DEBUG,
+                                 "%n%s arrived at %s's %s platform%n",
                                  aTrain,
                                  this,
                                  aTrain.getLocation().getDirection() ) ;
+            }
 
         // TODO make this more interesting ???
 
@@ -231,40 +333,145 @@ public final class Station
     public void passengerDisembarked( Passenger aPassenger,
                                       Train aTrain )
         {
-        // indicate when they arrived
-        aPassenger.disembarkTrain() ;
+        PassengerQueue disembarking = new PassengerQueue( 1 ) ;
+        disembarking.add( aPassenger.getSlot() ) ;
+
+        passengerDisembarked( disembarking, aTrain ) ;
+
+        }   // end passengerDisembarked()
 
-        // the passenger now exits the station/simulation
-        exit( aPassenger ) ;
 
-        // TODO additional logging ?
+    /**
+     * Handle a batch of passengers arriving on a train
+     * 
+     * @param disembarking
+     *     ids of the passengers getting off here
+     * @param aTrain
+     *     the train the passengers arrived on
+     */
+    void passengerDisembarked( PassengerQueue disembarking,
+                               Train aTrain )
+        {
+        markDisembarked( disembarking ) ;
+        recordDisembarked( disembarking, aTrain ) ;
 
         }   // end passengerDisembarked()
 
 
+    /**
+     * Timestamp a batch of passengers getting off a train here and leaving the
+     * station. Only the passengers' own timestamps are touched so trains can be
+     * serviced concurrently - {@code recordDisembarked()} must follow.
+     * 
+     * @param disembarking
+     *     slots of the passengers getting off here
+     */
+    void markDisembarked( PassengerQueue disembarking )
+        {
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+        int currentTime = this.simulation.getCurrentTime() ;
+
+        int arrivingCount = disembarking.size() ;
+        for ( int i = 0 ; i < arrivingCount ; i++ )
+            {
+            int passengerSlot = disembarking.get( i ) ;
+
+            theStore.setTimeDisembarked( passengerSlot, currentTime ) ;
+            theStore.setTimeExited( passengerSlot, currentTime ) ;
+            }
+
+        }   // end markDisembarked()
+
+
+    /**
+     * Journal, log and accumulate statistics for a batch of passengers marked by
+     * {@code markDisembarked()}, then release their slots
+     * 
+     * @param disembarking
+     *     slots of the passengers who got off here
+     * @param aTrain
+     *     the train the passengers arrived on
+     */
+    void recordDisembarked( PassengerQueue disembarking,
+                            Train aTrain )
+        {
+        int arrivingCount = disembarking.size() ;
+        for ( int i = 0 ; i < arrivingCount ; i++ )
+            {
+            int passengerSlot = disembarking.get( i ) ;
+
+            this.simulation.recordPassengerEvent( JournalEvent.DISEMBARK,
+                                                  passengerSlot,
+                                                  this.id,
+                                                  aTrain.getId() ) ;
+
+            // the passenger now exits the station/simulation
+            exit( passengerSlot ) ;
+            }
+
+        }   // end recordDisembarked()
+
+
     /**
      * The passenger has completed their journey and is leaving the simulation
      * 
-     * @param aPassenger
-     *     the happy passenger
+     * @param passengerSlot
+     *     the happy passenger's slot
      */
-    private void exit( Passenger aPassenger )
+    private void exit( int passengerSlot )
         {
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+
         // the passenger is at their destination and leaving the station
-        aPassenger.exitStation() ;
-
-        Station.simulationCallback.getLogger()
-                        .printf( "%s arrived after waiting %,d ticks and riding %,d ticks; total travel time was %,d ticks%n",
-                                 aPassenger,
-                                 aPassenger.getTimeWaiting(),
-                                 aPassenger.getTimeRiding(),
-                                 aPassenger.getTotalTime() ) ;
-        
-        // TODO accumulate statistics
+        this.simulation.recordPassengerEvent( JournalEvent.EXIT,
+                                              passengerSlot,
+                                              this.id,
+                                              0 ) ;
+
+        if ( this.simulation.isLogging( LogCategory.BOARDING, LogLevel.DEBUG ) )
+            {
+            this.simulation.log( LogCategory.BOARDING,
+                                 LogLevel.DEBUG,
+                                 "%s arrived after waiting %,d ticks and riding %,d ticks; total travel time was %,d ticks%n",
+                                 new Passenger( this.simulation, passengerSlot ),
+                                 theStore.getTimeWaiting( passengerSlot ),
+                                 theStore.getTimeRiding( passengerSlot ),
+                                 theStore.getTotalTime( passengerSlot ) ) ;
+            }
+
+        // accumulate statistics - the passenger's stations and times are no longer
+        // needed once they're recorded so their slot can be reused
+        int originId = theStore.getOriginId( passengerSlot ) ;
+
+        this.simulation.recordJourney( originId,
+                                       this.location.getRoute().directionBetween( originId, this.id ),
+                                       theStore.getTimeWaiting( passengerSlot ),
+                                       theStore.getTimeRiding( passengerSlot ),
+                                       theStore.getTotalTime( passengerSlot ) ) ;
+
+        theStore.release( passengerSlot ) ;
 
         }   // end exit()
 
 
+    /**
+     * Select the platform serving a direction
+     * 
+     * @param goingInDirection
+     *     the direction of travel
+     * @return the platform or {@code null} if this station has no such platform
+     */
+    private PassengerQueue platformFor( Direction goingInDirection )
+        {
+        int track = RouteTopology.trackIndex( goingInDirection ) ;
+
+        return ( track >= 0 ) && ( this.platformDirections[ track ] == goingInDirection )
+                    ? this.platforms[ track ]
+                    : null ;
+
+        }   // end platformFor()
+
+
     /**
      * Indicate whether there are any passengers waiting to go in the specified
      * direction
@@ -276,7 +483,7 @@ public final class Station
      */
     public boolean hasWaitingPassenger( Direction goingInDirection )
         {
-        Queue<Passenger> selectedPlatform = this.platforms.get( goingInDirection ) ;
+        PassengerQueue selectedPlatform = platformFor( goingInDirection ) ;
 
         return selectedPlatform == null
                     ? false
@@ -285,6 +492,25 @@ public final class Station
         }   // hasWaitingPassenger()
 
 
+    /**
+     * Retrieve the number of passengers waiting to go in the specified direction
+     * 
+     * @param goingInDirection
+     *     the direction the train is traveling
+     * @return the number of passengers on the platform or 0 if the platform doesn't
+     *     exist
+     */
+    public int getWaitingCount( Direction goingInDirection )
+        {
+        PassengerQueue selectedPlatform = platformFor( goingInDirection ) ;
+
+        return selectedPlatform == null
+                    ? 0
+                    : selectedPlatform.size() ;
+
+        }   // getWaitingCount()
+
+
     /**
      * Returns the next passenger waiting to go in the specified direction
      * 
@@ -295,13 +521,50 @@ public final class Station
      */
     public Passenger getWaitingPassenger( Direction goingInDirection )
         {
-        Queue<Passenger> selectedPlatform = this.platforms.get( goingInDirection ) ;
+        PassengerQueue selectedPlatform = platformFor( goingInDirection ) ;
 
-        return null ;   // TODO retrieve a Passenger from this platform if at least one in the queue
+        if ( ( selectedPlatform == null ) || selectedPlatform.isEmpty() )
+            {
+            return null ;
+            }
+
+        return new Passenger( this.simulation, selectedPlatform.poll() ) ;
 
         }   // getWaitingPassenger()
 
 
+    /**
+     * Board up to {@code maxCount} passengers waiting on the platform serving the
+     * train's direction of travel, in the order they arrived - the train journals
+     * them when it completes its stop
+     * 
+     * @param aTrain
+     *     the train at this station
+     * @param maxCount
+     *     the most passengers to board (usually the train's free capacity)
+     * @return the number of passengers who boarded
+     */
+    public int drainTo( Train aTrain, int maxCount )
+        {
+        PassengerQueue selectedPlatform = platformFor( aTrain.getLocation()
+                                                             .getDirection() ) ;
+
+        if ( selectedPlatform == null )
+            {
+            return 0 ;
+            }
+
+        int boardingCount = Math.min( maxCount, selectedPlatform.size() ) ;
+        for ( int i = 0 ; i < boardingCount ; i++ )
+            {
+            aTrain.board( selectedPlatform.poll() ) ;
+            }
+
+        return boardingCount ;
+
+        }   // end drainTo()
+
+
     /**
      * Guide a passenger entering this station to the appropriate platform
      * 
@@ -310,18 +573,53 @@ public final class Station
      */
     public void enter( Passenger aPassenger )
         {
-        Location from = this.location ;
-        Location to = aPassenger.getDestination().getLocation() ;
+        enter( aPassenger.getSlot() ) ;
+
+        }   // end enter()
+
+
+    /**
+     * Guide a passenger entering this station to the appropriate platform
+     * 
+     * @param passengerSlot
+     *     the id of a passenger traveling from here to elsewhere
+     */
+    void enter( int passengerSlot )
+        {
+        TrainRoute theRoute = this.location.getRoute() ;
+        int destinationId = this.simulation.getPassengerStore()
+                                           .getDestinationId( passengerSlot ) ;
+
+        // wait on the platform serving the direction toward the destination
+        Direction platformSelector = theRoute.directionBetween( this.id, destinationId ) ;
+        PassengerQueue platform = platformFor( platformSelector ) ;
+        platform.add( passengerSlot ) ;
 
-        Direction platformSelector = null ; // TODO get direction from TrainRoute
-                                // then add the Passenger to the appropriate platform queue
+        if ( SimulationEvents.isStationEnterEnabled() )
+            {
+            SimulationEvents.StationEnterEvent enterEvent = new SimulationEvents.StationEnterEvent() ;
+            if ( enterEvent.shouldCommit() )
+                {
+                enterEvent.tick = this.simulation.getCurrentTime() ;
+                enterEvent.stationId = this.id ;
+                enterEvent.destinationId = destinationId ;
+                enterEvent.passenger = this.simulation.getPassengerStore()
+                                                      .getSerial( passengerSlot ) ;
+                enterEvent.platformDepth = platform.size() ;
+                enterEvent.commit() ;
+                }
+            }
 
-        Station.simulationCallback.getLogger()
-                        .printf( "%s is waiting on %s's %s platform heading to %s%n",
-                                 aPassenger,
+        if ( this.simulation.isLogging( LogCategory.BOARDING, LogLevel.DEBUG ) )
+            {
+            this.simulation.log( LogCategory.BOARDING,
+                                 LogLevel.DEBUG,
+                                 "%s is waiting on %s's %s platform heading to %s%n",
+                                 new Passenger( this.simulation, passengerSlot ),
                                  this,
                                  platformSelector,
-                                 Station.simulationCallback.getTrainRoute().getStationAt( to ) ) ;
+                                 theRoute.getStation( destinationId ) ) ;
+            }
 
         }   // end enter()
 
@@ -329,33 +627,6 @@ public final class Station
     // TODO complete this
     
     
-    /*
-     * semi-public utility methods
-     */
-    
-    
-    /**
-     * Enable callback to the simulation to access:
-     * <ul>
-     * <li>configuration</li>
-     * <li>current time</li>
-     * <li>random number generator instance</li>
-     * <li>logger</li>
-     * <li>train route</li>
-     * </ul>
-     * <p>
-     * This setup is done once at the start of the simulation for this entire class
-     *
-     * @param currentSimulation
-     *     instance providing callback functionality
-     */
-    static void setSimulationCallback( TrainSimulation currentSimulation )
-        {
-        Station.simulationCallback = currentSimulation ;
-        
-        }   // end setSimulationCallback()
-
-
     /**
      * Test driver
      * 
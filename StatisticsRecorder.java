@@ -0,0 +1,358 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+
+import java.util.concurrent.atomic.AtomicLong ;
+import java.util.concurrent.locks.LockSupport ;
+
+/**
+ * Records completed journeys into the travel statistics on a background thread.
+ * The simulation thread appends each journey's times to a bounded lock-free
+ * single-producer/single-consumer ring buffer and publishes them a tick at a time;
+ * the background thread folds the published journeys into the histograms in the
+ * order they completed, so the statistics are identical to recording them in line.
+ * <p>
+ * The statistics must not be read until {@code flush()} or {@code close()}
+ * returns.
+ * <p>
+ * NOTE: {@code record()} and {@code flush()} must only be called from one thread.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ */
+final class StatisticsRecorder
+    {
+
+    /** how long the background thread sleeps when there is nothing to record */
+    private static final long IDLE_PARK_NANOS = 100_000L ;
+
+    private final TravelStatistics statistics ;
+
+    // ring buffer - a record is a completed journey
+    private final int[] originIds ;
+    private final Direction[] travelDirections ;
+    private final int[] timesWaiting ;
+    private final int[] timesRiding ;
+    private final int[] totalTimes ;
+    private final int mask ;
+
+    private final AtomicLong published = new AtomicLong() ;   // next sequence to be written by the producer
+    private final AtomicLong consumed = new AtomicLong() ;    // next sequence to be recorded
+    private long producerSequence = 0 ;                        // next sequence the producer writes
+    private int batchTime ;                                    // tick of the unpublished records
+
+    private final Thread recorderThread ;
+    private volatile boolean closed = false ;
+
+
+    /**
+     * Start the background thread
+     * 
+     * @param theStatistics
+     *     the statistics to record into
+     * @param capacity
+     *     number of journeys the ring buffer holds (rounded up to a power of 2)
+     */
+    StatisticsRecorder( TravelStatistics theStatistics,
+                        int capacity )
+        {
+        this.statistics = theStatistics ;
+
+        int ringSize = Integer.highestOneBit( Math.max( 2, capacity - 1 ) ) << 1 ;
+
+        this.originIds = new int[ ringSize ] ;
+        this.travelDirections = new Direction[ ringSize ] ;
+        this.timesWaiting = new int[ ringSize ] ;
+        this.timesRiding = new int[ ringSize ] ;
+        this.totalTimes = new int[ ringSize ] ;
+        this.mask = ringSize - 1 ;
+
+        this.recorderThread = new Thread( this::recordLoop, "StatisticsRecorder" ) ;
+        this.recorderThread.setDaemon( true ) ;
+        this.recorderThread.start() ;
+
+        }   // end constructor
+
+
+    /**
+     * Queue a completed journey - journeys completing in earlier ticks are
+     * published to the background thread
+     * 
+     * @param currentTime
+     *     the tick the journey completed
+     * @param originId
+     *     the id of the station the passenger started at
+     * @param travelDirection
+     *     the direction the passenger travelled
+     * @param timeWaiting
+     *     ticks spent waiting for a train
+     * @param timeRiding
+     *     ticks spent on a train
+     * @param totalTime
+     *     ticks from entering the origin to exiting the destination
+     */
+    void record( int currentTime,
+                 int originId,
+                 Direction travelDirection,
+                 int timeWaiting,
+                 int timeRiding,
+                 int totalTime )
+        {
+        if ( currentTime != this.batchTime )
+            {
+            // a new tick - hand over the previous tick's journeys
+            publish() ;
+            this.batchTime = currentTime ;
+            }
+
+        long sequence = this.producerSequence ;
+        if ( ( sequence - this.consumed.get() ) > this.mask )
+            {
+            // full - hand over what we have and wait for room
+            publish() ;
+            awaitConsumed( sequence - this.mask ) ;
+            }
+
+        int slot = (int) ( sequence & this.mask ) ;
+        this.originIds[ slot ] = originId ;
+        this.travelDirections[ slot ] = travelDirection ;
+        this.timesWaiting[ slot ] = timeWaiting ;
+        this.timesRiding[ slot ] = timeRiding ;
+        this.totalTimes[ slot ] = totalTime ;
+
+        this.producerSequence = sequence + 1 ;
+
+        }   // end record()
+
+
+    /**
+     * Make every queued journey visible to the background thread
+     */
+    private void publish()
+        {
+        if ( this.published.get() != this.producerSequence )
+            {
+            this.published.lazySet( this.producerSequence ) ;
+            LockSupport.unpark( this.recorderThread ) ;
+            }
+
+        }   // end publish()
+
+
+    /**
+     * Wait until the background thread has recorded everything before a sequence
+     *
+     * @param sequence
+     *     the first sequence which needn't be recorded
+     * @throws IllegalStateException
+     *     if the background thread has stopped
+     */
+    private void awaitConsumed( long sequence )
+        {
+        while ( this.consumed.get() < sequence )
+            {
+            if ( ! this.recorderThread.isAlive() )
+                {
+                throw new IllegalStateException( "statistics recorder has stopped" ) ;
+                }
+
+            LockSupport.unpark( this.recorderThread ) ;
+            Thread.onSpinWait() ;
+            }
+
+        }   // end awaitConsumed()
+
+
+    /**
+     * Background thread: record published journeys until closed
+     */
+    private void recordLoop()
+        {
+        long cursor = 0 ;
+
+        while ( true )
+            {
+            long available = this.published.get() ;
+
+            if ( cursor < available )
+                {
+                for ( ; cursor < available ; cursor++ )
+                    {
+                    int slot = (int) ( cursor & this.mask ) ;
+                    this.statistics.record( this.originIds[ slot ],
+                                            this.travelDirections[ slot ],
+                                            this.timesWaiting[ slot ],
+                                            this.timesRiding[ slot ],
+                                            this.totalTimes[ slot ] ) ;
+                    }
+
+                this.consumed.lazySet( cursor ) ;
+                continue ;
+                }
+
+            if ( this.closed && ( this.published.get() == cursor ) )
+                {
+                break ;
+                }
+
+            LockSupport.parkNanos( IDLE_PARK_NANOS ) ;
+            }
+
+        }   // end recordLoop()
+
+
+    /**
+     * Wait until every queued journey is recorded - the statistics may then be read
+     * until the next {@code record()}
+     */
+    void flush()
+        {
+        publish() ;
+        awaitConsumed( this.producerSequence ) ;
+
+        }   // end flush()
+
+
+    /**
+     * Record every queued journey and stop the background thread
+     */
+    void close()
+        {
+        publish() ;
+        this.closed = true ;
+        LockSupport.unpark( this.recorderThread ) ;
+
+        try
+            {
+            this.recorderThread.join() ;
+            }
+        catch ( InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+            }
+
+        }   // end close()
+
+
+    /**
+     * Test driver - runs each engine single-threaded and as a pipeline, and checks
+     * that the statistics recorded on the recorder thread count every completed
+     * journey and match those recorded on the simulation thread
+     * 
+     * @param args
+     *     optional {@code stations spacing trains passengersPerTick ticks}
+     * @throws IllegalStateException
+     *     if the pipeline's statistics are incomplete or differ
+     */
+    public static void main( String[] args )
+        {
+        int stations = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 200 ;
+        int spacing = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 10 ;
+        int trains = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 400 ;
+        int passengersPerTick = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 200 ;
+        int ticks = args.length > 4 ? Integer.parseInt( args[ 4 ] ) : 5_000 ;
+
+        Scenario theScenario = Scenario.uniform( stations,
+                                                 spacing,
+                                                 trains,
+                                                 100,
+                                                 passengersPerTick,
+                                                 ticks,
+                                                 2_021L ) ;
+
+        String difference = null ;
+
+        for ( SimulationOptions.Engine anEngine : SimulationOptions.Engine.values() )
+            {
+            String serialStatistics = null ;
+
+            for ( boolean pipelined : new boolean[] { false, true } )
+                {
+                SimulationOptions theOptions = pipelined
+                                                   ? SimulationOptions.pipeline()
+                                                   : new SimulationOptions() ;
+                theOptions.setEngine( anEngine ) ;
+
+                long startTime = System.nanoTime() ;
+                TrainSimulation theSimulation = new TrainSimulation( theScenario, theOptions ) ;
+                theSimulation.run() ;
+                long elapsedNanos = System.nanoTime() - startTime ;
+
+                System.out.printf( "%-8s %-9s %s%n",
+                                   anEngine,
+                                   pipelined
+                                       ? "pipelined"
+                                       : "serial",
+                                   ReplicationResult.summarize( theScenario.getSeed(),
+                                                                theSimulation,
+                                                                elapsedNanos ) ) ;
+
+                PassengerStore theStore = theSimulation.getPassengerStore() ;
+                long completed = theStore.getCreatedCount() - theStore.size() ;
+                long recorded = theSimulation.getStatistics().getTotal().getCount() ;
+                String statistics = theSimulation.getStatistics().toString() ;
+
+                if ( ! pipelined )
+                    {
+                    serialStatistics = statistics ;
+                    }
+
+                if ( difference != null )
+                    {
+                    continue ;
+                    }
+
+                if ( recorded != completed )
+                    {
+                    difference = String.format( "%s %s: %,d of %,d completed journeys recorded",
+                                                anEngine,
+                                                pipelined
+                                                    ? "pipelined"
+                                                    : "serial",
+                                                recorded,
+                                                completed ) ;
+                    }
+                else if ( ! statistics.equals( serialStatistics ) )
+                    {
+                    difference = String.format( "%s: pipelined statistics differ%n%s%nvs%n%s",
+                                                anEngine,
+                                                statistics,
+                                                serialStatistics ) ;
+                    }
+                }
+            }
+
+        if ( difference != null )
+            {
+            throw new IllegalStateException( difference ) ;
+            }
+
+        System.out.printf( "%nstatistics identical%n" ) ;
+
+        }   // end main()
+
+    }   // end class StatisticsRecorder
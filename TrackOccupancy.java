@@ -0,0 +1,179 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+/**
+ * Per-track, per-position record of which Train (if any) is at each position on a
+ * TrainRoute's pair of tracks. Trains report each move so the record is maintained
+ * incrementally, making "which train is here" and the one-train-per-track check
+ * O(1).
+ * <p>
+ * Train ids are stored directly; 0 indicates an unoccupied position.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 checkpoint save and restore
+ */
+final class TrackOccupancy
+    {
+
+    /** indicates no train occupies a position */
+    static final int UNOCCUPIED = 0 ;
+
+    /** occupying train id indexed by [ track ][ position - base ] */
+    private final int[][] occupants ;
+    private final int base ;
+
+
+    /**
+     * @param lowestPosition
+     *     the lowest position a train may occupy
+     * @param highestPosition
+     *     the highest position a train may occupy
+     */
+    TrackOccupancy( int lowestPosition, int highestPosition )
+        {
+        this.base = lowestPosition ;
+
+        int span = ( highestPosition - lowestPosition ) + 1 ;
+        this.occupants = new int[][] { new int[ span ], new int[ span ] } ;
+
+        }   // end constructor
+
+
+    /**
+     * Retrieve the train id at a position on a track
+     *
+     * @param track
+     *     the track index (see {@code RouteTopology.trackIndex()})
+     * @param position
+     *     the position along the route
+     * @return the occupying train id or {@code UNOCCUPIED}
+     */
+    int occupantAt( int track, int position )
+        {
+        int index = position - this.base ;
+
+        if ( ( track < 0 ) || ( index < 0 ) || ( index >= this.occupants[ track ].length ) )
+            {
+            return UNOCCUPIED ;
+            }
+
+        return this.occupants[ track ][ index ] ;
+
+        }   // end occupantAt()
+
+
+    /**
+     * Record a train at a position on a track
+     *
+     * @param track
+     *     the track index
+     * @param position
+     *     the position along the route
+     * @param trainId
+     *     the id of the arriving train
+     * @return the id of a different train that was already there or
+     *     {@code UNOCCUPIED} if the one-train-per-track rule holds
+     */
+    int occupy( int track, int position, int trainId )
+        {
+        int index = position - this.base ;
+
+        if ( ( track < 0 ) || ( index < 0 ) || ( index >= this.occupants[ track ].length ) )
+            {
+            return UNOCCUPIED ;     // off the indexed route
+            }
+
+        int previousOccupant = this.occupants[ track ][ index ] ;
+        this.occupants[ track ][ index ] = trainId ;
+
+        return previousOccupant == trainId
+                    ? UNOCCUPIED
+                    : previousOccupant ;
+
+        }   // end occupy()
+
+
+    /**
+     * Remove a train from a position on a track - if another train has since taken
+     * the position it is left alone
+     *
+     * @param track
+     *     the track index
+     * @param position
+     *     the position along the route
+     * @param trainId
+     *     the id of the departing train
+     */
+    void vacate( int track, int position, int trainId )
+        {
+        int index = position - this.base ;
+
+        if ( ( track < 0 ) || ( index < 0 ) || ( index >= this.occupants[ track ].length ) )
+            {
+            return ;
+            }
+
+        if ( this.occupants[ track ][ index ] == trainId )
+            {
+            this.occupants[ track ][ index ] = UNOCCUPIED ;
+            }
+
+        }   // end vacate()
+
+
+    /**
+     * Append both tracks' occupants to a checkpoint
+     *
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        for ( int[] trackOccupants : this.occupants )
+            {
+            state.putInts( trackOccupants, 0, trackOccupants.length ) ;
+            }
+
+        }   // end saveState()
+
+
+    /**
+     * Replace both tracks' occupants with those saved by {@code saveState()}
+     *
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        for ( int[] trackOccupants : this.occupants )
+            {
+            state.getInts( trackOccupants, 0, trackOccupants.length ) ;
+            }
+
+        }   // end restoreState()
+
+    }   // end class TrackOccupancy
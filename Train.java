@@ -30,10 +30,10 @@ import edu.wit.scds.comp2000.queue.app.utilities.Location ;
 import edu.wit.scds.comp2000.queue.app.utilities.TrainSpecification ;
 
 import java.io.FileNotFoundException ;
-import java.util.ArrayList ;
 import java.util.Arrays ;
-import java.util.Iterator ;
 import java.util.Objects ;
+import java.util.StringJoiner ;
+import java.util.function.IntConsumer ;
 
 /**
  * Representation of a train on a train route. A Train has a fixed, limited capacity
@@ -42,8 +42,6 @@ import java.util.Objects ;
  * NOTE: This class is incomplete - you may want to restructure it based on your
  * implementation's requirements.
  * <p>
- * <b>WARNING</b>: Some CIRCULAR route functionality is not yet implemented!
- * <p>
  * NOTE: You must retain all authorship comments. You should add/update your
  * authorship and modification history tags after the existing tags.
  *
@@ -59,23 +57,50 @@ import java.util.Objects ;
  * 
  * @author Your Name
  * @version 2.1.0 2021-11-01 finish implementation
+ * @version 2.2.0 2026-10-18 on-board passengers are bucketed by destination station
+ *     so offloading touches only the passengers getting off
+ * @version 2.3.0 2026-10-18 per-instance simulation reference instead of a static
+ *     callback
+ * @version 2.4.0 2026-10-18 {@code advanceTo()} for the event-driven engine
+ * @version 2.5.0 2026-10-18 on-board passenger access for binary snapshots
+ * @version 2.6.0 2026-10-18 checkpoint save and restore
+ * @version 2.7.0 2026-10-18 boarding and station stops recorded in the event journal
+ * @version 2.8.0 2026-10-18 moving and station stops split into per-train work and
+ *     bookkeeping for the parallel tick engine
+ * @version 2.9.0 2026-10-18 continue around the ends of CIRCULAR routes - CIRCULAR
+ *     routes are fully supported
+ * @version 2.10.0 2026-10-18 flight recorder station stop events
  */
 public final class Train
     {
 
-    // class-wide/shared information
-    private static int nextId = 1 ; // enables automatic id assignment
-
-    private static TrainSimulation simulationCallback ;   // provides access to simulation state
-
     // per-instance fields
 
     /** the unique identifier for this Train */
     private final int id ;              // unique id for this train
 
+    private final TrainSimulation simulation ;  // provides access to simulation state
+
     private final int capacity ;
     private Location currentLocation ;
-    private ArrayList<Passenger> passengers ;
+
+    // on-board passenger slots bucketed by destination station id - only
+    // destinations with passengers on board have a bucket
+    private final DestinationBuckets passengersByDestination ;
+    private PassengerQueue spareBucket ;    // most recently emptied bucket for reuse
+    private int passengerCount ;
+
+    // location before the move in progress - see moveLocation()
+    private int previousPosition ;
+    private Direction previousDirection ;
+    private Train collidingTrain ;      // already at the new position or null - see logMove()
+
+    // the stop in progress - see serviceStation()
+    private Station stopStation ;
+    private int arrivalPassengerCount ;
+    private PassengerQueue disembarking ;       // detached bucket or null
+    private final PassengerQueue boarded = new PassengerQueue() ;
+    private SimulationEvents.StationStopEvent stopEvent ;   // timed stop or null
 
     /**
      * @param onRoute
@@ -85,16 +110,43 @@ public final class Train
      */
     public Train( TrainRoute onRoute, TrainSpecification trainSpecification )
         {
-        this.id = Train.nextId++ ;  // assign the next unique id
+        this( onRoute,
+              trainSpecification.location,
+              trainSpecification.direction,
+              trainSpecification.capacity ) ;
+
+        }   // end constructor
 
-        // create an empty collection to hold Passengers while they're on board
-        this.passengers = new ArrayList<>() ;
+
+    /**
+     * @param onRoute
+     *     the instance of the TrainRoute on which this Train operates
+     * @param startingPosition
+     *     the position along the route where the train starts
+     * @param startingDirection
+     *     the direction the train is initially traveling
+     * @param trainCapacity
+     *     the maximum number of passengers on board at once
+     */
+    public Train( TrainRoute onRoute,
+                  int startingPosition,
+                  Direction startingDirection,
+                  int trainCapacity )
+        {
+        this.id = onRoute.assignTrainId() ;     // assign the next unique id
+        this.simulation = onRoute.getSimulation() ;
+
+        // create an empty collection to hold Passengers while they're on board - a
+        // bucket is created for each destination when first needed
+        this.passengersByDestination = new DestinationBuckets() ;
+        this.spareBucket = null ;
+        this.passengerCount = 0 ;
 
         // save the configuration parameters
-        this.capacity = trainSpecification.capacity ;
+        this.capacity = trainCapacity ;
         this.currentLocation = new Location( onRoute,
-                                             trainSpecification.location,
-                                             trainSpecification.direction ) ;
+                                             startingPosition,
+                                             startingDirection ) ;
 
         }   // end constructor
 
@@ -136,6 +188,85 @@ public final class Train
         }   // end getLocation()
 
 
+    /**
+     * Visit every passenger currently on-board, grouped by destination
+     * 
+     * @param slotConsumer
+     *     receives each passenger's store slot
+     */
+    void forEachPassenger( IntConsumer slotConsumer )
+        {
+        this.passengersByDestination.forEach( ( bucket, destinationId ) ->
+            {
+            for ( int i = 0 ; i < bucket.size() ; i++ )
+                {
+                slotConsumer.accept( bucket.get( i ) ) ;
+                }
+            } ) ;
+
+        }   // end forEachPassenger()
+
+
+    /**
+     * Append the train's location and on-board passengers to a checkpoint
+     * 
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        state.putInt( this.id ) ;
+        state.putInt( this.currentLocation.getPosition() ) ;
+        state.putInt( this.currentLocation.getDirection().ordinal() ) ;
+        state.putInt( this.passengerCount ) ;
+
+        // buckets are detached as soon as they empty so every one is occupied
+        state.putInt( this.passengersByDestination.size() ) ;
+
+        this.passengersByDestination.forEach( ( bucket, destinationId ) ->
+            {
+            state.putInt( destinationId ) ;
+            bucket.saveState( state ) ;
+            } ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the train's location and on-board passengers with those saved by
+     * {@code saveState()} - the route's track occupancy is restored separately
+     * 
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        state.expectInt( this.id, "train id" ) ;
+
+        int position = state.getInt() ;
+        Direction direction = Direction.values()[ state.getInt() ] ;
+        this.currentLocation = new Location( this.currentLocation.getRoute(),
+                                             position,
+                                             direction ) ;
+
+        this.passengerCount = state.getInt() ;
+
+        this.passengersByDestination.clear() ;
+        this.spareBucket = null ;
+
+        int occupiedBuckets = state.getInt() ;
+        for ( int i = 0 ; i < occupiedBuckets ; i++ )
+            {
+            int destinationId = state.getInt() ;
+
+            PassengerQueue bucket = new PassengerQueue() ;
+            bucket.restoreState( state ) ;
+            this.passengersByDestination.put( destinationId, bucket ) ;
+            }
+
+        }   // end restoreState()
+
+
     /**
      * Retrieves the number of passengers currently on-board
      * 
@@ -143,7 +274,7 @@ public final class Train
      */
     public int getPassengerCount()
         {
-        return this.passengers.size() ;
+        return this.passengerCount ;
 
         }   // end getPassengerCount()
 
@@ -156,7 +287,10 @@ public final class Train
      */
     private void closeDoors( Station aStation )
         {
-        // TODO log pending departure ??
+        this.simulation.recordTrainEvent( JournalEvent.TRAIN_DEPART,
+                                          this,
+                                          aStation,
+                                          this.passengerCount ) ;
         
         }   // end closeDoors()
 
@@ -171,6 +305,10 @@ public final class Train
         {
         // inform the station of our arrival
         aStation.trainArrived( this ) ;
+        this.simulation.recordTrainEvent( JournalEvent.TRAIN_ARRIVE,
+                                          this,
+                                          aStation,
+                                          this.arrivalPassengerCount ) ;
 
         // TODO other options?  what else to do (if anything)...?
 
@@ -178,14 +316,26 @@ public final class Train
 
 
     /**
-     * Let passengers get off the train if at their destination
+     * Let passengers get off the train if at their destination - the bucket of
+     * passengers bound for this station is detached and handed to the station as a
+     * batch to timestamp; {@code completeStop()} has the station record them
      * 
      * @param aStation
      *     the station we are at
      */
     private void offloadPassengers( Station aStation )
         {
-        // TODO ??
+        // detach the bucket
+        PassengerQueue disembarking = this.passengersByDestination.remove( aStation.getId() ) ;
+        if ( disembarking == null )
+            {
+            return ;    // nobody on board is going there
+            }
+
+        this.passengerCount -= disembarking.size() ;
+
+        aStation.markDisembarked( disembarking ) ;
+        this.disembarking = disembarking ;
 
         }   // end offloadPassengers()
 
@@ -198,24 +348,47 @@ public final class Train
      */
     private void boardPassengers( Station aStation )
         {
-        // TODO you might use depending upon your logic
+        aStation.drainTo( this, this.capacity - this.passengerCount ) ;
 
         }   // end boardPassengers()
 
 
     /**
-     * Board a single passenger
+     * Board a single passenger taken from a station platform - they're journaled
+     * when the stop completes
      * 
-     * @param aPassenger
-     *     the passenger getting on
+     * @param passengerSlot
+     *     the id of the passenger getting on
      */
-    private void board( Passenger aPassenger )
+    void board( int passengerSlot )
         {
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+
         // set the time the passenger boarded
-        aPassenger.boardTrain();
+        theStore.setTimeBoarded( passengerSlot, this.simulation.getCurrentTime() ) ;
+        this.boarded.add( passengerSlot ) ;
 
         // welcome them on-board
-        // TODO add the passenger to our collection of Passengers
+        int destinationId = theStore.getDestinationId( passengerSlot ) ;
+
+        PassengerQueue bucket = this.passengersByDestination.get( destinationId ) ;
+        if ( bucket == null )
+            {
+            if ( this.spareBucket != null )
+                {
+                bucket = this.spareBucket ;
+                this.spareBucket = null ;
+                }
+            else
+                {
+                bucket = new PassengerQueue() ;
+                }
+
+            this.passengersByDestination.put( destinationId, bucket ) ;
+            }
+
+        bucket.add( passengerSlot ) ;
+        this.passengerCount++ ;
 
         }   // end board()
 
@@ -238,41 +411,252 @@ public final class Train
         // need to change the visibility of some of these methods if your logic is
         // different from mine
         
-        openDoors( aStation ) ;
+        serviceStation( aStation ) ;
+
+        completeStop() ;
+
+        // we're ready to leave the station
+
+        }   // end atStation()
+
+
+    /**
+     * First half of {@code atStation()}: exchange passengers at a station. Only
+     * this train, its passengers' timestamps and the platform it boards from are
+     * touched, so trains at different platforms can be serviced concurrently.
+     * 
+     * @param aStation
+     *     the station we arrived at
+     */
+    void serviceStation( Station aStation )
+        {
+        this.stopStation = aStation ;
+        this.arrivalPassengerCount = this.passengerCount ;
+
+        if ( ! SimulationEvents.isStationStopEnabled() )
+            {
+            offloadPassengers( aStation ) ;
+
+            boardPassengers( aStation ) ;
+
+            return ;
+            }
+
+        // time both halves for the flight recorder - completeStop() commits the event
+        SimulationEvents.StationStopEvent stopEvent = new SimulationEvents.StationStopEvent() ;
+        stopEvent.begin() ;
+        long startTime = System.nanoTime() ;
 
         offloadPassengers( aStation ) ;
+        long offloadedTime = System.nanoTime() ;
 
         boardPassengers( aStation ) ;
 
+        stopEvent.offloadDuration = offloadedTime - startTime ;
+        stopEvent.boardDuration = System.nanoTime() - offloadedTime ;
+        this.stopEvent = stopEvent ;
+
+        }   // end serviceStation()
+
+
+    /**
+     * Second half of {@code atStation()}: log and journal the stop, have the
+     * station record the passengers who got off and journal those who got on.
+     * Stops must be completed in a consistent order - train id order within a tick
+     * - for the logs, journal, statistics and slot reuse to be reproducible.
+     */
+    void completeStop()
+        {
+        Station aStation = this.stopStation ;
+
+        if ( this.stopEvent != null )
+            {
+            this.stopEvent.offloaded = this.disembarking == null
+                                           ? 0
+                                           : this.disembarking.size() ;
+            this.stopEvent.boarded = this.boarded.size() ;
+            }
+
+        openDoors( aStation ) ;
+
+        if ( this.disembarking != null )
+            {
+            aStation.recordDisembarked( this.disembarking, this ) ;
+
+            // keep the emptied bucket for the next destination that needs one
+            this.disembarking.clear() ;
+            this.spareBucket = this.disembarking ;
+            this.disembarking = null ;
+            }
+
+        PassengerStore theStore = this.simulation.getPassengerStore() ;
+        for ( int i = 0 ; i < this.boarded.size() ; i++ )
+            {
+            int passengerSlot = this.boarded.get( i ) ;
+
+            this.simulation.recordPassengerEvent( JournalEvent.BOARD,
+                                                  passengerSlot,
+                                                  theStore.getOriginId( passengerSlot ),
+                                                  this.id ) ;
+            }
+        this.boarded.clear() ;
+
         closeDoors( aStation ) ;
 
-        // we're ready to leave the station
+        this.stopStation = null ;
 
-        }   // end atStation()
+        if ( this.stopEvent != null )
+            {
+            this.stopEvent.tick = this.simulation.getCurrentTime() ;
+            this.stopEvent.trainId = this.id ;
+            this.stopEvent.stationId = aStation.getId() ;
+            this.stopEvent.onBoard = this.passengerCount ;
+            this.stopEvent.commit() ;
+            this.stopEvent = null ;
+            }
+
+        }   // end completeStop()
 
 
     /**
      * Move forward one unit of time/distance
+     * 
+     * @return the station at the new location or {@code null} if none
      */
-    public void move()
+    public Station move()
         {
-        this.currentLocation.move() ;
+        moveLocation() ;
 
-        Station aStation = this.currentLocation.getRoute()
-                                               .getStationAt( this.currentLocation ) ;
-        String atStation = ( aStation == null
-                                ? ""
-                                : ( " at " + aStation.toString() ) ) ;
+        Station aStation = commitMove() ;
+        logMove() ;
 
-        Train.simulationCallback.getLogger()
-                      .printf( "%n%s is moving to %s%s%n",
-                               this,
-                               this.currentLocation,
-                               atStation ) ;
+        return aStation ;
 
         }   // end move()
 
 
+    /**
+     * First half of {@code move()}: advance the train's location one position.
+     * Nothing outside this train is touched so trains can move concurrently.
+     */
+    void moveLocation()
+        {
+        this.previousPosition = this.currentLocation.getPosition() ;
+        this.previousDirection = this.currentLocation.getDirection() ;
+
+        this.currentLocation.getRoute().advance( this.currentLocation ) ;
+
+        }   // end moveLocation()
+
+
+    /**
+     * Second half of {@code move()}: update the route's track occupancy. Moves must
+     * be committed in train id order for collisions to be detected consistently.
+     * The move is logged separately by {@code logMove()}.
+     * 
+     * @return the station at the new location or {@code null} if none
+     */
+    Station commitMove()
+        {
+        return moved( this.previousPosition, this.previousDirection ) ;
+
+        }   // end commitMove()
+
+
+    /**
+     * Move directly to a location several ticks ahead - used by the event-driven
+     * engine to skip the ticks between stations in a single step. The train does not
+     * occupy or log the positions it passes on the way.
+     * 
+     * @param newPosition
+     *     the position the train would reach by moving tick by tick
+     * @param newDirection
+     *     the direction the train would be heading on arrival
+     * @return the station at the new location or {@code null} if there isn't one
+     */
+    Station advanceTo( int newPosition, Direction newDirection )
+        {
+        int fromPosition = this.currentLocation.getPosition() ;
+        Direction fromDirection = this.currentLocation.getDirection() ;
+
+        this.currentLocation = new Location( this.currentLocation.getRoute(),
+                                             newPosition,
+                                             newDirection ) ;
+
+        Station aStation = moved( fromPosition, fromDirection ) ;
+        logMove() ;
+
+        return aStation ;
+
+        }   // end advanceTo()
+
+
+    /**
+     * Update the route's track occupancy after the train's location changed and
+     * identify the station it arrived at, if any
+     * 
+     * @param fromPosition
+     *     the train's position before it moved
+     * @param fromDirection
+     *     the train's direction before it moved
+     * @return the station at the new location or {@code null} if there isn't one
+     */
+    private Station moved( int fromPosition, Direction fromDirection )
+        {
+        TrainRoute theRoute = this.currentLocation.getRoute() ;
+        this.collidingTrain = theRoute.trainMoved( this, fromPosition, fromDirection ) ;
+
+        return theRoute.getStationAt( this.currentLocation ) ;
+
+        }   // end moved()
+
+
+    /**
+     * Log the train's most recent move - right after it is committed, except that
+     * the parallel tick engine logs each train's move just before completing its
+     * stop so the log reads the same as the sequential tick loop's
+     */
+    void logMove()
+        {
+        if ( ( this.collidingTrain != null ) &&
+             this.simulation.isLogging( LogCategory.MOVEMENT, LogLevel.WARNING ) )
+            {
+            this.simulation.log( LogCategory.MOVEMENT,
+                                 LogLevel.WARNING,
+                                 "%nWARNING: %s is moving onto the same track position as %s%n",
+                                 this,
+                                 this.collidingTrain ) ;
+            }
+        this.collidingTrain = null ;
+
+        // per-train, per-tick detail - only format it if someone will read it
+        if ( this.simulation.isLogging( LogCategory.MOVEMENT, LogLevel.DEBUG ) )
+            {
+            Station aStation = this.currentLocation.getRoute()
+                                                   .getStationAt( this.currentLocation ) ;
+
+            if ( aStation == null )
+                {
+                this.simulation.log( LogCategory.MOVEMENT,
+                                     LogLevel.DEBUG,
+                                     "%n%s is moving to %s%n",
+                                     this,
+                                     this.currentLocation ) ;
+                }
+            else
+                {
+                this.simulation.log( LogCategory.MOVEMENT,
+                                     LogLevel.DEBUG,
+                                     "%n%s is moving to %s at %s%n",
+                                     this,
+                                     this.currentLocation,
+                                     aStation ) ;
+                }
+            }
+
+        }   // end logMove()
+
+
     /*
      * (non-Javadoc)
      * @see java.lang.Object#hashCode()
@@ -340,43 +724,20 @@ public final class Train
                                                this.currentLocation,
                                                atStation,
                                                this.capacity,
-                                               this.passengers.size() ) ) ;
+                                               this.passengerCount ) ) ;
 
-        fullDescription.append( String.format( "\tPassengers: %s%n",
-                                               this.passengers ) ) ;
+        StringJoiner passengers = new StringJoiner( ", ",
+                                                    "\tPassengers: [",
+                                                    String.format( "]%n" ) ) ;
+        forEachPassenger( passengerSlot -> passengers.add( new Passenger( this.simulation,
+                                                                          passengerSlot ).toString() ) ) ;
+        fullDescription.append( passengers ) ;
 
         return fullDescription.toString() ;
 
         }   // end describe()
     
     
-    /*
-     * semi-public utility methods
-     */
-    
-    
-    /**
-     * Enable callback to the simulation to access:
-     * <ul>
-     * <li>configuration</li>
-     * <li>current time</li>
-     * <li>random number generator instance</li>
-     * <li>logger</li>
-     * <li>train route</li>
-     * </ul>
-     * <p>
-     * This setup is done once at the start of the simulation for this entire class
-     *
-     * @param currentSimulation
-     *     instance providing callback functionality
-     */
-    static void setSimulationCallback( TrainSimulation currentSimulation )
-        {
-        Train.simulationCallback = currentSimulation ;
-        
-        }   // end setSimulationCallback()
-
-
     /**
      * Test driver
      * 
@@ -41,7 +41,8 @@ import java.util.ArrayList ;
  * Two trains may be passing each other at the same location however only one per
  * track.
  * <p>
- * <b>WARNING</b>: Some CIRCULAR route functionality is not yet implemented!
+ * A CIRCULAR route's positions run from 1 through its length and trains continue
+ * from one end to the other in either direction.
  * <p>
  * NOTE: If you modify this class, you must retain all authorship comments. You
  * should add/update your authorship and modification history tags after the existing
@@ -61,44 +62,99 @@ import java.util.ArrayList ;
  * 
  * @author Your Name
  * @version 2.1.0 2021-11-01 finish implementation
+ * @version 2.2.0 2026-10-18 position-indexed station lookup via a compiled
+ *     {@code RouteTopology}
+ * @version 2.3.0 2026-10-18 track occupancy index for {@code getTrainAt()}
+ * @version 2.4.0 2026-10-18 bound to its simulation; assigns station and train ids
+ *     so simulations can run concurrently
+ * @version 2.5.0 2026-10-18 precomputed station-pair directions
+ * @version 2.6.0 2026-10-18 checkpoint save and restore
+ * @version 2.7.0 2026-10-18 CIRCULAR routes: wraparound movement and modular distance and direction
  */
 public final class TrainRoute
     {
 
     // class-wide/shared information
-    private static int nextId = 1 ; // enables automatic id assignment
+    private static int nextId = 1 ; // id assignment for routes built outside a simulation
 
-    private static TrainSimulation simulationCallback ;   // provides access to simulation state
+    private static TrainSimulation simulationCallback ;   // default simulation for routes built without one
 
     // per-instance fields
 
     /** the unique identifier for this TrainRoute */
     private final int id ;          // unique id for this train route
 
+    private final TrainSimulation simulation ;  // provides access to simulation state
+
+    // automatic id assignment for the stations and trains on this route
+    private int nextStationId = 1 ;
+    private int nextTrainId = 1 ;
+
     private final RouteStyle style ;
     private final int length ;
 
     private ArrayList<Station> stations = null ;
     private ArrayList<Train> trains = null ;
 
+    /** compiled station lookup tables - rebuilt on demand after stations change */
+    private RouteTopology topology = null ;
+
+    /** which train is at each position on each track - maintained as trains move */
+    private final TrackOccupancy occupancy ;
+
     
     /**
      * @param routeSpecification
      *     the route style and length from the configuration file
      */
     public TrainRoute( RouteSpecification routeSpecification )
+        {
+        this( routeSpecification.style, routeSpecification.length ) ;
+
+        }   // end constructor
+
+
+    /**
+     * @param routeStyle
+     *     the route style
+     * @param routeLength
+     *     the route length
+     */
+    public TrainRoute( RouteStyle routeStyle, int routeLength )
+        {
+        this( TrainRoute.simulationCallback, routeStyle, routeLength ) ;
+
+        }   // end constructor
+
+
+    /**
+     * @param onSimulation
+     *     the simulation this route belongs to - all stations and trains on the route
+     *     share it
+     * @param routeStyle
+     *     the route style
+     * @param routeLength
+     *     the route length
+     */
+    TrainRoute( TrainSimulation onSimulation, RouteStyle routeStyle, int routeLength )
         {
         // assign the next unique id
-        this.id = TrainRoute.nextId++ ;
+        this.simulation = onSimulation ;
+        this.id = onSimulation == null
+                        ? TrainRoute.nextId++
+                        : onSimulation.assignRouteId() ;
 
         // save the configuration parameters
-        this.style = routeSpecification.style ;
-        this.length = routeSpecification.length ;
+        this.style = routeStyle ;
+        this.length = routeLength ;
 
         // instantiate the collections for stations and trains
         this.stations = new ArrayList<>() ;
         this.trains = new ArrayList<>() ;
 
+        // allow a position of slack at either end of the route
+        this.occupancy = new TrackOccupancy( -1, routeLength + 1 ) ;
+
         }   // end constructor
 
     
@@ -107,6 +163,42 @@ public final class TrainRoute
      */
 
 
+    /**
+     * Retrieves the simulation this route belongs to
+     * 
+     * @return the simulation or {@code null} if the route was built outside one
+     */
+    TrainSimulation getSimulation()
+        {
+        return this.simulation ;
+
+        }   // end getSimulation()
+
+
+    /**
+     * Assign the next station id on this route
+     * 
+     * @return the id
+     */
+    int assignStationId()
+        {
+        return this.nextStationId++ ;
+
+        }   // end assignStationId()
+
+
+    /**
+     * Assign the next train id on this route
+     * 
+     * @return the id
+     */
+    int assignTrainId()
+        {
+        return this.nextTrainId++ ;
+
+        }   // end assignTrainId()
+
+
     /**
      * Retrieves the route id
      * 
@@ -166,6 +258,9 @@ public final class TrainRoute
         // add the station to our collection of stations
         this.stations.add( newStation ) ;
 
+        // the compiled lookup tables no longer match
+        this.topology = null ;
+
         }   // end addStation()
 
 
@@ -187,9 +282,109 @@ public final class TrainRoute
         // add the station to our collection of stations
         this.trains.add( newTrain ) ;
 
+        // record its starting position
+        this.occupancy.occupy( RouteTopology.trackIndex( newTrain.getLocation()
+                                                                 .getDirection() ),
+                               newTrain.getLocation().getPosition(),
+                               newTrain.getId() ) ;
+
         }   // end addTrain()
 
 
+    /**
+     * Update the track occupancy after a train moves
+     * 
+     * @param aTrain
+     *     the train that moved
+     * @param fromPosition
+     *     the train's position before it moved
+     * @param fromDirection
+     *     the train's direction before it moved
+     * @return the train which already occupied the train's new position on the same
+     *     track or {@code null} if the one-train-per-track rule holds
+     */
+    Train trainMoved( Train aTrain, int fromPosition, Direction fromDirection )
+        {
+        this.occupancy.vacate( RouteTopology.trackIndex( fromDirection ),
+                               fromPosition,
+                               aTrain.getId() ) ;
+
+        int collidingTrainId =
+                        this.occupancy.occupy( RouteTopology.trackIndex( aTrain.getLocation()
+                                                                               .getDirection() ),
+                                               aTrain.getLocation().getPosition(),
+                                               aTrain.getId() ) ;
+
+        return getTrain( collidingTrainId ) ;
+
+        }   // end trainMoved()
+
+
+    /**
+     * Append the route's id counters, stations, trains and track occupancy to a
+     * checkpoint
+     * 
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        state.putInt( this.id ) ;
+        state.putInt( this.length ) ;
+        state.putInt( this.nextStationId ) ;
+        state.putInt( this.nextTrainId ) ;
+
+        state.putInt( this.stations.size() ) ;
+        for ( Station aStation : this.stations )
+            {
+            aStation.saveState( state ) ;
+            }
+
+        state.putInt( this.trains.size() ) ;
+        for ( Train aTrain : this.trains )
+            {
+            aTrain.saveState( state ) ;
+            }
+
+        this.occupancy.saveState( state ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the route's stations', trains' and track occupancy's state with those
+     * saved by {@code saveState()} - the route must have been built from the same
+     * scenario
+     * 
+     * @param state
+     *     the checkpoint being restored
+     * @throws IllegalStateException
+     *     if the checkpoint was taken of a different route
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        state.expectInt( this.id, "route id" ) ;
+        state.expectInt( this.length, "route length" ) ;
+        state.expectInt( this.nextStationId, "next station id" ) ;
+        state.expectInt( this.nextTrainId, "next train id" ) ;
+
+        state.expectInt( this.stations.size(), "station count" ) ;
+        for ( Station aStation : this.stations )
+            {
+            aStation.restoreState( state ) ;
+            }
+
+        state.expectInt( this.trains.size(), "train count" ) ;
+        for ( Train aTrain : this.trains )
+            {
+            aTrain.restoreState( state ) ;
+            }
+
+        this.occupancy.restoreState( state ) ;
+
+        }   // end restoreState()
+
+
     /**
      * Retrieve a station by id
      * 
@@ -218,19 +413,105 @@ public final class TrainRoute
      */
     public Station getStationAt( Location atLocation )
         {
-        for ( Station aStation : this.stations )
+        if ( ( atLocation.getRoute() != null ) && ! atLocation.getRoute().equals( this ) )
             {
-            if ( aStation.getLocation().equals( atLocation ) )
-                {
-                return aStation ;
-                }
+            return null ;   // not on this route
             }
 
-        return null ;
+        return getTopology().stationAt( atLocation.getPosition() ) ;
 
         }   // end getStationAt() given location
 
 
+    /**
+     * Retrieve the next station ahead of a location in the location's direction of
+     * travel
+     * 
+     * @param fromLocation
+     *     the current location and direction of travel
+     * @return the first station strictly beyond the location or {@code null} if none
+     */
+    public Station getNextStation( Location fromLocation )
+        {
+        return getTopology().nextStationAhead( fromLocation.getPosition(),
+                                               fromLocation.getDirection() ) ;
+
+        }   // end getNextStation()
+
+
+    /**
+     * Determine the direction to travel from one station on this route to another - a
+     * single table lookup once the route's stations are in place
+     * 
+     * @param fromStationId
+     *     the id of the station at the start of travel
+     * @param toStationId
+     *     the id of the station at the destination
+     * @return the direction - the shorter way around on a CIRCULAR route
+     */
+    public Direction directionBetween( int fromStationId, int toStationId )
+        {
+        return getTopology().directionBetween( fromStationId, toStationId ) ;
+
+        }   // end directionBetween()
+
+
+    /**
+     * Determine how far apart two stations on this route are - O(1)
+     * 
+     * @param fromStationId
+     *     the id of the station at the start of travel
+     * @param toStationId
+     *     the id of the station at the destination
+     * @return the distance - the shorter way around on a CIRCULAR route - or -1 if
+     *     either station isn't on the route
+     */
+    public int distanceBetween( int fromStationId, int toStationId )
+        {
+        return getTopology().distanceBetween( fromStationId, toStationId ) ;
+
+        }   // end distanceBetween()
+
+
+    /**
+     * Move a location one position along this route in its direction of travel,
+     * continuing past the end of a CIRCULAR route to its start and vice versa
+     * 
+     * @param aLocation
+     *     the location to move
+     */
+    void advance( Location aLocation )
+        {
+        aLocation.move() ;
+
+        if ( this.style == RouteStyle.CIRCULAR )
+            {
+            aLocation.setPosition( getTopology().wrap( aLocation.getPosition() ) ) ;
+            }
+
+        }   // end advance()
+
+
+    /**
+     * Retrieve the compiled station lookup tables, compiling them if the stations
+     * have changed since they were last built
+     * 
+     * @return the current route topology
+     */
+    RouteTopology getTopology()
+        {
+        if ( this.topology == null )
+            {
+            this.topology = new RouteTopology( this.style,
+                                               this.length,
+                                               getStations() ) ;
+            }
+
+        return this.topology ;
+
+        }   // end getTopology()
+
+
     /**
      * Retrieve the number of stations currently on this route
      * 
@@ -266,24 +547,50 @@ public final class TrainRoute
      * Retrieve a train by location
      * 
      * @param atLocation
-     *     the location for the desired train
+     *     the location for the desired train - if the location's direction doesn't
+     *     select a track, both tracks are checked
      * @return the train at the specified location or {@code null} if none
      */
     public Train getTrainAt( Location atLocation )
         {
-        for ( Train aTrain : this.trains )
+        if ( ( atLocation.getRoute() != null ) && ! atLocation.getRoute().equals( this ) )
             {
-            if ( aTrain.getLocation().equals( atLocation ) )
-                {
-                return aTrain ; // found it
-                }
+            return null ;   // not on this route
             }
 
-        return null ;   // didn't find it
+        int position = atLocation.getPosition() ;
+        int track = RouteTopology.trackIndex( atLocation.getDirection() ) ;
+
+        int trainId = track >= 0
+                        ? this.occupancy.occupantAt( track, position )
+                        : this.occupancy.occupantAt( 0, position ) ;
+
+        if ( ( trainId == TrackOccupancy.UNOCCUPIED ) && ( track < 0 ) )
+            {
+            trainId = this.occupancy.occupantAt( 1, position ) ;
+            }
+
+        return getTrain( trainId ) ;
 
         }   // end getTrainAt() by location
 
 
+    /**
+     * Determine whether a train occupies a location's track at its position
+     * 
+     * @param atLocation
+     *     the position and direction (track) to check
+     * @return true if a train is there, false otherwise
+     */
+    public boolean isTrackOccupied( Location atLocation )
+        {
+        return this.occupancy.occupantAt( RouteTopology.trackIndex( atLocation.getDirection() ),
+                                          atLocation.getPosition() ) !=
+                                                        TrackOccupancy.UNOCCUPIED ;
+
+        }   // end isTrackOccupied()
+
+
     /**
      * Retrieve the number of trains currently on this route
      * 
@@ -412,7 +719,8 @@ public final class TrainRoute
 
     /**
      * Determines the direction an entity needs to travel to move from the 'from'
-     * station to the 'to' station. It takes into account the route style.
+     * station to the 'to' station on this route. It takes into account the route
+     * style.
      * 
      * @param fromStationId
      *     starting point station id #
@@ -420,13 +728,10 @@ public final class TrainRoute
      *     ending point station id #
      * @return the Direction in which an entity must travel
      */
-    public static Direction whichDirection( int fromStationId,
-                                            int toStationId )
+    public Direction whichDirection( int fromStationId,
+                                     int toStationId )
         {
-        return whichDirection( TrainRoute.simulationCallback.getTrainRoute()
-                                                            .getStation( fromStationId ),
-                               TrainRoute.simulationCallback.getTrainRoute()
-                                                            .getStation( toStationId ) ) ;
+        return directionBetween( fromStationId, toStationId ) ;
 
         }   // end whichDirection() given Station Ids
 
@@ -451,10 +756,7 @@ public final class TrainRoute
 
     /**
      * Determines the Direction an entity must move to travel between <i>from</i> and
-     * <i>to</i>
-     * <p>
-     * <b>WARNING</b>: As implemented, this method only works correctly for LINEAR
-     * routes!
+     * <i>to</i> - the shorter way around on a CIRCULAR route
      * 
      * @param fromLocation
      *     the Location at the start of travel
@@ -468,19 +770,10 @@ public final class TrainRoute
         Direction calculatedDirection = Direction.NOT_APPLICABLE ;
         if ( fromLocation.getRoute().equals( toLocation.getRoute() ) )
             {   // same route so continue
-            int comparison = fromLocation.compareTo( toLocation ) ;
-            if ( comparison < 0 )
-                {
-                calculatedDirection = Direction.OUTBOUND ;
-                }
-            else if ( comparison > 0 )
-                {
-                calculatedDirection = Direction.INBOUND ;
-                }
-            else                            // at same location
-                {
-                calculatedDirection = Direction.STATIONARY ;
-                }
+            calculatedDirection = fromLocation.getRoute()
+                                              .getTopology()
+                                              .directionBetweenPositions( fromLocation.getPosition(),
+                                                                          toLocation.getPosition() ) ;
             }
 // DMR ENHANCEMENT for multi-route, need to find a transfer point
 
@@ -504,7 +797,9 @@ public final class TrainRoute
      * <li>train route</li>
      * </ul>
      * <p>
-     * This setup is done once at the start of the simulation for this entire class
+     * This setup is done once at the start of the simulation for this entire class.
+     * Routes built by the simulation itself are bound to it directly; this is the
+     * default for routes built without one.
      *
      * @param currentSimulation
      *     instance providing callback functionality
@@ -528,12 +823,11 @@ public final class TrainRoute
      */
     public static void main( String[] args ) throws FileNotFoundException, IOException
         {
-        @SuppressWarnings( "unused" )
-        TrainSimulation testSimulation = new TrainSimulation() ;    // used via callback
+        TrainSimulation testSimulation = new TrainSimulation() ;
         
-        Configuration theConfiguration = TrainRoute.simulationCallback.getConfiguration() ;
+        Configuration theConfiguration = testSimulation.getConfiguration() ;
 
-        TrainRoute theRoute = TrainRoute.simulationCallback.getTrainRoute() ;
+        TrainRoute theRoute = testSimulation.getTrainRoute() ;
 
         System.out.printf( "Using configuration:%n\t%s%n", theConfiguration.getRoute() ) ;
         System.out.printf( "The result is:%n\t%s is %s with length %,d%n",
@@ -564,20 +858,36 @@ public final class TrainRoute
                            toLocation,
                            whichDirection( fromLocation, toLocation ) ) ;
 
-//        @formatter:off
-//        // DMR TODO - support for handling CIRCULAR routes is not implemented
-//        System.out.println() ;
-//        RouteSpecification circularRouteSpecification = theConfig.new RouteSpecification( RouteStyle.CIRCULAR,
-//                                                               20 ) ;
-//        TrainRoute circularRoute = new TrainRoute( circularRouteSpecification ) ;
-//        fromLocation.setRoute( circularRoute ) ;
-//        toLocation.setRoute( circularRoute ) ;
-//        toLocation.setPosition( 3 ) ;
-//        System.out.printf( "From: %s --> to: %s --> is: %s%n",
-//                           fromLocation,
-//                           toLocation,
-//                           circularRoute.whichDirection( fromLocation, toLocation ) ) ;
-//        @formatter:on
+        System.out.println() ;
+        TrainRoute circularRoute = new TrainRoute( RouteStyle.CIRCULAR, 20 ) ;
+        fromLocation.setRoute( circularRoute ) ;
+        toLocation.setRoute( circularRoute ) ;
+
+        for ( int toPosition : new int[] { 3, 5, 18, 13, 14 } )
+            {
+            toLocation.setPosition( toPosition ) ;
+            System.out.printf( "From: %s --> to: %s --> is: %s%n",
+                               fromLocation,
+                               toLocation,
+                               whichDirection( fromLocation, toLocation ) ) ;
+            }
+
+        // trains continue around the ends of the route either way
+        for ( Location trainLocation : new Location[] { new Location( circularRoute,
+                                                                      19,
+                                                                      Direction.CLOCKWISE ),
+                                                        new Location( circularRoute,
+                                                                      2,
+                                                                      Direction.CLOCKWISE.reverse() ) } )
+            {
+            System.out.printf( "Starting %s:", trainLocation ) ;
+            for ( int tick = 1 ; tick <= 3 ; tick++ )
+                {
+                circularRoute.advance( trainLocation ) ;
+                System.out.printf( " --> %s", trainLocation ) ;
+                }
+            System.out.println() ;
+            }
 
         // DMR TODO need to test remaining methods
 
@@ -25,12 +25,18 @@
 package edu.wit.scds.comp2000.queue.app ;
 
 import edu.wit.scds.comp2000.queue.app.utilities.Configuration ;
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
 import edu.wit.scds.comp2000.queue.app.utilities.Logger ;
-import edu.wit.scds.comp2000.queue.app.utilities.PairedLimit ;
-import edu.wit.scds.comp2000.queue.app.utilities.TrainSpecification ;
 
+import java.io.ByteArrayInputStream ;
+import java.io.ByteArrayOutputStream ;
 import java.io.FileNotFoundException ;
 import java.io.IOException ;
+import java.io.ObjectInputStream ;
+import java.io.ObjectOutputStream ;
+import java.io.UncheckedIOException ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
 import java.util.Date ;
 import java.util.Random ;
 
@@ -52,6 +58,24 @@ import java.util.Random ;
  * 
  * @author Your Name
  * @version 2.1.0 2021-11-01 finish implementation
+ * @version 2.2.0 2026-10-18 build from a {@code Scenario}; headless mode for
+ *     benchmarking
+ * @version 2.3.0 2026-10-18 optional asynchronous batched logging
+ * @version 2.4.0 2026-10-18 log categories and levels, checked before formatting
+ * @version 2.5.0 2026-10-18 entities bound to their simulation instead of static
+ *     callbacks so replications can run concurrently
+ * @version 2.6.0 2026-10-18 optional discrete-event engine
+ * @version 2.7.0 2026-10-18 streaming travel time statistics
+ * @version 2.8.0 2026-10-18 origin-destination demand with Poisson arrivals
+ * @version 2.9.0 2026-10-18 optional binary snapshots
+ * @version 2.10.0 2026-10-18 periodic checkpoints and restart from a checkpoint
+ * @version 2.11.0 2026-10-18 binary event journal
+ * @version 2.12.0 2026-10-18 parallel tick engine
+ * @version 2.13.0 2026-10-18 passenger generation on a separate thread
+ * @version 2.14.0 2026-10-18 travel statistics recorded on a separate thread
+ * @version 2.15.0 2026-10-18 compiled configuration cache and setup without entity descriptions
+ * @version 2.16.0 2026-10-18 live gauges published through JMX
+ * @version 2.17.0 2026-10-18 flight recorder events for ticks and passenger generation
  */
 public final class TrainSimulation
     {
@@ -63,6 +87,9 @@ public final class TrainSimulation
     /** configuration specification */
     private Configuration theConfiguration ;
 
+    /** the route, stations, trains and passenger limits being simulated */
+    private Scenario theScenario ;
+
     /** handle to the simulated train route including the stations and trains */
     private TrainRoute theRoute ;
 
@@ -72,42 +99,233 @@ public final class TrainSimulation
     /** random number generator instance for this simulation run */
     private Random pseudoRandom ;
     
+    /** columnar storage for every passenger's stations and timestamps */
+    private PassengerStore passengerStore ;
+
+    /** travel time histograms, recorded as passengers exit */
+    private TravelStatistics statistics ;
+    
     /** logging support */
     private Logger logger ;
 
+    /** when false, nothing is written to the log or the console */
+    private final boolean loggingEnabled ;
+
+    /**
+     * one bit per (category, level) pair which is written to the log - bit
+     * {@code category * LEVEL_COUNT + level} is set if enabled
+     */
+    private final long enabledLogMask ;
+
+    private static final int LEVEL_COUNT = LogLevel.values().length ;
+
+    /** how the simulation executes */
+    private final SimulationOptions options ;
+
+    /** background log writer when logging asynchronously, otherwise null */
+    private AsyncLogWriter asyncLogger ;
+
+    /** binary snapshot writer, opened by the first snapshot, or null */
+    private SnapshotWriter snapshotWriter ;
+
+    /** binary event journal or null if none is kept */
+    private EventJournal journal ;
+
+    /** passengers drawn by a generator thread or null if generated in line */
+    private PassengerFeed passengerFeed ;
+
+    /** journeys recorded by a background thread or null if recorded in line */
+    private StatisticsRecorder statisticsRecorder ;
+
+    /** live gauges published through JMX or null if not published */
+    private SimulationMetrics metrics ;
+
+    /** number of completed journeys the statistics recorder buffers */
+    private static final int STATISTICS_BUFFER_SIZE = 1 << 16 ;
+
+    /** number of passenger enter/board/disembark/exit events so far */
+    private long passengerEventCount ;
+
+    /** automatic id assignment for this simulation's routes */
+    private int nextRouteId = 1 ;
+
     /**
      * set up the simulation based upon the settings in the configuration file
      * 
      * @throws IOException
-     *     if the logs folder doesn't exist and can't be created
+     *     if the logs folder doesn't exist and can't be created, the demand file
+     *     named by the options can't be read or the compiled
+     *     configuration cache can't be read or written
      */
     public TrainSimulation() throws IOException
         {
         // create log
         this.logger = new Logger( "TrainSimulation" ) ;
+        this.loggingEnabled = true ;
+
+        this.options = SimulationOptions.fromSystemProperties() ;
+        this.enabledLogMask = buildLogMask( this.options ) ;
+        this.asyncLogger = this.options.isAsyncLogging()
+                                ? new AsyncLogWriter( this.options.getAsyncLogFile(),
+                                                      this.options.getAsyncLogCapacity(),
+                                                      this.options.getAsyncLogBackpressure(),
+                                                      this.options.getAsyncLogSampleRate() )
+                                : null ;
         
         
         // enable callback in all entities
-        TrainRoute.setSimulationCallback( this ) ;
-        Station.setSimulationCallback( this ) ;
-        Train.setSimulationCallback( this ) ;
-        Passenger.setSimulationCallback( this ) ;
+        enableCallbacks() ;
         
         
-        // load the configuration
-        this.theConfiguration = new Configuration() ;
+        // load the configuration - from the compiled cache if the configuration
+        // file is named, in which case there is no Configuration instance
+        Scenario theScenario ;
+        Path configurationFile = this.options.getConfigurationFile() ;
+
+        if ( configurationFile != null )
+            {
+            this.theConfiguration = null ;
 
-        System.out.printf( "Simulation configuration:%n%s%n%n----------%n%n",
-                           this.theConfiguration.toString() ) ;
+            theScenario = ScenarioCache.load( configurationFile,
+                                              this.options.getConfigurationCache() ) ;
+
+            if ( this.options.isSetupDescribed() )
+                {
+                System.out.printf( "Simulation configuration:%n%s%n%n----------%n%n",
+                                   theScenario ) ;
+                }
+            }
+        else
+            {
+            this.theConfiguration = new Configuration() ;
+
+            if ( this.options.isSetupDescribed() )
+                {
+                System.out.printf( "Simulation configuration:%n%s%n%n----------%n%n",
+                                   this.theConfiguration.toString() ) ;
+
+                // log the configuration
+                this.logger.logConfiguration( this.theConfiguration ) ;
+                }
+
+            theScenario = Scenario.fromConfiguration( this.theConfiguration ) ;
+            }
+
+        // origin-destination demand replaces uniform demand if a demand file is named
+        Path demandFile = this.options.getDemandFile() ;
+        if ( demandFile != null )
+            {
+            theScenario = theScenario.withDemand( DemandSchedule.load( demandFile ) ) ;
+            }
+
+        initialize( theScenario ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * set up a headless simulation for a scenario - nothing is written to the log or
+     * the console so the simulation can be timed
+     * <p>
+     * NOTE: {@code getConfiguration()} and {@code getLogger()} return {@code null} for
+     * a headless simulation
+     * 
+     * @param aScenario
+     *     the route, stations, trains and passenger limits to simulate
+     */
+    TrainSimulation( Scenario aScenario )
+        {
+        this( aScenario, new SimulationOptions() ) ;
+
+        }   // end headless constructor
+
+
+    /**
+     * set up a headless simulation for a scenario with specific run-time options -
+     * nothing is written to the log or the console regardless of the logging options
+     * <p>
+     * NOTE: a headless simulation shares no state with any other simulation so
+     * several may run concurrently
+     * 
+     * @param aScenario
+     *     the route, stations, trains and passenger limits to simulate
+     * @param theOptions
+     *     how the simulation executes
+     */
+    TrainSimulation( Scenario aScenario, SimulationOptions theOptions )
+        {
+        this.logger = null ;
+        this.loggingEnabled = false ;
+
+        this.options = theOptions ;
+        this.enabledLogMask = 0 ;
+        this.asyncLogger = null ;
+
+        this.theConfiguration = null ;
+
+        initialize( aScenario ) ;
+
+        }   // end headless constructor
+
+
+    /**
+     * Determine which (category, level) pairs are enabled by the options
+     * 
+     * @param theOptions
+     *     the run-time options
+     * @return the enabled log bit mask
+     */
+    private static long buildLogMask( SimulationOptions theOptions )
+        {
+        long mask = 0 ;
+
+        for ( LogCategory aCategory : LogCategory.values() )
+            {
+            LogLevel threshold = theOptions.getLogLevel( aCategory ) ;
+
+            for ( LogLevel aLevel : LogLevel.values() )
+                {
+                if ( ( aLevel != LogLevel.OFF ) &&
+                     ( aLevel.compareTo( threshold ) >= 0 ) )
+                    {
+                    mask |= 1L << ( ( aCategory.ordinal() * LEVEL_COUNT ) + aLevel.ordinal() ) ;
+                    }
+                }
+            }
+
+        return mask ;
+
+        }   // end buildLogMask()
+
+
+    /**
+     * Make this simulation the default for routes built without one - each entity
+     * is otherwise bound to its simulation through its route
+     */
+    private void enableCallbacks()
+        {
+        TrainRoute.setSimulationCallback( this ) ;
+
+        }   // end enableCallbacks()
+
+
+    /**
+     * Seed the pseudo-random number generator, build the route and populate the
+     * stations with the initial set of passengers - then, if requested, resume from
+     * the checkpoint file
+     * 
+     * @param aScenario
+     *     the route, stations, trains and passenger limits to simulate
+     */
+    private void initialize( Scenario aScenario )
+        {
+        this.theScenario = aScenario ;
 
-        // log the configuration
-        this.logger.logConfiguration( this.theConfiguration ) ;
-        
         // create and initialize the pseudo-random number generator
         this.pseudoRandom = new Random() ;
         
         // seed it if specified in configuration
-        long seed = this.theConfiguration.getSeed() ;
+        long seed = this.theScenario.getSeed() ;
 
         if ( seed == -1 )
             {
@@ -121,37 +339,150 @@ public final class TrainSimulation
             }
         
         this.currentTime = 0 ;
+        this.passengerEventCount = 0 ;
 
+        this.passengerStore = new PassengerStore() ;
+        this.statistics = new TravelStatistics( this.theScenario.getStationCount() ) ;
+
+        Path checkpointFile = this.options.getCheckpointFile() ;
+        boolean resuming = this.options.isCheckpointRestore() && Files.exists( checkpointFile ) ;
+
+        // a resumed run's journal starts at the checkpoint
+        if ( ! resuming )
+            {
+            openJournal() ;
+            }
         
         // build the route and populate stations with initial set of passengers
-        System.out.printf( "Setting up...%n" ) ;
+        if ( this.loggingEnabled )
+            {
+            System.out.printf( "Setting up...%n" ) ;
+            }
         setup() ;
 
-        }   // end no-arg constructor
+        // resume an earlier run if requested
+        if ( resuming )
+            {
+            try
+                {
+                restoreState( Checkpointer.read( checkpointFile ) ) ;
+                }
+            catch ( IOException e )
+                {
+                throw new UncheckedIOException( e ) ;
+                }
+
+            openJournal() ;
+
+            if ( this.loggingEnabled )
+                {
+                System.out.printf( "Resuming from %s at time %,d%n",
+                                   checkpointFile,
+                                   this.currentTime ) ;
+                }
+            }
+
+        // log the starting configuration
+        logSnapshot( "%n----------%n%nStarting state%n" ) ;
+
+        }   // end initialize()
 
 
     /**
-     * Instantiate a passenger and send them to their starting station
+     * Start the binary event journal if one is requested
+     * 
+     * @throws UncheckedIOException
+     *     if the journal can't be created
      */
-    private void createAPassenger()
+    private void openJournal()
         {
-        // determine starting and ending stations
-        int stationCount = this.theRoute.getStationCount() ;
+        Path journalDirectory = this.options.getJournalDirectory() ;
+        if ( journalDirectory == null )
+            {
+            return ;
+            }
+
+        try
+            {
+            this.journal = new EventJournal( journalDirectory,
+                                             this.options.getJournalSegmentSize() ) ;
+            }
+        catch ( IOException e )
+            {
+            throw new UncheckedIOException( e ) ;
+            }
+
+        }   // end openJournal()
+
+
+    /**
+     * Draw a passenger's starting station
+     * 
+     * @param theDemand
+     *     the origin-destination demand or {@code null} for uniform demand
+     * @return the id of the station the passenger starts from
+     */
+    int sampleOrigin( DemandMatrix theDemand )
+        {
+        if ( theDemand != null )
+            {
+            // one draw from the origin alias table
+            return theDemand.sampleOrigin( this.pseudoRandom ) ;
+            }
+
+        return this.pseudoRandom.nextInt( this.theRoute.getStationCount() ) + 1 ;
 
-        int fromStationId = this.pseudoRandom.nextInt( stationCount ) + 1 ;
-        Station fromStation = this.theRoute.getStation( fromStationId ) ;
+        }   // end sampleOrigin()
 
+
+    /**
+     * Draw a passenger's ending station
+     * 
+     * @param theDemand
+     *     the origin-destination demand or {@code null} for uniform demand
+     * @param fromStationId
+     *     the id of the station the passenger starts from
+     * @return the id of the station the passenger travels to
+     */
+    int sampleDestination( DemandMatrix theDemand,
+                           int fromStationId )
+        {
+        if ( theDemand != null )
+            {
+            // one draw from the origin's destination alias table
+            return theDemand.sampleDestination( fromStationId, this.pseudoRandom ) ;
+            }
+
+        int stationCount = this.theRoute.getStationCount() ;
         int toStationId ;
-        do  // randomly select a destination station until it doesn't match
-            // the starting station
+
+        do  // randomly select a destination station until it doesn't match the
+            // starting station
             {
             toStationId = this.pseudoRandom.nextInt( stationCount ) + 1 ;
             }
         while ( fromStationId == toStationId ) ;
-        Station toStation = this.theRoute.getStation( toStationId ) ;
+
+        return toStationId ;
+
+        }   // end sampleDestination()
+
+
+    /**
+     * Instantiate a passenger and send them to their starting station
+     * 
+     * @param theDemand
+     *     the origin-destination demand or {@code null} for uniform demand
+     */
+    private void createAPassenger( DemandMatrix theDemand )
+        {
+        // determine starting and ending stations
+        int fromStationId = sampleOrigin( theDemand ) ;
+        int toStationId = sampleDestination( theDemand, fromStationId ) ;
 
         // create a passenger - will automatically enter fromStation
-        new Passenger( fromStation, toStation ) ;
+        Passenger.arrive( this.theRoute.getStation( fromStationId ),
+                          this.theRoute.getStation( toStationId ) ) ;
 
         }   // end createAPassenger()
 
@@ -159,36 +490,180 @@ public final class TrainSimulation
     /**
      * Creates a set of passengers sending each to their starting stations
      *
-     * @param passengerCountLimits
-     *     range of number of passengers to create
+     * @param minimumPassengersCount
+     *     fewest passengers to create
+     * @param maximumPassengersCount
+     *     most passengers to create
+     */
+    void createPassengers( int minimumPassengersCount,
+                           int maximumPassengersCount )
+        {
+        createPassengers( drawPassengerCount( minimumPassengersCount,
+                                              maximumPassengersCount ) ) ;
+
+        }   // end createPassengers
+
+
+    /**
+     * Determine the number of passengers to create
+     *
+     * @param minimumPassengersCount
+     *     fewest passengers to create
+     * @param maximumPassengersCount
+     *     most passengers to create
+     * @return the number of passengers
      */
-    private void createPassengers( PairedLimit passengerCountLimits )
+    private int drawPassengerCount( int minimumPassengersCount,
+                                    int maximumPassengersCount )
         {
-        int minimumPassengersCount = passengerCountLimits.minimum ;
-        int maximumPassengersCount = passengerCountLimits.maximum ;
+        return minimumPassengersCount == maximumPassengersCount
+                   ? minimumPassengersCount
+                   : this.pseudoRandom.nextInt( maximumPassengersCount -
+                                                minimumPassengersCount ) +
+                       minimumPassengersCount + 1 ;
 
-        // determine the number of passengers to create
-        int newPassengerCount = minimumPassengersCount == maximumPassengersCount
-                                   ? minimumPassengersCount
-                                   : this.pseudoRandom.nextInt( maximumPassengersCount -
-                                                                minimumPassengersCount ) +
-                                       minimumPassengersCount + 1 ;
+        }   // end drawPassengerCount()
 
-        this.logger.printf( "%nGenerating %d passenger%s:%n%n",
-                       newPassengerCount,
-                       ( newPassengerCount == 1
-                           ? ""
-                           : "s" ) ) ;
+
+    /**
+     * Determine the number of passengers arriving during a tick
+     * 
+     * @param time
+     *     the tick
+     * @return the number of passengers
+     */
+    int drawTickPassengerCount( int time )
+        {
+        DemandMatrix theDemand = demandAt( time ) ;
+
+        if ( theDemand == null )
+            {
+            return drawPassengerCount( this.theScenario.getPerTickPassengersMinimum(),
+                                       this.theScenario.getPerTickPassengersMaximum() ) ;
+            }
+
+        // arrivals are a Poisson process at the current period's rate
+        return PoissonDistribution.sample( this.pseudoRandom,
+                                           theDemand.getPassengersPerTick() ) ;
+
+        }   // end drawTickPassengerCount()
+
+
+    /**
+     * Select the origin-destination demand in effect at a tick
+     * 
+     * @param time
+     *     the tick
+     * @return the demand or {@code null} for uniform demand
+     */
+    DemandMatrix demandAt( int time )
+        {
+        DemandSchedule theSchedule = this.theScenario.getDemand() ;
+
+        return theSchedule == null
+                   ? null
+                   : theSchedule.matrixAt( time ) ;
+
+        }   // end demandAt()
+
+
+    /**
+     * Creates a specific number of passengers sending each to their starting stations
+     *
+     * @param newPassengerCount
+     *     number of passengers to create
+     */
+    private void createPassengers( int newPassengerCount )
+        {
+        SimulationEvents.PassengerGenerationEvent generationEvent = null ;
+        if ( SimulationEvents.isRecording() )
+            {
+            generationEvent = new SimulationEvents.PassengerGenerationEvent() ;
+            generationEvent.begin() ;
+            }
+
+        logGeneration( newPassengerCount ) ;
+
+        DemandMatrix theDemand = demandAt( this.currentTime ) ;
 
         for ( int passengerCount = 1 ;
               passengerCount <= newPassengerCount ;
               passengerCount++ )
             {
-            createAPassenger() ;
+            createAPassenger( theDemand ) ;
             }   // end for()
 
+        if ( ( generationEvent != null ) && generationEvent.shouldCommit() )
+            {
+            generationEvent.tick = this.currentTime ;
+            generationEvent.passengers = newPassengerCount ;
+            generationEvent.drawnAhead = false ;
+            generationEvent.commit() ;
+            }
+
         }   // end createPassengers
 
+
+    /**
+     * Send passengers whose stations were drawn ahead of time to their starting
+     * stations, in the order they were drawn
+     *
+     * @param newPassengerCount
+     *     number of passengers to create
+     * @param fromStationIds
+     *     each passenger's starting station
+     * @param toStationIds
+     *     each passenger's ending station
+     */
+    void admitPassengers( int newPassengerCount,
+                          int[] fromStationIds,
+                          int[] toStationIds )
+        {
+        SimulationEvents.PassengerGenerationEvent generationEvent = null ;
+        if ( SimulationEvents.isRecording() )
+            {
+            generationEvent = new SimulationEvents.PassengerGenerationEvent() ;
+            generationEvent.begin() ;
+            }
+
+        logGeneration( newPassengerCount ) ;
+
+        for ( int i = 0 ; i < newPassengerCount ; i++ )
+            {
+            Passenger.arrive( this.theRoute.getStation( fromStationIds[ i ] ),
+                              this.theRoute.getStation( toStationIds[ i ] ) ) ;
+            }
+
+        if ( ( generationEvent != null ) && generationEvent.shouldCommit() )
+            {
+            generationEvent.tick = this.currentTime ;
+            generationEvent.passengers = newPassengerCount ;
+            generationEvent.drawnAhead = true ;
+            generationEvent.commit() ;
+            }
+
+        }   // end admitPassengers()
+
+
+    /**
+     * Log the number of passengers being generated
+     *
+     * @param newPassengerCount
+     *     number of passengers to create
+     */
+    private void logGeneration( int newPassengerCount )
+        {
+        if ( isLogging( LogCategory.GENERATION, LogLevel.DEBUG ) )
+            {
+            log( LogCategory.GENERATION, LogLevel.DEBUG, "%nGenerating %d passenger%s:%n%n",
+                           newPassengerCount,
+                           ( newPassengerCount == 1
+                               ? ""
+                               : "s" ) ) ;
+            }
+
+        }   // end logGeneration()
+
     
     /*
      * callback support
@@ -197,7 +672,8 @@ public final class TrainSimulation
     /**
      * Utility method to retrieve the configuration.
      *
-     * @return the configuration
+     * @return the configuration or {@code null} if the simulation is headless or was
+     *     loaded from the compiled configuration cache
      */
     public Configuration getConfiguration()
         {
@@ -246,6 +722,300 @@ public final class TrainSimulation
         }   // end getLogger()
     
     
+    /**
+     * Write a formatted message to the log - synchronously through the Logger or,
+     * when logging asynchronously, by handing the record to the background writer.
+     * Nothing is formatted if the category is disabled at the level.
+     * <p>
+     * NOTE: callers on hot paths should check {@code isLogging( category, level )}
+     * first so a disabled category costs nothing - not even building the arguments
+     * 
+     * @param category
+     *     the subject area of the message
+     * @param level
+     *     the severity of the message
+     * @param format
+     *     a {@code String.format()} format string
+     * @param arguments
+     *     the arguments referenced by the format
+     */
+    public void log( LogCategory category,
+                     LogLevel level,
+                     String format,
+                     Object... arguments )
+        {
+        if ( ! isLogging( category, level ) )
+            {
+            return ;
+            }
+
+        if ( this.asyncLogger != null )
+            {
+            this.asyncLogger.printf( format, arguments ) ;
+            }
+        else
+            {
+            this.logger.printf( format, arguments ) ;
+            }
+        
+        }   // end log()
+    
+    
+    /**
+     * Write the rest of the event journal, if any, to storage
+     * 
+     * @throws IOException
+     *     if the journal couldn't be written
+     */
+    void closeJournal() throws IOException
+        {
+        if ( this.journal != null )
+            {
+            this.journal.close() ;
+            this.journal = null ;
+            }
+        
+        }   // end closeJournal()
+    
+    
+    /**
+     * Flush any pending log records, snapshots and journal events and release the
+     * log resources
+     * 
+     * @throws IOException
+     *     if the background writer failed to write the log or the snapshots or
+     *     journal couldn't be written
+     */
+    private void closeLog() throws IOException
+        {
+        try
+            {
+            closeJournal() ;
+
+            if ( this.snapshotWriter != null )
+                {
+                this.snapshotWriter.close() ;
+                this.snapshotWriter = null ;
+                }
+
+            if ( this.asyncLogger != null )
+                {
+                this.asyncLogger.close() ;
+                this.asyncLogger = null ;
+                }
+            }
+        finally
+            {
+            if ( this.logger != null )
+                {
+                this.logger.close() ;
+                }
+            }
+        
+        }   // end closeLog()
+    
+    
+    /**
+     * Utility method to retrieve the run-time options
+     * 
+     * @return the options selecting how the simulation executes
+     */
+    SimulationOptions getOptions()
+        {
+        return this.options ;
+        
+        }   // end getOptions()
+    
+    
+    /**
+     * Utility method to determine whether entities should write to the log
+     * 
+     * @return true if log output is enabled, false for a headless simulation
+     */
+    public boolean isLogging()
+        {
+        return this.loggingEnabled ;
+        
+        }   // end isLogging()
+    
+    
+    /**
+     * Utility method to determine whether a message would be written to the log
+     * 
+     * @param category
+     *     the subject area of the message
+     * @param level
+     *     the severity of the message
+     * @return true if the category is enabled at the level
+     */
+    public boolean isLogging( LogCategory category, LogLevel level )
+        {
+        return ( ( this.enabledLogMask >>>
+                   ( ( category.ordinal() * LEVEL_COUNT ) + level.ordinal() ) ) & 1L ) != 0 ;
+        
+        }   // end isLogging()
+    
+    
+    /**
+     * Assign the next route id in this simulation
+     * 
+     * @return the id
+     */
+    int assignRouteId()
+        {
+        return this.nextRouteId++ ;
+        
+        }   // end assignRouteId()
+    
+    
+    /**
+     * Record a completed journey in the travel statistics
+     * 
+     * @param originId
+     *     the id of the station the passenger started at
+     * @param travelDirection
+     *     the direction the passenger travelled
+     * @param timeWaiting
+     *     ticks spent waiting for a train
+     * @param timeRiding
+     *     ticks spent on a train
+     * @param totalTime
+     *     ticks from entering the origin to exiting the destination
+     */
+    void recordJourney( int originId,
+                        Direction travelDirection,
+                        int timeWaiting,
+                        int timeRiding,
+                        int totalTime )
+        {
+        if ( this.metrics != null )
+            {
+            this.metrics.recordWaiting( timeWaiting ) ;
+            }
+
+        if ( this.statisticsRecorder != null )
+            {
+            this.statisticsRecorder.record( this.currentTime,
+                                            originId,
+                                            travelDirection,
+                                            timeWaiting,
+                                            timeRiding,
+                                            totalTime ) ;
+            return ;
+            }
+
+        this.statistics.record( originId,
+                                travelDirection,
+                                timeWaiting,
+                                timeRiding,
+                                totalTime ) ;
+
+        }   // end recordJourney()
+
+
+    /**
+     * Record that a passenger entered, boarded, disembarked or exited
+     * 
+     * @param event
+     *     what happened
+     * @param passengerSlot
+     *     the passenger's slot
+     * @param stationId
+     *     the station where it happened
+     * @param trainId
+     *     the train involved or 0
+     */
+    void recordPassengerEvent( JournalEvent event,
+                               int passengerSlot,
+                               int stationId,
+                               int trainId )
+        {
+        this.passengerEventCount++ ;
+
+        if ( this.journal != null )
+            {
+            this.journal.append( this.currentTime,
+                                 event,
+                                 this.passengerStore.getSerial( passengerSlot ),
+                                 stationId,
+                                 trainId,
+                                 this.passengerStore.getDestinationId( passengerSlot ) ) ;
+            }
+        
+        }   // end recordPassengerEvent()
+
+
+    /**
+     * Record that a train arrived at or is leaving a station
+     * 
+     * @param event
+     *     what happened
+     * @param aTrain
+     *     the train
+     * @param aStation
+     *     the station
+     * @param passengerCount
+     *     the number of passengers on board at the time
+     */
+    void recordTrainEvent( JournalEvent event,
+                           Train aTrain,
+                           Station aStation,
+                           int passengerCount )
+        {
+        if ( this.journal != null )
+            {
+            this.journal.append( this.currentTime,
+                                 event,
+                                 0,
+                                 aStation.getId(),
+                                 aTrain.getId(),
+                                 passengerCount ) ;
+            }
+        
+        }   // end recordTrainEvent()
+    
+    
+    /**
+     * Utility method to retrieve the number of passenger events so far
+     * 
+     * @return the number of passenger enter/board/disembark/exit events
+     */
+    long getPassengerEventCount()
+        {
+        return this.passengerEventCount ;
+        
+        }   // end getPassengerEventCount()
+    
+    
+    /**
+     * Utility method to retrieve the passenger store
+     * 
+     * @return the store holding every passenger's stations and timestamps
+     */
+    public PassengerStore getPassengerStore()
+        {
+        return this.passengerStore ;
+        
+        }   // end getPassengerStore()
+    
+    
+    /**
+     * Utility method to retrieve the travel time statistics
+     * 
+     * @return the statistics recorded so far
+     */
+    public TravelStatistics getStatistics()
+        {
+        if ( this.statisticsRecorder != null )
+            {
+            this.statisticsRecorder.flush() ;
+            }
+
+        return this.statistics ;
+        
+        }   // end getStatistics()
+    
+    
     /**
      * Utility method to retrieve the current Random instance
      * 
@@ -275,18 +1045,58 @@ public final class TrainSimulation
      */
 
     /**
-     * Utility method to write simulation state into the log
+     * Utility method to write simulation state into the log - or, if a snapshot file
+     * is configured, into the snapshot file with a note in the log
      *
      * @param description
      *     brief introductory label
+     * @throws UncheckedIOException
+     *     if the snapshot file can't be created or written
      */
     private void logSnapshot( String description )
         {
+        if ( ! isLogging( LogCategory.SNAPSHOTS, LogLevel.INFO ) )
+            {
+            return ;
+            }
+
         // descriptive message
-        this.logger.printf( description ) ;
+        log( LogCategory.SNAPSHOTS, LogLevel.INFO, description ) ;
+
+        Path snapshotFile = this.options.getSnapshotFile() ;
+        if ( snapshotFile == null )
+            {
+            // log the route state
+            log( LogCategory.SNAPSHOTS, LogLevel.INFO, this.theRoute.describe() ) ;
 
-        // log the route state
-        this.logger.printf( this.theRoute.describe() ) ;
+            return ;
+            }
+
+        // stream the route state to the snapshot file
+        try
+            {
+            if ( this.snapshotWriter == null )
+                {
+                this.snapshotWriter = new SnapshotWriter( snapshotFile ) ;
+                }
+
+            long offset = this.snapshotWriter.size() ;
+            this.snapshotWriter.write( String.format( description ),
+                                       this.currentTime,
+                                       this.theRoute,
+                                       this.passengerStore ) ;
+
+            log( LogCategory.SNAPSHOTS,
+                 LogLevel.INFO,
+                 "snapshot %,d written to %s at offset %,d%n",
+                 this.snapshotWriter.getSnapshotCount(),
+                 snapshotFile,
+                 offset ) ;
+            }
+        catch ( IOException e )
+            {
+            throw new UncheckedIOException( e ) ;
+            }
 
         }   // end logSnapshot()
 
@@ -296,24 +1106,300 @@ public final class TrainSimulation
      */
     private void reportStatistics()
         {
-        // TODO implement this
+        if ( this.loggingEnabled )
+            {
+            System.out.printf( "%n%s", this.statistics ) ;
+            }
+
+        if ( isLogging( LogCategory.STATISTICS, LogLevel.INFO ) )
+            {
+            log( LogCategory.STATISTICS,
+                 LogLevel.INFO,
+                 "%n----------%n%nTravel times (ticks) by origin station and direction%n%n%s",
+                 this.statistics.describe( this.theRoute ) ) ;
+            }
         
         }   // end statistics()
 
 
     /**
-     * Runs the simulation
+     * Runs the simulation from the current time through the scenario's last tick,
+     * taking a checkpoint every time the time reaches a multiple of the checkpoint
+     * interval, and publishing the simulation's gauges while it runs if requested
      */
-    private void run()
+    void run()
         {
-        PairedLimit passengerCountLimits =
-                                        this.theConfiguration.getPassengers()[ Configuration.PASSENGERS_PER_TICK ] ;
-        
-        int ticks = this.theConfiguration.getTicks() ;
-        
-        // TODO complete this
+        if ( this.options.isMetricsPublished() )
+            {
+            this.metrics = new SimulationMetrics( this, this.options.getMetricsInterval() ) ;
+            }
 
-        }   // end run
+        try
+            {
+            runCheckpointed() ;
+            }
+        finally
+            {
+            if ( this.metrics != null )
+                {
+                this.metrics.close() ;
+                this.metrics = null ;
+                }
+            }
+
+        }   // end run()
+
+
+    /**
+     * Runs the simulation through the scenario's last tick, taking a checkpoint every
+     * time the time reaches a multiple of the checkpoint interval
+     */
+    private void runCheckpointed()
+        {
+        int ticks = this.theScenario.getTicks() ;
+        int interval = this.options.getCheckpointInterval() ;
+
+        if ( interval <= 0 )
+            {
+            runThrough( ticks ) ;
+            return ;
+            }
+
+        try ( Checkpointer theCheckpointer = new Checkpointer( this.options.getCheckpointFile() ) )
+            {
+            while ( this.currentTime < ticks )
+                {
+                // run to the next multiple of the interval
+                int nextCheckpoint = (int) Math.min( ( ( (long) this.currentTime / interval ) + 1 ) * interval,
+                                                     ticks ) ;
+                runThrough( nextCheckpoint ) ;
+
+                if ( ( nextCheckpoint % interval ) == 0 )
+                    {
+                    theCheckpointer.checkpoint( this ) ;
+
+                    if ( isLogging( LogCategory.SNAPSHOTS, LogLevel.INFO ) )
+                        {
+                        log( LogCategory.SNAPSHOTS,
+                             LogLevel.INFO,
+                             "%ncheckpoint %,d at time %,d queued for %s%n",
+                             theCheckpointer.getCheckpointCount(),
+                             this.currentTime,
+                             theCheckpointer.getCheckpointFile() ) ;
+                        }
+                    }
+                }
+            }
+        catch ( IOException e )
+            {
+            throw new UncheckedIOException( e ) ;
+            }
+
+        }   // end runCheckpointed()
+
+
+    /**
+     * Advance the simulation, with arriving passengers drawn and completed journeys
+     * recorded on background threads if requested
+     * 
+     * @param lastTick
+     *     the time to stop at
+     */
+    private void runThrough( int lastTick )
+        {
+        // the feed draws exactly through lastTick, so the pseudo-random number
+        // generator is where the single-threaded run leaves it for a checkpoint
+        if ( this.options.isConcurrentGeneration() )
+            {
+            this.passengerFeed = new PassengerFeed( this,
+                                                    lastTick,
+                                                    this.options.getGenerationLookahead() ) ;
+            }
+
+        if ( this.options.isConcurrentStatistics() )
+            {
+            this.statisticsRecorder = new StatisticsRecorder( this.statistics,
+                                                              STATISTICS_BUFFER_SIZE ) ;
+            }
+
+        try
+            {
+            advanceThrough( lastTick ) ;
+            }
+        finally
+            {
+            // both stages are idle between runs - checkpoints and reports see
+            // complete state
+            if ( this.passengerFeed != null )
+                {
+                this.passengerFeed.close() ;
+                this.passengerFeed = null ;
+                }
+
+            if ( this.statisticsRecorder != null )
+                {
+                this.statisticsRecorder.close() ;
+                this.statisticsRecorder = null ;
+                }
+            }
+
+        }   // end runThrough()
+
+
+    /**
+     * Advance the simulation with the selected engine
+     * 
+     * @param lastTick
+     *     the time to stop at
+     */
+    private void advanceThrough( int lastTick )
+        {
+        if ( this.options.getEngine() == SimulationOptions.Engine.EVENT )
+            {
+            new EventScheduler( this ).run( lastTick ) ;
+            return ;
+            }
+
+        if ( this.options.getEngine() == SimulationOptions.Engine.PARALLEL )
+            {
+            new ParallelTickEngine( this, this.options.getParallelism() ).run( lastTick ) ;
+            return ;
+            }
+
+        while ( this.currentTime < lastTick )
+            {
+            tick() ;
+            }
+
+        }   // end advanceThrough()
+
+
+    /**
+     * Append the complete simulation state to a checkpoint: the clock, the
+     * pseudo-random number generator, every passenger, the travel statistics and
+     * the route's stations and trains
+     * 
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        state.putInt( this.currentTime ) ;
+        state.putLong( this.passengerEventCount ) ;
+        state.putInt( this.nextRouteId ) ;
+
+        // Random keeps its state private but is serializable
+        ByteArrayOutputStream randomState = new ByteArrayOutputStream() ;
+        try ( ObjectOutputStream out = new ObjectOutputStream( randomState ) )
+            {
+            out.writeObject( this.pseudoRandom ) ;
+            }
+        catch ( IOException e )
+            {
+            throw new UncheckedIOException( e ) ;
+            }
+        state.putBytes( randomState.toByteArray() ) ;
+
+        this.passengerStore.saveState( state ) ;
+        this.statistics.saveState( state ) ;
+        this.theRoute.saveState( state ) ;
+
+        }   // end saveState()
+
+
+    /**
+     * Replace the simulation state with a checkpoint's - the simulation must have
+     * been built from the scenario the checkpoint was taken of
+     * 
+     * @param state
+     *     the checkpoint to restore
+     * @throws IOException
+     *     if the pseudo-random number generator's state can't be decoded
+     * @throws IllegalStateException
+     *     if the checkpoint was taken of a different scenario
+     */
+    private void restoreState( CheckpointBuffer state ) throws IOException
+        {
+        this.currentTime = state.getInt() ;
+        this.passengerEventCount = state.getLong() ;
+        state.expectInt( this.nextRouteId, "next route id" ) ;
+
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( state.getBytes() ) ) )
+            {
+            this.pseudoRandom = (Random) in.readObject() ;
+            }
+        catch ( ClassNotFoundException | ClassCastException e )
+            {
+            throw new IOException( "checkpoint holds no pseudo-random number generator", e ) ;
+            }
+
+        this.passengerStore.restoreState( state ) ;
+        this.statistics.restoreState( state ) ;
+        this.theRoute.restoreState( state ) ;
+
+        }   // end restoreState()
+
+
+    /**
+     * Advance the simulation by one tick: generate arriving passengers, then move
+     * every train and service any that reach a station
+     */
+    void tick()
+        {
+        SimulationEvents.TickEvent tickEvent = null ;
+        if ( SimulationEvents.isRecording() )
+            {
+            tickEvent = new SimulationEvents.TickEvent() ;
+            tickEvent.begin() ;
+            }
+
+        this.currentTime++ ;
+
+        generateTickPassengers() ;
+
+        int trainCount = this.theRoute.getTrainCount() ;
+        for ( int trainId = 1 ; trainId <= trainCount ; trainId++ )
+            {
+            Train aTrain = this.theRoute.getTrain( trainId ) ;
+
+            Station aStation = aTrain.move() ;
+            if ( aStation != null )
+                {
+                aTrain.atStation( aStation ) ;
+                }
+            }
+
+        if ( ( tickEvent != null ) && tickEvent.shouldCommit() )
+            {
+            tickEvent.tick = this.currentTime ;
+            tickEvent.engine = SimulationOptions.Engine.TICK.name() ;
+            tickEvent.commit() ;
+            }
+
+        }   // end tick()
+
+
+    /**
+     * Generate the passengers arriving during the current tick
+     */
+    void generateTickPassengers()
+        {
+        // the previous tick is complete in every engine
+        if ( this.metrics != null )
+            {
+            this.metrics.tickBoundary( this.currentTime - 1 ) ;
+            }
+
+        if ( this.passengerFeed != null )
+            {
+            // drawn ahead of time by the feed's generator thread
+            this.passengerFeed.admit( this.currentTime ) ;
+            return ;
+            }
+
+        createPassengers( drawTickPassengerCount( this.currentTime ) ) ;
+
+        }   // end generateTickPassengers()
 
 
     /**
@@ -322,34 +1408,50 @@ public final class TrainSimulation
      */
     private void setup()
         {
-        this.logger.printf( "Setting up:%n" ) ;
-
         /*
          * create the route(s)
          */
-        this.logger.printf( "%nCreating %,d route%s:%n%n", 1, "" ) ;
+        this.theRoute = new TrainRoute( this,
+                                        this.theScenario.getStyle(),
+                                        this.theScenario.getLength() ) ;
 
-        // create the route for the specified configuration
-        this.theRoute = new TrainRoute( this.theConfiguration.getRoute() ) ;
+        // describing every entity as it's created dominates startup for short runs
+        boolean describing = this.options.isSetupDescribed() &&
+                             isLogging( LogCategory.SETUP, LogLevel.DEBUG ) ;
 
-        this.logger.printf( this.theRoute.describe() ) ;
+        if ( isLogging( LogCategory.SETUP, LogLevel.INFO ) )
+            {
+            log( LogCategory.SETUP, LogLevel.INFO, "Setting up:%n" ) ;
+            log( LogCategory.SETUP, LogLevel.INFO, "%nCreating %,d route%s:%n%n", 1, "" ) ;
+            if ( this.options.isSetupDescribed() )
+                {
+                log( LogCategory.SETUP, LogLevel.INFO, this.theRoute.describe() ) ;
+                }
+            }
 
         /*
          * add the stations
          */
-        int numberOfStations = this.theConfiguration.getStations().length ;
+        int[] stationPositions = this.theScenario.getStationPositions() ;
+        int numberOfStations = stationPositions.length ;
 
-        this.logger.printf( "%nCreating %,d station%s:%n%n",
-                            numberOfStations,
-                            ( numberOfStations == 1
-                                ? ""
-                                : "s" ) ) ;
+        if ( isLogging( LogCategory.SETUP, LogLevel.INFO ) )
+            {
+            log( LogCategory.SETUP, LogLevel.INFO, "%nCreating %,d station%s:%n%n",
+                                numberOfStations,
+                                ( numberOfStations == 1
+                                    ? ""
+                                    : "s" ) ) ;
+            }
 
-        for ( int stationLocation : this.theConfiguration.getStations() )
+        for ( int stationLocation : stationPositions )
             {
             Station newStation = new Station( this.theRoute, stationLocation ) ;
 
-            this.logger.printf( newStation.describe() ) ;
+            if ( describing )
+                {
+                log( LogCategory.SETUP, LogLevel.DEBUG, newStation.describe() ) ;
+                }
 
             this.theRoute.addStation( newStation ) ;
             }
@@ -357,19 +1459,28 @@ public final class TrainSimulation
         /*
          * add the trains
          */
-        int numberOfTrains = this.theConfiguration.getTrains().length ;
+        int numberOfTrains = this.theScenario.getTrainCount() ;
 
-        this.logger.printf( "%nCreating %,d train%s:%n%n",
-                            numberOfTrains,
-                            ( numberOfTrains == 1
-                                ? ""
-                                : "s" ) ) ;
+        if ( isLogging( LogCategory.SETUP, LogLevel.INFO ) )
+            {
+            log( LogCategory.SETUP, LogLevel.INFO, "%nCreating %,d train%s:%n%n",
+                                numberOfTrains,
+                                ( numberOfTrains == 1
+                                    ? ""
+                                    : "s" ) ) ;
+            }
 
-        for ( TrainSpecification trainSpecification : this.theConfiguration.getTrains() )
+        for ( int trainIndex = 0 ; trainIndex < numberOfTrains ; trainIndex++ )
             {
-            Train newTrain = new Train( this.theRoute, trainSpecification ) ;
+            Train newTrain = new Train( this.theRoute,
+                                        this.theScenario.getTrainPosition( trainIndex ),
+                                        this.theScenario.getTrainDirection( trainIndex ),
+                                        this.theScenario.getTrainCapacity( trainIndex ) ) ;
 
-            this.logger.printf( newTrain.describe() ) ;
+            if ( describing )
+                {
+                log( LogCategory.SETUP, LogLevel.DEBUG, newTrain.describe() ) ;
+                }
 
             this.theRoute.addTrain( newTrain ) ;
             }
@@ -377,10 +1488,8 @@ public final class TrainSimulation
         /*
          * populate the stations with the initial set of passengers
          */
-        createPassengers( this.theConfiguration.getPassengers()[ Configuration.PASSENGERS_INITIAL ] ) ;
-
-        // log the starting configuration
-        logSnapshot( "%n----------%n%nStarting state%n" ) ;
+        createPassengers( this.theScenario.getInitialPassengersMinimum(),
+                          this.theScenario.getInitialPassengersMaximum() ) ;
 
         }   // end setup()
 
@@ -425,7 +1534,7 @@ public final class TrainSimulation
             // flush the log and release the resources
             if ( theSimulation != null )
                 {
-                theSimulation.logger.close() ;
+                theSimulation.closeLog() ;
                 }
             }
 
@@ -0,0 +1,491 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Configuration ;
+
+import java.io.IOException ;
+import java.lang.management.ManagementFactory ;
+import java.lang.management.ThreadMXBean ;
+import java.nio.file.Path ;
+import java.util.Arrays ;
+
+/**
+ * Headless benchmark suite for the simulation tick loop. Each scenario in a grid of
+ * station counts, train counts and passenger-per-tick rates is built, warmed up and
+ * then measured over several iterations. For each scenario the suite reports:
+ * <ul>
+ * <li>ticks/sec for full ticks ({@code TrainSimulation.tick()})</li>
+ * <li>ns per passenger event (enter, board, disembark, exit)</li>
+ * <li>bytes allocated per tick</li>
+ * <li>ns per call for {@code Train.move()}, {@code Train.atStation()} and
+ * {@code TrainSimulation.createPassengers()} in isolation</li>
+ * </ul>
+ * If {@code trainsimulation.config.file} names the configuration file, startup is
+ * measured too: parsing the configuration, loading it from the compiled
+ * configuration cache, and building the simulation from it.
+ * <p>
+ * Seeds come from {@code Configuration.getSeed()} so runs are repeatable.
+ * <p>
+ * Usage: {@code TrainSimulationBenchmark [stations=10,100,1000] [trains=2,16,128]
+ * [rates=1,10,100] [ticks=2000] [warmup=3] [iterations=5] [startups=200]}
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 startup measurement
+ */
+public final class TrainSimulationBenchmark
+    {
+
+    /** distance between adjacent stations in generated scenarios */
+    private static final int STATION_SPACING = 10 ;
+
+    /** capacity of every train in generated scenarios */
+    private static final int TRAIN_CAPACITY = 200 ;
+
+    /** allocation counter for the current thread if the JVM supports it */
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MONITOR ;
+
+    static
+        {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean() ;
+
+        if ( ( threadBean instanceof com.sun.management.ThreadMXBean ) &&
+             ( (com.sun.management.ThreadMXBean) threadBean ).isThreadAllocatedMemorySupported() )
+            {
+            ALLOCATION_MONITOR = (com.sun.management.ThreadMXBean) threadBean ;
+            ALLOCATION_MONITOR.setThreadAllocatedMemoryEnabled( true ) ;
+            }
+        else
+            {
+            ALLOCATION_MONITOR = null ;
+            }
+
+        }   // end static initializer
+
+    // benchmark parameters
+    private int[] stationCounts = { 10, 100, 1_000 } ;
+    private int[] trainCounts = { 2, 16, 128 } ;
+    private int[] passengerRates = { 1, 10, 100 } ;
+
+    private int ticksPerIteration = 2_000 ;
+    private int warmupIterations = 3 ;
+    private int measurementIterations = 5 ;
+    private int startupIterations = 200 ;
+
+    private long seed ;
+
+
+    /**
+     * @param seed
+     *     seed used for every scenario
+     */
+    TrainSimulationBenchmark( long seed )
+        {
+        this.seed = seed ;
+
+        }   // end constructor
+
+
+    /**
+     * Apply {@code name=value[,value...]} command line settings
+     *
+     * @param args
+     *     the command line arguments
+     * @throws IllegalArgumentException
+     *     if an argument isn't recognized
+     */
+    void configure( String[] args )
+        {
+        for ( String anArgument : args )
+            {
+            int separator = anArgument.indexOf( '=' ) ;
+            if ( separator < 0 )
+                {
+                throw new IllegalArgumentException( "expected name=value: " + anArgument ) ;
+                }
+
+            String name = anArgument.substring( 0, separator ) ;
+            int[] values = Arrays.stream( anArgument.substring( separator + 1 ).split( "," ) )
+                                 .mapToInt( Integer::parseInt )
+                                 .toArray() ;
+
+            switch ( name )
+                {
+                case "stations":
+                    this.stationCounts = values ;
+                    break ;
+
+                case "trains":
+                    this.trainCounts = values ;
+                    break ;
+
+                case "rates":
+                    this.passengerRates = values ;
+                    break ;
+
+                case "ticks":
+                    this.ticksPerIteration = values[ 0 ] ;
+                    break ;
+
+                case "warmup":
+                    this.warmupIterations = values[ 0 ] ;
+                    break ;
+
+                case "iterations":
+                    this.measurementIterations = values[ 0 ] ;
+                    break ;
+
+                case "startups":
+                    this.startupIterations = values[ 0 ] ;
+                    break ;
+
+                default:
+                    throw new IllegalArgumentException( "unknown setting: " + name ) ;
+                }
+            }
+
+        }   // end configure()
+
+
+    /**
+     * Measure every scenario in the grid and print one result line per scenario
+     */
+    void runAll()
+        {
+        System.out.printf( "%8s %7s %6s | %12s %10s %12s | %10s %12s %14s%n",
+                           "stations",
+                           "trains",
+                           "rate",
+                           "ticks/sec",
+                           "ns/event",
+                           "bytes/tick",
+                           "move ns",
+                           "atStation ns",
+                           "generate ns" ) ;
+
+        for ( int stationCount : this.stationCounts )
+            {
+            for ( int trainCount : this.trainCounts )
+                {
+                for ( int passengerRate : this.passengerRates )
+                    {
+                    Scenario aScenario ;
+                    try
+                        {
+                        aScenario = Scenario.uniform( stationCount,
+                                                      STATION_SPACING,
+                                                      trainCount,
+                                                      TRAIN_CAPACITY,
+                                                      passengerRate,
+                                                      this.ticksPerIteration,
+                                                      this.seed ) ;
+                        }
+                    catch ( IllegalArgumentException e )
+                        {
+                        System.out.printf( "%,8d %,7d %,6d | skipped: %s%n",
+                                           stationCount,
+                                           trainCount,
+                                           passengerRate,
+                                           e.getMessage() ) ;
+                        continue ;
+                        }
+
+                    measure( aScenario ) ;
+                    }
+                }
+            }
+
+        }   // end runAll()
+
+
+    /**
+     * Warm up then measure one scenario
+     *
+     * @param aScenario
+     *     the scenario to measure
+     */
+    private void measure( Scenario aScenario )
+        {
+        for ( int i = 0 ; i < this.warmupIterations ; i++ )
+            {
+            measureTicks( aScenario ) ;
+            measureOperations( aScenario ) ;
+            }
+
+        double[] ticksPerSecond = new double[ this.measurementIterations ] ;
+        double[] nanosPerEvent = new double[ this.measurementIterations ] ;
+        double[] bytesPerTick = new double[ this.measurementIterations ] ;
+        double[] moveNanos = new double[ this.measurementIterations ] ;
+        double[] atStationNanos = new double[ this.measurementIterations ] ;
+        double[] generateNanos = new double[ this.measurementIterations ] ;
+
+        for ( int i = 0 ; i < this.measurementIterations ; i++ )
+            {
+            double[] tickResults = measureTicks( aScenario ) ;
+            ticksPerSecond[ i ] = tickResults[ 0 ] ;
+            nanosPerEvent[ i ] = tickResults[ 1 ] ;
+            bytesPerTick[ i ] = tickResults[ 2 ] ;
+
+            double[] operationResults = measureOperations( aScenario ) ;
+            moveNanos[ i ] = operationResults[ 0 ] ;
+            atStationNanos[ i ] = operationResults[ 1 ] ;
+            generateNanos[ i ] = operationResults[ 2 ] ;
+            }
+
+        System.out.printf( "%,8d %,7d %,6d | %,12.0f %,10.1f %,12.0f | %,10.1f %,12.1f %,14.1f%n",
+                           aScenario.getStationCount(),
+                           aScenario.getTrainCount(),
+                           aScenario.getPerTickPassengersMaximum(),
+                           mean( ticksPerSecond ),
+                           mean( nanosPerEvent ),
+                           mean( bytesPerTick ),
+                           mean( moveNanos ),
+                           mean( atStationNanos ),
+                           mean( generateNanos ) ) ;
+
+        }   // end measure()
+
+
+    /**
+     * Time full ticks on a freshly built simulation
+     *
+     * @param aScenario
+     *     the scenario to measure
+     * @return { ticks/sec, ns/passenger event, bytes allocated/tick }
+     */
+    private double[] measureTicks( Scenario aScenario )
+        {
+        TrainSimulation theSimulation = new TrainSimulation( aScenario ) ;
+
+        int ticks = aScenario.getTicks() ;
+        long startingEvents = theSimulation.getPassengerEventCount() ;
+        long startingBytes = allocatedBytes() ;
+        long startTime = System.nanoTime() ;
+
+        for ( int tick = 1 ; tick <= ticks ; tick++ )
+            {
+            theSimulation.tick() ;
+            }
+
+        long elapsedTime = System.nanoTime() - startTime ;
+        long allocated = allocatedBytes() - startingBytes ;
+        long events = theSimulation.getPassengerEventCount() - startingEvents ;
+
+        return new double[] { ( ticks * 1e9 ) / elapsedTime,
+                              events == 0
+                                  ? Double.NaN
+                                  : (double) elapsedTime / events,
+                              ALLOCATION_MONITOR == null
+                                  ? Double.NaN
+                                  : (double) allocated / ticks } ;
+
+        }   // end measureTicks()
+
+
+    /**
+     * Time {@code Train.move()}, {@code Train.atStation()} and
+     * {@code createPassengers()} individually on a freshly built simulation -
+     * {@code atStation()} is timed per stop, at the station each train stops at
+     *
+     * @param aScenario
+     *     the scenario to measure
+     * @return { ns/move, ns/atStation, ns/createPassengers }
+     */
+    private double[] measureOperations( Scenario aScenario )
+        {
+        TrainSimulation theSimulation = new TrainSimulation( aScenario ) ;
+        TrainRoute theRoute = theSimulation.getTrainRoute() ;
+        Train[] theTrains = theRoute.getTrains() ;
+
+        int rounds = aScenario.getTicks() ;
+        long sink = 0 ;
+
+        // passenger generation
+        long startTime = System.nanoTime() ;
+        for ( int round = 0 ; round < rounds ; round++ )
+            {
+            theSimulation.setCurrentTime( round + 1 ) ;
+            theSimulation.createPassengers( aScenario.getPerTickPassengersMinimum(),
+                                            aScenario.getPerTickPassengersMaximum() ) ;
+            }
+        double generateNanos = (double) ( System.nanoTime() - startTime ) / rounds ;
+
+        // train movement
+        startTime = System.nanoTime() ;
+        for ( int round = 0 ; round < rounds ; round++ )
+            {
+            for ( Train aTrain : theTrains )
+                {
+                if ( aTrain.move() != null )
+                    {
+                    sink++ ;
+                    }
+                }
+            }
+        double moveNanos = (double) ( System.nanoTime() - startTime ) /
+                           ( (long) rounds * theTrains.length ) ;
+
+        // station service - keep moving the trains and time only the stops, each at
+        // the station the train has just reached
+        long serviceNanos = 0 ;
+        long stops = 0 ;
+        for ( int round = 0 ; round < rounds ; round++ )
+            {
+            for ( Train aTrain : theTrains )
+                {
+                Station aStation = aTrain.move() ;
+                if ( aStation != null )
+                    {
+                    startTime = System.nanoTime() ;
+                    aTrain.atStation( aStation ) ;
+                    serviceNanos += System.nanoTime() - startTime ;
+                    stops++ ;
+                    }
+                }
+            }
+        double atStationNanos = stops == 0
+                                    ? Double.NaN
+                                    : (double) serviceNanos / stops ;
+
+        return new double[] { moveNanos, atStationNanos, generateNanos } ;
+
+        }   // end measureOperations()
+
+
+    /**
+     * Time startup and print one result line: parsing the configuration, loading
+     * it from the compiled configuration cache, and building a headless simulation
+     * from it
+     *
+     * @param configurationFile
+     *     the text configuration file {@code Configuration} reads
+     * @param cacheDirectory
+     *     the folder holding compiled configurations
+     * @throws IOException
+     *     if the configuration can't be read or the cache can't be written
+     */
+    void measureStartup( Path configurationFile,
+                         Path cacheDirectory ) throws IOException
+        {
+        if ( this.startupIterations <= 0 )
+            {
+            return ;
+            }
+
+        // warm up both paths - this also compiles the configuration into the cache
+        for ( int i = 0 ; i < this.startupIterations ; i++ )
+            {
+            Scenario.fromConfiguration( new Configuration() ) ;
+            new TrainSimulation( ScenarioCache.load( configurationFile, cacheDirectory ) ) ;
+            }
+
+        long parseNanos = 0 ;
+        long cachedNanos = 0 ;
+        long setupNanos = 0 ;
+
+        for ( int i = 0 ; i < this.startupIterations ; i++ )
+            {
+            long startTime = System.nanoTime() ;
+            Scenario.fromConfiguration( new Configuration() ) ;
+            parseNanos += System.nanoTime() - startTime ;
+
+            startTime = System.nanoTime() ;
+            Scenario cachedScenario = ScenarioCache.load( configurationFile, cacheDirectory ) ;
+            cachedNanos += System.nanoTime() - startTime ;
+
+            startTime = System.nanoTime() ;
+            new TrainSimulation( cachedScenario ) ;
+            setupNanos += System.nanoTime() - startTime ;
+            }
+
+        System.out.printf( "%nstartup (us): %,10.1f parse | %,10.1f cached | %,10.1f setup%n",
+                           parseNanos / 1e3 / this.startupIterations,
+                           cachedNanos / 1e3 / this.startupIterations,
+                           setupNanos / 1e3 / this.startupIterations ) ;
+
+        }   // end measureStartup()
+
+
+    /**
+     * @return bytes allocated so far by the current thread or 0 if unsupported
+     */
+    private static long allocatedBytes()
+        {
+        return ALLOCATION_MONITOR == null
+                    ? 0
+                    : ALLOCATION_MONITOR.getThreadAllocatedBytes( Thread.currentThread()
+                                                                        .getId() ) ;
+
+        }   // end allocatedBytes()
+
+
+    /**
+     * @param values
+     *     the samples
+     * @return the arithmetic mean of the samples
+     */
+    private static double mean( double[] values )
+        {
+        double sum = 0 ;
+        for ( double value : values )
+            {
+            sum += value ;
+            }
+
+        return sum / values.length ;
+
+        }   // end mean()
+
+
+    /**
+     * Benchmark driver
+     *
+     * @param args
+     *     optional {@code name=value[,value...]} settings
+     * @throws IOException
+     *     if the configuration file doesn't exist or can't be opened for read access
+     *     or the compiled configuration cache can't be written
+     */
+    public static void main( String[] args ) throws IOException
+        {
+        long seed = new Configuration().getSeed() ;
+
+        TrainSimulationBenchmark theBenchmark = new TrainSimulationBenchmark( seed ) ;
+        theBenchmark.configure( args ) ;
+
+        System.out.printf( "TrainSimulation benchmark (seed %,d)%n%n", seed ) ;
+        theBenchmark.runAll() ;
+
+        SimulationOptions theOptions = SimulationOptions.fromSystemProperties() ;
+        if ( theOptions.getConfigurationFile() != null )
+            {
+            theBenchmark.measureStartup( theOptions.getConfigurationFile(),
+                                         theOptions.getConfigurationCache() ) ;
+            }
+
+        }   // end main()
+
+    }   // end class TrainSimulationBenchmark
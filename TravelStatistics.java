@@ -0,0 +1,378 @@
+/* @formatter:off
+ *
+ * Dave Rosenberg
+ * Comp 2000 - Data Structures
+ * Lab: Queue App
+ * Fall, 2021
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post nor otherwise share this code with anyone other than
+ * current students in my sections of this course. Violation of these usage
+ * restrictions will be considered a violation of the Wentworth Institute of
+ * Technology Academic Honesty Policy.
+ *
+ * Do not remove this notice.
+ *
+ * @formatter:on
+ */
+
+package edu.wit.scds.comp2000.queue.app ;
+
+import edu.wit.scds.comp2000.queue.app.utilities.Direction ;
+
+import java.util.Arrays ;
+
+/**
+ * Streaming travel time statistics for a simulation. Each passenger's waiting, riding
+ * and total times are recorded into histograms when they exit, for the whole
+ * simulation and for the station and direction they travelled from, so nothing about
+ * the passenger needs to be kept afterwards.
+ * <p>
+ * Memory depends only on the number of stations: each (station, direction) pair has
+ * three fixed-size histograms, created the first time a passenger travels from there.
+ *
+ * @author Your Name
+ * @version 1.0.0 2026-10-18 initial implementation
+ * @version 1.1.0 2026-10-18 checkpoint save and restore
+ */
+public final class TravelStatistics
+    {
+
+    // the whole simulation
+    private final LogBucketHistogram waiting = new LogBucketHistogram() ;
+    private final LogBucketHistogram riding = new LogBucketHistogram() ;
+    private final LogBucketHistogram total = new LogBucketHistogram() ;
+
+    // per origin station and direction, indexed by [ track ][ station id ]
+    private LogBucketHistogram[][] waitingFrom ;
+    private LogBucketHistogram[][] ridingFrom ;
+    private LogBucketHistogram[][] totalFrom ;
+
+
+    /**
+     * @param stationCount
+     *     the number of stations expected - more are accommodated if needed
+     */
+    public TravelStatistics( int stationCount )
+        {
+        this.waitingFrom = new LogBucketHistogram[ 2 ][ stationCount + 1 ] ;
+        this.ridingFrom = new LogBucketHistogram[ 2 ][ stationCount + 1 ] ;
+        this.totalFrom = new LogBucketHistogram[ 2 ][ stationCount + 1 ] ;
+
+        }   // end constructor
+
+
+    /**
+     * Record a completed journey
+     * 
+     * @param originId
+     *     the id of the station the passenger started at
+     * @param travelDirection
+     *     the direction the passenger travelled
+     * @param timeWaiting
+     *     ticks spent waiting for a train
+     * @param timeRiding
+     *     ticks spent on a train
+     * @param totalTime
+     *     ticks from entering the origin to exiting the destination
+     */
+    public void record( int originId,
+                        Direction travelDirection,
+                        int timeWaiting,
+                        int timeRiding,
+                        int totalTime )
+        {
+        this.waiting.record( timeWaiting ) ;
+        this.riding.record( timeRiding ) ;
+        this.total.record( totalTime ) ;
+
+        int track = RouteTopology.trackIndex( travelDirection ) ;
+        if ( track < 0 )
+            {
+            return ;
+            }
+
+        if ( originId >= this.waitingFrom[ track ].length )
+            {
+            grow( originId ) ;
+            }
+
+        if ( this.waitingFrom[ track ][ originId ] == null )
+            {
+            this.waitingFrom[ track ][ originId ] = new LogBucketHistogram() ;
+            this.ridingFrom[ track ][ originId ] = new LogBucketHistogram() ;
+            this.totalFrom[ track ][ originId ] = new LogBucketHistogram() ;
+            }
+
+        this.waitingFrom[ track ][ originId ].record( timeWaiting ) ;
+        this.ridingFrom[ track ][ originId ].record( timeRiding ) ;
+        this.totalFrom[ track ][ originId ].record( totalTime ) ;
+
+        }   // end record()
+
+
+    /**
+     * Make room for a station id
+     * 
+     * @param stationId
+     *     the largest station id to accommodate
+     */
+    private void grow( int stationId )
+        {
+        int newLength = Math.max( stationId + 1, this.waitingFrom[ 0 ].length * 2 ) ;
+
+        for ( int track = 0 ; track < 2 ; track++ )
+            {
+            this.waitingFrom[ track ] = Arrays.copyOf( this.waitingFrom[ track ], newLength ) ;
+            this.ridingFrom[ track ] = Arrays.copyOf( this.ridingFrom[ track ], newLength ) ;
+            this.totalFrom[ track ] = Arrays.copyOf( this.totalFrom[ track ], newLength ) ;
+            }
+
+        }   // end grow()
+
+
+    /**
+     * Append every histogram to a checkpoint
+     *
+     * @param state
+     *     the checkpoint being captured
+     */
+    void saveState( CheckpointBuffer state )
+        {
+        this.waiting.saveState( state ) ;
+        this.riding.saveState( state ) ;
+        this.total.saveState( state ) ;
+
+        int stationSlots = this.waitingFrom[ 0 ].length ;
+        state.putInt( stationSlots ) ;
+
+        for ( int track = 0 ; track < 2 ; track++ )
+            {
+            for ( int originId = 0 ; originId < stationSlots ; originId++ )
+                {
+                if ( this.waitingFrom[ track ][ originId ] == null )
+                    {
+                    state.putInt( 0 ) ;
+                    continue ;
+                    }
+
+                state.putInt( 1 ) ;
+                this.waitingFrom[ track ][ originId ].saveState( state ) ;
+                this.ridingFrom[ track ][ originId ].saveState( state ) ;
+                this.totalFrom[ track ][ originId ].saveState( state ) ;
+                }
+            }
+
+        }   // end saveState()
+
+
+    /**
+     * Replace every histogram with those saved by {@code saveState()}
+     *
+     * @param state
+     *     the checkpoint being restored
+     */
+    void restoreState( CheckpointBuffer state )
+        {
+        this.waiting.restoreState( state ) ;
+        this.riding.restoreState( state ) ;
+        this.total.restoreState( state ) ;
+
+        int stationSlots = state.getInt() ;
+        this.waitingFrom = new LogBucketHistogram[ 2 ][ stationSlots ] ;
+        this.ridingFrom = new LogBucketHistogram[ 2 ][ stationSlots ] ;
+        this.totalFrom = new LogBucketHistogram[ 2 ][ stationSlots ] ;
+
+        for ( int track = 0 ; track < 2 ; track++ )
+            {
+            for ( int originId = 0 ; originId < stationSlots ; originId++ )
+                {
+                if ( state.getInt() == 0 )
+                    {
+                    continue ;
+                    }
+
+                this.waitingFrom[ track ][ originId ] = new LogBucketHistogram() ;
+                this.ridingFrom[ track ][ originId ] = new LogBucketHistogram() ;
+                this.totalFrom[ track ][ originId ] = new LogBucketHistogram() ;
+
+                this.waitingFrom[ track ][ originId ].restoreState( state ) ;
+                this.ridingFrom[ track ][ originId ].restoreState( state ) ;
+                this.totalFrom[ track ][ originId ].restoreState( state ) ;
+                }
+            }
+
+        }   // end restoreState()
+
+
+    /*
+     * getters
+     */
+
+
+    /**
+     * @return waiting times for the whole simulation
+     */
+    public LogBucketHistogram getWaiting()
+        {
+        return this.waiting ;
+
+        }   // end getWaiting()
+
+
+    /**
+     * @return riding times for the whole simulation
+     */
+    public LogBucketHistogram getRiding()
+        {
+        return this.riding ;
+
+        }   // end getRiding()
+
+
+    /**
+     * @return total travel times for the whole simulation
+     */
+    public LogBucketHistogram getTotal()
+        {
+        return this.total ;
+
+        }   // end getTotal()
+
+
+    /**
+     * @param originId
+     *     a station id
+     * @param travelDirection
+     *     a direction of travel
+     * @return waiting times for passengers who travelled from the station in the
+     *     direction or {@code null} if there were none
+     */
+    public LogBucketHistogram getWaiting( int originId, Direction travelDirection )
+        {
+        return lookup( this.waitingFrom, originId, travelDirection ) ;
+
+        }   // end getWaiting()
+
+
+    /**
+     * @param originId
+     *     a station id
+     * @param travelDirection
+     *     a direction of travel
+     * @return riding times for passengers who travelled from the station in the
+     *     direction or {@code null} if there were none
+     */
+    public LogBucketHistogram getRiding( int originId, Direction travelDirection )
+        {
+        return lookup( this.ridingFrom, originId, travelDirection ) ;
+
+        }   // end getRiding()
+
+
+    /**
+     * @param originId
+     *     a station id
+     * @param travelDirection
+     *     a direction of travel
+     * @return total travel times for passengers who travelled from the station in the
+     *     direction or {@code null} if there were none
+     */
+    public LogBucketHistogram getTotal( int originId, Direction travelDirection )
+        {
+        return lookup( this.totalFrom, originId, travelDirection ) ;
+
+        }   // end getTotal()
+
+
+    /**
+     * @param histograms
+     *     per station and direction histograms
+     * @param originId
+     *     a station id
+     * @param travelDirection
+     *     a direction of travel
+     * @return the histogram or {@code null} if there isn't one
+     */
+    private static LogBucketHistogram lookup( LogBucketHistogram[][] histograms,
+                                              int originId,
+                                              Direction travelDirection )
+        {
+        int track = RouteTopology.trackIndex( travelDirection ) ;
+
+        if ( ( track < 0 ) || ( originId < 0 ) || ( originId >= histograms[ track ].length ) )
+            {
+            return null ;
+            }
+
+        return histograms[ track ][ originId ] ;
+
+        }   // end lookup()
+
+
+    /**
+     * Superset of functionality of {@code toString()} which includes the per station
+     * and direction histograms
+     * 
+     * @param theRoute
+     *     the route the stations are on
+     * @return all statistics formatted for human consumption
+     */
+    public String describe( TrainRoute theRoute )
+        {
+        StringBuilder fullDescription = new StringBuilder( toString() ) ;
+
+        for ( int stationId = 1 ; stationId <= theRoute.getStationCount() ; stationId++ )
+            {
+            Station aStation = theRoute.getStation( stationId ) ;
+
+            for ( Direction aDirection : aStation.getPlatformDirections() )
+                {
+                LogBucketHistogram stationWaiting = getWaiting( stationId, aDirection ) ;
+
+                if ( stationWaiting == null )
+                    {
+                    continue ;
+                    }
+
+                fullDescription.append( String.format( "%n%s %s:%n" +
+                                                       "    waiting: %s%n" +
+                                                       "    riding:  %s%n" +
+                                                       "    total:   %s%n",
+                                                       aStation,
+                                                       aDirection,
+                                                       stationWaiting,
+                                                       getRiding( stationId, aDirection ),
+                                                       getTotal( stationId, aDirection ) ) ) ;
+                }
+            }
+
+        return fullDescription.toString() ;
+
+        }   // end describe()
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+        {
+        return String.format( "All passengers:%n" +
+                              "    waiting: %s%n" +
+                              "    riding:  %s%n" +
+                              "    total:   %s%n",
+                              this.waiting,
+                              this.riding,
+                              this.total ) ;
+
+        }   // end toString()
+
+    }   // end class TravelStatistics